@@ -0,0 +1,30 @@
+package com.vibe.common.core.utils;
+
+/**
+ * ID生成器
+ * 实现：{@link SnowflakeIdGenerator}（趋势递增，依赖时钟）、{@link SegmentIdGenerator}（号段模式，连续递增，不依赖时钟）
+ */
+public interface IdGenerator {
+
+    /**
+     * 生成ID
+     */
+    long nextId();
+
+    /**
+     * 批量生成ID
+     *
+     * @param n 数量
+     * @return 递增的ID
+     */
+    default long[] nextIds(int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("n can't be less than 0");
+        }
+        long[] ids = new long[n];
+        for (int i = 0; i < n; i++) {
+            ids[i] = nextId();
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,122 @@
+package com.vibe.common.core.utils;
+
+import java.math.BigInteger;
+import java.security.AlgorithmParameters;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.ECParameterSpec;
+import java.security.spec.ECPoint;
+import java.security.spec.ECPublicKeySpec;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JWKS（RFC 7517）格式的 ES256 公钥集合与 {@link ECPublicKey} 之间的转换
+ * 用户服务通过 JWKS 接口公开验签公钥，网关等验签方定期拉取后构建只验签的 {@link JwtKeyRing}，不需要持有签名私钥。
+ */
+public final class Jwks {
+
+    /**
+     * P-256 坐标长度（字节）
+     */
+    private static final int COORDINATE_BYTES = 32;
+
+    private static final ECParameterSpec P256 = p256();
+
+    private Jwks() {
+    }
+
+    /**
+     * 公钥转换为 JWKS
+     *
+     * @param publicKeys 密钥ID → 公钥
+     * @return {"keys": [{"kty": "EC", "crv": "P-256", "kid": ..., "x": ..., "y": ...}]}
+     */
+    public static Map<String, Object> toJwks(Map<String, ECPublicKey> publicKeys) {
+        List<Map<String, String>> keys = new ArrayList<>(publicKeys.size());
+        publicKeys.forEach((keyId, publicKey) -> {
+            Map<String, String> jwk = new LinkedHashMap<>();
+            jwk.put("kty", "EC");
+            jwk.put("crv", "P-256");
+            jwk.put("kid", keyId);
+            jwk.put("use", "sig");
+            jwk.put("alg", "ES256");
+            jwk.put("x", encode(publicKey.getW().getAffineX()));
+            jwk.put("y", encode(publicKey.getW().getAffineY()));
+            keys.add(jwk);
+        });
+        return Collections.singletonMap("keys", keys);
+    }
+
+    /**
+     * 解析 JWKS 中的 ES256 公钥，忽略其他类型的密钥
+     *
+     * @param jwks JWKS
+     * @return 密钥ID → 公钥
+     * @throws IllegalArgumentException 格式错误
+     */
+    public static Map<String, ECPublicKey> parse(Map<String, ?> jwks) {
+        Object keys = jwks == null ? null : jwks.get("keys");
+        if (!(keys instanceof List)) {
+            throw new IllegalArgumentException("JWKS 缺少 keys");
+        }
+        Map<String, ECPublicKey> publicKeys = new HashMap<>();
+        for (Object item : (List<?>) keys) {
+            if (!(item instanceof Map)) {
+                continue;
+            }
+            Map<?, ?> jwk = (Map<?, ?>) item;
+            if (!"EC".equals(jwk.get("kty")) || !"P-256".equals(jwk.get("crv")) || !(jwk.get("kid") instanceof String)) {
+                continue;
+            }
+            ECPoint point = new ECPoint(decode(jwk.get("x")), decode(jwk.get("y")));
+            try {
+                KeyFactory keyFactory = KeyFactory.getInstance("EC");
+                publicKeys.put((String) jwk.get("kid"),
+                        (ECPublicKey) keyFactory.generatePublic(new ECPublicKeySpec(point, P256)));
+            } catch (GeneralSecurityException e) {
+                throw new IllegalArgumentException("JWKS 公钥错误: kid=" + jwk.get("kid"), e);
+            }
+        }
+        return publicKeys;
+    }
+
+    /**
+     * 坐标编码为定长32字节（去掉符号位、不足时左侧补0）的 Base64URL
+     */
+    private static String encode(BigInteger coordinate) {
+        byte[] bytes = coordinate.toByteArray();
+        byte[] fixed = new byte[COORDINATE_BYTES];
+        int length = Math.min(bytes.length, COORDINATE_BYTES);
+        System.arraycopy(bytes, bytes.length - length, fixed, COORDINATE_BYTES - length, length);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(fixed);
+    }
+
+    private static BigInteger decode(Object value) {
+        if (!(value instanceof String)) {
+            throw new IllegalArgumentException("JWKS 公钥缺少坐标");
+        }
+        byte[] bytes = Base64.getUrlDecoder().decode((String) value);
+        if (bytes.length != COORDINATE_BYTES) {
+            throw new IllegalArgumentException("JWKS 公钥坐标长度错误: " + bytes.length);
+        }
+        return new BigInteger(1, bytes);
+    }
+
+    private static ECParameterSpec p256() {
+        try {
+            AlgorithmParameters parameters = AlgorithmParameters.getInstance("EC");
+            parameters.init(new ECGenParameterSpec("secp256r1"));
+            return parameters.getParameterSpec(ECParameterSpec.class);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("P-256 not supported", e);
+        }
+    }
+}
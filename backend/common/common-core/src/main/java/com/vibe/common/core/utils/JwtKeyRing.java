@@ -0,0 +1,267 @@
+package com.vibe.common.core.utils;
+
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * JWT签名密钥组（不可变）
+ * 每个密钥有一个ID（kid），签发Token时使用当前密钥并在头部写入 kid，验签时按 kid 在哈希表中查找密钥，
+ * 耗时与密钥数量无关。密钥在构建时一次性派生，轮换时整体替换（见 {@link JwtUtils#setKeyRing}）。
+ * <p>
+ * 支持两类密钥：HS512 共享密钥（签发和验签使用同一密钥），以及 ES256 密钥对
+ * （用户服务持有私钥签发，网关等只需要公钥，通过 JWKS 接口获取，见 {@link Jwks}）。
+ * 签名算法由当前密钥的类型决定，同一密钥组中可以同时包含两类密钥，用于从共享密钥平滑迁移。
+ * <p>
+ * 轮换步骤：先在所有服务中加入新密钥（公钥）；确认生效后将当前密钥切换为新密钥；
+ * 旧密钥在其签发的最后一个Token过期（刷新Token有效期）后再删除。
+ */
+public final class JwtKeyRing {
+
+    /**
+     * HS512 要求的最短密钥长度（字节）
+     */
+    private static final int MIN_SECRET_BYTES = 64;
+
+    /**
+     * 签发Token使用的密钥ID，只验签的密钥组为 null
+     */
+    private final String activeKeyId;
+
+    private final Key signingKey;
+
+    private final SignatureAlgorithm signatureAlgorithm;
+
+    /**
+     * 未带 kid 的Token（轮换前签发）使用的密钥，未配置时为 null
+     */
+    private final Key defaultKey;
+
+    /**
+     * 验签密钥：HS512 共享密钥或 ES256 公钥
+     */
+    private final Map<String, Key> keys;
+
+    /**
+     * 可公开的 ES256 公钥
+     */
+    private final Map<String, ECPublicKey> publicKeys;
+
+    private JwtKeyRing(Builder builder) {
+        this.activeKeyId = builder.activeKeyId;
+        this.keys = Collections.unmodifiableMap(new HashMap<>(builder.keys));
+        this.publicKeys = Collections.unmodifiableMap(new HashMap<>(builder.publicKeys));
+        this.defaultKey = builder.defaultKeyId == null ? null : keys.get(builder.defaultKeyId);
+        if (activeKeyId == null) {
+            this.signingKey = null;
+            this.signatureAlgorithm = null;
+        } else if (builder.privateKeys.containsKey(activeKeyId)) {
+            this.signingKey = builder.privateKeys.get(activeKeyId);
+            this.signatureAlgorithm = SignatureAlgorithm.ES256;
+        } else {
+            this.signingKey = keys.get(activeKeyId);
+            this.signatureAlgorithm = SignatureAlgorithm.HS512;
+        }
+    }
+
+    /**
+     * 构建只包含 HS512 共享密钥的密钥组
+     *
+     * @param activeKeyId  签发Token使用的密钥ID
+     * @param defaultKeyId 未带 kid 的Token使用的密钥ID，为 null 时拒绝此类Token
+     * @param secrets      密钥ID → 密钥（UTF-8 编码后不少于64字节）
+     * @return 密钥组
+     * @throws IllegalArgumentException 密钥为空、长度不足，或指定的密钥ID不存在
+     */
+    public static JwtKeyRing of(String activeKeyId, String defaultKeyId, Map<String, String> secrets) {
+        Builder builder = builder().activeKeyId(activeKeyId).defaultKeyId(defaultKeyId);
+        if (secrets != null) {
+            secrets.forEach(builder::secret);
+        }
+        return builder.build();
+    }
+
+    /**
+     * 没有任何密钥的密钥组：拒绝全部Token，也不能签发Token（服务加载密钥之前使用）
+     */
+    public static JwtKeyRing empty() {
+        return new JwtKeyRing(new Builder());
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * 签发Token使用的密钥ID，只验签的密钥组返回 null
+     */
+    public String getActiveKeyId() {
+        return activeKeyId;
+    }
+
+    Key getSigningKey() {
+        if (keys.isEmpty()) {
+            throw new IllegalStateException("未配置JWT签名密钥，不能签发Token");
+        }
+        if (signingKey == null) {
+            throw new IllegalStateException("当前密钥组只能验签，不能签发Token");
+        }
+        return signingKey;
+    }
+
+    SignatureAlgorithm getSignatureAlgorithm() {
+        return signatureAlgorithm;
+    }
+
+    /**
+     * 按 kid 查找验签密钥
+     *
+     * @param keyId Token头部的 kid，为 null 时返回默认密钥
+     * @return 密钥，不存在时返回 null
+     */
+    Key getVerificationKey(String keyId) {
+        return keyId == null ? defaultKey : keys.get(keyId);
+    }
+
+    /**
+     * 全部密钥ID
+     */
+    public Set<String> getKeyIds() {
+        return keys.keySet();
+    }
+
+    /**
+     * 可公开的 ES256 公钥（密钥ID → 公钥），用于生成 JWKS
+     */
+    public Map<String, ECPublicKey> getPublicKeys() {
+        return publicKeys;
+    }
+
+    /**
+     * 密钥组构建器
+     */
+    public static final class Builder {
+
+        private String activeKeyId;
+
+        private String defaultKeyId;
+
+        private final Map<String, Key> keys = new HashMap<>();
+
+        private final Map<String, ECPublicKey> publicKeys = new HashMap<>();
+
+        private final Map<String, PrivateKey> privateKeys = new HashMap<>();
+
+        private Builder() {
+        }
+
+        /**
+         * 签发Token使用的密钥ID，不设置时只能验签
+         */
+        public Builder activeKeyId(String activeKeyId) {
+            this.activeKeyId = activeKeyId;
+            return this;
+        }
+
+        /**
+         * 未带 kid 的Token使用的密钥ID
+         */
+        public Builder defaultKeyId(String defaultKeyId) {
+            this.defaultKeyId = defaultKeyId;
+            return this;
+        }
+
+        /**
+         * 加入 HS512 共享密钥
+         *
+         * @param secret 密钥（UTF-8 编码后不少于64字节）
+         */
+        public Builder secret(String keyId, String secret) {
+            byte[] bytes = secret == null ? new byte[0] : secret.getBytes(StandardCharsets.UTF_8);
+            if (bytes.length < MIN_SECRET_BYTES) {
+                throw new IllegalArgumentException("JWT签名密钥长度不足" + MIN_SECRET_BYTES + "字节: kid=" + keyId);
+            }
+            putKey(keyId, Keys.hmacShaKeyFor(bytes));
+            return this;
+        }
+
+        /**
+         * 加入 ES256 公钥（只验签）
+         */
+        public Builder publicKey(String keyId, ECPublicKey publicKey) {
+            putKey(keyId, publicKey);
+            publicKeys.put(keyId, publicKey);
+            return this;
+        }
+
+        /**
+         * 加入 ES256 密钥对（可签发）
+         *
+         * @param privateKey PKCS#8 DER 格式私钥的 Base64
+         * @param publicKey  X.509 DER 格式公钥的 Base64
+         */
+        public Builder keyPair(String keyId, String privateKey, String publicKey) {
+            try {
+                KeyFactory keyFactory = KeyFactory.getInstance("EC");
+                PrivateKey parsedPrivateKey = keyFactory.generatePrivate(new PKCS8EncodedKeySpec(decode(privateKey)));
+                PublicKey parsedPublicKey = keyFactory.generatePublic(new X509EncodedKeySpec(decode(publicKey)));
+                ECPublicKey ecPublicKey = (ECPublicKey) parsedPublicKey;
+                if (ecPublicKey.getParams().getCurve().getField().getFieldSize() != 256) {
+                    throw new IllegalArgumentException("ES256 需要 P-256 曲线密钥: kid=" + keyId);
+                }
+                publicKey(keyId, ecPublicKey);
+                privateKeys.put(keyId, parsedPrivateKey);
+            } catch (GeneralSecurityException | IllegalArgumentException | ClassCastException e) {
+                throw new IllegalArgumentException("ES256 密钥格式错误: kid=" + keyId + ", " + e.getMessage(), e);
+            }
+            return this;
+        }
+
+        /**
+         * @throws IllegalArgumentException 没有密钥，或指定的密钥ID不存在
+         */
+        public JwtKeyRing build() {
+            if (keys.isEmpty()) {
+                throw new IllegalArgumentException("未配置JWT签名密钥");
+            }
+            if (activeKeyId != null && !privateKeys.containsKey(activeKeyId)
+                    && !(keys.get(activeKeyId) instanceof SecretKey)) {
+                throw new IllegalArgumentException("当前JWT签名密钥不存在或没有私钥: kid=" + activeKeyId);
+            }
+            if (defaultKeyId != null && !keys.containsKey(defaultKeyId)) {
+                throw new IllegalArgumentException("默认JWT签名密钥不存在: kid=" + defaultKeyId);
+            }
+            return new JwtKeyRing(this);
+        }
+
+        private void putKey(String keyId, Key key) {
+            if (keys.putIfAbsent(keyId, key) != null) {
+                throw new IllegalArgumentException("JWT签名密钥ID重复: kid=" + keyId);
+            }
+        }
+
+        private static byte[] decode(String base64) {
+            if (base64 == null) {
+                throw new IllegalArgumentException("密钥为空");
+            }
+            // 兼容 PEM 格式（去掉首尾标记和换行）
+            String body = base64.replaceAll("-----[A-Z ]+-----", "").replaceAll("\\s", "");
+            return Base64.getDecoder().decode(body);
+        }
+    }
+}
@@ -1,32 +1,45 @@
 package com.vibe.common.core.utils;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.UnsupportedJwtException;
 import lombok.extern.slf4j.Slf4j;
 
+import java.nio.ByteBuffer;
 import java.security.Key;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 
 /**
  * JWT工具类
+ * 访问Token有效期短，用于访问接口；刷新Token有效期长，只能用于换取新的Token。
+ * 每个Token带有唯一ID（jti），用于吊销单个Token。
+ * 签名密钥由各服务启动时从配置加载（{@link #setKeyRing}），配置刷新时整体替换，不需要重启。
  */
 @Slf4j
 public class JwtUtils {
 
     /**
-     * JWT签名密钥（应该从配置文件读取，这里为了演示写死）
-     * 注意：实际项目中应该使用更复杂的密钥，并从配置中心获取
+     * 访问Token默认过期时间（30分钟，单位：毫秒）
      */
-    private static final String SECRET_KEY = "vibesocialmediamicroservicesecretkey1234567890abcdefghijklmnopqrstuvwxyz";
+    public static final long DEFAULT_ACCESS_EXPIRATION = 30 * 60 * 1000L;
 
     /**
-     * Token过期时间（7天，单位：毫秒）
+     * 访问Token类型
      */
-    private static final long EXPIRATION_TIME = 7 * 24 * 60 * 60 * 1000L;
+    public static final String TOKEN_TYPE_ACCESS = "access";
+
+    /**
+     * 刷新Token类型
+     */
+    public static final String TOKEN_TYPE_REFRESH = "refresh";
 
     /**
      * Token前缀
@@ -49,37 +62,196 @@ public class JwtUtils {
     private static final String CLAIM_KEY_USERNAME = "username";
 
     /**
-     * 获取密钥
+     * Token类型的claims key
+     */
+    private static final String CLAIM_KEY_TOKEN_TYPE = "type";
+
+    /**
+     * 当前密钥组（整体替换，读取时不加锁）
+     * 加载配置之前为空密钥组，拒绝全部Token；单元测试、基准测试等不启动 Spring 的场景需要自行设置
+     */
+    private static volatile JwtKeyRing keyRing = JwtKeyRing.empty();
+
+    /**
+     * Token解析器（不可变，线程安全，全局复用），验签时按头部的 kid 从当前密钥组中查找密钥
+     */
+    private static final JwtParser PARSER = Jwts.parserBuilder()
+            .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                @Override
+                public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                    Key key = keyRing.getVerificationKey(header.getKeyId());
+                    if (key == null) {
+                        throw new UnsupportedJwtException("未知的签名密钥: kid=" + header.getKeyId());
+                    }
+                    return key;
+                }
+            })
+            .build();
+
+    /**
+     * 一次解析得到的Token信息
+     */
+    public static class ParsedToken {
+
+        private static final ParsedToken INVALID = new ParsedToken(false, null, null, null, null, 0L, 0L);
+
+        private final boolean valid;
+        private final Long userId;
+        private final String username;
+        private final String tokenId;
+        private final String tokenType;
+        private final long issuedAt;
+        private final long expiration;
+
+        private ParsedToken(boolean valid, Long userId, String username, String tokenId, String tokenType,
+                            long issuedAt, long expiration) {
+            this.valid = valid;
+            this.userId = userId;
+            this.username = username;
+            this.tokenId = tokenId;
+            this.tokenType = tokenType;
+            this.issuedAt = issuedAt;
+            this.expiration = expiration;
+        }
+
+        /**
+         * 签名正确且未过期
+         */
+        public boolean isValid() {
+            return valid;
+        }
+
+        public Long getUserId() {
+            return userId;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        /**
+         * Token唯一ID（jti），早期签发的Token没有该字段
+         */
+        public String getTokenId() {
+            return tokenId;
+        }
+
+        /**
+         * 是否为访问Token（早期签发的Token没有类型，视为访问Token）
+         */
+        public boolean isAccessToken() {
+            return tokenType == null || TOKEN_TYPE_ACCESS.equals(tokenType);
+        }
+
+        /**
+         * 是否为刷新Token
+         */
+        public boolean isRefreshToken() {
+            return TOKEN_TYPE_REFRESH.equals(tokenType);
+        }
+
+        /**
+         * 签发时间（毫秒时间戳，精度为秒），无法解析时为 0
+         */
+        public long getIssuedAt() {
+            return issuedAt;
+        }
+
+        /**
+         * 过期时间（毫秒时间戳），无法解析时为 0
+         */
+        public long getExpiration() {
+            return expiration;
+        }
+
+        public static ParsedToken invalid() {
+            return INVALID;
+        }
+    }
+
+    /**
+     * 替换签名密钥组（服务启动和配置刷新时调用）
+     * 替换后新签发的Token使用新的当前密钥，密钥组中仍保留的旧密钥签发的Token继续有效
+     *
+     * @param newKeyRing 密钥组
+     */
+    public static void setKeyRing(JwtKeyRing newKeyRing) {
+        keyRing = newKeyRing;
+    }
+
+    /**
+     * 当前签名密钥组
      */
-    private static Key getSigningKey() {
-        byte[] keyBytes = SECRET_KEY.getBytes();
-        return Keys.hmacShaKeyFor(keyBytes);
+    public static JwtKeyRing getKeyRing() {
+        return keyRing;
     }
 
     /**
-     * 生成Token
+     * 生成访问Token（默认有效期）
      *
      * @param userId   用户ID
      * @param username 用户名
      * @return Token
      */
     public static String generateToken(Long userId, String username) {
+        return generateAccessToken(userId, username, DEFAULT_ACCESS_EXPIRATION);
+    }
+
+    /**
+     * 生成访问Token
+     *
+     * @param userId     用户ID
+     * @param username   用户名
+     * @param expiration 有效期（毫秒）
+     * @return Token
+     */
+    public static String generateAccessToken(Long userId, String username, long expiration) {
+        return generateToken(userId, username, TOKEN_TYPE_ACCESS, expiration);
+    }
+
+    /**
+     * 生成刷新Token
+     *
+     * @param userId     用户ID
+     * @param username   用户名
+     * @param expiration 有效期（毫秒）
+     * @return Token
+     */
+    public static String generateRefreshToken(Long userId, String username, long expiration) {
+        return generateToken(userId, username, TOKEN_TYPE_REFRESH, expiration);
+    }
+
+    private static String generateToken(Long userId, String username, String tokenType, long expiration) {
         Map<String, Object> claims = new HashMap<>();
         claims.put(CLAIM_KEY_USER_ID, userId);
         claims.put(CLAIM_KEY_USERNAME, username);
+        claims.put(CLAIM_KEY_TOKEN_TYPE, tokenType);
 
         Date now = new Date();
-        Date expirationDate = new Date(now.getTime() + EXPIRATION_TIME);
+        Date expirationDate = new Date(now.getTime() + expiration);
 
+        JwtKeyRing ring = keyRing;
         return Jwts.builder()
+            .setHeaderParam(JwsHeader.KEY_ID, ring.getActiveKeyId())
             .setClaims(claims)
+            .setId(newTokenId())
             .setSubject(username)
             .setIssuedAt(now)
             .setExpiration(expirationDate)
-            .signWith(getSigningKey(), SignatureAlgorithm.HS512)
+            .signWith(ring.getSigningKey(), ring.getSignatureAlgorithm())
             .compact();
     }
 
+    /**
+     * 生成Token唯一ID（128位随机数，URL安全的Base64，22个字符）
+     */
+    private static String newTokenId() {
+        UUID uuid = UUID.randomUUID();
+        ByteBuffer buffer = ByteBuffer.allocate(16);
+        buffer.putLong(uuid.getMostSignificantBits()).putLong(uuid.getLeastSignificantBits());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
     /**
      * 从Token中获取Claims
      *
@@ -88,17 +260,43 @@ public class JwtUtils {
      */
     public static Claims getClaimsFromToken(String token) {
         try {
-            return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+            return PARSER.parseClaimsJws(token).getBody();
         } catch (Exception e) {
             log.error("解析Token失败: {}", e.getMessage());
             return null;
         }
     }
 
+    /**
+     * 解析Token（只验签一次，同时返回用户ID、用户名、过期时间和有效性）
+     *
+     * @param token Token
+     * @return 解析结果，不会返回 null
+     */
+    public static ParsedToken parseToken(String token) {
+        if (token == null || token.isEmpty()) {
+            return ParsedToken.invalid();
+        }
+        try {
+            return toParsedToken(PARSER.parseClaimsJws(token).getBody(), true);
+        } catch (ExpiredJwtException e) {
+            // 签名正确但已过期
+            return toParsedToken(e.getClaims(), false);
+        } catch (Exception e) {
+            log.debug("解析Token失败: {}", e.getMessage());
+            return ParsedToken.invalid();
+        }
+    }
+
+    private static ParsedToken toParsedToken(Claims claims, boolean valid) {
+        Date issuedAt = claims.getIssuedAt();
+        Date expiration = claims.getExpiration();
+        return new ParsedToken(valid, getUserIdFromClaims(claims), claims.getSubject(), claims.getId(),
+                claims.get(CLAIM_KEY_TOKEN_TYPE, String.class),
+                issuedAt == null ? 0L : issuedAt.getTime(),
+                expiration == null ? 0L : expiration.getTime());
+    }
+
     /**
      * 从Token中获取用户ID
      *
@@ -106,7 +304,16 @@ public class JwtUtils {
      * @return 用户ID
      */
     public static Long getUserIdFromToken(String token) {
-        Claims claims = getClaimsFromToken(token);
+        return getUserIdFromClaims(getClaimsFromToken(token));
+    }
+
+    /**
+     * 从Claims中获取用户ID
+     *
+     * @param claims 已验签的Claims
+     * @return 用户ID
+     */
+    public static Long getUserIdFromClaims(Claims claims) {
         if (claims == null) {
             return null;
         }
@@ -135,16 +342,7 @@ public class JwtUtils {
      * @return true-已过期，false-未过期
      */
     public static boolean isTokenExpired(String token) {
-        try {
-            Claims claims = getClaimsFromToken(token);
-            if (claims == null) {
-                return true;
-            }
-            Date expiration = claims.getExpiration();
-            return expiration.before(new Date());
-        } catch (Exception e) {
-            return true;
-        }
+        return !parseToken(token).isValid();
     }
 
     /**
@@ -154,13 +352,7 @@ public class JwtUtils {
      * @return true-有效，false-无效
      */
     public static boolean validateToken(String token) {
-        try {
-            Claims claims = getClaimsFromToken(token);
-            return claims != null && !isTokenExpired(token);
-        } catch (Exception e) {
-            log.error("Token验证失败: {}", e.getMessage());
-            return false;
-        }
+        return parseToken(token).isValid();
     }
 
     /**
@@ -0,0 +1,43 @@
+package com.vibe.common.core.utils;
+
+/**
+ * 号段分配器，从持久化存储（如数据库号段表）中租用一段连续的ID
+ * 实现必须保证同一业务标识分配出的号段互不重叠
+ */
+@FunctionalInterface
+public interface SegmentAllocator {
+
+    /**
+     * 租用下一个号段
+     *
+     * @param bizTag 业务标识
+     * @return 号段
+     */
+    Segment allocate(String bizTag);
+
+    /**
+     * 号段：[start, end)
+     */
+    final class Segment {
+
+        private final long start;
+
+        private final long end;
+
+        public Segment(long start, long end) {
+            if (start >= end) {
+                throw new IllegalArgumentException(String.format("empty segment [%d, %d)", start, end));
+            }
+            this.start = start;
+            this.end = end;
+        }
+
+        public long getStart() {
+            return start;
+        }
+
+        public long getEnd() {
+            return end;
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.vibe.common.core.utils;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 号段模式ID生成器
+ * 每次从 {@link SegmentAllocator} 租用一段连续的ID，在内存中自增分配，生成ID时不访问数据库。
+ * <p>
+ * 双缓冲：当前号段用到 prefetchRatio（默认 10%）时在后台线程预取下一个号段，
+ * 当前号段用完时直接切换，切换时只有预取尚未完成才需要等待。
+ * 实例重启时未用完的号段会被丢弃，ID连续递增但可能有空洞。
+ */
+@Slf4j
+public class SegmentIdGenerator implements IdGenerator, AutoCloseable {
+
+    /**
+     * 默认预取比例
+     */
+    private static final double DEFAULT_PREFETCH_RATIO = 0.1;
+
+    /**
+     * 业务标识
+     */
+    private final String bizTag;
+
+    private final SegmentAllocator allocator;
+
+    /**
+     * 当前号段使用到该比例时预取下一个号段
+     */
+    private final double prefetchRatio;
+
+    /**
+     * 预取线程
+     */
+    private final ExecutorService loader;
+
+    /**
+     * 当前号段，首次生成ID时加载
+     */
+    private volatile Buffer current;
+
+    /**
+     * 预取中或已预取的下一个号段
+     */
+    private final AtomicReference<CompletableFuture<Buffer>> next = new AtomicReference<>();
+
+    public SegmentIdGenerator(String bizTag, SegmentAllocator allocator) {
+        this(bizTag, allocator, DEFAULT_PREFETCH_RATIO);
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param bizTag        业务标识
+     * @param allocator     号段分配器
+     * @param prefetchRatio 预取比例（0~1）
+     */
+    public SegmentIdGenerator(String bizTag, SegmentAllocator allocator, double prefetchRatio) {
+        if (prefetchRatio < 0 || prefetchRatio >= 1) {
+            throw new IllegalArgumentException("prefetch ratio must be in [0, 1)");
+        }
+        this.bizTag = bizTag;
+        this.allocator = allocator;
+        this.prefetchRatio = prefetchRatio;
+        this.loader = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "segment-loader-" + bizTag);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public long nextId() {
+        while (true) {
+            Buffer buffer = current;
+            if (buffer != null) {
+                long id = buffer.cursor.getAndIncrement();
+                if (id < buffer.end) {
+                    // 每个号段只有一个线程会分配到预取位置
+                    if (id == buffer.prefetchAt) {
+                        prefetch();
+                    }
+                    return id;
+                }
+            }
+            switchBuffer(buffer);
+        }
+    }
+
+    /**
+     * 在后台预取下一个号段
+     */
+    private void prefetch() {
+        CompletableFuture<Buffer> future = new CompletableFuture<>();
+        if (!next.compareAndSet(null, future)) {
+            return;
+        }
+        try {
+            loader.execute(() -> {
+                try {
+                    future.complete(load());
+                } catch (Throwable e) {
+                    log.warn("预取号段失败: bizTag={}, error={}", bizTag, e.getMessage());
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (Exception e) {
+            // 生成器已关闭，切换时同步加载
+            future.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * 当前号段用完时切换到下一个号段，预取失败或未预取时同步加载
+     *
+     * @param exhausted 已用完的号段
+     */
+    private synchronized void switchBuffer(Buffer exhausted) {
+        if (current != exhausted) {
+            // 其他线程已完成切换
+            return;
+        }
+        Buffer loaded = null;
+        CompletableFuture<Buffer> future = next.getAndSet(null);
+        if (future != null) {
+            try {
+                loaded = future.join();
+            } catch (CompletionException e) {
+                log.warn("预取的号段不可用，同步加载: bizTag={}", bizTag);
+            }
+        }
+        current = loaded != null ? loaded : load();
+    }
+
+    private Buffer load() {
+        SegmentAllocator.Segment segment = allocator.allocate(bizTag);
+        long prefetchAt = segment.getStart() + (long) ((segment.getEnd() - segment.getStart()) * prefetchRatio);
+        return new Buffer(segment.getStart(), segment.getEnd(), prefetchAt);
+    }
+
+    /**
+     * 停止预取线程
+     */
+    @Override
+    public void close() {
+        loader.shutdownNow();
+    }
+
+    /**
+     * 内存中的号段
+     */
+    private static final class Buffer {
+
+        /**
+         * 下一个待分配的ID
+         */
+        private final AtomicLong cursor;
+
+        /**
+         * 号段结束值（不含）
+         */
+        private final long end;
+
+        /**
+         * 分配到该值时预取下一个号段
+         */
+        private final long prefetchAt;
+
+        Buffer(long start, long end, long prefetchAt) {
+            this.cursor = new AtomicLong(start);
+            this.end = end;
+            this.prefetchAt = prefetchAt;
+        }
+    }
+}
@@ -1,12 +1,23 @@
 package com.vibe.common.core.utils;
 
-import org.springframework.stereotype.Component;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * 雪花算法ID生成器
+ * <p>
+ * 无锁实现：上次分配的时间戳和序列号合并为一个 long（时间戳 << 12 | 序列号），通过 CAS 推进。
+ * 同一毫秒内序列号用完时直接进位到下一毫秒，即提前借用未来的时间戳；
+ * 时钟小幅回拨时同样在上次的时间戳上继续分配。借用的时间最多领先当前时钟 maxBorrowMillis 毫秒，
+ * 超过时等待时钟追上；回拨超过 maxBorrowMillis 时拒绝生成。
+ * <p>
+ * 不注册为 Bean，由使用方按实例分配的机器ID创建。
  */
-@Component
-public class SnowflakeIdGenerator {
+public class SnowflakeIdGenerator implements IdGenerator {
+
+    /**
+     * 默认允许借用的未来时间（毫秒）
+     */
+    private static final long DEFAULT_MAX_BORROW_MILLIS = 5L;
 
     /**
      * 起始时间戳 (2024-01-01 00:00:00)
@@ -61,22 +72,22 @@ public class SnowflakeIdGenerator {
     /**
      * 机器ID
      */
-    private long workerId;
+    private final long workerId;
 
     /**
      * 数据中心ID
      */
-    private long datacenterId;
+    private final long datacenterId;
 
     /**
-     * 序列号
+     * 允许借用的未来时间（毫秒），也是可容忍的时钟回拨幅度
      */
-    private long sequence = 0L;
+    private final long maxBorrowMillis;
 
     /**
-     * 上次生成ID的时间戳
+     * 上次分配的状态：(时间戳 - twepoch) << sequenceBits | 序列号，初始值保证第一次分配时使用当前时间
      */
-    private long lastTimestamp = -1L;
+    private final AtomicLong state = new AtomicLong(-1L);
 
     /**
      * 构造函数
@@ -92,56 +103,101 @@ public class SnowflakeIdGenerator {
      * @param datacenterId 数据中心ID
      */
     public SnowflakeIdGenerator(long workerId, long datacenterId) {
+        this(workerId, datacenterId, DEFAULT_MAX_BORROW_MILLIS);
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param workerId        机器ID
+     * @param datacenterId    数据中心ID
+     * @param maxBorrowMillis 允许借用的未来时间（毫秒），为 0 时不借用，序列号用完时等待下一毫秒，时钟回拨时直接拒绝
+     */
+    public SnowflakeIdGenerator(long workerId, long datacenterId, long maxBorrowMillis) {
         if (workerId > maxWorkerId || workerId < 0) {
             throw new IllegalArgumentException(String.format("worker Id can't be greater than %d or less than 0", maxWorkerId));
         }
         if (datacenterId > maxDatacenterId || datacenterId < 0) {
             throw new IllegalArgumentException(String.format("datacenter Id can't be greater than %d or less than 0", maxDatacenterId));
         }
+        if (maxBorrowMillis < 0) {
+            throw new IllegalArgumentException("max borrow millis can't be less than 0");
+        }
         this.workerId = workerId;
         this.datacenterId = datacenterId;
+        this.maxBorrowMillis = maxBorrowMillis;
     }
 
     /**
      * 生成ID
      */
-    public synchronized long nextId() {
-        long timestamp = timeGen();
+    @Override
+    public long nextId() {
+        return toId(reserve(1));
+    }
 
-        // 时钟回拨检测
-        if (timestamp < lastTimestamp) {
-            throw new RuntimeException(String.format("Clock moved backwards. Refusing to generate id for %d milliseconds", lastTimestamp - timestamp));
+    /**
+     * 批量生成ID，一次 CAS 最多分配一毫秒的序列号（4096个）
+     *
+     * @param n 数量
+     * @return 递增的ID
+     */
+    @Override
+    public long[] nextIds(int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("n can't be less than 0");
         }
-
-        // 同一毫秒内
-        if (lastTimestamp == timestamp) {
-            sequence = (sequence + 1) & sequenceMask;
-            // 序列号溢出
-            if (sequence == 0) {
-                timestamp = tilNextMillis(lastTimestamp);
+        long[] ids = new long[n];
+        int filled = 0;
+        while (filled < n) {
+            int count = (int) Math.min(n - filled, sequenceMask + 1);
+            long last = reserve(count);
+            for (long value = last - count + 1; value <= last; value++) {
+                ids[filled++] = toId(value);
             }
-        } else {
-            sequence = 0L;
         }
+        return ids;
+    }
 
-        lastTimestamp = timestamp;
+    /**
+     * 分配连续的 count 个状态值
+     *
+     * @return 分配到的最后一个状态值
+     */
+    private long reserve(int count) {
+        while (true) {
+            // 先读状态再读时钟，保证读到的时钟不早于写入该状态的线程读到的时钟
+            long current = state.get();
+            long now = timeGen() - twepoch;
+            long lastTimestamp = current >> sequenceBits;
+
+            // 时钟回拨检测：借用的时间从不超过 maxBorrowMillis，超出说明时钟回拨超过可容忍范围
+            if (lastTimestamp - now > maxBorrowMillis) {
+                throw new IllegalStateException(String.format("Clock moved backwards. Refusing to generate id for %d milliseconds", lastTimestamp - now));
+            }
 
-        // 生成ID
-        return ((timestamp - twepoch) << timestampLeftShift)
-                | (datacenterId << datacenterIdShift)
-                | (workerId << workerIdShift)
-                | sequence;
+            // 时钟前进时从新的一毫秒开始，否则在上次的状态上继续（序列号用完时进位到下一毫秒）
+            long first = Math.max(now << sequenceBits, current + 1);
+            long last = first + count - 1;
+            if ((last >> sequenceBits) - now > maxBorrowMillis) {
+                // 可借用的时间已用完，等待时钟追上
+                Thread.onSpinWait();
+                continue;
+            }
+            if (state.compareAndSet(current, last)) {
+                return last;
+            }
+        }
     }
 
     /**
-     * 等待下一毫秒
+     * 状态值转换为ID
      */
-    protected long tilNextMillis(long lastTimestamp) {
-        long timestamp = timeGen();
-        while (timestamp <= lastTimestamp) {
-            timestamp = timeGen();
-        }
-        return timestamp;
+    private long toId(long value) {
+        return ((value >> sequenceBits) << timestampLeftShift)
+                | (datacenterId << datacenterIdShift)
+                | (workerId << workerIdShift)
+                | (value & sequenceMask);
     }
 
     /**
@@ -0,0 +1,54 @@
+package com.vibe.common.core.utils;
+
+/**
+ * Token吊销列表在 Redis 中的存储格式（用户服务写入，网关复制到本地内存）
+ * <p>
+ * 吊销单个访问Token：有序集合 {@link #ACCESS_KEY}，成员为 jti，分值为Token过期时间（毫秒），过期后清理。
+ * 吊销用户全部Token：有序集合 {@link #USER_KEY}，成员为用户ID，分值为吊销时间（毫秒），
+ * 签发时间早于该时间的Token全部失效。
+ * 每次写入后在 {@link #CHANNEL} 频道发布变更，消息格式见 {@link #tokenMessage} 和 {@link #userMessage}。
+ */
+public final class TokenRevocation {
+
+    /**
+     * 已吊销的访问Token
+     */
+    public static final String ACCESS_KEY = "auth:revoked:access";
+
+    /**
+     * 已吊销全部Token的用户
+     */
+    public static final String USER_KEY = "auth:revoked:user";
+
+    /**
+     * 吊销通知频道
+     */
+    public static final String CHANNEL = "auth:revoked";
+
+    /**
+     * 消息类型：单个Token
+     */
+    public static final char TYPE_TOKEN = 't';
+
+    /**
+     * 消息类型：用户全部Token
+     */
+    public static final char TYPE_USER = 'u';
+
+    private TokenRevocation() {
+    }
+
+    /**
+     * 吊销单个Token的消息：t:{jti}:{过期时间}
+     */
+    public static String tokenMessage(String tokenId, long expiration) {
+        return TYPE_TOKEN + ":" + tokenId + ":" + expiration;
+    }
+
+    /**
+     * 吊销用户全部Token的消息：u:{用户ID}:{吊销时间}
+     */
+    public static String userMessage(Long userId, long revokedAt) {
+        return TYPE_USER + ":" + userId + ":" + revokedAt;
+    }
+}
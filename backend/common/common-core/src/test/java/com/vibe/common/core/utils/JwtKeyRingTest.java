@@ -0,0 +1,209 @@
+package com.vibe.common.core.utils;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JwtKeyRing 及 JwtUtils 密钥轮换、ES256 签名单元测试
+ */
+@DisplayName("JWT签名密钥轮换测试")
+class JwtKeyRingTest {
+
+    private static final String SECRET_1 = "k1-secret-k1-secret-k1-secret-k1-secret-k1-secret-k1-secret-k1-secret";
+    private static final String SECRET_2 = "k2-secret-k2-secret-k2-secret-k2-secret-k2-secret-k2-secret-k2-secret";
+
+    private JwtKeyRing original;
+
+    @BeforeEach
+    void setUp() {
+        original = JwtUtils.getKeyRing();
+    }
+
+    @AfterEach
+    void tearDown() {
+        JwtUtils.setKeyRing(original);
+    }
+
+    @Test
+    @DisplayName("签发 - 头部带当前密钥ID")
+    void testGenerate_KeyIdHeader() {
+        // Given
+        JwtUtils.setKeyRing(JwtKeyRing.of("k1", null, Collections.singletonMap("k1", SECRET_1)));
+
+        // When
+        String token = JwtUtils.generateAccessToken(1L, "user", 60000L);
+
+        // Then
+        String header = new String(Base64.getUrlDecoder().decode(token.substring(0, token.indexOf('.'))),
+                StandardCharsets.UTF_8);
+        assertTrue(header.contains("\"kid\":\"k1\""), header);
+        assertTrue(JwtUtils.parseToken(token).isValid());
+    }
+
+    @Test
+    @DisplayName("轮换 - 旧密钥保留期间签发的Token仍然有效")
+    void testRotate_OldKeyStillAccepted() {
+        // Given
+        JwtUtils.setKeyRing(JwtKeyRing.of("k1", null, Collections.singletonMap("k1", SECRET_1)));
+        String oldToken = JwtUtils.generateAccessToken(1L, "user", 60000L);
+
+        // When
+        JwtUtils.setKeyRing(JwtKeyRing.of("k2", null, secrets()));
+        String newToken = JwtUtils.generateAccessToken(1L, "user", 60000L);
+
+        // Then
+        assertTrue(JwtUtils.parseToken(oldToken).isValid());
+        assertTrue(JwtUtils.parseToken(newToken).isValid());
+    }
+
+    @Test
+    @DisplayName("轮换 - 删除旧密钥后其签发的Token失效")
+    void testRotate_OldKeyRemoved() {
+        // Given
+        JwtUtils.setKeyRing(JwtKeyRing.of("k1", null, secrets()));
+        String oldToken = JwtUtils.generateAccessToken(1L, "user", 60000L);
+
+        // When
+        JwtUtils.setKeyRing(JwtKeyRing.of("k2", null, Collections.singletonMap("k2", SECRET_2)));
+
+        // Then
+        assertFalse(JwtUtils.parseToken(oldToken).isValid());
+    }
+
+    @Test
+    @DisplayName("未带 kid 的Token - 使用默认密钥验签")
+    void testParse_TokenWithoutKeyId() {
+        // Given
+        String token = Jwts.builder()
+                .claim("userId", 1L)
+                .setSubject("user")
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + 60000L))
+                .signWith(Keys.hmacShaKeyFor(SECRET_1.getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS512)
+                .compact();
+
+        // When & Then
+        JwtUtils.setKeyRing(JwtKeyRing.of("k2", "k1", secrets()));
+        assertTrue(JwtUtils.parseToken(token).isValid());
+        JwtUtils.setKeyRing(JwtKeyRing.of("k2", null, secrets()));
+        assertFalse(JwtUtils.parseToken(token).isValid());
+    }
+
+    @Test
+    @DisplayName("ES256 - 只持有 JWKS 公钥即可验签")
+    void testEs256_VerifyWithJwksPublicKey() throws GeneralSecurityException {
+        // Given
+        KeyPair keyPair = ecKeyPair();
+        JwtKeyRing signer = JwtKeyRing.builder()
+                .activeKeyId("e1")
+                .keyPair("e1", Base64.getEncoder().encodeToString(keyPair.getPrivate().getEncoded()),
+                        Base64.getEncoder().encodeToString(keyPair.getPublic().getEncoded()))
+                .build();
+        JwtUtils.setKeyRing(signer);
+        String token = JwtUtils.generateAccessToken(1L, "user", 60000L);
+
+        // When
+        Map<String, ECPublicKey> publicKeys = Jwks.parse(Jwks.toJwks(signer.getPublicKeys()));
+        JwtKeyRing.Builder verifier = JwtKeyRing.builder();
+        publicKeys.forEach(verifier::publicKey);
+        JwtUtils.setKeyRing(verifier.build());
+
+        // Then
+        String header = new String(Base64.getUrlDecoder().decode(token.substring(0, token.indexOf('.'))),
+                StandardCharsets.UTF_8);
+        assertTrue(header.contains("\"alg\":\"ES256\""), header);
+        assertTrue(JwtUtils.parseToken(token).isValid());
+        assertThrows(IllegalStateException.class, () -> JwtUtils.generateAccessToken(1L, "user", 60000L));
+    }
+
+    @Test
+    @DisplayName("ES256 - 同时保留共享密钥，迁移期间两种Token都有效")
+    void testEs256_MigrateFromHs512() throws GeneralSecurityException {
+        // Given
+        JwtUtils.setKeyRing(JwtKeyRing.of("k1", null, Collections.singletonMap("k1", SECRET_1)));
+        String hsToken = JwtUtils.generateAccessToken(1L, "user", 60000L);
+        KeyPair keyPair = ecKeyPair();
+
+        // When
+        JwtUtils.setKeyRing(JwtKeyRing.builder()
+                .activeKeyId("e1")
+                .secret("k1", SECRET_1)
+                .keyPair("e1", Base64.getEncoder().encodeToString(keyPair.getPrivate().getEncoded()),
+                        Base64.getEncoder().encodeToString(keyPair.getPublic().getEncoded()))
+                .build());
+        String esToken = JwtUtils.generateAccessToken(1L, "user", 60000L);
+
+        // Then
+        assertTrue(JwtUtils.parseToken(hsToken).isValid());
+        assertTrue(JwtUtils.parseToken(esToken).isValid());
+        assertFalse(JwtUtils.getKeyRing().getPublicKeys().containsKey("k1"));
+    }
+
+    @Test
+    @DisplayName("配置错误 - 拒绝构建密钥组")
+    void testOf_InvalidConfig() {
+        assertThrows(IllegalArgumentException.class,
+            () -> JwtKeyRing.of("k3", null, secrets()));
+        assertThrows(IllegalArgumentException.class,
+            () -> JwtKeyRing.of("k1", "k3", secrets()));
+        assertThrows(IllegalArgumentException.class,
+            () -> JwtKeyRing.of("k1", null, Collections.singletonMap("k1", "too-short")));
+        assertThrows(IllegalArgumentException.class,
+            () -> JwtKeyRing.of("k1", null, Collections.emptyMap()));
+    }
+
+    @Test
+    @DisplayName("空密钥组 - 拒绝全部Token，不能签发Token")
+    void testEmpty_RejectsAll() {
+        // Given
+        JwtUtils.setKeyRing(JwtKeyRing.of("k1", null, Collections.singletonMap("k1", SECRET_1)));
+        String token = JwtUtils.generateAccessToken(1L, "user", 60000L);
+        String tokenWithoutKeyId = Jwts.builder()
+                .claim("userId", 1L)
+                .setSubject("user")
+                .setExpiration(new Date(System.currentTimeMillis() + 60000L))
+                .signWith(Keys.hmacShaKeyFor(SECRET_1.getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS512)
+                .compact();
+
+        // When
+        JwtUtils.setKeyRing(JwtKeyRing.empty());
+
+        // Then
+        assertTrue(JwtUtils.getKeyRing().getKeyIds().isEmpty());
+        assertFalse(JwtUtils.parseToken(token).isValid());
+        assertFalse(JwtUtils.parseToken(tokenWithoutKeyId).isValid());
+        assertThrows(IllegalStateException.class, () -> JwtUtils.generateAccessToken(1L, "user", 60000L));
+    }
+
+    private static KeyPair ecKeyPair() throws GeneralSecurityException {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+        generator.initialize(new ECGenParameterSpec("secp256r1"));
+        return generator.generateKeyPair();
+    }
+
+    private static Map<String, String> secrets() {
+        Map<String, String> secrets = new HashMap<>();
+        secrets.put("k1", SECRET_1);
+        secrets.put("k2", SECRET_2);
+        return secrets;
+    }
+}
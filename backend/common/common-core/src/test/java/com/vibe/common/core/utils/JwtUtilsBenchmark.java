@@ -0,0 +1,116 @@
+package com.vibe.common.core.utils;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JwtUtils 解析性能基准测试
+ * <p>
+ * legacyPerCall：改造前的调用方式，每次解析都重新构建 Key 和 Parser，
+ * 且一次鉴权要调用 validateToken(2次解析) + getUserIdFromToken + getUsernameFromToken 共4次解析。
+ * parseToken：复用全局 Key/Parser，一次解析得到全部信息；按 keyCount 配置密钥组，验证按 kid 查找密钥的耗时与密钥数量无关。
+ * <p>
+ * 运行方式：mvn -pl common/common-core test-compile 后在 IDE 中运行 main 方法
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtUtilsBenchmark {
+
+    /**
+     * 满足 HS512 最短长度（64字节）的测试密钥
+     */
+    private static final String LEGACY_SECRET = "benchmarksecretkeybenchmarksecretkeybenchmarksecretkeybenchmarksecretkey";
+
+    /**
+     * 密钥组中的密钥数量
+     */
+    @Param({"1", "16", "256"})
+    public int keyCount;
+
+    private String token;
+
+    private String legacyToken;
+
+    @Setup
+    public void setUp() {
+        Map<String, String> secrets = new HashMap<>();
+        for (int i = 0; i < keyCount; i++) {
+            secrets.put("k" + i, LEGACY_SECRET + i);
+        }
+        JwtUtils.setKeyRing(JwtKeyRing.of("k" + (keyCount - 1), null, secrets));
+        token = JwtUtils.generateToken(1000000000000000001L, "benchmark");
+        legacyToken = Jwts.builder()
+                .claim("userId", 1000000000000000001L)
+                .setSubject("benchmark")
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(1)))
+                .signWith(legacyKey(), SignatureAlgorithm.HS512)
+                .compact();
+    }
+
+    @Benchmark
+    public void legacyPerCall(Blackhole blackhole) {
+        // validateToken：getClaimsFromToken + isTokenExpired
+        Claims claims = legacyParse(legacyToken);
+        blackhole.consume(claims != null && !legacyParse(legacyToken).getExpiration().before(new Date()));
+        // getUserIdFromToken
+        blackhole.consume(legacyParse(legacyToken).get("userId"));
+        // getUsernameFromToken
+        blackhole.consume(legacyParse(legacyToken).getSubject());
+    }
+
+    @Benchmark
+    public void parseToken(Blackhole blackhole) {
+        JwtUtils.ParsedToken parsedToken = JwtUtils.parseToken(token);
+        blackhole.consume(parsedToken.isValid());
+        blackhole.consume(parsedToken.getUserId());
+        blackhole.consume(parsedToken.getUsername());
+    }
+
+    private static Claims legacyParse(String token) {
+        return Jwts.parserBuilder()
+                .setSigningKey(legacyKey())
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+
+    private static Key legacyKey() {
+        return Keys.hmacShaKeyFor(LEGACY_SECRET.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtUtilsBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,102 @@
+package com.vibe.common.core.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SegmentIdGenerator 单元测试
+ */
+@DisplayName("号段模式ID生成器测试")
+class SegmentIdGeneratorTest {
+
+    private static final int STEP = 100;
+
+    /**
+     * 模拟号段表：每次租用 STEP 个ID
+     */
+    private final AtomicLong maxId = new AtomicLong(1);
+    private final AtomicInteger allocations = new AtomicInteger();
+    private final SegmentAllocator allocator = bizTag -> {
+        allocations.incrementAndGet();
+        long end = maxId.addAndGet(STEP);
+        return new SegmentAllocator.Segment(end - STEP, end);
+    };
+
+    @Test
+    @DisplayName("单线程 - ID连续递增")
+    void testNextId_Sequential() {
+        try (SegmentIdGenerator generator = new SegmentIdGenerator("test", allocator)) {
+            for (long expected = 1; expected <= STEP * 5; expected++) {
+                assertEquals(expected, generator.nextId());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("用到预取比例后在后台预取下一个号段")
+    void testNextId_Prefetch() throws InterruptedException {
+        try (SegmentIdGenerator generator = new SegmentIdGenerator("test", allocator)) {
+            for (int i = 0; i <= STEP / 10; i++) {
+                generator.nextId();
+            }
+            long deadline = System.currentTimeMillis() + 5000;
+            while (allocations.get() < 2 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(2, allocations.get());
+        }
+    }
+
+    @Test
+    @DisplayName("预取失败时切换号段同步加载")
+    void testNextId_PrefetchFailed() {
+        AtomicInteger calls = new AtomicInteger();
+        SegmentAllocator flaky = bizTag -> {
+            if (calls.incrementAndGet() == 2) {
+                throw new IllegalStateException("db unavailable");
+            }
+            return allocator.allocate(bizTag);
+        };
+        try (SegmentIdGenerator generator = new SegmentIdGenerator("test", flaky)) {
+            for (long expected = 1; expected <= STEP * 2; expected++) {
+                assertEquals(expected, generator.nextId());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("并发生成 - ID不重复")
+    void testNextId_Concurrent() throws InterruptedException {
+        int threads = 16;
+        int perThread = 10000;
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch done = new CountDownLatch(threads);
+        try (SegmentIdGenerator generator = new SegmentIdGenerator("test", allocator)) {
+            for (int t = 0; t < threads; t++) {
+                executor.execute(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        ids.add(generator.nextId());
+                    }
+                    done.countDown();
+                });
+            }
+            assertTrue(done.await(30, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(threads * perThread, ids.size());
+        assertTrue(ids.stream().allMatch(id -> id >= 1 && id < maxId.get()));
+    }
+}
@@ -0,0 +1,102 @@
+package com.vibe.common.core.utils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SnowflakeIdGenerator 并发吞吐量基准测试
+ * <p>
+ * legacySynchronized：改造前的 synchronized 实现，序列号用完时持锁自旋等待下一毫秒。
+ * casNextId：CAS 实现，逐个生成。
+ * casNextIds：CAS 实现，每次批量生成 {@link #BATCH_SIZE} 个（结果按ID个数计算吞吐量）。
+ * <p>
+ * 单个生成器每毫秒最多 4096 个ID，各实现的长期吞吐量上限相同，差别在于达到上限前的加锁开销，
+ * 以及线程数增加后的竞争开销。
+ * <p>
+ * 运行方式：mvn -pl common/common-core test-compile 后在 IDE 中运行 main 方法，依次以 1~64 个线程运行
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SnowflakeIdGeneratorBenchmark {
+
+    private static final int BATCH_SIZE = 100;
+
+    private final LegacySnowflakeIdGenerator legacy = new LegacySnowflakeIdGenerator();
+
+    private final SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1L, 1L);
+
+    @Benchmark
+    public long legacySynchronized() {
+        return legacy.nextId();
+    }
+
+    @Benchmark
+    public long casNextId() {
+        return generator.nextId();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public long[] casNextIds() {
+        return generator.nextIds(BATCH_SIZE);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (int threads : new int[]{1, 2, 4, 8, 16, 32, 64}) {
+            new Runner(new OptionsBuilder()
+                    .include(SnowflakeIdGeneratorBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .build())
+                    .run();
+        }
+    }
+
+    /**
+     * 改造前的实现
+     */
+    private static class LegacySnowflakeIdGenerator {
+
+        private static final long TWEPOCH = 1704067200000L;
+        private static final long SEQUENCE_MASK = 4095L;
+
+        private long sequence = 0L;
+
+        private long lastTimestamp = -1L;
+
+        synchronized long nextId() {
+            long timestamp = System.currentTimeMillis();
+            if (timestamp < lastTimestamp) {
+                throw new RuntimeException("Clock moved backwards");
+            }
+            if (lastTimestamp == timestamp) {
+                sequence = (sequence + 1) & SEQUENCE_MASK;
+                if (sequence == 0) {
+                    while (timestamp <= lastTimestamp) {
+                        timestamp = System.currentTimeMillis();
+                    }
+                }
+            } else {
+                sequence = 0L;
+            }
+            lastTimestamp = timestamp;
+            return ((timestamp - TWEPOCH) << 22) | (1L << 17) | (1L << 12) | sequence;
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package com.vibe.common.core.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SnowflakeIdGenerator 单元测试
+ * 通过覆盖 timeGen() 控制时钟，验证序列号进位、借用上限和时钟回拨处理
+ */
+@DisplayName("雪花算法ID生成器测试")
+class SnowflakeIdGeneratorTest {
+
+    private static final long TWEPOCH = 1704067200000L;
+    private static final long START = TWEPOCH + 1_000_000L;
+    private static final int SEQUENCE_SIZE = 4096;
+    private static final long MAX_BORROW_MILLIS = 5L;
+
+    /**
+     * 手动控制时钟的生成器
+     */
+    private static class ManualClockGenerator extends SnowflakeIdGenerator {
+
+        private final AtomicLong now = new AtomicLong(START);
+
+        ManualClockGenerator(long maxBorrowMillis) {
+            super(1L, 2L, maxBorrowMillis);
+        }
+
+        void advance(long millis) {
+            now.addAndGet(millis);
+        }
+
+        @Override
+        protected long timeGen() {
+            return now.get();
+        }
+    }
+
+    private static long timestampOf(long id) {
+        return (id >> 22) + TWEPOCH;
+    }
+
+    private static long sequenceOf(long id) {
+        return id & (SEQUENCE_SIZE - 1);
+    }
+
+    @Test
+    @DisplayName("单线程 - ID严格递增且包含机器ID和数据中心ID")
+    void testNextId_Monotonic() {
+        ManualClockGenerator generator = new ManualClockGenerator(MAX_BORROW_MILLIS);
+        long previous = generator.nextId();
+        assertEquals(START, timestampOf(previous));
+        assertEquals(0L, sequenceOf(previous));
+        assertEquals(1L, (previous >> 12) & 31);
+        assertEquals(2L, (previous >> 17) & 31);
+
+        for (int i = 0; i < SEQUENCE_SIZE * 3; i++) {
+            if (i % 1000 == 0) {
+                generator.advance(1);
+            }
+            long id = generator.nextId();
+            assertTrue(id > previous, "id not increasing at " + i);
+            previous = id;
+        }
+    }
+
+    @Test
+    @DisplayName("时钟前进 - 序列号从0开始")
+    void testNextId_ClockAdvanced() {
+        ManualClockGenerator generator = new ManualClockGenerator(MAX_BORROW_MILLIS);
+        generator.nextId();
+        generator.nextId();
+
+        generator.advance(10);
+        long id = generator.nextId();
+
+        assertEquals(START + 10, timestampOf(id));
+        assertEquals(0L, sequenceOf(id));
+    }
+
+    @Test
+    @DisplayName("序列号用完 - 进位到下一毫秒")
+    void testNextId_SequenceRollover() {
+        ManualClockGenerator generator = new ManualClockGenerator(MAX_BORROW_MILLIS);
+        long last = 0;
+        for (int i = 0; i < SEQUENCE_SIZE; i++) {
+            last = generator.nextId();
+        }
+        assertEquals(START, timestampOf(last));
+        assertEquals(SEQUENCE_SIZE - 1, sequenceOf(last));
+
+        long next = generator.nextId();
+
+        assertEquals(START + 1, timestampOf(next));
+        assertEquals(0L, sequenceOf(next));
+    }
+
+    @Test
+    @DisplayName("批量生成 - 跨毫秒时ID连续递增")
+    void testNextIds_AcrossMillisecond() {
+        ManualClockGenerator generator = new ManualClockGenerator(MAX_BORROW_MILLIS);
+        for (int i = 0; i < SEQUENCE_SIZE - 100; i++) {
+            generator.nextId();
+        }
+
+        long[] ids = generator.nextIds(200);
+
+        assertEquals(200, ids.length);
+        for (int i = 1; i < ids.length; i++) {
+            assertTrue(ids[i] > ids[i - 1]);
+        }
+        assertEquals(START, timestampOf(ids[99]));
+        assertEquals(SEQUENCE_SIZE - 1, sequenceOf(ids[99]));
+        assertEquals(START + 1, timestampOf(ids[100]));
+        assertEquals(0L, sequenceOf(ids[100]));
+        assertEquals(START + 1, timestampOf(generator.nextId()));
+    }
+
+    @Test
+    @DisplayName("批量生成 - 超过一毫秒的序列号时分多次分配")
+    void testNextIds_MultipleSequences() {
+        ManualClockGenerator generator = new ManualClockGenerator(MAX_BORROW_MILLIS);
+
+        long[] ids = generator.nextIds(SEQUENCE_SIZE * 2 + 10);
+
+        for (int i = 1; i < ids.length; i++) {
+            assertEquals(ids[i - 1] + 1 + (sequenceOf(ids[i]) == 0 ? (1L << 22) - SEQUENCE_SIZE : 0), ids[i]);
+        }
+        assertEquals(START, timestampOf(ids[0]));
+        assertEquals(START + 2, timestampOf(ids[ids.length - 1]));
+        assertEquals(0, generator.nextIds(0).length);
+        assertThrows(IllegalArgumentException.class, () -> generator.nextIds(-1));
+    }
+
+    @Test
+    @DisplayName("借用上限 - 超过 maxBorrowMillis 时等待时钟追上")
+    void testNextId_BorrowCap() throws Exception {
+        ManualClockGenerator generator = new ManualClockGenerator(2L);
+        // 当前毫秒和可借用的2毫秒全部用完
+        long[] ids = generator.nextIds(SEQUENCE_SIZE * 3);
+        assertEquals(START + 2, timestampOf(ids[ids.length - 1]));
+
+        CompletableFuture<Long> blocked = CompletableFuture.supplyAsync(generator::nextId);
+        Thread.sleep(100);
+        assertFalse(blocked.isDone());
+
+        generator.advance(1);
+        long id = blocked.get(5, TimeUnit.SECONDS);
+
+        assertEquals(START + 3, timestampOf(id));
+        assertEquals(0L, sequenceOf(id));
+    }
+
+    @Test
+    @DisplayName("不借用 - maxBorrowMillis 为 0 时序列号用完等待下一毫秒")
+    void testNextId_NoBorrow() throws Exception {
+        ManualClockGenerator generator = new ManualClockGenerator(0L);
+        generator.nextIds(SEQUENCE_SIZE);
+
+        CompletableFuture<Long> blocked = CompletableFuture.supplyAsync(generator::nextId);
+        Thread.sleep(100);
+        assertFalse(blocked.isDone());
+
+        generator.advance(1);
+        assertEquals(START + 1, timestampOf(blocked.get(5, TimeUnit.SECONDS)));
+    }
+
+    @Test
+    @DisplayName("时钟回拨 - 在 maxBorrowMillis 内继续在上次的时间戳上分配")
+    void testNextId_ClockBackwardsWithinLimit() {
+        ManualClockGenerator generator = new ManualClockGenerator(MAX_BORROW_MILLIS);
+        long before = generator.nextId();
+
+        generator.advance(-MAX_BORROW_MILLIS);
+        long after = generator.nextId();
+
+        assertTrue(after > before);
+        assertEquals(START, timestampOf(after));
+        assertEquals(1L, sequenceOf(after));
+    }
+
+    @Test
+    @DisplayName("时钟回拨 - 超过 maxBorrowMillis 时拒绝生成")
+    void testNextId_ClockBackwardsBeyondLimit() {
+        ManualClockGenerator generator = new ManualClockGenerator(MAX_BORROW_MILLIS);
+        generator.nextId();
+
+        generator.advance(-(MAX_BORROW_MILLIS + 1));
+        IllegalStateException exception = assertThrows(IllegalStateException.class, generator::nextId);
+        assertTrue(exception.getMessage().startsWith("Clock moved backwards"));
+        assertThrows(IllegalStateException.class, () -> generator.nextIds(10));
+
+        // 时钟恢复后继续生成
+        generator.advance(MAX_BORROW_MILLIS + 1);
+        assertEquals(START, timestampOf(generator.nextId()));
+    }
+
+    @Test
+    @DisplayName("时钟回拨 - 借用的时间计入回拨幅度")
+    void testNextId_ClockBackwardsAfterBorrow() {
+        ManualClockGenerator generator = new ManualClockGenerator(MAX_BORROW_MILLIS);
+        // 借用到 START + 2
+        generator.nextIds(SEQUENCE_SIZE * 3);
+
+        // 回拨2毫秒：继续借用到 START + 3，领先时钟 MAX_BORROW_MILLIS 毫秒
+        generator.advance(-2);
+        assertEquals(START + 3, timestampOf(generator.nextId()));
+
+        // 再回拨2毫秒：回拨幅度不足 MAX_BORROW_MILLIS，但上次的时间戳已领先时钟超过上限
+        generator.advance(-2);
+        assertThrows(IllegalStateException.class, generator::nextId);
+    }
+
+    @Test
+    @DisplayName("并发生成 - ID不重复且每个线程内递增")
+    void testNextId_Concurrent() throws InterruptedException {
+        int threads = 16;
+        int perThread = 20000;
+        ManualClockGenerator generator = new ManualClockGenerator(MAX_BORROW_MILLIS);
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        AtomicBoolean ordered = new AtomicBoolean(true);
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService executor = Executors.newFixedThreadPool(threads + 1);
+        CountDownLatch done = new CountDownLatch(threads);
+        try {
+            // 时钟在后台推进，线程间会竞争同一毫秒的序列号并触发借用上限
+            executor.execute(() -> {
+                while (running.get()) {
+                    generator.advance(1);
+                    Thread.yield();
+                }
+            });
+            for (int t = 0; t < threads; t++) {
+                boolean batch = t % 2 == 0;
+                executor.execute(() -> {
+                    long previous = Long.MIN_VALUE;
+                    for (int i = 0; i < perThread; i += batch ? 10 : 1) {
+                        long[] generated = batch ? generator.nextIds(10) : new long[]{generator.nextId()};
+                        for (long id : generated) {
+                            if (id <= previous) {
+                                ordered.set(false);
+                            }
+                            previous = id;
+                            ids.add(id);
+                        }
+                    }
+                    done.countDown();
+                });
+            }
+            assertTrue(done.await(30, TimeUnit.SECONDS));
+        } finally {
+            running.set(false);
+            executor.shutdown();
+        }
+        assertEquals(threads * perThread, ids.size());
+        assertTrue(ordered.get());
+    }
+}
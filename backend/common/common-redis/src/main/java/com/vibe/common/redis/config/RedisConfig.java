@@ -5,18 +5,26 @@ import com.fasterxml.jackson.annotation.PropertyAccessor;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.jsontype.impl.LaissezFaireSubTypeValidator;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.vibe.common.redis.serializer.CompactRedisSerializer;
+import com.vibe.common.redis.serializer.CompactSchema;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
+import java.util.List;
+import java.util.stream.Collectors;
+
 @Configuration
 public class RedisConfig {
 
     @Bean
-    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory factory) {
+    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory factory,
+                                                       ObjectProvider<CompactSchema<?>> compactSchemas) {
         RedisTemplate<String, Object> template = new RedisTemplate<>();
         template.setConnectionFactory(factory);
 
@@ -41,10 +49,15 @@ public class RedisConfig {
         template.setKeySerializer(stringRedisSerializer);
         // hash 的 key 也采用 String 的序列化方式
         template.setHashKeySerializer(stringRedisSerializer);
-        // value 序列化方式采用 jackson
-        template.setValueSerializer(jackson2JsonRedisSerializer);
-        // hash 的 value 序列化方式采用 jackson
-        template.setHashValueSerializer(jackson2JsonRedisSerializer);
+        // 注册了紧凑结构的类型按二进制格式存储，其余类型仍采用 jackson
+        List<CompactSchema<?>> schemas = compactSchemas.orderedStream().collect(Collectors.toList());
+        RedisSerializer<Object> valueSerializer = schemas.isEmpty()
+            ? jackson2JsonRedisSerializer
+            : new CompactRedisSerializer(jackson2JsonRedisSerializer, schemas, CompactRedisSerializer.DEFAULT_COMPRESS_THRESHOLD);
+        // value 序列化方式
+        template.setValueSerializer(valueSerializer);
+        // hash 的 value 序列化方式
+        template.setHashValueSerializer(valueSerializer);
         
         template.afterPropertiesSet();
         return template;
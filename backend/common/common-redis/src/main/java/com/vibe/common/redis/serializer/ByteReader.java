@@ -0,0 +1,74 @@
+package com.vibe.common.redis.serializer;
+
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 字节输入，与 {@link ByteWriter} 的编码对应
+ */
+final class ByteReader {
+
+    private final byte[] bytes;
+
+    private int position;
+
+    private final int limit;
+
+    ByteReader(byte[] bytes, int offset, int limit) {
+        this.bytes = bytes;
+        this.position = offset;
+        this.limit = limit;
+    }
+
+    boolean hasRemaining() {
+        return position < limit;
+    }
+
+    int position() {
+        return position;
+    }
+
+    int readByte() {
+        if (position >= limit) {
+            throw new SerializationException("Unexpected end of compact value");
+        }
+        return bytes[position++] & 0xFF;
+    }
+
+    long readVarLong() {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new SerializationException("Malformed varint in compact value");
+    }
+
+    long readSignedVarLong() {
+        long value = readVarLong();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    int readLength() {
+        long length = readVarLong();
+        if (length < 0 || length > limit - position) {
+            throw new SerializationException("Invalid length in compact value: " + length);
+        }
+        return (int) length;
+    }
+
+    String readString() {
+        int length = readLength();
+        String value = new String(bytes, position, length, StandardCharsets.UTF_8);
+        position += length;
+        return value;
+    }
+
+    void skip(int length) {
+        position += length;
+    }
+}
@@ -0,0 +1,144 @@
+package com.vibe.common.redis.serializer;
+
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Exception;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4SafeDecompressor;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 紧凑二进制 Redis 序列化器
+ * 已注册 {@link CompactSchema} 的类型按二进制格式存储，其余类型（字符串、数字、集合成员等）交给后备序列化器，
+ * 与原有格式完全一致。
+ * <p>
+ * 格式：魔数(0xFE) | 格式版本(高4位)+标志(低4位) | 类型标签(varint) | [压缩前长度(varint)] | 字段数据。
+ * 字段数据达到压缩阈值且压缩后更小时使用 LZ4 压缩。
+ * 读取时首字节不是魔数的值（JSON 文本不会以 0xFE 开头）交给后备序列化器，切换前写入的缓存仍可读取。
+ */
+public class CompactRedisSerializer implements RedisSerializer<Object> {
+
+    private static final int MAGIC = 0xFE;
+
+    private static final int FORMAT_VERSION = 1;
+
+    private static final int FLAG_LZ4 = 0x01;
+
+    /**
+     * 默认压缩阈值（字节）
+     */
+    public static final int DEFAULT_COMPRESS_THRESHOLD = 512;
+
+    /**
+     * 解压后的最大长度，防止损坏的数据申请过大的内存
+     */
+    private static final int MAX_UNCOMPRESSED_LENGTH = 16 * 1024 * 1024;
+
+    private static final LZ4Factory LZ4 = LZ4Factory.fastestInstance();
+
+    private final RedisSerializer<Object> fallback;
+
+    private final Map<Class<?>, CompactSchema<?>> schemasByType = new HashMap<>();
+
+    private final Map<Integer, CompactSchema<?>> schemasByTag = new HashMap<>();
+
+    private final int compressThreshold;
+
+    private final LZ4Compressor compressor = LZ4.fastCompressor();
+
+    private final LZ4SafeDecompressor decompressor = LZ4.safeDecompressor();
+
+    /**
+     * @param fallback          未注册类型使用的序列化器
+     * @param schemas           已注册的对象结构
+     * @param compressThreshold 字段数据达到该长度（字节）时尝试压缩
+     */
+    public CompactRedisSerializer(RedisSerializer<Object> fallback, Collection<CompactSchema<?>> schemas,
+                                  int compressThreshold) {
+        this.fallback = fallback;
+        this.compressThreshold = compressThreshold;
+        for (CompactSchema<?> schema : schemas) {
+            if (schemasByTag.put(schema.getTag(), schema) != null) {
+                throw new IllegalArgumentException("Duplicate compact schema tag: " + schema.getTag());
+            }
+            if (schemasByType.put(schema.getType(), schema) != null) {
+                throw new IllegalArgumentException("Duplicate compact schema type: " + schema.getType().getName());
+            }
+        }
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        CompactSchema<?> schema = value == null ? null : schemasByType.get(value.getClass());
+        if (schema == null) {
+            return fallback.serialize(value);
+        }
+
+        ByteWriter body = new ByteWriter(128);
+        writeBody(schema, body, value);
+
+        ByteWriter out = new ByteWriter(body.size() + 8);
+        if (body.size() >= compressThreshold) {
+            byte[] compressed = new byte[compressor.maxCompressedLength(body.size())];
+            int compressedLength = compressor.compress(body.buffer(), 0, body.size(), compressed, 0, compressed.length);
+            if (compressedLength < body.size()) {
+                out.writeByte(MAGIC);
+                out.writeByte(FORMAT_VERSION << 4 | FLAG_LZ4);
+                out.writeVarLong(schema.getTag());
+                out.writeVarLong(body.size());
+                out.writeBytes(compressed, 0, compressedLength);
+                return out.toByteArray();
+            }
+        }
+        out.writeByte(MAGIC);
+        out.writeByte(FORMAT_VERSION << 4);
+        out.writeVarLong(schema.getTag());
+        out.writeBytes(body.buffer(), 0, body.size());
+        return out.toByteArray();
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0 || (bytes[0] & 0xFF) != MAGIC) {
+            return fallback.deserialize(bytes);
+        }
+
+        ByteReader in = new ByteReader(bytes, 1, bytes.length);
+        int header = in.readByte();
+        if (header >>> 4 != FORMAT_VERSION) {
+            throw new SerializationException("Unsupported compact format version: " + (header >>> 4));
+        }
+        int tag = (int) in.readVarLong();
+        CompactSchema<?> schema = schemasByTag.get(tag);
+        if (schema == null) {
+            throw new SerializationException("Unknown compact type tag: " + tag);
+        }
+
+        if ((header & FLAG_LZ4) == 0) {
+            return schema.read(in);
+        }
+        long uncompressedLength = in.readVarLong();
+        if (uncompressedLength < 0 || uncompressedLength > MAX_UNCOMPRESSED_LENGTH) {
+            throw new SerializationException("Invalid uncompressed length in compact value: " + uncompressedLength);
+        }
+        byte[] body = new byte[(int) uncompressedLength];
+        try {
+            int length = decompressor.decompress(bytes, in.position(), bytes.length - in.position(), body, 0);
+            if (length != body.length) {
+                throw new SerializationException("Truncated compressed compact value");
+            }
+        } catch (LZ4Exception e) {
+            throw new SerializationException("Corrupted compressed compact value", e);
+        }
+        return schema.read(new ByteReader(body, 0, body.length));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> void writeBody(CompactSchema<T> schema, ByteWriter out, Object value) {
+        schema.write(out, (T) value);
+    }
+}
@@ -0,0 +1,137 @@
+package com.vibe.common.redis.serializer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 紧凑格式的对象结构：类型标签 + 按顺序排列的字段，序列化结果中不包含类名和字段名
+ * <p>
+ * 结构演进规则：只能在末尾追加字段，不能删除或调整已有字段的顺序和类型（不再使用的字段保留占位）。
+ * 序列化结果记录了字段数量，旧版本读取新数据时跳过多出的字段，新版本读取旧数据时缺少的字段为 null。
+ * 不兼容的修改需要使用新的类型标签。
+ *
+ * @param <T> 对象类型
+ */
+public final class CompactSchema<T> {
+
+    private final int tag;
+
+    private final Class<T> type;
+
+    private final Supplier<T> factory;
+
+    private final List<Field<T, ?>> fields;
+
+    private CompactSchema(int tag, Class<T> type, Supplier<T> factory, List<Field<T, ?>> fields) {
+        this.tag = tag;
+        this.type = type;
+        this.factory = factory;
+        this.fields = fields;
+    }
+
+    /**
+     * @param tag     类型标签（正整数，同一个 Redis 中全局唯一，写入后不能修改）
+     * @param type    对象类型
+     * @param factory 创建空对象
+     */
+    public static <T> Builder<T> builder(int tag, Class<T> type, Supplier<T> factory) {
+        if (tag <= 0) {
+            throw new IllegalArgumentException("compact schema tag must be positive");
+        }
+        return new Builder<>(tag, type, factory);
+    }
+
+    public int getTag() {
+        return tag;
+    }
+
+    public Class<T> getType() {
+        return type;
+    }
+
+    void write(ByteWriter out, T value) {
+        out.writeVarLong(fields.size());
+        for (Field<T, ?> field : fields) {
+            field.write(out, value);
+        }
+    }
+
+    T read(ByteReader in) {
+        int count = (int) in.readVarLong();
+        T value = factory.get();
+        for (int i = 0; i < count; i++) {
+            if (i < fields.size()) {
+                fields.get(i).read(in, value);
+            } else {
+                CompactType.skip(in);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * 对象结构构造器
+     */
+    public static final class Builder<T> {
+
+        private final int tag;
+
+        private final Class<T> type;
+
+        private final Supplier<T> factory;
+
+        private final List<Field<T, ?>> fields = new ArrayList<>();
+
+        private Builder(int tag, Class<T> type, Supplier<T> factory) {
+            this.tag = tag;
+            this.type = type;
+            this.factory = factory;
+        }
+
+        /**
+         * 追加字段
+         *
+         * @param fieldType 字段类型
+         * @param getter    读取字段
+         * @param setter    写入字段
+         */
+        public <V> Builder<T> field(CompactType<V> fieldType, Function<T, V> getter, BiConsumer<T, V> setter) {
+            fields.add(new Field<>(fieldType, getter, setter));
+            return this;
+        }
+
+        public CompactSchema<T> build() {
+            return new CompactSchema<>(tag, type, factory, Collections.unmodifiableList(new ArrayList<>(fields)));
+        }
+    }
+
+    private static final class Field<T, V> {
+
+        private final CompactType<V> fieldType;
+
+        private final Function<T, V> getter;
+
+        private final BiConsumer<T, V> setter;
+
+        Field(CompactType<V> fieldType, Function<T, V> getter, BiConsumer<T, V> setter) {
+            this.fieldType = fieldType;
+            this.getter = getter;
+            this.setter = setter;
+        }
+
+        void write(ByteWriter out, T value) {
+            fieldType.write(out, getter.apply(value));
+        }
+
+        void read(ByteReader in, T value) {
+            V fieldValue = fieldType.read(in);
+            if (fieldValue != null) {
+                setter.accept(value, fieldValue);
+            }
+        }
+    }
+}
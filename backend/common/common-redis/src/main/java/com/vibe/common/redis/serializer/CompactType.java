@@ -0,0 +1,169 @@
+package com.vibe.common.redis.serializer;
+
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * 紧凑格式的字段类型
+ * 每个字段值以1字节类型标记开头（null 只占这1字节），读取方不认识的字段也能按标记跳过
+ *
+ * @param <V> 字段的 Java 类型
+ */
+public abstract class CompactType<V> {
+
+    private static final int MARKER_NULL = 0;
+    private static final int MARKER_FALSE = 1;
+    private static final int MARKER_TRUE = 2;
+    private static final int MARKER_INT = 3;
+    private static final int MARKER_LONG = 4;
+    private static final int MARKER_STRING = 5;
+    private static final int MARKER_DATE = 6;
+    private static final int MARKER_DATE_TIME = 7;
+
+    public static final CompactType<Boolean> BOOLEAN = new CompactType<Boolean>() {
+        @Override
+        void writeValue(ByteWriter out, Boolean value) {
+            out.writeByte(value ? MARKER_TRUE : MARKER_FALSE);
+        }
+
+        @Override
+        Boolean readValue(ByteReader in, int marker) {
+            expect(marker, MARKER_FALSE, MARKER_TRUE);
+            return marker == MARKER_TRUE;
+        }
+    };
+
+    public static final CompactType<Integer> INTEGER = new CompactType<Integer>() {
+        @Override
+        void writeValue(ByteWriter out, Integer value) {
+            out.writeByte(MARKER_INT);
+            out.writeSignedVarLong(value);
+        }
+
+        @Override
+        Integer readValue(ByteReader in, int marker) {
+            expect(marker, MARKER_INT, MARKER_INT);
+            return (int) in.readSignedVarLong();
+        }
+    };
+
+    public static final CompactType<Long> LONG = new CompactType<Long>() {
+        @Override
+        void writeValue(ByteWriter out, Long value) {
+            out.writeByte(MARKER_LONG);
+            out.writeSignedVarLong(value);
+        }
+
+        @Override
+        Long readValue(ByteReader in, int marker) {
+            expect(marker, MARKER_LONG, MARKER_LONG);
+            return in.readSignedVarLong();
+        }
+    };
+
+    public static final CompactType<String> STRING = new CompactType<String>() {
+        @Override
+        void writeValue(ByteWriter out, String value) {
+            out.writeByte(MARKER_STRING);
+            out.writeString(value);
+        }
+
+        @Override
+        String readValue(ByteReader in, int marker) {
+            expect(marker, MARKER_STRING, MARKER_STRING);
+            return in.readString();
+        }
+    };
+
+    /**
+     * 日期，存储 epochDay
+     */
+    public static final CompactType<LocalDate> LOCAL_DATE = new CompactType<LocalDate>() {
+        @Override
+        void writeValue(ByteWriter out, LocalDate value) {
+            out.writeByte(MARKER_DATE);
+            out.writeSignedVarLong(value.toEpochDay());
+        }
+
+        @Override
+        LocalDate readValue(ByteReader in, int marker) {
+            expect(marker, MARKER_DATE, MARKER_DATE);
+            return LocalDate.ofEpochDay(in.readSignedVarLong());
+        }
+    };
+
+    /**
+     * 日期时间（不含时区），存储按 UTC 换算的秒数和纳秒
+     */
+    public static final CompactType<LocalDateTime> LOCAL_DATE_TIME = new CompactType<LocalDateTime>() {
+        @Override
+        void writeValue(ByteWriter out, LocalDateTime value) {
+            out.writeByte(MARKER_DATE_TIME);
+            out.writeSignedVarLong(value.toEpochSecond(ZoneOffset.UTC));
+            out.writeVarLong(value.getNano());
+        }
+
+        @Override
+        LocalDateTime readValue(ByteReader in, int marker) {
+            expect(marker, MARKER_DATE_TIME, MARKER_DATE_TIME);
+            long epochSecond = in.readSignedVarLong();
+            return LocalDateTime.ofEpochSecond(epochSecond, (int) in.readVarLong(), ZoneOffset.UTC);
+        }
+    };
+
+    CompactType() {
+    }
+
+    final void write(ByteWriter out, V value) {
+        if (value == null) {
+            out.writeByte(MARKER_NULL);
+        } else {
+            writeValue(out, value);
+        }
+    }
+
+    final V read(ByteReader in) {
+        int marker = in.readByte();
+        return marker == MARKER_NULL ? null : readValue(in, marker);
+    }
+
+    abstract void writeValue(ByteWriter out, V value);
+
+    abstract V readValue(ByteReader in, int marker);
+
+    /**
+     * 跳过一个字段值（读取方的结构中没有该字段）
+     */
+    static void skip(ByteReader in) {
+        int marker = in.readByte();
+        switch (marker) {
+            case MARKER_NULL:
+            case MARKER_FALSE:
+            case MARKER_TRUE:
+                return;
+            case MARKER_INT:
+            case MARKER_LONG:
+            case MARKER_DATE:
+                in.readVarLong();
+                return;
+            case MARKER_STRING:
+                in.skip(in.readLength());
+                return;
+            case MARKER_DATE_TIME:
+                in.readVarLong();
+                in.readVarLong();
+                return;
+            default:
+                throw new SerializationException("Unknown field marker in compact value: " + marker);
+        }
+    }
+
+    private static void expect(int marker, int min, int max) {
+        if (marker < min || marker > max) {
+            throw new SerializationException("Unexpected field marker in compact value: " + marker);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.vibe.gateway.config;
+
+import com.vibe.common.core.utils.JwtKeyRing;
+import com.vibe.common.core.utils.JwtUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.cloud.context.scope.refresh.RefreshScopeRefreshedEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
+import org.springframework.util.StringUtils;
+
+import javax.annotation.PostConstruct;
+import java.security.interfaces.ECPublicKey;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * JWT验签密钥加载
+ * 密钥组由配置中的 HS512 共享密钥和从用户服务拉取的 ES256 公钥（见 JwksService）组成，
+ * 启动时、Nacos 配置刷新后以及公钥变化时重新构建并整体替换，验签线程不加锁
+ */
+@Slf4j
+@Configuration
+public class JwtKeyConfig {
+
+    @Autowired
+    private JwtProperties jwtProperties;
+
+    @Autowired
+    private Environment environment;
+
+    /**
+     * 构建密钥组使用的配置
+     * 刷新时 Map 属性按键合并，配置中删除的密钥仍会留在 jwtProperties 中，因此刷新时从当前配置重新绑定
+     */
+    private JwtProperties keyProperties;
+
+    /**
+     * 最近一次拉取到的 ES256 公钥（拉取失败时保留）
+     */
+    private volatile Map<String, ECPublicKey> publicKeys = Collections.emptyMap();
+
+    /**
+     * 启动时加载共享密钥，配置错误时启动失败
+     * 未配置共享密钥时先使用空密钥组（拒绝全部Token），拉取到 ES256 公钥后再替换
+     */
+    @PostConstruct
+    public synchronized void init() {
+        keyProperties = jwtProperties;
+        if (secrets(jwtProperties).isEmpty()) {
+            if (!jwtProperties.getJwks().isEnabled() && !environment.acceptsProfiles(Profiles.of("dev", "test"))) {
+                throw new IllegalStateException("未配置JWT验签密钥（jwt.keys），也未开启 jwt.jwks 拉取公钥");
+            }
+            JwtUtils.setKeyRing(JwtKeyRing.empty());
+            log.warn("未配置JWT共享密钥，拉取到ES256公钥之前拒绝全部Token");
+            return;
+        }
+        JwtKeyRing keyRing = build(jwtProperties);
+        JwtUtils.setKeyRing(keyRing);
+        log.info("JWT验签密钥已加载: keys={}", keyRing.getKeyIds());
+    }
+
+    /**
+     * Nacos 配置刷新后替换密钥组，配置错误时继续使用旧密钥
+     */
+    @EventListener(RefreshScopeRefreshedEvent.class)
+    public void onRefresh() {
+        reload("配置刷新", Binder.get(environment).bind("jwt", JwtProperties.class).orElseGet(JwtProperties::new));
+    }
+
+    /**
+     * 更新 ES256 公钥，有变化时替换密钥组
+     */
+    public void updatePublicKeys(Map<String, ECPublicKey> newPublicKeys) {
+        if (newPublicKeys.equals(publicKeys)) {
+            return;
+        }
+        publicKeys = newPublicKeys;
+        reload("公钥更新", null);
+    }
+
+    /**
+     * 配置刷新和公钥拉取可能并发，串行构建避免用旧数据覆盖新密钥组（验签线程不受影响）
+     *
+     * @param refreshed 刷新后重新绑定的配置，为 null 时使用当前配置
+     */
+    private synchronized void reload(String reason, JwtProperties refreshed) {
+        JwtProperties properties = refreshed != null ? refreshed : keyProperties;
+        if (secrets(properties).isEmpty() && publicKeys.isEmpty()) {
+            // 删除了最后一个共享密钥且还没有公钥：拒绝全部Token，不能继续使用已删除的密钥
+            keyProperties = properties;
+            JwtUtils.setKeyRing(JwtKeyRing.empty());
+            log.warn("JWT验签密钥已清空（{}），拒绝全部Token直到拉取到ES256公钥", reason);
+            return;
+        }
+        try {
+            JwtKeyRing keyRing = build(properties);
+            keyProperties = properties;
+            JwtUtils.setKeyRing(keyRing);
+            log.info("JWT验签密钥已更新（{}）: keys={}", reason, keyRing.getKeyIds());
+        } catch (IllegalArgumentException e) {
+            log.error("JWT验签密钥更新失败（{}），继续使用旧密钥: {}", reason, e.getMessage());
+        }
+    }
+
+    /**
+     * 只验签的密钥组（不设置当前密钥）
+     */
+    private JwtKeyRing build(JwtProperties properties) {
+        JwtKeyRing.Builder builder = JwtKeyRing.builder().defaultKeyId(properties.getDefaultKeyId());
+        secrets(properties).forEach(builder::secret);
+        publicKeys.forEach(builder::publicKey);
+        return builder.build();
+    }
+
+    /**
+     * 配置的 HS512 共享密钥，忽略空值（未设置环境变量的占位符）
+     */
+    private static Map<String, String> secrets(JwtProperties properties) {
+        Map<String, String> secrets = new LinkedHashMap<>();
+        properties.getKeys().forEach((keyId, secret) -> {
+            if (StringUtils.hasText(secret)) {
+                secrets.put(keyId, secret);
+            }
+        });
+        return secrets;
+    }
+}
@@ -0,0 +1,56 @@
+package com.vibe.gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * JWT验签密钥配置属性
+ * 从 application.yml 中读取 jwt 配置；网关只验签，不签发Token
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "jwt")
+public class JwtProperties {
+
+    /**
+     * 未带 kid 的Token（引入密钥轮换之前签发）使用的密钥ID，为空时拒绝此类Token
+     */
+    private String defaultKeyId;
+
+    /**
+     * HS512 共享密钥：密钥ID → 密钥（UTF-8 编码后不少于64字节），与用户服务使用同一组配置；
+     * 用户服务全部改用 ES256 后可以删除，网关不再持有任何签名密钥
+     */
+    private Map<String, String> keys = new LinkedHashMap<>();
+
+    /**
+     * ES256 公钥拉取配置
+     */
+    private Jwks jwks = new Jwks();
+
+    /**
+     * ES256 公钥拉取配置
+     */
+    @Data
+    public static class Jwks {
+
+        /**
+         * 是否从用户服务拉取 ES256 公钥
+         */
+        private boolean enabled = true;
+
+        /**
+         * JWKS 地址（通过负载均衡访问）
+         */
+        private String uri = "http://user-service/api/user/auth/jwks";
+
+        /**
+         * 拉取间隔（毫秒），新密钥需要在所有网关拉取后才能切换为当前密钥
+         */
+        private long refreshInterval = 300000;
+    }
+}
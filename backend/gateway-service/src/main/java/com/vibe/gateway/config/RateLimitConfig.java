@@ -0,0 +1,159 @@
+package com.vibe.gateway.config;
+
+import com.vibe.gateway.ratelimit.KeySource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.context.scope.refresh.RefreshScopeRefreshedEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.PathContainer;
+import org.springframework.util.StringUtils;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 限流策略配置管理类
+ * 启动时（以及 Nacos 配置刷新后）将策略编译为路径匹配器，提供按请求匹配限流策略的功能
+ */
+@Slf4j
+@Configuration
+public class RateLimitConfig {
+
+    @Autowired
+    private RateLimitProperties rateLimitProperties;
+
+    private final PathPatternParser pathPatternParser = new PathPatternParser();
+
+    /**
+     * 已编译的策略（整体替换，保证刷新时读到的始终是完整的一组策略）
+     */
+    private volatile List<CompiledPolicy> compiledPolicies = Collections.emptyList();
+
+    /**
+     * 已编译的限流策略
+     */
+    private static class CompiledPolicy {
+        private final RateLimitProperties.Policy policy;
+        private final PathPattern pattern;
+        private final Set<HttpMethod> methods;
+
+        CompiledPolicy(RateLimitProperties.Policy policy, PathPattern pattern, Set<HttpMethod> methods) {
+            this.policy = policy;
+            this.pattern = pattern;
+            this.methods = methods;
+        }
+
+        boolean matches(PathContainer path, HttpMethod method) {
+            return (methods.isEmpty() || methods.contains(method)) && pattern.matches(path);
+        }
+    }
+
+    /**
+     * 初始化时编译并打印限流策略
+     */
+    @PostConstruct
+    public void init() {
+        compiledPolicies = compile(rateLimitProperties.getPolicies());
+        log.info("========== Gateway Rate Limit Configuration ==========");
+        if (!rateLimitProperties.isEnabled() || compiledPolicies.isEmpty()) {
+            log.warn("限流未启用或未配置限流策略");
+        } else {
+            log.info("限流策略数量: {}", compiledPolicies.size());
+            compiledPolicies.forEach(compiled -> log.info("  - {} {} {} key={}:{} windows={}",
+                    compiled.policy.getId(), compiled.policy.getPath(), compiled.policy.getAlgorithm(),
+                    compiled.policy.getKeySource(), compiled.policy.getKeyName(), compiled.policy.getWindows()));
+        }
+        log.info("======================================================");
+    }
+
+    /**
+     * Nacos 配置刷新后重新编译限流策略
+     */
+    @EventListener(RefreshScopeRefreshedEvent.class)
+    public void onRefresh() {
+        try {
+            compiledPolicies = compile(rateLimitProperties.getPolicies());
+            log.info("限流策略已刷新，策略数量: {}", compiledPolicies.size());
+        } catch (RuntimeException e) {
+            log.error("限流策略刷新失败，继续使用旧策略: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 获取与请求匹配的限流策略
+     *
+     * @param requestPath 请求路径
+     * @param method      请求方法
+     * @return 匹配的策略列表（按配置顺序），未启用限流或无匹配时返回空列表
+     */
+    public List<RateLimitProperties.Policy> getMatchedPolicies(String requestPath, HttpMethod method) {
+        if (!rateLimitProperties.isEnabled() || requestPath == null) {
+            return Collections.emptyList();
+        }
+
+        List<CompiledPolicy> policies = compiledPolicies;
+        if (policies.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        PathContainer path = PathContainer.parsePath(requestPath);
+        List<RateLimitProperties.Policy> matched = null;
+        for (CompiledPolicy compiled : policies) {
+            if (compiled.matches(path, method)) {
+                if (matched == null) {
+                    matched = new ArrayList<>(2);
+                }
+                matched.add(compiled.policy);
+            }
+        }
+        return matched == null ? Collections.emptyList() : matched;
+    }
+
+    /**
+     * 编译并校验限流策略
+     */
+    private List<CompiledPolicy> compile(List<RateLimitProperties.Policy> policies) {
+        if (policies == null || policies.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<CompiledPolicy> compiled = new ArrayList<>(policies.size());
+        for (RateLimitProperties.Policy policy : policies) {
+            if (!StringUtils.hasText(policy.getId()) || !StringUtils.hasText(policy.getPath())) {
+                throw new IllegalStateException("限流策略缺少 id 或 path: " + policy);
+            }
+            if (policy.getWindows() == null || policy.getWindows().isEmpty()) {
+                throw new IllegalStateException("限流策略未配置窗口: " + policy.getId());
+            }
+            for (RateLimitProperties.Window window : policy.getWindows()) {
+                if (window.getLimit() <= 0 || window.getSeconds() <= 0) {
+                    throw new IllegalStateException("限流策略窗口配置错误: " + policy.getId());
+                }
+            }
+            if ((policy.getKeySource() == KeySource.HEADER || policy.getKeySource() == KeySource.BODY)
+                    && !StringUtils.hasText(policy.getKeyName())) {
+                throw new IllegalStateException("限流策略缺少 key-name: " + policy.getId());
+            }
+
+            Set<HttpMethod> methods = EnumSet.noneOf(HttpMethod.class);
+            for (String method : policy.getMethods()) {
+                HttpMethod httpMethod = HttpMethod.resolve(method.trim().toUpperCase());
+                if (httpMethod == null) {
+                    throw new IllegalStateException("限流策略请求方法错误: " + policy.getId() + " " + method);
+                }
+                methods.add(httpMethod);
+            }
+
+            compiled.add(new CompiledPolicy(policy, pathPatternParser.parse(policy.getPath()), methods));
+        }
+        return Collections.unmodifiableList(compiled);
+    }
+}
@@ -1,39 +1,139 @@
 package com.vibe.gateway.config;
 
+import com.vibe.gateway.ratelimit.KeySource;
+import com.vibe.gateway.ratelimit.RateLimitAlgorithm;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * 限流配置属性
+ * 从 application.yml 中读取 rate-limit 配置，每条策略对应一组路由
  */
 @Data
 @Component
-@ConfigurationProperties(prefix = "rate-limit.send-code")
+@ConfigurationProperties(prefix = "rate-limit")
 public class RateLimitProperties {
-    
+
     /**
      * 是否启用限流
      */
     private boolean enabled = true;
-    
+
     /**
-     * 短期限制：时间窗口内最大请求次数
+     * 需要从请求体提取限流 key 时允许的最大请求体大小，超出时返回 413
      */
-    private int shortLimit = 1;
-    
+    private DataSize maxBodySize = DataSize.ofKilobytes(16);
+
     /**
-     * 短期限制：时间窗口（秒）
+     * 网关前的可信代理层数（如 Nginx 为 1）
+     * 按 IP 限流时从 X-Forwarded-For 右侧跳过可信代理追加的地址取客户端 IP，客户端自行填写的左侧地址不会被采用；
+     * 为 0 时表示网关直接对外，使用连接的对端地址
      */
-    private int shortWindow = 60;
-    
+    private int trustedProxies = 1;
+
     /**
-     * 长期限制：时间窗口内最大请求次数
+     * 限流策略列表
      */
-    private int longLimit = 5;
-    
+    private List<Policy> policies = new ArrayList<>();
+
     /**
-     * 长期限制：时间窗口（秒）
+     * 本地预限流配置
      */
-    private int longWindow = 3600;
+    private Local local = new Local();
+
+    /**
+     * 本地预限流（网关内存中的令牌桶，在访问 Redis 之前拦截明显超限的 key）
+     */
+    @Data
+    public static class Local {
+
+        /**
+         * 是否启用本地预限流
+         */
+        private boolean enabled = true;
+
+        /**
+         * 本地令牌桶容量相对窗口上限的倍数（不小于 2 时本地不会拒绝 Redis 会放行的请求）
+         */
+        private int burstMultiplier = 2;
+
+        /**
+         * 最多保留的令牌桶数量（超出后按访问频率淘汰）
+         */
+        private long maximumSize = 100000;
+
+        /**
+         * 令牌桶空闲多久后淘汰（秒）
+         */
+        private long expireAfterAccess = 600;
+    }
+
+    /**
+     * 限流策略
+     */
+    @Data
+    public static class Policy {
+
+        /**
+         * 策略ID（同时作为 Redis key 的一部分）
+         */
+        private String id;
+
+        /**
+         * 匹配的路径（PathPattern 风格，支持 * 和 ** 通配符）
+         */
+        private String path;
+
+        /**
+         * 匹配的请求方法，为空表示所有方法
+         */
+        private List<String> methods = new ArrayList<>();
+
+        /**
+         * 限流 key 的来源
+         */
+        private KeySource keySource = KeySource.IP;
+
+        /**
+         * key-source 为 header 时表示请求头名称，为 body 时表示 JSON 请求体的字段名
+         */
+        private String keyName;
+
+        /**
+         * 限流算法
+         */
+        private RateLimitAlgorithm algorithm = RateLimitAlgorithm.FIXED_WINDOW;
+
+        /**
+         * 触发限流时的提示信息（会追加剩余等待时间）
+         */
+        private String message = "请求过于频繁";
+
+        /**
+         * 限流窗口，所有窗口都未超限时才放行
+         */
+        private List<Window> windows = new ArrayList<>();
+    }
+
+    /**
+     * 限流窗口
+     */
+    @Data
+    public static class Window {
+
+        /**
+         * 时间窗口内最大请求次数（令牌桶算法中为桶容量）
+         */
+        private int limit;
+
+        /**
+         * 时间窗口（秒）（令牌桶算法中为补满整桶所需时间）
+         */
+        private int seconds;
+    }
 }
@@ -0,0 +1,25 @@
+package com.vibe.gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Token缓存配置属性
+ * 从 application.yml 中读取 jwt.cache 配置
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "jwt.cache")
+public class TokenCacheProperties {
+
+    /**
+     * 是否启用已验签Token缓存
+     */
+    private boolean enabled = true;
+
+    /**
+     * 最多缓存的Token数量（超出后按访问频率淘汰）
+     */
+    private long maximumSize = 100000;
+}
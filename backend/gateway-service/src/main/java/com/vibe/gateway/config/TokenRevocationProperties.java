@@ -0,0 +1,30 @@
+package com.vibe.gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Token吊销列表配置属性
+ * 从 application.yml 中读取 jwt.revocation 配置
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "jwt.revocation")
+public class TokenRevocationProperties {
+
+    /**
+     * 是否检查Token吊销列表
+     */
+    private boolean enabled = true;
+
+    /**
+     * 从 Redis 全量同步吊销列表的间隔（毫秒），用于补偿订阅断开期间丢失的通知
+     */
+    private long resyncInterval = 60000;
+
+    /**
+     * 用户级吊销记录在本地保留的时长（毫秒），不小于网关仍会接受的Token的最长有效期
+     */
+    private long retention = 604800000;
+}
@@ -1,17 +1,33 @@
 package com.vibe.gateway.config;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.context.scope.refresh.RefreshScopeRefreshedEvent;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.server.PathContainer;
 import org.springframework.util.AntPathMatcher;
 import org.springframework.util.PathMatcher;
+import org.springframework.util.StringUtils;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import org.springframework.web.util.pattern.PatternParseException;
 
 import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * 白名单配置管理类
- * 提供白名单路径匹配功能
+ * 提供白名单路径匹配功能。
+ * 启动时（以及 Nacos 配置刷新后）将白名单编译为：精确路径集合、"/xxx/**" 前缀列表，
+ * 以及其余需要通配符匹配的 PathPattern（PathPattern 不支持的写法退回 Ant 匹配）。
+ * 只有存在通配符规则时才会使用按路径缓存的匹配结果。
  */
 @Slf4j
 @Configuration
@@ -21,18 +37,96 @@ public class WhitelistConfig {
     private WhitelistProperties whitelistProperties;
 
     /**
-     * Ant风格路径匹配器（支持 * 和 ** 通配符）
+     * Ant风格路径匹配器（仅用于 PathPattern 无法解析的规则，如路径中间的 **）
      */
     private final PathMatcher pathMatcher = new AntPathMatcher();
 
+    private final PathPatternParser pathPatternParser = new PathPatternParser();
+
+    /**
+     * 已编译的白名单（整体替换，刷新时读到的始终是完整的一份白名单及其结果缓存）
+     */
+    private volatile CompiledWhitelist compiledWhitelist;
+
+    /**
+     * 已编译的白名单
+     */
+    private class CompiledWhitelist {
+        private final List<String> paths;
+        private final Set<String> exactPaths = new HashSet<>();
+        private final List<String> prefixes = new ArrayList<>();
+        private final List<PathPattern> pathPatterns = new ArrayList<>();
+        private final List<String> antPatterns = new ArrayList<>();
+        private final Cache<String, Boolean> resultCache;
+
+        CompiledWhitelist(List<String> paths) {
+            this.paths = paths == null ? Collections.emptyList() : Collections.unmodifiableList(new ArrayList<>(paths));
+            for (String path : this.paths) {
+                String pattern = path.trim();
+                if (!StringUtils.hasText(pattern)) {
+                    continue;
+                }
+                if (!pathMatcher.isPattern(pattern)) {
+                    exactPaths.add(pattern);
+                } else if (pattern.endsWith("/**") && !pathMatcher.isPattern(pattern.substring(0, pattern.length() - 3))) {
+                    // "/xxx/**" 匹配 "/xxx" 本身及其所有子路径
+                    prefixes.add(pattern.substring(0, pattern.length() - 3));
+                } else {
+                    try {
+                        pathPatterns.add(pathPatternParser.parse(pattern));
+                    } catch (PatternParseException e) {
+                        antPatterns.add(pattern);
+                    }
+                }
+            }
+            this.resultCache = pathPatterns.isEmpty() && antPatterns.isEmpty() ? null : Caffeine.newBuilder()
+                    .maximumSize(whitelistProperties.getCacheMaximumSize())
+                    .build();
+        }
+
+        boolean matches(String requestPath) {
+            if (exactPaths.contains(requestPath)) {
+                return true;
+            }
+            for (String prefix : prefixes) {
+                if (requestPath.startsWith(prefix)
+                        && (requestPath.length() == prefix.length() || requestPath.charAt(prefix.length()) == '/')) {
+                    return true;
+                }
+            }
+            if (resultCache == null) {
+                return false;
+            }
+            return resultCache.get(requestPath, this::matchesPatterns);
+        }
+
+        private boolean matchesPatterns(String requestPath) {
+            PathContainer path = PathContainer.parsePath(requestPath);
+            for (PathPattern pattern : pathPatterns) {
+                if (pattern.matches(path)) {
+                    return true;
+                }
+            }
+            for (String pattern : antPatterns) {
+                if (pathMatcher.match(pattern, requestPath)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
     /**
-     * 初始化时打印白名单配置
+     * 初始化时编译并打印白名单配置
      */
     @PostConstruct
     public void init() {
+        // 与 Ant 匹配保持一致：不把结尾的 "/" 视为可选
+        pathPatternParser.setMatchOptionalTrailingSeparator(false);
+        compiledWhitelist = new CompiledWhitelist(whitelistProperties.getPaths());
         log.info("========== Gateway Whitelist Configuration ==========");
-        List<String> paths = whitelistProperties.getPaths();
-        if (paths == null || paths.isEmpty()) {
+        List<String> paths = compiledWhitelist.paths;
+        if (paths.isEmpty()) {
             log.warn("白名单配置为空，所有请求都需要认证");
         } else {
             log.info("白名单路径数量: {}", paths.size());
@@ -41,6 +135,15 @@ public class WhitelistConfig {
         log.info("====================================================");
     }
 
+    /**
+     * Nacos 配置刷新后重新编译白名单
+     */
+    @EventListener(RefreshScopeRefreshedEvent.class)
+    public void onRefresh() {
+        compiledWhitelist = new CompiledWhitelist(whitelistProperties.getPaths());
+        log.info("白名单已刷新，白名单路径数量: {}", compiledWhitelist.paths.size());
+    }
+
     /**
      * 判断请求路径是否在白名单中
      *
@@ -52,20 +155,11 @@ public class WhitelistConfig {
             return false;
         }
 
-        List<String> paths = whitelistProperties.getPaths();
-        if (paths == null || paths.isEmpty()) {
-            return false;
-        }
-
-        // 使用 Ant 风格路径匹配（支持通配符）
-        for (String pattern : paths) {
-            if (pathMatcher.match(pattern, requestPath)) {
-                log.debug("请求路径 [{}] 匹配白名单规则 [{}]，跳过认证", requestPath, pattern);
-                return true;
-            }
+        boolean whitelisted = compiledWhitelist.matches(requestPath);
+        if (whitelisted) {
+            log.debug("请求路径 [{}] 匹配白名单规则，跳过认证", requestPath);
         }
-
-        return false;
+        return whitelisted;
     }
 
     /**
@@ -74,6 +168,6 @@ public class WhitelistConfig {
      * @return 白名单路径列表
      */
     public List<String> getWhitelistPaths() {
-        return whitelistProperties.getPaths();
+        return compiledWhitelist.paths;
     }
 }
@@ -20,4 +20,9 @@ public class WhitelistProperties {
      * 白名单路径列表（不需要认证的路径）
      */
     private List<String> paths = new ArrayList<>();
+
+    /**
+     * 通配符规则匹配结果的最大缓存路径数
+     */
+    private long cacheMaximumSize = 10000;
 }
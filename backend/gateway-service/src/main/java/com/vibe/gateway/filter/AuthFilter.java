@@ -2,8 +2,10 @@ package com.vibe.gateway.filter;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.vibe.common.core.utils.JwtUtils;
+import com.vibe.common.core.utils.JwtUtils.ParsedToken;
 import com.vibe.gateway.config.WhitelistConfig;
+import com.vibe.gateway.service.TokenCacheService;
+import com.vibe.gateway.service.TokenRevocationList;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
@@ -32,9 +34,25 @@ import java.util.Map;
 @Component
 public class AuthFilter implements GlobalFilter, Ordered {
 
+    /**
+     * 传递给下游服务的用户ID请求头
+     */
+    public static final String USER_ID_HEADER = "X-User-Id";
+
+    /**
+     * 传递给下游服务的用户名请求头
+     */
+    public static final String USERNAME_HEADER = "X-Username";
+
     @Autowired
     private WhitelistConfig whitelistConfig;
 
+    @Autowired
+    private TokenCacheService tokenCacheService;
+
+    @Autowired
+    private TokenRevocationList tokenRevocationList;
+
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     /**
@@ -55,6 +73,16 @@ public class AuthFilter implements GlobalFilter, Ordered {
         // 1. 检查是否在白名单中
         if (whitelistConfig.isWhitelisted(path)) {
             log.debug("请求路径 [{}] 在白名单中，跳过认证", path);
+            // 移除客户端伪造的用户信息请求头，避免下游服务或按用户限流误用
+            if (request.getHeaders().containsKey(USER_ID_HEADER) || request.getHeaders().containsKey(USERNAME_HEADER)) {
+                ServerHttpRequest strippedRequest = request.mutate()
+                        .headers(headers -> {
+                            headers.remove(USER_ID_HEADER);
+                            headers.remove(USERNAME_HEADER);
+                        })
+                        .build();
+                return chain.filter(exchange.mutate().request(strippedRequest).build());
+            }
             return chain.filter(exchange);
         }
 
@@ -65,27 +93,34 @@ public class AuthFilter implements GlobalFilter, Ordered {
             return unauthorizedResponse(exchange, "未授权：缺少Token");
         }
 
-        // 3. 验证Token
-        if (!JwtUtils.validateToken(token)) {
+        // 3. 验证Token（优先使用已验签缓存）
+        ParsedToken verifiedToken = tokenCacheService.verify(token);
+        if (verifiedToken == null) {
             log.warn("请求路径 [{}] Token验证失败", path);
             return unauthorizedResponse(exchange, "未授权：Token无效或已过期");
         }
 
         // 4. 提取用户信息并传递到下游服务
-        Long userId = JwtUtils.getUserIdFromToken(token);
-        String username = JwtUtils.getUsernameFromToken(token);
+        Long userId = verifiedToken.getUserId();
+        String username = verifiedToken.getUsername();
         
         if (userId == null || !StringUtils.hasText(username)) {
             log.warn("请求路径 [{}] Token中缺少用户信息", path);
             return unauthorizedResponse(exchange, "未授权：Token信息不完整");
         }
 
+        // 5. 检查Token是否已吊销（退出登录、修改密码），只查询本地副本
+        if (tokenRevocationList.isRevoked(verifiedToken)) {
+            log.warn("请求路径 [{}] Token已吊销: userId={}", path, userId);
+            return unauthorizedResponse(exchange, "未授权：Token已失效");
+        }
+
         log.debug("认证成功: userId={}, username={}", userId, username);
 
-        // 5. 将用户信息添加到请求头，传递给下游服务
+        // 6. 将用户信息添加到请求头，传递给下游服务
         ServerHttpRequest mutatedRequest = request.mutate()
-                .header("X-User-Id", userId.toString())
-                .header("X-Username", username)
+                .header(USER_ID_HEADER, userId.toString())
+                .header(USERNAME_HEADER, username)
                 .build();
 
         ServerWebExchange mutatedExchange = exchange.mutate()
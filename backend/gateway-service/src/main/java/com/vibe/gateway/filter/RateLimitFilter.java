@@ -1,8 +1,12 @@
 package com.vibe.gateway.filter;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vibe.gateway.config.RateLimitConfig;
+import com.vibe.gateway.config.RateLimitProperties;
+import com.vibe.gateway.ratelimit.JsonFieldExtractor;
+import com.vibe.gateway.ratelimit.KeySource;
+import com.vibe.gateway.ratelimit.RateLimitKeyResolver;
 import com.vibe.gateway.service.RateLimitService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -10,6 +14,7 @@ import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.GlobalFilter;
 import org.springframework.core.Ordered;
 import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
 import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -17,124 +22,141 @@ import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
 import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.stereotype.Component;
-import org.springframework.util.StringUtils;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
- * 发送验证码限流过滤器
- * 对 /api/user/auth/send-code 接口进行双重限流：
- * 1. 短期限流：同一邮箱 1 分钟内最多发送 1 次
- * 2. 长期限流：同一邮箱 1 小时内最多发送 5 次
+ * 通用限流过滤器
+ * 按 rate-limit.policies 配置对匹配的路由进行限流，策略的 key 可以取自 IP、当前用户、请求头或 JSON 请求体字段。
+ * 一个请求匹配多条策略时按配置顺序依次检查，任一策略拒绝即返回 429。
  */
 @Slf4j
 @Component
 public class RateLimitFilter implements GlobalFilter, Ordered {
-    
+
     @Autowired
     private RateLimitService rateLimitService;
-    
+
+    @Autowired
+    private RateLimitConfig rateLimitConfig;
+
+    @Autowired
+    private RateLimitProperties rateLimitProperties;
+
+    @Autowired
+    private RateLimitKeyResolver rateLimitKeyResolver;
+
     private final ObjectMapper objectMapper = new ObjectMapper();
-    
-    private static final String SEND_CODE_PATH = "/api/user/auth/send-code";
-    
+
     /**
-     * 过滤器执行顺序（在认证过滤器之前执行）
+     * 过滤器执行顺序（在认证过滤器之后执行，以便按 AuthFilter 设置的 X-User-Id 限流）
      */
     @Override
     public int getOrder() {
-        return -200;
+        return -90;
     }
-    
+
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
         ServerHttpRequest request = exchange.getRequest();
         String path = request.getURI().getPath();
-        
-        // 只对发送验证码接口进行限流
-        if (!SEND_CODE_PATH.equals(path)) {
+
+        List<RateLimitProperties.Policy> policies = rateLimitConfig.getMatchedPolicies(path, request.getMethod());
+        if (policies.isEmpty()) {
             return chain.filter(exchange);
         }
-        
-        log.debug("限流检查: path={}, method={}", path, request.getMethod());
-        
-        // 读取请求体获取邮箱地址
-        return DataBufferUtils.join(request.getBody())
-                .flatMap(dataBuffer -> {
-                    byte[] bytes = new byte[dataBuffer.readableByteCount()];
-                    dataBuffer.read(bytes);
-                    DataBufferUtils.release(dataBuffer);
-                    
-                    String bodyString = new String(bytes, StandardCharsets.UTF_8);
-                    
-                    // 解析邮箱地址
-                    String email = extractEmail(bodyString);
-                    if (!StringUtils.hasText(email)) {
-                        log.warn("无法从请求体中提取邮箱地址: body={}", bodyString);
-                        // 无法提取邮箱时，放行请求，让后端验证处理
-                        return chain.filter(rebuildExchange(exchange, bytes));
+
+        log.debug("限流检查: path={}, method={}, policies={}", path, request.getMethod(), policies.size());
+
+        Set<String> bodyFieldNames = policies.stream()
+                .filter(policy -> policy.getKeySource() == KeySource.BODY)
+                .map(RateLimitProperties.Policy::getKeyName)
+                .collect(Collectors.toSet());
+        if (bodyFieldNames.isEmpty()) {
+            return checkPolicies(exchange, chain, policies, Collections.emptyMap(), Collections.emptyList());
+        }
+
+        long maxBodySize = rateLimitProperties.getMaxBodySize().toBytes();
+        if (request.getHeaders().getContentLength() > maxBodySize) {
+            log.warn("请求体过大，拒绝请求: path={}, contentLength={}", path, request.getHeaders().getContentLength());
+            return errorResponse(exchange, HttpStatus.PAYLOAD_TOO_LARGE, "请求体过大");
+        }
+
+        // 流式解析请求体获取限流字段，原始数据块保留下来原样转发给下游（不合并、不拷贝）
+        JsonFieldExtractor extractor = new JsonFieldExtractor(bodyFieldNames);
+        List<DataBuffer> bodyBuffers = new ArrayList<>();
+        long[] received = new long[1];
+        return request.getBody()
+                .doOnNext(buffer -> {
+                    bodyBuffers.add(buffer);
+                    received[0] += buffer.readableByteCount();
+                    if (received[0] > maxBodySize) {
+                        throw new DataBufferLimitException("请求体超过 " + maxBodySize + " 字节");
                     }
-                    
-                    // 进行限流检查
-                    return rateLimitService.checkRateLimit(email)
-                            .flatMap(result -> {
-                                if (!result.isAllowed()) {
-                                    // 触发限流，返回 429
-                                    log.warn("限流拦截: email={}, message={}, remainingTime={}s", 
-                                            email, result.getMessage(), result.getRemainingTime());
-                                    return rateLimitedResponse(exchange, result.getMessage(), result.getRemainingTime());
-                                }
-                                
-                                // 限流通过，重建请求并继续处理
-                                log.debug("限流检查通过: email={}", email);
-                                return chain.filter(rebuildExchange(exchange, bytes));
-                            });
+                    extractor.feed(buffer);
                 })
-                .onErrorResume(e -> {
-                    // 异常时放行请求（降级策略）
-                    log.error("限流过滤器异常，放行请求: error={}", e.getMessage(), e);
-                    return chain.filter(exchange);
+                .doOnError(e -> release(bodyBuffers))
+                .doOnCancel(() -> release(bodyBuffers))
+                .then(Mono.defer(() -> checkPolicies(rebuildExchange(exchange, bodyBuffers), chain, policies,
+                        extractor.finish(), bodyBuffers)))
+                .onErrorResume(DataBufferLimitException.class, e -> {
+                    log.warn("请求体过大，拒绝请求: path={}, error={}", path, e.getMessage());
+                    return errorResponse(exchange, HttpStatus.PAYLOAD_TOO_LARGE, "请求体过大");
                 });
     }
-    
+
     /**
-     * 从请求体 JSON 中提取邮箱地址
-     * 
-     * @param bodyString 请求体字符串
-     * @return 邮箱地址，如果提取失败返回 null
+     * 按顺序检查所有匹配的策略，任一策略拒绝即返回 429
+     *
+     * @param bodyBuffers 已读取的请求体数据块，拒绝请求时释放
      */
-    private String extractEmail(String bodyString) {
-        try {
-            JsonNode jsonNode = objectMapper.readTree(bodyString);
-            JsonNode emailNode = jsonNode.get("email");
-            if (emailNode != null && !emailNode.isNull()) {
-                return emailNode.asText();
-            }
-        } catch (JsonProcessingException e) {
-            log.error("解析请求体 JSON 失败: body={}, error={}", bodyString, e.getMessage());
-        }
-        return null;
+    private Mono<Void> checkPolicies(ServerWebExchange exchange, GatewayFilterChain chain,
+                                     List<RateLimitProperties.Policy> policies, Map<String, String> bodyFields,
+                                     List<DataBuffer> bodyBuffers) {
+        return Flux.fromIterable(policies)
+                .concatMap(policy -> {
+                    String key = rateLimitKeyResolver.resolve(policy, exchange, bodyFields);
+                    if (key == null) {
+                        // 无法提取限流 key 时跳过该策略，让后端验证处理
+                        log.debug("无法解析限流 key，跳过策略: policy={}", policy.getId());
+                        return Mono.empty();
+                    }
+                    return rateLimitService.checkRateLimit(policy, key)
+                            .filter(result -> !result.isAllowed())
+                            .doOnNext(result -> log.warn("限流拦截: policy={}, key={}, message={}, remainingTime={}s",
+                                    policy.getId(), key, result.getMessage(), result.getRemainingTime()));
+                })
+                .next()
+                .flatMap(rejected -> {
+                    release(bodyBuffers);
+                    return rateLimitedResponse(exchange, rejected.getMessage(), rejected.getRemainingTime());
+                })
+                .switchIfEmpty(Mono.defer(() -> chain.filter(exchange)));
     }
-    
+
     /**
      * 重建 ServerWebExchange，因为请求体已被读取
-     * 
+     *
      * @param exchange 原始 exchange
-     * @param bodyBytes 请求体字节数组
+     * @param bodyBuffers 已读取的原始请求体数据块
      * @return 重建后的 exchange
      */
-    private ServerWebExchange rebuildExchange(ServerWebExchange exchange, byte[] bodyBytes) {
+    private ServerWebExchange rebuildExchange(ServerWebExchange exchange, List<DataBuffer> bodyBuffers) {
         ServerHttpRequest request = exchange.getRequest();
-        
-        // 创建新的请求体
-        DataBuffer dataBuffer = exchange.getResponse().bufferFactory().wrap(bodyBytes);
-        Flux<DataBuffer> bodyFlux = Flux.just(dataBuffer);
-        
+
+        // 直接转发原始数据块，由下游写出后释放
+        Flux<DataBuffer> bodyFlux = Flux.fromIterable(bodyBuffers);
+
         // 创建新的请求装饰器
         ServerHttpRequest decoratedRequest = new ServerHttpRequestDecorator(request) {
             @Override
@@ -142,41 +164,60 @@ public class RateLimitFilter implements GlobalFilter, Ordered {
                 return bodyFlux;
             }
         };
-        
+
         // 返回新的 exchange
         return exchange.mutate().request(decoratedRequest).build();
     }
-    
+
+    /**
+     * 释放已读取的请求体数据块
+     */
+    private void release(List<DataBuffer> bodyBuffers) {
+        bodyBuffers.forEach(DataBufferUtils::release);
+        bodyBuffers.clear();
+    }
+
     /**
      * 返回 429 限流响应
-     * 
+     *
      * @param exchange ServerWebExchange
      * @param message 错误消息
      * @param remainingTime 剩余等待时间（秒）
      * @return Mono<Void>
      */
     private Mono<Void> rateLimitedResponse(ServerWebExchange exchange, String message, long remainingTime) {
+        // 添加 Retry-After 响应头（标准 HTTP 头，告知客户端应该等待多久）
+        exchange.getResponse().getHeaders().set("Retry-After", String.valueOf(remainingTime));
+        return errorResponse(exchange, HttpStatus.TOO_MANY_REQUESTS, message);
+    }
+
+    /**
+     * 返回错误响应
+     *
+     * @param exchange ServerWebExchange
+     * @param status HTTP 状态码
+     * @param message 错误消息
+     * @return Mono<Void>
+     */
+    private Mono<Void> errorResponse(ServerWebExchange exchange, HttpStatus status, String message) {
         ServerHttpResponse response = exchange.getResponse();
-        response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        response.setStatusCode(status);
         response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
-        
-        // 添加 Retry-After 响应头（标准 HTTP 头，告知客户端应该等待多久）
-        response.getHeaders().set("Retry-After", String.valueOf(remainingTime));
-        
+
         Map<String, Object> result = new HashMap<>();
-        result.put("code", HttpStatus.TOO_MANY_REQUESTS.value());
+        result.put("code", status.value());
         result.put("message", message);
         result.put("data", null);
         result.put("timestamp", System.currentTimeMillis());
-        
+
         byte[] bytes;
         try {
             bytes = objectMapper.writeValueAsString(result).getBytes(StandardCharsets.UTF_8);
         } catch (JsonProcessingException e) {
             log.error("序列化响应失败", e);
-            bytes = "{\"code\":429,\"message\":\"请求过于频繁\"}".getBytes(StandardCharsets.UTF_8);
+            bytes = ("{\"code\":" + status.value() + ",\"message\":\"" + message + "\"}").getBytes(StandardCharsets.UTF_8);
         }
-        
+
         DataBuffer buffer = response.bufferFactory().wrap(bytes);
         return response.writeWith(Mono.just(buffer));
     }
@@ -0,0 +1,149 @@
+package com.vibe.gateway.ratelimit;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 流式 JSON 字段提取器
+ * 基于 Jackson 非阻塞解析器逐块解析请求体，只提取顶层对象中指定字段的标量值，不构建 JSON 树。
+ * 解析在顶层对象结束（或请求体不是 JSON 对象、格式错误）时停止，之后的数据块直接忽略。
+ * <p>
+ * 同名字段出现多次时取最后一个值，与下游服务 Jackson 反序列化的结果保持一致，
+ * 避免通过重复字段让限流 key 与实际业务参数不一致。
+ * <p>
+ * 非线程安全，每个请求创建一个实例，数据块需按顺序调用 {@link #feed(DataBuffer)}
+ */
+@Slf4j
+public class JsonFieldExtractor {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final Set<String> fieldNames;
+
+    private final Map<String, String> fields = new HashMap<>();
+
+    private final JsonParser parser;
+
+    /**
+     * 复用的输入缓冲区（解析器在数据消费完之前持有该数组，因此只在本块完全解析后才会被覆盖）
+     */
+    private byte[] scratch = new byte[0];
+
+    private int depth;
+
+    private String currentField;
+
+    private boolean done;
+
+    public JsonFieldExtractor(Set<String> fieldNames) {
+        this.fieldNames = fieldNames;
+        try {
+            this.parser = JSON_FACTORY.createNonBlockingByteArrayParser();
+        } catch (IOException e) {
+            throw new IllegalStateException("创建 JSON 解析器失败", e);
+        }
+    }
+
+    /**
+     * 解析一个数据块（不改变数据块的读位置，数据块可以继续转发给下游）
+     *
+     * @param buffer 请求体数据块
+     */
+    public void feed(DataBuffer buffer) {
+        if (done) {
+            return;
+        }
+        int length = buffer.readableByteCount();
+        if (length == 0) {
+            return;
+        }
+        if (scratch.length < length) {
+            scratch = new byte[length];
+        }
+        // asByteBuffer 返回独立的读位置，不影响原数据块
+        ByteBuffer view = buffer.asByteBuffer();
+        view.get(scratch, 0, length);
+
+        try {
+            ((ByteArrayFeeder) parser.getNonBlockingInputFeeder()).feedInput(scratch, 0, length);
+            JsonToken token;
+            while (!done && (token = parser.nextToken()) != JsonToken.NOT_AVAILABLE) {
+                handle(token);
+            }
+        } catch (IOException e) {
+            log.debug("请求体不是合法的 JSON，停止解析: error={}", e.getMessage());
+            finish();
+        }
+    }
+
+    /**
+     * 结束解析并释放解析器
+     *
+     * @return 提取到的字段（字段名到字段值），未找到的字段不包含在内
+     */
+    public Map<String, String> finish() {
+        if (!done) {
+            done = true;
+            try {
+                parser.close();
+            } catch (IOException e) {
+                log.debug("关闭 JSON 解析器失败: error={}", e.getMessage());
+            }
+        }
+        return fields;
+    }
+
+    private void handle(JsonToken token) throws IOException {
+        if (token == null) {
+            finish();
+            return;
+        }
+        switch (token) {
+            case START_OBJECT:
+                depth++;
+                break;
+            case START_ARRAY:
+                if (depth == 0) {
+                    // 顶层不是对象
+                    finish();
+                    return;
+                }
+                depth++;
+                break;
+            case END_OBJECT:
+            case END_ARRAY:
+                depth--;
+                if (depth == 0) {
+                    finish();
+                }
+                break;
+            case FIELD_NAME:
+                if (depth == 1) {
+                    currentField = parser.getCurrentName();
+                }
+                break;
+            default:
+                if (depth == 0) {
+                    // 顶层是标量
+                    finish();
+                } else if (depth == 1 && fieldNames.contains(currentField)) {
+                    if (token == JsonToken.VALUE_NULL) {
+                        fields.remove(currentField);
+                    } else {
+                        fields.put(currentField, parser.getText());
+                    }
+                }
+                break;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.vibe.gateway.ratelimit;
+
+/**
+ * 限流 key 的来源
+ */
+public enum KeySource {
+
+    /**
+     * 客户端 IP
+     */
+    IP,
+
+    /**
+     * 当前登录用户（AuthFilter 设置的 X-User-Id）
+     */
+    USER,
+
+    /**
+     * 指定请求头
+     */
+    HEADER,
+
+    /**
+     * JSON 请求体中的指定字段
+     */
+    BODY
+}
@@ -0,0 +1,131 @@
+package com.vibe.gateway.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.vibe.gateway.config.RateLimitProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 本地预限流器
+ * 在网关内存中为每个（策略, key）维护无锁令牌桶（GCRA 算法，每个窗口一个理论到达时间），
+ * 明显超限的 key 直接在本地拒绝，不产生任何 Redis 访问；其余请求继续交给 Redis 精确限流。
+ * <p>
+ * 本地令牌桶容量为窗口上限的 burst-multiplier 倍，按「上限/窗口」的速率补充。
+ * 倍数不小于 2 时，任意时间段内本地放行的数量都不少于 Redis 任一算法允许的数量，
+ * 因此只有在短时间内请求量超过上限两倍的 key 才会被本地拒绝。
+ * 空闲的令牌桶按 expire-after-access 淘汰，总数受 maximum-size 限制；提前淘汰只会让本地更宽松。
+ */
+@Component
+public class LocalRateLimiter {
+
+    /**
+     * 监控指标中的缓存名称
+     */
+    private static final String CACHE_NAME = "rate.limit.local";
+
+    private final RateLimitProperties rateLimitProperties;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Cache<String, Bucket> buckets;
+
+    public LocalRateLimiter(RateLimitProperties rateLimitProperties, MeterRegistry meterRegistry) {
+        this.rateLimitProperties = rateLimitProperties;
+        this.meterRegistry = meterRegistry;
+        RateLimitProperties.Local local = rateLimitProperties.getLocal();
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(local.getMaximumSize())
+                .expireAfterAccess(local.getExpireAfterAccess(), TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, buckets, CACHE_NAME);
+    }
+
+    /**
+     * 尝试从本地令牌桶获取一个令牌
+     *
+     * @param policy 限流策略
+     * @param key    限流 key
+     * @return 放行时返回 0，本地拒绝时返回建议的等待时间（秒）
+     */
+    public long tryAcquire(RateLimitProperties.Policy policy, String key) {
+        RateLimitProperties.Local local = rateLimitProperties.getLocal();
+        if (!local.isEnabled()) {
+            return 0;
+        }
+
+        List<RateLimitProperties.Window> windows = policy.getWindows();
+        long now = nanoTime();
+        Bucket bucket = buckets.get(policy.getId() + ":" + key, k -> new Bucket(windows.size(), now));
+        if (bucket.tats.length() != windows.size()) {
+            // 配置刷新后窗口数量变化，重新创建令牌桶
+            bucket = new Bucket(windows.size(), now);
+            buckets.put(policy.getId() + ":" + key, bucket);
+        }
+
+        int multiplier = Math.max(local.getBurstMultiplier(), 1);
+        for (int i = 0; i < windows.size(); i++) {
+            RateLimitProperties.Window window = windows.get(i);
+            long interval = TimeUnit.SECONDS.toNanos(window.getSeconds()) / window.getLimit();
+            long tolerance = interval * ((long) window.getLimit() * multiplier - 1);
+            long waitNanos = bucket.acquire(i, now, interval, tolerance);
+            if (waitNanos > 0) {
+                // 归还已在前面窗口取得的令牌
+                for (int j = 0; j < i; j++) {
+                    RateLimitProperties.Window acquired = windows.get(j);
+                    bucket.tats.addAndGet(j, -TimeUnit.SECONDS.toNanos(acquired.getSeconds()) / acquired.getLimit());
+                }
+                meterRegistry.counter("rate.limit.local.rejected", "policy", policy.getId()).increment();
+                return Math.max(TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1), 1);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * 当前时间（纳秒，只用于计算时间差）
+     */
+    protected long nanoTime() {
+        return System.nanoTime();
+    }
+
+    /**
+     * 一个（策略, key）的令牌桶，每个窗口保存一个理论到达时间（TAT，纳秒）
+     */
+    private static class Bucket {
+
+        private final AtomicLongArray tats;
+
+        Bucket(int windows, long now) {
+            this.tats = new AtomicLongArray(windows);
+            for (int i = 0; i < windows; i++) {
+                tats.set(i, now);
+            }
+        }
+
+        /**
+         * CAS 推进第 i 个窗口的理论到达时间
+         *
+         * @return 放行时返回 0，拒绝时返回需要等待的纳秒数
+         */
+        long acquire(int i, long now, long interval, long tolerance) {
+            while (true) {
+                long tat = tats.get(i);
+                long base = tat - now > 0 ? tat : now;
+                long wait = base - now - tolerance;
+                if (wait > 0) {
+                    return wait;
+                }
+                if (tats.compareAndSet(i, tat, base + interval)) {
+                    return 0;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.vibe.gateway.ratelimit;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.List;
+
+/**
+ * 限流算法
+ * 每种算法对应一个 Lua 脚本，在 Redis 中原子地检查并计数所有窗口，一次网络往返。
+ * <p>
+ * 所有脚本的参数约定一致：
+ * KEYS[i] 为第 i 个窗口的 key；ARGV[1] 为本次请求的唯一标识，
+ * ARGV[2i]、ARGV[2i+1] 为第 i 个窗口的次数上限与时长（秒）。
+ * 当前时间由脚本通过 Redis TIME 命令读取，各网关实例的时钟偏差不会影响限流状态。
+ * 返回 {是否允许(1/0), 剩余等待时间(秒), 触发限流的窗口序号(从1开始，0表示未触发)}。
+ * <p>
+ * 注意：脚本文件必须保持纯 ASCII，否则在非 UTF-8 默认字符集下 EVALSHA 摘要不一致，每次都会退化为 EVAL
+ */
+public enum RateLimitAlgorithm {
+
+    /**
+     * 固定窗口计数
+     */
+    FIXED_WINDOW("scripts/fixed_window.lua"),
+
+    /**
+     * 滑动窗口日志（精确，每个请求记录一条时间戳）
+     */
+    SLIDING_WINDOW_LOG("scripts/sliding_window_log.lua"),
+
+    /**
+     * 滑动窗口计数（按上一窗口计数加权估算，内存占用固定）
+     */
+    SLIDING_WINDOW_COUNTER("scripts/sliding_window_counter.lua"),
+
+    /**
+     * 令牌桶（允许突发，按窗口匀速补充令牌）
+     */
+    TOKEN_BUCKET("scripts/token_bucket.lua");
+
+    private final RedisScript<List<Long>> script;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    RateLimitAlgorithm(String scriptPath) {
+        this.script = (RedisScript) RedisScript.of(new ClassPathResource(scriptPath), List.class);
+    }
+
+    public RedisScript<List<Long>> getScript() {
+        return script;
+    }
+}
@@ -0,0 +1,116 @@
+package com.vibe.gateway.ratelimit;
+
+import com.vibe.gateway.config.RateLimitProperties;
+import com.vibe.gateway.filter.AuthFilter;
+import org.springframework.cloud.gateway.support.ipresolver.RemoteAddressResolver;
+import org.springframework.cloud.gateway.support.ipresolver.XForwardedRemoteAddressResolver;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 限流 key 解析器
+ * 按策略配置从 IP、当前用户、请求头或 JSON 请求体字段中提取限流 key
+ * 网关部署在 Nginx 等代理之后，客户端 IP 按可信代理层数（rate-limit.trusted-proxies）从 X-Forwarded-For 中解析
+ */
+@Component
+public class RateLimitKeyResolver {
+
+    /**
+     * key 最大长度，超出时使用摘要（防止超长请求体字段撑大 Redis key）
+     */
+    private static final int MAX_KEY_LENGTH = 128;
+
+    private final RateLimitProperties rateLimitProperties;
+
+    /**
+     * 客户端地址解析器（可信代理层数变化时重建）
+     */
+    private volatile AddressResolver addressResolver;
+
+    public RateLimitKeyResolver(RateLimitProperties rateLimitProperties) {
+        this.rateLimitProperties = rateLimitProperties;
+    }
+
+    /**
+     * 解析限流 key
+     *
+     * @param policy     限流策略
+     * @param exchange   请求（USER 来源需为 AuthFilter 处理后的请求）
+     * @param bodyFields 已提取的请求体字段（不需要请求体时可为空）
+     * @return 限流 key，无法解析时返回 null
+     */
+    public String resolve(RateLimitProperties.Policy policy, ServerWebExchange exchange, Map<String, String> bodyFields) {
+        ServerHttpRequest request = exchange.getRequest();
+        switch (policy.getKeySource()) {
+            case IP:
+                return clientIp(exchange);
+            case USER:
+                return request.getHeaders().getFirst(AuthFilter.USER_ID_HEADER);
+            case HEADER:
+                return normalize(request.getHeaders().getFirst(policy.getKeyName()));
+            case BODY:
+                return normalize(bodyFields.get(policy.getKeyName()));
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * 解析客户端 IP
+     */
+    private String clientIp(ServerWebExchange exchange) {
+        int trustedProxies = rateLimitProperties.getTrustedProxies();
+        AddressResolver resolver = addressResolver;
+        if (resolver == null || resolver.trustedProxies != trustedProxies) {
+            resolver = new AddressResolver(trustedProxies);
+            addressResolver = resolver;
+        }
+        InetSocketAddress remoteAddress = resolver.delegate.resolve(exchange);
+        if (remoteAddress == null) {
+            return null;
+        }
+        // X-Forwarded-For 中的地址未经解析，getAddress() 为空时使用原始字符串
+        return remoteAddress.getAddress() != null
+                ? remoteAddress.getAddress().getHostAddress() : remoteAddress.getHostString();
+    }
+
+    /**
+     * 客户端可控的 key 统一去空格、转小写，避免通过大小写变化绕过限流
+     */
+    private String normalize(String value) {
+        if (!StringUtils.hasText(value)) {
+            return null;
+        }
+        String key = value.trim().toLowerCase(Locale.ROOT);
+        if (key.length() > MAX_KEY_LENGTH) {
+            return DigestUtils.md5DigestAsHex(key.getBytes(StandardCharsets.UTF_8));
+        }
+        return key;
+    }
+
+    /**
+     * 按可信代理层数创建的地址解析器
+     */
+    private static class AddressResolver {
+
+        private final int trustedProxies;
+
+        private final RemoteAddressResolver delegate;
+
+        AddressResolver(int trustedProxies) {
+            this.trustedProxies = trustedProxies;
+            this.delegate = trustedProxies > 0
+                    ? XForwardedRemoteAddressResolver.maxTrustedIndex(trustedProxies)
+                    : new RemoteAddressResolver() {
+                    };
+        }
+    }
+}
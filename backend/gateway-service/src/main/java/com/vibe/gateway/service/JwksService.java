@@ -0,0 +1,78 @@
+package com.vibe.gateway.service;
+
+import com.vibe.common.core.utils.Jwks;
+import com.vibe.gateway.config.JwtKeyConfig;
+import com.vibe.gateway.config.JwtProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.security.interfaces.ECPublicKey;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * ES256 公钥拉取服务
+ * 定期从用户服务的 JWKS 接口拉取公钥并缓存在本地，验签不访问用户服务；拉取失败时继续使用上次的公钥。
+ * 新增验签服务时只需要同样拉取公钥，签名私钥只保存在用户服务中。
+ */
+@Slf4j
+@Service
+public class JwksService {
+
+    private static final ParameterizedTypeReference<Map<String, Object>> JWKS_TYPE =
+            new ParameterizedTypeReference<Map<String, Object>>() {
+            };
+
+    private final JwtProperties jwtProperties;
+
+    private final JwtKeyConfig jwtKeyConfig;
+
+    private final WebClient webClient;
+
+    private Disposable subscription;
+
+    public JwksService(JwtProperties jwtProperties, JwtKeyConfig jwtKeyConfig,
+                       ReactorLoadBalancerExchangeFilterFunction loadBalancerFunction) {
+        this.jwtProperties = jwtProperties;
+        this.jwtKeyConfig = jwtKeyConfig;
+        this.webClient = WebClient.builder().filter(loadBalancerFunction).build();
+    }
+
+    @PostConstruct
+    public void start() {
+        JwtProperties.Jwks jwks = jwtProperties.getJwks();
+        if (!jwks.isEnabled()) {
+            return;
+        }
+        subscription = Flux.interval(Duration.ZERO, Duration.ofMillis(jwks.getRefreshInterval()))
+                .concatMap(tick -> fetch().onErrorResume(e -> {
+                    log.warn("拉取JWKS失败，继续使用上次的公钥: {}", e.getMessage());
+                    return Mono.empty();
+                }))
+                .subscribe(jwtKeyConfig::updatePublicKeys);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
+    }
+
+    private Mono<Map<String, ECPublicKey>> fetch() {
+        return webClient.get()
+                .uri(jwtProperties.getJwks().getUri())
+                .retrieve()
+                .bodyToMono(JWKS_TYPE)
+                .timeout(Duration.ofSeconds(5))
+                .map(Jwks::parse);
+    }
+}
@@ -1,32 +1,34 @@
 package com.vibe.gateway.service;
 
 import com.vibe.gateway.config.RateLimitProperties;
+import com.vibe.gateway.ratelimit.LocalRateLimiter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.redis.core.ReactiveRedisTemplate;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
 
-import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * 限流服务
- * 基于 Redis 实现双重限流逻辑
+ * 基于 Redis Lua 脚本实现多窗口限流，一次检查只需一次 Redis 往返；
+ * 访问 Redis 前先经过本地预限流，明显超限的 key 直接在网关内拒绝
  */
 @Slf4j
 @Service
 public class RateLimitService {
-    
+
     @Autowired
     private ReactiveRedisTemplate<String, String> reactiveRedisTemplate;
-    
+
     @Autowired
-    private RateLimitProperties rateLimitProperties;
-    
-    private static final String RATE_LIMIT_KEY_PREFIX = "rate:limit:send-code:";
-    private static final String SHORT_SUFFIX = ":short";
-    private static final String LONG_SUFFIX = ":long";
-    
+    private LocalRateLimiter localRateLimiter;
+
+    private static final String RATE_LIMIT_KEY_PREFIX = "rate:limit:";
+
     /**
      * 限流检查结果
      */
@@ -34,130 +36,104 @@ public class RateLimitService {
         private final boolean allowed;
         private final String message;
         private final long remainingTime;
-        
+
         public RateLimitResult(boolean allowed, String message, long remainingTime) {
             this.allowed = allowed;
             this.message = message;
             this.remainingTime = remainingTime;
         }
-        
+
         public boolean isAllowed() {
             return allowed;
         }
-        
+
         public String getMessage() {
             return message;
         }
-        
+
         public long getRemainingTime() {
             return remainingTime;
         }
-        
+
         public static RateLimitResult allowed() {
             return new RateLimitResult(true, null, 0);
         }
-        
+
         public static RateLimitResult rejected(String message, long remainingTime) {
             return new RateLimitResult(false, message, remainingTime);
         }
     }
-    
+
     /**
-     * 检查是否允许请求（双重限流）
-     * 
-     * @param email 邮箱地址
+     * 按策略检查是否允许请求
+     * 策略的所有窗口在一个 Lua 脚本中原子地检查与计数
+     *
+     * @param policy 限流策略
+     * @param key 限流 key（邮箱、IP、用户ID等）
      * @return 限流检查结果
      */
-    public Mono<RateLimitResult> checkRateLimit(String email) {
-        if (!rateLimitProperties.isEnabled()) {
-            return Mono.just(RateLimitResult.allowed());
+    public Mono<RateLimitResult> checkRateLimit(RateLimitProperties.Policy policy, String key) {
+        List<RateLimitProperties.Window> windows = policy.getWindows();
+
+        // 本地预限流：洪泛流量在本地拒绝，不访问 Redis
+        long localWaitSeconds = localRateLimiter.tryAcquire(policy, key);
+        if (localWaitSeconds > 0) {
+            log.debug("本地限流触发: policy={}, key={}, remainingSeconds={}", policy.getId(), key, localWaitSeconds);
+            // 本地拒绝时按等待时长本身选择提示单位
+            String message = formatRateLimitMessage(policy.getMessage(),
+                    (int) Math.min(localWaitSeconds, Integer.MAX_VALUE), localWaitSeconds);
+            return Mono.just(RateLimitResult.rejected(message, localWaitSeconds));
         }
-        
-        String shortKey = RATE_LIMIT_KEY_PREFIX + email + SHORT_SUFFIX;
-        String longKey = RATE_LIMIT_KEY_PREFIX + email + LONG_SUFFIX;
-        
-        // 先检查短期限流
-        return checkLimit(shortKey, rateLimitProperties.getShortLimit(), rateLimitProperties.getShortWindow())
-                .flatMap(shortResult -> {
-                    if (!shortResult.isAllowed()) {
-                        return Mono.just(shortResult);
-                    }
-                    
-                    // 短期限流通过，检查长期限流
-                    return checkLimit(longKey, rateLimitProperties.getLongLimit(), rateLimitProperties.getLongWindow());
-                });
-    }
-    
-    /**
-     * 检查单个限流规则
-     * 
-     * @param key Redis key
-     * @param limit 限制次数
-     * @param windowSeconds 时间窗口（秒）
-     * @return 限流检查结果
-     */
-    private Mono<RateLimitResult> checkLimit(String key, int limit, int windowSeconds) {
-        return reactiveRedisTemplate.opsForValue()
-                .get(key)
-                .defaultIfEmpty("0")
-                .flatMap(currentCountStr -> {
-                    int currentCount = Integer.parseInt(currentCountStr);
-                    
-                    if (currentCount >= limit) {
-                        // 超过限制，获取剩余时间
-                        return reactiveRedisTemplate.getExpire(key)
-                                .map(ttl -> {
-                                    long remainingSeconds = ttl != null && ttl.getSeconds() > 0 ? ttl.getSeconds() : windowSeconds;
-                                    String message = formatRateLimitMessage(windowSeconds, remainingSeconds);
-                                    log.warn("限流触发: key={}, currentCount={}, limit={}, remainingSeconds={}", 
-                                            key, currentCount, limit, remainingSeconds);
-                                    return RateLimitResult.rejected(message, remainingSeconds);
-                                });
+
+        // 同一策略同一 key 的所有窗口使用相同的 hash tag，保证 Redis Cluster 下落在同一个 slot
+        String keyPrefix = RATE_LIMIT_KEY_PREFIX + "{" + policy.getId() + ":" + key + "}:";
+        List<String> keys = new ArrayList<>(windows.size());
+        List<String> args = new ArrayList<>(windows.size() * 2 + 1);
+        args.add(Long.toHexString(ThreadLocalRandom.current().nextLong()));
+        for (RateLimitProperties.Window window : windows) {
+            keys.add(keyPrefix + window.getSeconds());
+            args.add(String.valueOf(window.getLimit()));
+            args.add(String.valueOf(window.getSeconds()));
+        }
+
+        return reactiveRedisTemplate.execute(policy.getAlgorithm().getScript(), keys, args)
+                .next()
+                .map(result -> {
+                    if (result.get(0) == 1L) {
+                        return RateLimitResult.allowed();
                     }
-                    
-                    // 未超过限制，计数+1
-                    return reactiveRedisTemplate.opsForValue()
-                            .increment(key)
-                            .flatMap(newCount -> {
-                                if (newCount == 1) {
-                                    // 第一次请求，设置过期时间
-                                    return reactiveRedisTemplate.expire(key, Duration.ofSeconds(windowSeconds))
-                                            .thenReturn(RateLimitResult.allowed());
-                                }
-                                return Mono.just(RateLimitResult.allowed());
-                            });
+                    long remainingSeconds = result.get(1);
+                    int windowIndex = result.get(2).intValue() - 1;
+                    int windowSeconds = windows.get(windowIndex).getSeconds();
+                    String message = formatRateLimitMessage(policy.getMessage(), windowSeconds, remainingSeconds);
+                    log.warn("限流触发: policy={}, key={}, windowSeconds={}, remainingSeconds={}",
+                            policy.getId(), keys.get(windowIndex), windowSeconds, remainingSeconds);
+                    return RateLimitResult.rejected(message, remainingSeconds);
                 })
                 .onErrorResume(e -> {
                     // Redis 异常时，放行请求（降级策略）
-                    log.error("限流检查失败，放行请求: key={}, error={}", key, e.getMessage());
+                    log.error("限流检查失败，放行请求: policy={}, key={}, error={}", policy.getId(), key, e.getMessage());
                     return Mono.just(RateLimitResult.allowed());
                 });
     }
-    
+
     /**
      * 格式化限流提示信息
-     * 
+     *
+     * @param message 策略提示信息
      * @param windowSeconds 时间窗口
      * @param remainingSeconds 剩余时间
      * @return 提示信息
      */
-    private String formatRateLimitMessage(int windowSeconds, long remainingSeconds) {
-        String timeUnit;
-        long time;
-        
+    private String formatRateLimitMessage(String message, int windowSeconds, long remainingSeconds) {
         if (windowSeconds >= 3600) {
-            // 1小时限流
-            timeUnit = "小时";
-            time = remainingSeconds / 60; // 转换为分钟显示
-            if (time == 0) {
-                time = 1; // 至少显示1分钟
+            // 小时级窗口，按分钟显示
+            long minutes = remainingSeconds / 60;
+            if (minutes == 0) {
+                minutes = 1; // 至少显示1分钟
             }
-            return String.format("验证码发送过于频繁，请 %d 分钟后再试", time);
-        } else {
-            // 1分钟限流
-            timeUnit = "秒";
-            time = remainingSeconds;
-            return String.format("验证码发送过于频繁，请 %d 秒后再试", time);
+            return String.format("%s，请 %d 分钟后再试", message, minutes);
         }
+        return String.format("%s，请 %d 秒后再试", message, remainingSeconds);
     }
 }
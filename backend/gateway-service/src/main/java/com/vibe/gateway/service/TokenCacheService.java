@@ -0,0 +1,143 @@
+package com.vibe.gateway.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.vibe.common.core.utils.JwtKeyRing;
+import com.vibe.common.core.utils.JwtUtils;
+import com.vibe.common.core.utils.JwtUtils.ParsedToken;
+import com.vibe.gateway.config.TokenCacheProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 已验签Token缓存服务
+ * 以Token的SHA-256摘要为key缓存验签结果，缓存项在Token过期时间(exp)自动失效。
+ * 缓存未命中时只解析一次Token，命中时不再验签。
+ * 每个缓存项记录验签时使用的密钥组，密钥组替换（轮换删除密钥、公钥更新）后命中的缓存项重新验签，
+ * 已删除密钥签发的Token不会在缓存中继续有效。
+ */
+@Slf4j
+@Service
+public class TokenCacheService {
+
+    /**
+     * 监控指标中的缓存名称
+     */
+    private static final String CACHE_NAME = "jwt.claims";
+
+    /**
+     * SHA-256 摘要器（MessageDigest 非线程安全，按线程复用）
+     */
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not supported", e);
+        }
+    });
+
+    private final TokenCacheProperties tokenCacheProperties;
+
+    private final Cache<String, CachedToken> cache;
+
+    public TokenCacheService(TokenCacheProperties tokenCacheProperties, MeterRegistry meterRegistry) {
+        this.tokenCacheProperties = tokenCacheProperties;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(tokenCacheProperties.getMaximumSize())
+                .expireAfter(new TokenExpiry())
+                .recordStats()
+                .build();
+        // 导出 cache.gets{result=hit|miss} 等指标
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * 验证Token并返回其中的用户信息
+     *
+     * @param token Token（不包含Bearer前缀）
+     * @return 验签通过、未过期且为访问Token时返回Token信息，否则返回 null
+     */
+    public ParsedToken verify(String token) {
+        if (!tokenCacheProperties.isEnabled()) {
+            return parse(token);
+        }
+
+        String key = digest(token);
+        JwtKeyRing keyRing = JwtUtils.getKeyRing();
+        CachedToken cached = cache.getIfPresent(key);
+        if (cached != null && cached.keyRing == keyRing) {
+            return cached.token;
+        }
+
+        // 先取密钥组再验签：验签期间密钥组被替换时，缓存项记录的是旧密钥组，下次命中时重新验签
+        ParsedToken verified = parse(token);
+        if (verified != null) {
+            cache.put(key, new CachedToken(keyRing, verified));
+        } else if (cached != null) {
+            cache.invalidate(key);
+        }
+        return verified;
+    }
+
+    /**
+     * 解析并验签Token（只解析一次），刷新Token不能用于访问接口
+     */
+    private ParsedToken parse(String token) {
+        ParsedToken parsed = JwtUtils.parseToken(token);
+        return parsed.isValid() && parsed.isAccessToken() ? parsed : null;
+    }
+
+    /**
+     * 计算Token摘要，避免在内存中长期保存原始Token
+     */
+    private String digest(String token) {
+        byte[] hash = SHA256.get().digest(token.getBytes(StandardCharsets.US_ASCII));
+        return Base64.getEncoder().withoutPadding().encodeToString(hash);
+    }
+
+    /**
+     * 缓存项：验签结果和验签时使用的密钥组
+     */
+    private static class CachedToken {
+
+        private final JwtKeyRing keyRing;
+
+        private final ParsedToken token;
+
+        CachedToken(JwtKeyRing keyRing, ParsedToken token) {
+            this.keyRing = keyRing;
+            this.token = token;
+        }
+    }
+
+    /**
+     * 缓存项在Token的 exp 时刻过期
+     */
+    private static class TokenExpiry implements Expiry<String, CachedToken> {
+
+        @Override
+        public long expireAfterCreate(String key, CachedToken value, long currentTime) {
+            long remainingMillis = value.token.getExpiration() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMillis, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, CachedToken value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, CachedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.vibe.gateway.service;
+
+import com.vibe.common.core.utils.JwtUtils.ParsedToken;
+import com.vibe.common.core.utils.TokenRevocation;
+import com.vibe.gateway.config.TokenRevocationProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.ReactiveSubscription;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Token吊销列表本地副本
+ * 启动时订阅吊销通知频道，并定期从 Redis 全量同步（补偿订阅断开期间丢失的通知），
+ * 验证Token时只查询本地内存，不访问 Redis。
+ * <p>
+ * 副本中只保存未过期的访问Token jti 和用户级吊销时间，规模与「有效期内被吊销的Token数 + 近期修改密码的用户数」成正比。
+ * 通知到达前的短暂窗口内已吊销的Token仍可能通过，修改密码等敏感接口由用户服务直接查询 Redis。
+ */
+@Slf4j
+@Service
+public class TokenRevocationList {
+
+    private final ReactiveRedisTemplate<String, String> reactiveRedisTemplate;
+
+    private final TokenRevocationProperties properties;
+
+    /**
+     * 已吊销的访问Token：jti → 过期时间（毫秒）
+     */
+    private final Map<String, Long> revokedTokens = new ConcurrentHashMap<>();
+
+    /**
+     * 已吊销全部Token的用户：用户ID → 吊销时间（毫秒）
+     */
+    private final Map<Long, Long> revokedUsers = new ConcurrentHashMap<>();
+
+    private final Disposable.Composite subscriptions = Disposables.composite();
+
+    public TokenRevocationList(ReactiveRedisTemplate<String, String> reactiveRedisTemplate,
+                               TokenRevocationProperties properties, MeterRegistry meterRegistry) {
+        this.reactiveRedisTemplate = reactiveRedisTemplate;
+        this.properties = properties;
+        Gauge.builder("jwt.revocation.size", revokedTokens, Map::size)
+                .tag("type", "token")
+                .register(meterRegistry);
+        Gauge.builder("jwt.revocation.size", revokedUsers, Map::size)
+                .tag("type", "user")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        // 先订阅再全量加载，加载期间发布的通知不会丢失
+        subscriptions.add(reactiveRedisTemplate.listenToChannel(TokenRevocation.CHANNEL)
+                .map(ReactiveSubscription.Message::getMessage)
+                .doOnNext(this::apply)
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1)).maxBackoff(Duration.ofSeconds(30))
+                        .doBeforeRetry(signal -> log.warn("吊销通知订阅中断，正在重连", signal.failure())))
+                .subscribe());
+        subscriptions.add(Flux.interval(Duration.ZERO, Duration.ofMillis(properties.getResyncInterval()))
+                .concatMap(tick -> resync().onErrorResume(e -> {
+                    log.warn("同步Token吊销列表失败", e);
+                    return Mono.empty();
+                }))
+                .subscribe());
+    }
+
+    @PreDestroy
+    public void stop() {
+        subscriptions.dispose();
+    }
+
+    /**
+     * Token是否已被吊销
+     */
+    public boolean isRevoked(ParsedToken token) {
+        if (!properties.isEnabled()) {
+            return false;
+        }
+        Long revokedAt = token.getUserId() == null ? null : revokedUsers.get(token.getUserId());
+        if (revokedAt != null && token.getIssuedAt() < revokedAt) {
+            return true;
+        }
+        return token.getTokenId() != null && revokedTokens.containsKey(token.getTokenId());
+    }
+
+    /**
+     * 从 Redis 全量加载吊销列表并清理本地过期记录
+     */
+    private Mono<Void> resync() {
+        long now = System.currentTimeMillis();
+        Mono<Void> tokens = reactiveRedisTemplate.opsForZSet()
+                .rangeByScoreWithScores(TokenRevocation.ACCESS_KEY, Range.closed((double) now, Double.MAX_VALUE))
+                .doOnNext(tuple -> revokeToken(tuple.getValue(), score(tuple)))
+                .then();
+        Mono<Void> users = reactiveRedisTemplate.opsForZSet()
+                .rangeByScoreWithScores(TokenRevocation.USER_KEY,
+                        Range.closed((double) (now - properties.getRetention()), Double.MAX_VALUE))
+                .doOnNext(tuple -> revokeUser(Long.valueOf(tuple.getValue()), score(tuple)))
+                .then();
+        return tokens.then(users).doOnSuccess(v -> prune(now));
+    }
+
+    /**
+     * 处理吊销通知
+     */
+    void apply(String message) {
+        String[] parts = message.split(":");
+        if (parts.length != 3 || parts[0].length() != 1) {
+            log.warn("无法识别的吊销通知: {}", message);
+            return;
+        }
+        try {
+            switch (parts[0].charAt(0)) {
+                case TokenRevocation.TYPE_TOKEN:
+                    revokeToken(parts[1], Long.parseLong(parts[2]));
+                    break;
+                case TokenRevocation.TYPE_USER:
+                    revokeUser(Long.valueOf(parts[1]), Long.parseLong(parts[2]));
+                    break;
+                default:
+                    log.warn("无法识别的吊销通知: {}", message);
+            }
+        } catch (NumberFormatException e) {
+            log.warn("无法识别的吊销通知: {}", message);
+        }
+    }
+
+    private void revokeToken(String tokenId, long expiration) {
+        if (expiration > System.currentTimeMillis()) {
+            revokedTokens.merge(tokenId, expiration, Math::max);
+        }
+    }
+
+    private void revokeUser(Long userId, long revokedAt) {
+        revokedUsers.merge(userId, revokedAt, Math::max);
+    }
+
+    private void prune(long now) {
+        revokedTokens.values().removeIf(expiration -> expiration <= now);
+        long threshold = now - properties.getRetention();
+        revokedUsers.values().removeIf(revokedAt -> revokedAt <= threshold);
+    }
+
+    private static long score(ZSetOperations.TypedTuple<String> tuple) {
+        return tuple.getScore() == null ? 0 : tuple.getScore().longValue();
+    }
+}
@@ -0,0 +1,30 @@
+-- Fixed window counter, executed atomically in one round trip.
+-- KEYS[i]    : counter key of window i
+-- ARGV[1]    : request id (unused)
+-- ARGV[2i]   : max requests of window i
+-- ARGV[2i+1] : length of window i in seconds
+-- Returns {allowed (1/0), seconds until retry, index of the rejecting window (0 if allowed)}
+
+-- Check every window first; nothing is counted when any window is exhausted.
+for i = 1, #KEYS do
+    local limit = tonumber(ARGV[2 * i])
+    local window = tonumber(ARGV[2 * i + 1])
+    local current = tonumber(redis.call('GET', KEYS[i]) or '0')
+    if current >= limit then
+        local ttl = redis.call('TTL', KEYS[i])
+        if ttl < 0 then
+            -- heal a counter that lost its expiry so the key is not limited forever
+            redis.call('EXPIRE', KEYS[i], window)
+            ttl = window
+        end
+        return {0, ttl, i}
+    end
+end
+
+-- All windows have quota left: count the request, start the window on first hit.
+for i = 1, #KEYS do
+    if redis.call('INCR', KEYS[i]) == 1 then
+        redis.call('EXPIRE', KEYS[i], tonumber(ARGV[2 * i + 1]))
+    end
+end
+return {1, 0, 0}
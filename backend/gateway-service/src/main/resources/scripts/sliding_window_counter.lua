@@ -0,0 +1,44 @@
+-- Sliding window counter: the previous fixed window's count is weighted by how much of it
+-- still overlaps the sliding window. Each window is a hash of bucket index -> count.
+-- KEYS[i]    : hash of window i
+-- ARGV[1]    : request id (unused)
+-- ARGV[2i]   : max requests of window i
+-- ARGV[2i+1] : length of window i in seconds
+-- Returns {allowed (1/0), seconds until retry, index of the rejecting window (0 if allowed)}
+
+-- Time is read from Redis so that gateways with skewed clocks share one timeline.
+-- Scripts calling TIME must replicate effects rather than the script itself (default since Redis 5).
+redis.replicate_commands()
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+local buckets = {}
+
+for i = 1, #KEYS do
+    local limit = tonumber(ARGV[2 * i])
+    local window = tonumber(ARGV[2 * i + 1]) * 1000
+    local bucket = math.floor(now / window)
+    local elapsed = now - bucket * window
+    local counts = redis.call('HMGET', KEYS[i], tostring(bucket), tostring(bucket - 1))
+    local current = tonumber(counts[1] or '0')
+    local previous = tonumber(counts[2] or '0')
+    local estimated = previous * (window - elapsed) / window + current
+    if estimated + 1 > limit then
+        -- time until the weighted estimate leaves room for one more request
+        local wait
+        if current + 1 <= limit and previous > 0 then
+            wait = window * (1 - (limit - 1 - current) / previous) - elapsed
+        else
+            wait = (window - elapsed) + math.max(0, window * (1 - (limit - 1) / math.max(current, 1)))
+        end
+        return {0, math.max(math.ceil(wait / 1000), 1), i}
+    end
+    buckets[i] = bucket
+end
+
+for i = 1, #KEYS do
+    local window = tonumber(ARGV[2 * i + 1]) * 1000
+    redis.call('HINCRBY', KEYS[i], tostring(buckets[i]), 1)
+    redis.call('HDEL', KEYS[i], tostring(buckets[i] - 2))
+    redis.call('PEXPIRE', KEYS[i], window * 2)
+end
+return {1, 0, 0}
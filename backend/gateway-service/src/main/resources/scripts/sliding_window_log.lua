@@ -0,0 +1,34 @@
+-- Sliding window log: one sorted set entry per accepted request, scored by its timestamp.
+-- KEYS[i]    : sorted set of window i
+-- ARGV[1]    : request id, used as the sorted set member
+-- ARGV[2i]   : max requests of window i
+-- ARGV[2i+1] : length of window i in seconds
+-- Returns {allowed (1/0), seconds until retry, index of the rejecting window (0 if allowed)}
+
+-- Time is read from Redis so that gateways with skewed clocks share one timeline.
+-- Scripts calling TIME must replicate effects rather than the script itself (default since Redis 5).
+redis.replicate_commands()
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+
+for i = 1, #KEYS do
+    local limit = tonumber(ARGV[2 * i])
+    local window = tonumber(ARGV[2 * i + 1]) * 1000
+    redis.call('ZREMRANGEBYSCORE', KEYS[i], '-inf', now - window)
+    local count = redis.call('ZCARD', KEYS[i])
+    if count >= limit then
+        -- a slot frees up once the entry at rank (count - limit) leaves the window
+        local retry = window / 1000
+        local entry = redis.call('ZRANGE', KEYS[i], count - limit, count - limit, 'WITHSCORES')
+        if entry[2] then
+            retry = math.ceil((tonumber(entry[2]) + window - now) / 1000)
+        end
+        return {0, math.max(retry, 1), i}
+    end
+end
+
+for i = 1, #KEYS do
+    redis.call('ZADD', KEYS[i], now, ARGV[1])
+    redis.call('PEXPIRE', KEYS[i], tonumber(ARGV[2 * i + 1]) * 1000)
+end
+return {1, 0, 0}
@@ -0,0 +1,36 @@
+-- Token bucket: window i holds up to limit tokens and refills the whole bucket every window.
+-- KEYS[i]    : hash of window i with fields tokens and ts
+-- ARGV[1]    : request id (unused)
+-- ARGV[2i]   : bucket capacity of window i
+-- ARGV[2i+1] : seconds to refill an empty bucket of window i
+-- Returns {allowed (1/0), seconds until retry, index of the rejecting window (0 if allowed)}
+
+-- Time is read from Redis so that gateways with skewed clocks share one timeline.
+-- Scripts calling TIME must replicate effects rather than the script itself (default since Redis 5).
+redis.replicate_commands()
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+local tokens = {}
+
+for i = 1, #KEYS do
+    local capacity = tonumber(ARGV[2 * i])
+    local window = tonumber(ARGV[2 * i + 1]) * 1000
+    local rate = capacity / window
+    local state = redis.call('HMGET', KEYS[i], 'tokens', 'ts')
+    local available = tonumber(state[1] or capacity)
+    local last = tonumber(state[2] or now)
+    if now > last then
+        available = math.min(capacity, available + (now - last) * rate)
+    end
+    if available < 1 then
+        return {0, math.max(math.ceil((1 - available) / rate / 1000), 1), i}
+    end
+    tokens[i] = available
+end
+
+for i = 1, #KEYS do
+    local window = tonumber(ARGV[2 * i + 1]) * 1000
+    redis.call('HSET', KEYS[i], 'tokens', tostring(tokens[i] - 1), 'ts', tostring(now))
+    redis.call('PEXPIRE', KEYS[i], window)
+end
+return {1, 0, 0}
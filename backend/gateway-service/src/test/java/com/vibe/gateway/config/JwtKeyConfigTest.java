@@ -0,0 +1,171 @@
+package com.vibe.gateway.config;
+
+import com.vibe.common.core.utils.JwtKeyRing;
+import com.vibe.common.core.utils.JwtUtils;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.mock.env.MockPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JwtKeyConfig 配置刷新单元测试
+ */
+@DisplayName("JWT验签密钥刷新测试")
+class JwtKeyConfigTest {
+
+    private static final String SECRET_1 = "k1-secret-k1-secret-k1-secret-k1-secret-k1-secret-k1-secret-k1-secret";
+    private static final String SECRET_2 = "k2-secret-k2-secret-k2-secret-k2-secret-k2-secret-k2-secret-k2-secret";
+
+    private JwtKeyRing original;
+
+    private JwtProperties jwtProperties;
+
+    private MockPropertySource config;
+
+    private JwtKeyConfig jwtKeyConfig;
+
+    @BeforeEach
+    void setUp() {
+        original = JwtUtils.getKeyRing();
+        jwtProperties = new JwtProperties();
+        jwtProperties.getKeys().put("k1", SECRET_1);
+        jwtProperties.getKeys().put("k2", SECRET_2);
+        config = new MockPropertySource()
+                .withProperty("jwt.keys.k1", SECRET_1)
+                .withProperty("jwt.keys.k2", SECRET_2);
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(config);
+        jwtKeyConfig = new JwtKeyConfig();
+        ReflectionTestUtils.setField(jwtKeyConfig, "jwtProperties", jwtProperties);
+        ReflectionTestUtils.setField(jwtKeyConfig, "environment", environment);
+    }
+
+    @AfterEach
+    void tearDown() {
+        JwtUtils.setKeyRing(original);
+    }
+
+    @Test
+    @DisplayName("刷新 - 配置中删除的旧密钥不再验签")
+    void testOnRefresh_RemovedKey() {
+        // Given: 用户服务分别用 k1、k2 签发的Token
+        Map<String, String> secrets = new HashMap<>();
+        secrets.put("k1", SECRET_1);
+        secrets.put("k2", SECRET_2);
+        JwtUtils.setKeyRing(JwtKeyRing.of("k1", null, secrets));
+        String token = JwtUtils.generateAccessToken(1L, "user", 60000L);
+        JwtUtils.setKeyRing(JwtKeyRing.of("k2", null, secrets));
+        String oldToken = JwtUtils.generateAccessToken(1L, "user", 60000L);
+        jwtKeyConfig.init();
+        assertTrue(JwtUtils.parseToken(oldToken).isValid());
+
+        // When: 配置中删除 k2（刷新按键合并，jwtProperties 中仍保留 k2）
+        config.getSource().remove("jwt.keys.k2");
+        jwtKeyConfig.onRefresh();
+
+        // Then
+        assertFalse(JwtUtils.parseToken(oldToken).isValid());
+        assertTrue(JwtUtils.parseToken(token).isValid());
+    }
+
+    @Test
+    @DisplayName("刷新 - 公钥更新时不恢复已删除的密钥")
+    void testUpdatePublicKeys_AfterRefresh() throws Exception {
+        // Given
+        jwtKeyConfig.init();
+        config.getSource().remove("jwt.keys.k2");
+        jwtKeyConfig.onRefresh();
+
+        // When: 之后拉取到新的 ES256 公钥，触发重新构建
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+        generator.initialize(new ECGenParameterSpec("secp256r1"));
+        ECPublicKey publicKey = (ECPublicKey) generator.generateKeyPair().getPublic();
+        jwtKeyConfig.updatePublicKeys(Collections.singletonMap("e1", publicKey));
+
+        // Then
+        assertEquals(new HashSet<>(Arrays.asList("k1", "e1")), JwtUtils.getKeyRing().getKeyIds());
+    }
+
+    @Test
+    @DisplayName("刷新 - 删除最后一个共享密钥且没有公钥时拒绝全部Token")
+    void testOnRefresh_RemovedAllKeys() {
+        // Given
+        JwtUtils.setKeyRing(JwtKeyRing.of("k1", null, Collections.singletonMap("k1", SECRET_1)));
+        String token = JwtUtils.generateAccessToken(1L, "user", 60000L);
+        jwtKeyConfig.init();
+        assertTrue(JwtUtils.parseToken(token).isValid());
+
+        // When
+        config.getSource().remove("jwt.keys.k1");
+        config.getSource().remove("jwt.keys.k2");
+        jwtKeyConfig.onRefresh();
+
+        // Then
+        assertTrue(JwtUtils.getKeyRing().getKeyIds().isEmpty());
+        assertFalse(JwtUtils.parseToken(token).isValid());
+    }
+
+    @Test
+    @DisplayName("启动 - 只使用 ES256 公钥时安装空密钥组，未带 kid 的Token也被拒绝")
+    void testInit_PublicKeysOnly() throws Exception {
+        // Given: 用户服务签发的Token（含未带 kid 的旧Token）
+        JwtUtils.setKeyRing(JwtKeyRing.of("k1", "k1", Collections.singletonMap("k1", SECRET_1)));
+        String token = JwtUtils.generateAccessToken(1L, "user", 60000L);
+        String tokenWithoutKeyId = Jwts.builder()
+                .claim("userId", 1L)
+                .setSubject("user")
+                .setExpiration(new Date(System.currentTimeMillis() + 60000L))
+                .signWith(Keys.hmacShaKeyFor(SECRET_1.getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS512)
+                .compact();
+        assertTrue(JwtUtils.parseToken(tokenWithoutKeyId).isValid());
+        jwtProperties.getKeys().clear();
+
+        // When
+        jwtKeyConfig.init();
+
+        // Then: 拉取到公钥之前拒绝全部Token
+        assertTrue(JwtUtils.getKeyRing().getKeyIds().isEmpty());
+        assertFalse(JwtUtils.parseToken(token).isValid());
+        assertFalse(JwtUtils.parseToken(tokenWithoutKeyId).isValid());
+
+        // When: 拉取到公钥
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+        generator.initialize(new ECGenParameterSpec("secp256r1"));
+        ECPublicKey publicKey = (ECPublicKey) generator.generateKeyPair().getPublic();
+        jwtKeyConfig.updatePublicKeys(Collections.singletonMap("e1", publicKey));
+
+        // Then
+        assertEquals(Collections.singleton("e1"), JwtUtils.getKeyRing().getKeyIds());
+        assertFalse(JwtUtils.parseToken(tokenWithoutKeyId).isValid());
+    }
+
+    @Test
+    @DisplayName("启动 - 没有共享密钥且关闭公钥拉取时启动失败")
+    void testInit_NoKeysAndJwksDisabled() {
+        // Given
+        jwtProperties.getKeys().clear();
+        jwtProperties.getJwks().setEnabled(false);
+
+        // When & Then
+        assertThrows(IllegalStateException.class, () -> jwtKeyConfig.init());
+    }
+}
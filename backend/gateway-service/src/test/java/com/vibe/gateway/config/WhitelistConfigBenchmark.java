@@ -0,0 +1,112 @@
+package com.vibe.gateway.config;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 白名单匹配基准测试
+ * <p>
+ * antScan：改造前的方式，每次请求对所有规则逐个执行 AntPathMatcher.match。
+ * compiled：编译后的匹配器（精确集合 + 前缀 + 带结果缓存的 PathPattern）。
+ * 请求路径为需要认证的业务路径（白名单未命中，是最常见也最慢的情况）。
+ * <p>
+ * 运行方式：mvn -pl gateway-service test-compile 后在 IDE 中运行 main 方法
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WhitelistConfigBenchmark {
+
+    /**
+     * 白名单规则数量
+     */
+    @Param({"1", "30"})
+    private int patterns;
+
+    private final PathMatcher pathMatcher = new AntPathMatcher();
+
+    private final String[] requestPaths = {
+            "/api/user/info/1000000000000000001",
+            "/api/user/follow/1000000000000000002",
+            "/api/user/info/current"
+    };
+
+    private List<String> paths;
+
+    private WhitelistConfig whitelistConfig;
+
+    @Setup
+    public void setUp() {
+        paths = new ArrayList<>();
+        paths.add("/api/user/auth/**");
+        for (int i = 1; i < patterns; i++) {
+            switch (i % 3) {
+                case 0:
+                    paths.add("/api/public" + i + "/**");
+                    break;
+                case 1:
+                    paths.add("/api/open" + i + "/list");
+                    break;
+                default:
+                    paths.add("/api/*/share" + i + "/{id}");
+                    break;
+            }
+        }
+
+        WhitelistProperties properties = new WhitelistProperties();
+        properties.setPaths(paths);
+        whitelistConfig = new WhitelistConfig();
+        ReflectionTestUtils.setField(whitelistConfig, "whitelistProperties", properties);
+        whitelistConfig.init();
+    }
+
+    @Benchmark
+    public void antScan(Blackhole blackhole) {
+        for (String requestPath : requestPaths) {
+            boolean matched = false;
+            for (String pattern : paths) {
+                if (pathMatcher.match(pattern, requestPath)) {
+                    matched = true;
+                    break;
+                }
+            }
+            blackhole.consume(matched);
+        }
+    }
+
+    @Benchmark
+    public void compiled(Blackhole blackhole) {
+        for (String requestPath : requestPaths) {
+            blackhole.consume(whitelistConfig.isWhitelisted(requestPath));
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(WhitelistConfigBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,165 @@
+package com.vibe.gateway.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.AntPathMatcher;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * WhitelistConfig 白名单匹配单元测试
+ * 以 AntPathMatcher 逐条匹配的结果为基准，验证编译后的匹配器结果一致
+ */
+@DisplayName("白名单匹配测试")
+class WhitelistConfigTest {
+
+    /**
+     * 覆盖精确路径、"/xxx/**" 前缀、PathPattern 通配符和 Ant 回退四类规则
+     */
+    private static final List<String> PATTERNS = Arrays.asList(
+            "/api/user/auth/**",
+            "/api/public/login",
+            "/api/post/*/comments",
+            "/api/files/*.png",
+            "/api/item/?",
+            "/api/v?/docs",
+            "/api/**/health");
+
+    private static final List<String> PATHS = Arrays.asList(
+            "/api/user/auth",
+            "/api/user/auth/",
+            "/api/user/auth/login",
+            "/api/user/auth/a/b",
+            "/api/user/authx",
+            "/api/user",
+            "/api/public/login",
+            "/api/public/login/",
+            "/api/public/loginx",
+            "/api/public",
+            "/api/post/1/comments",
+            "/api/post/1/comments/",
+            "/api/post/1/2/comments",
+            "/api/post/comments",
+            "/api/files/a.png",
+            "/api/files/a.jpg",
+            "/api/files/x/a.png",
+            "/api/files/a.png/",
+            "/api/item/1",
+            "/api/item/12",
+            "/api/v1/docs",
+            "/api/v10/docs",
+            "/api/health",
+            "/api/a/b/health",
+            "/api/a/health/x",
+            "/",
+            "/other");
+
+    private final AntPathMatcher antPathMatcher = new AntPathMatcher();
+
+    private WhitelistProperties whitelistProperties;
+
+    private WhitelistConfig whitelistConfig;
+
+    @BeforeEach
+    void setUp() {
+        whitelistProperties = new WhitelistProperties();
+        whitelistProperties.setPaths(new ArrayList<>(PATTERNS));
+        whitelistConfig = new WhitelistConfig();
+        ReflectionTestUtils.setField(whitelistConfig, "whitelistProperties", whitelistProperties);
+        whitelistConfig.init();
+    }
+
+    @Test
+    @DisplayName("与 AntPathMatcher 逐条匹配的结果一致")
+    void testIsWhitelisted_SameAsAntPathMatcher() {
+        for (String path : PATHS) {
+            // When: 第二次匹配走结果缓存
+            boolean first = whitelistConfig.isWhitelisted(path);
+            boolean cached = whitelistConfig.isWhitelisted(path);
+
+            // Then
+            assertEquals(antMatches(PATTERNS, path), first, path);
+            assertEquals(first, cached, path);
+        }
+    }
+
+    @Test
+    @DisplayName("每类规则单独配置时与 AntPathMatcher 结果一致")
+    void testIsWhitelisted_SingleRule() {
+        for (String pattern : PATTERNS) {
+            // Given
+            whitelistProperties.setPaths(Collections.singletonList(pattern));
+            whitelistConfig.onRefresh();
+
+            for (String path : PATHS) {
+                // When & Then
+                assertEquals(antPathMatcher.match(pattern, path), whitelistConfig.isWhitelisted(path),
+                        pattern + " " + path);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("前缀规则 - 匹配目录本身及其子路径，不匹配同名前缀的其他路径")
+    void testIsWhitelisted_Prefix() {
+        assertTrue(whitelistConfig.isWhitelisted("/api/user/auth"));
+        assertTrue(whitelistConfig.isWhitelisted("/api/user/auth/send-code"));
+        assertFalse(whitelistConfig.isWhitelisted("/api/user/authorize"));
+        assertFalse(whitelistConfig.isWhitelisted("/api/user/info"));
+    }
+
+    @Test
+    @DisplayName("空路径段 - 不再折叠空段，需要认证（与 AntPathMatcher 不同）")
+    void testIsWhitelisted_EmptySegments() {
+        // Given: AntPathMatcher 会忽略空路径段
+        assertTrue(antMatches(PATTERNS, "/api//user/auth/login"));
+        assertTrue(antMatches(PATTERNS, "/api//public/login"));
+
+        // When & Then
+        assertFalse(whitelistConfig.isWhitelisted("/api//user/auth/login"));
+        assertFalse(whitelistConfig.isWhitelisted("//api/user/auth/login"));
+        assertFalse(whitelistConfig.isWhitelisted("/api//public/login"));
+    }
+
+    @Test
+    @DisplayName("空路径和空白规则 - 不匹配")
+    void testIsWhitelisted_Blank() {
+        // Given
+        whitelistProperties.setPaths(Arrays.asList("", "  ", " /api/public/login "));
+        whitelistConfig.onRefresh();
+
+        // When & Then
+        assertFalse(whitelistConfig.isWhitelisted(null));
+        assertFalse(whitelistConfig.isWhitelisted(""));
+        assertFalse(whitelistConfig.isWhitelisted("/"));
+        assertTrue(whitelistConfig.isWhitelisted("/api/public/login"));
+    }
+
+    @Test
+    @DisplayName("配置刷新 - 使用新规则，不沿用旧的匹配结果缓存")
+    void testOnRefresh() {
+        // Given
+        assertTrue(whitelistConfig.isWhitelisted("/api/post/1/comments"));
+
+        // When
+        whitelistProperties.setPaths(Arrays.asList("/api/files/*.png", "/api/user/info"));
+        whitelistConfig.onRefresh();
+
+        // Then
+        assertFalse(whitelistConfig.isWhitelisted("/api/post/1/comments"));
+        assertFalse(whitelistConfig.isWhitelisted("/api/user/auth/login"));
+        assertTrue(whitelistConfig.isWhitelisted("/api/user/info"));
+        assertEquals(Arrays.asList("/api/files/*.png", "/api/user/info"), whitelistConfig.getWhitelistPaths());
+    }
+
+    private boolean antMatches(List<String> patterns, String path) {
+        return patterns.stream().anyMatch(pattern -> antPathMatcher.match(pattern, path));
+    }
+}
@@ -0,0 +1,178 @@
+package com.vibe.gateway.filter;
+
+import com.vibe.gateway.config.RateLimitConfig;
+import com.vibe.gateway.config.RateLimitProperties;
+import com.vibe.gateway.ratelimit.KeySource;
+import com.vibe.gateway.ratelimit.RateLimitKeyResolver;
+import com.vibe.gateway.service.RateLimitService;
+import com.vibe.gateway.service.RateLimitService.RateLimitResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * RateLimitFilter 按请求体字段限流单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("限流过滤器请求体处理测试")
+class RateLimitFilterTest {
+
+    private static final String BODY = "{\"email\":\"a@example.com\",\"type\":\"register\"}";
+
+    @Mock
+    private RateLimitService rateLimitService;
+
+    @Mock
+    private RateLimitConfig rateLimitConfig;
+
+    private RateLimitProperties rateLimitProperties;
+
+    private RateLimitProperties.Policy policy;
+
+    private RateLimitFilter rateLimitFilter;
+
+    /**
+     * 放行后下游收到的 exchange
+     */
+    private final AtomicReference<ServerWebExchange> forwarded = new AtomicReference<>();
+
+    private final GatewayFilterChain chain = exchange -> {
+        forwarded.set(exchange);
+        return Mono.empty();
+    };
+
+    @BeforeEach
+    void setUp() {
+        rateLimitProperties = new RateLimitProperties();
+        rateLimitProperties.setMaxBodySize(DataSize.ofBytes(64));
+        policy = new RateLimitProperties.Policy();
+        policy.setId("send-code");
+        policy.setKeySource(KeySource.BODY);
+        policy.setKeyName("email");
+        lenient().when(rateLimitConfig.getMatchedPolicies(anyString(), any()))
+                .thenReturn(Collections.singletonList(policy));
+        lenient().when(rateLimitService.checkRateLimit(any(), anyString())).thenReturn(Mono.just(RateLimitResult.allowed()));
+
+        rateLimitFilter = new RateLimitFilter();
+        ReflectionTestUtils.setField(rateLimitFilter, "rateLimitService", rateLimitService);
+        ReflectionTestUtils.setField(rateLimitFilter, "rateLimitConfig", rateLimitConfig);
+        ReflectionTestUtils.setField(rateLimitFilter, "rateLimitProperties", rateLimitProperties);
+        ReflectionTestUtils.setField(rateLimitFilter, "rateLimitKeyResolver", new RateLimitKeyResolver(rateLimitProperties));
+    }
+
+    @Test
+    @DisplayName("请求体字段 - 按字段值限流并原样转发请求体")
+    void testFilter_BodyField() {
+        // Given: 请求体分两块到达
+        MockServerWebExchange exchange = exchange(Flux.just(buffer(BODY.substring(0, 15)), buffer(BODY.substring(15))));
+
+        // When
+        rateLimitFilter.filter(exchange, chain).block();
+
+        // Then
+        verify(rateLimitService).checkRateLimit(policy, "a@example.com");
+        assertNotNull(forwarded.get());
+        assertEquals(BODY, bodyOf(forwarded.get()));
+    }
+
+    @Test
+    @DisplayName("请求体超限 - Content-Length 超过上限时不读取请求体，返回 413")
+    void testFilter_ContentLengthTooLarge() {
+        // Given
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/api/user/auth/send-code")
+                .contentLength(65)
+                .body(Flux.just(buffer(BODY))));
+
+        // When
+        rateLimitFilter.filter(exchange, chain).block();
+
+        // Then
+        assertEquals(HttpStatus.PAYLOAD_TOO_LARGE, exchange.getResponse().getStatusCode());
+        assertNull(forwarded.get());
+        verifyNoInteractions(rateLimitService);
+    }
+
+    @Test
+    @DisplayName("请求体超限 - 未声明长度的请求体读取超过上限时返回 413")
+    void testFilter_StreamedBodyTooLarge() {
+        // Given: 合法的 JSON 对象，但总长度超过 64 字节
+        String body = "{\"email\":\"a@example.com\",\"nickname\":\"" + "x".repeat(40) + "\"}";
+        MockServerWebExchange exchange = exchange(Flux.just(buffer(body.substring(0, 40)), buffer(body.substring(40))));
+
+        // When
+        rateLimitFilter.filter(exchange, chain).block();
+
+        // Then
+        assertEquals(HttpStatus.PAYLOAD_TOO_LARGE, exchange.getResponse().getStatusCode());
+        assertNull(forwarded.get());
+        verifyNoInteractions(rateLimitService);
+    }
+
+    @Test
+    @DisplayName("截断的请求体 - 无法提取限流字段时跳过该策略，由下游校验")
+    void testFilter_TruncatedBody() {
+        // Given
+        MockServerWebExchange exchange = exchange(Flux.just(buffer("{\"type\":\"register\",\"email\":\"a@exa")));
+
+        // When
+        rateLimitFilter.filter(exchange, chain).block();
+
+        // Then
+        verifyNoInteractions(rateLimitService);
+        assertNotNull(forwarded.get());
+    }
+
+    @Test
+    @DisplayName("超过限流 - 返回 429 和 Retry-After")
+    void testFilter_Rejected() {
+        // Given
+        when(rateLimitService.checkRateLimit(policy, "a@example.com"))
+                .thenReturn(Mono.just(RateLimitResult.rejected("请求过于频繁", 30)));
+        MockServerWebExchange exchange = exchange(Flux.just(buffer(BODY)));
+
+        // When
+        rateLimitFilter.filter(exchange, chain).block();
+
+        // Then
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, exchange.getResponse().getStatusCode());
+        assertEquals("30", exchange.getResponse().getHeaders().getFirst("Retry-After"));
+        assertNull(forwarded.get());
+    }
+
+    private static MockServerWebExchange exchange(Flux<DataBuffer> body) {
+        return MockServerWebExchange.from(MockServerHttpRequest.post("/api/user/auth/send-code").body(body));
+    }
+
+    private static DataBuffer buffer(String content) {
+        return DefaultDataBufferFactory.sharedInstance.wrap(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String bodyOf(ServerWebExchange exchange) {
+        DataBuffer joined = DataBufferUtils.join(exchange.getRequest().getBody()).block();
+        assertNotNull(joined);
+        return joined.toString(StandardCharsets.UTF_8);
+    }
+}
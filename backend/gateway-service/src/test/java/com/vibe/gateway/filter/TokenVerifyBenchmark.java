@@ -0,0 +1,181 @@
+package com.vibe.gateway.filter;
+
+import com.vibe.common.core.utils.Jwks;
+import com.vibe.common.core.utils.JwtKeyRing;
+import com.vibe.common.core.utils.JwtUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.MessageDigest;
+import java.security.Signature;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 网关验签吞吐量基准测试（AuthFilter 中 Token 缓存未命中时的验签路径）
+ * <p>
+ * parseToken：JwtUtils.parseToken 完整解析（Base64 解码 + JSON 解析 + 验签），
+ * HS512 使用共享密钥，ES256 使用从 JWKS 还原的公钥（与网关只验签的密钥组一致）。
+ * verifySignature：只做签名校验（JCA），对比 HS512、ES256 和 Ed25519 的验签开销。
+ * 当前 jjwt 0.11 不支持 EdDSA，Ed25519 只测量签名校验，需要 JDK 15 及以上运行。
+ * <p>
+ * 运行方式：mvn -pl gateway-service test-compile 后在 IDE 中运行 main 方法
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenVerifyBenchmark {
+
+    private static final String SECRET = "benchmarksecretkeybenchmarksecretkeybenchmarksecretkeybenchmarksecretkey";
+
+    /**
+     * 访问Token的签名输入（header.payload）
+     */
+    private static final byte[] SIGNING_INPUT = signingInput(
+            JwtUtils.generateAccessToken(1000000000000000001L, "benchmark", 60000L));
+
+    @State(Scope.Benchmark)
+    public static class TokenState {
+
+        @Param({"HS512", "ES256"})
+        public String tokenAlgorithm;
+
+        private String token;
+
+        @Setup
+        public void setUp() throws GeneralSecurityException {
+            if ("HS512".equals(tokenAlgorithm)) {
+                JwtUtils.setKeyRing(JwtKeyRing.of("k1", null, Collections.singletonMap("k1", SECRET)));
+                token = JwtUtils.generateAccessToken(1000000000000000001L, "benchmark", TimeUnit.DAYS.toMillis(1));
+                return;
+            }
+            KeyPair keyPair = ecKeyPair();
+            JwtUtils.setKeyRing(JwtKeyRing.builder()
+                    .activeKeyId("e1")
+                    .keyPair("e1", Base64.getEncoder().encodeToString(keyPair.getPrivate().getEncoded()),
+                            Base64.getEncoder().encodeToString(keyPair.getPublic().getEncoded()))
+                    .build());
+            token = JwtUtils.generateAccessToken(1000000000000000001L, "benchmark", TimeUnit.DAYS.toMillis(1));
+
+            // 网关侧：只持有从 JWKS 还原的公钥
+            Map<String, ECPublicKey> publicKeys = Jwks.parse(
+                    Jwks.toJwks(Collections.singletonMap("e1", (ECPublicKey) keyPair.getPublic())));
+            JwtKeyRing.Builder builder = JwtKeyRing.builder();
+            publicKeys.forEach(builder::publicKey);
+            JwtUtils.setKeyRing(builder.build());
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class SignatureState {
+
+        @Param({"HS512", "ES256", "Ed25519"})
+        public String signatureAlgorithm;
+
+        private SecretKeySpec secretKey;
+
+        private KeyPair keyPair;
+
+        private byte[] signature;
+
+        @Setup
+        public void setUp() throws GeneralSecurityException {
+            switch (signatureAlgorithm) {
+                case "HS512":
+                    secretKey = new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA512");
+                    Mac mac = Mac.getInstance("HmacSHA512");
+                    mac.init(secretKey);
+                    signature = mac.doFinal(SIGNING_INPUT);
+                    break;
+                case "ES256":
+                    keyPair = ecKeyPair();
+                    signature = sign("SHA256withECDSA");
+                    break;
+                default:
+                    keyPair = KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+                    signature = sign("Ed25519");
+            }
+        }
+
+        boolean verify() throws GeneralSecurityException {
+            switch (signatureAlgorithm) {
+                case "HS512":
+                    Mac mac = Mac.getInstance("HmacSHA512");
+                    mac.init(secretKey);
+                    return MessageDigest.isEqual(signature, mac.doFinal(SIGNING_INPUT));
+                case "ES256":
+                    return verify("SHA256withECDSA");
+                default:
+                    return verify("Ed25519");
+            }
+        }
+
+        private byte[] sign(String algorithm) throws GeneralSecurityException {
+            Signature signer = Signature.getInstance(algorithm);
+            signer.initSign(keyPair.getPrivate());
+            signer.update(SIGNING_INPUT);
+            return signer.sign();
+        }
+
+        private boolean verify(String algorithm) throws GeneralSecurityException {
+            Signature verifier = Signature.getInstance(algorithm);
+            verifier.initVerify(keyPair.getPublic());
+            verifier.update(SIGNING_INPUT);
+            return verifier.verify(signature);
+        }
+    }
+
+    @Benchmark
+    public void parseToken(TokenState state, Blackhole blackhole) {
+        JwtUtils.ParsedToken parsedToken = JwtUtils.parseToken(state.token);
+        blackhole.consume(parsedToken.isValid());
+        blackhole.consume(parsedToken.getUserId());
+    }
+
+    @Benchmark
+    public boolean verifySignature(SignatureState state) throws GeneralSecurityException {
+        return state.verify();
+    }
+
+    private static byte[] signingInput(String token) {
+        return token.substring(0, token.lastIndexOf('.')).getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static KeyPair ecKeyPair() throws GeneralSecurityException {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+        generator.initialize(new ECGenParameterSpec("secp256r1"));
+        return generator.generateKeyPair();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TokenVerifyBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,117 @@
+package com.vibe.gateway.ratelimit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 限流过滤器请求体解析基准测试
+ * <p>
+ * joinAndReadTree：改造前的方式，合并全部数据块、拷贝为 byte[]、构建 JSON 树取字段，再重新包装请求体。
+ * streaming：非阻塞解析器逐块解析，只提取字段，原始数据块原样转发。
+ * <p>
+ * 运行方式：mvn -pl gateway-service test-compile 后在 IDE 中运行 main 方法（附带 GC 分析，关注 gc.alloc.rate.norm）
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonFieldExtractorBenchmark {
+
+    private static final int CHUNK_SIZE = 1024;
+
+    private static final Set<String> FIELD_NAMES = Collections.singleton("email");
+
+    /**
+     * 请求体中 email 之后附加的无关数据大小（字节）
+     */
+    @Param({"0", "16000"})
+    private int padding;
+
+    private final DefaultDataBufferFactory bufferFactory = new DefaultDataBufferFactory();
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private List<byte[]> chunks;
+
+    @Setup
+    public void setUp() {
+        char[] junk = new char[padding];
+        Arrays.fill(junk, 'x');
+        byte[] body = ("{\"email\":\"user@example.com\",\"padding\":\"" + new String(junk) + "\"}")
+                .getBytes(StandardCharsets.UTF_8);
+        chunks = new ArrayList<>();
+        for (int i = 0; i < body.length; i += CHUNK_SIZE) {
+            chunks.add(Arrays.copyOfRange(body, i, Math.min(body.length, i + CHUNK_SIZE)));
+        }
+    }
+
+    @Benchmark
+    public Object joinAndReadTree() throws IOException {
+        DataBuffer joined = DataBufferUtils.join(Flux.fromIterable(buffers())).block();
+        byte[] bytes = new byte[joined.readableByteCount()];
+        joined.read(bytes);
+        DataBufferUtils.release(joined);
+        JsonNode email = objectMapper.readTree(bytes).get("email");
+        DataBuffer rebuilt = bufferFactory.wrap(bytes);
+        return new Object[]{email.asText(), rebuilt};
+    }
+
+    @Benchmark
+    public Object streaming() {
+        List<DataBuffer> buffers = buffers();
+        JsonFieldExtractor extractor = new JsonFieldExtractor(FIELD_NAMES);
+        for (DataBuffer buffer : buffers) {
+            extractor.feed(buffer);
+        }
+        Map<String, String> fields = extractor.finish();
+        return new Object[]{fields.get("email"), buffers};
+    }
+
+    /**
+     * 模拟从网络读取到的数据块（两种方式都需要分配，作为公共开销）
+     */
+    private List<DataBuffer> buffers() {
+        List<DataBuffer> buffers = new ArrayList<>(chunks.size());
+        for (byte[] chunk : chunks) {
+            buffers.add(bufferFactory.wrap(chunk));
+        }
+        return buffers;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JsonFieldExtractorBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build()).run();
+    }
+}
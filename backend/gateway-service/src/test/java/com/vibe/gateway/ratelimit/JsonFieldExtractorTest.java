@@ -0,0 +1,172 @@
+package com.vibe.gateway.ratelimit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JsonFieldExtractor 流式字段提取单元测试
+ */
+@DisplayName("请求体字段提取测试")
+class JsonFieldExtractorTest {
+
+    private static final DefaultDataBufferFactory BUFFER_FACTORY = new DefaultDataBufferFactory();
+
+    @Test
+    @DisplayName("顶层字符串字段 - 提取字段值，其他字段忽略")
+    void testExtract_TopLevelString() {
+        // When
+        Map<String, String> fields = extract("{\"password\":\"secret\",\"email\":\"a@example.com\",\"code\":\"1234\"}",
+                "email", "phone");
+
+        // Then
+        assertEquals(Collections.singletonMap("email", "a@example.com"), fields);
+    }
+
+    @Test
+    @DisplayName("转义字符 - 字段名和字段值按 JSON 转义还原")
+    void testExtract_EscapedString() {
+        // When
+        Map<String, String> fields = extract("{\"em\\u0061il\":\"a\\\"b\\\\c\\u0040example.com\\n\"}", "email");
+
+        // Then
+        assertEquals("a\"b\\c@example.com\n", fields.get("email"));
+    }
+
+    @Test
+    @DisplayName("非字符串值 - 数字和布尔值取原文，null 视为没有该字段")
+    void testExtract_NonStringValues() {
+        // When
+        Map<String, String> fields = extract("{\"phone\":13800138000,\"agree\":true,\"ratio\":1.5e3,\"email\":null}",
+                "phone", "agree", "ratio", "email");
+
+        // Then
+        assertEquals("13800138000", fields.get("phone"));
+        assertEquals("true", fields.get("agree"));
+        assertEquals("1.5e3", fields.get("ratio"));
+        assertFalse(fields.containsKey("email"));
+    }
+
+    @Test
+    @DisplayName("嵌套对象和数组 - 只提取顶层字段")
+    void testExtract_Nested() {
+        // When
+        Map<String, String> fields = extract("{\"user\":{\"email\":\"inner@example.com\",\"tags\":[{\"email\":\"x\"}]},"
+                + "\"list\":[\"email\",{\"email\":\"y\"}],\"email\":\"outer@example.com\"}", "email");
+        Map<String, String> onlyNested = extract("{\"user\":{\"email\":\"inner@example.com\"}}", "email");
+        Map<String, String> objectValue = extract("{\"email\":{\"value\":\"a@example.com\"}}", "email");
+
+        // Then
+        assertEquals("outer@example.com", fields.get("email"));
+        assertTrue(onlyNested.isEmpty());
+        assertTrue(objectValue.isEmpty());
+    }
+
+    @Test
+    @DisplayName("重复字段 - 取最后一个值，与下游反序列化一致")
+    void testExtract_DuplicateField() {
+        // When
+        Map<String, String> fields = extract("{\"email\":\"a@example.com\",\"email\":\"b@example.com\"}", "email");
+        Map<String, String> nulled = extract("{\"email\":\"a@example.com\",\"email\":null}", "email");
+
+        // Then
+        assertEquals("b@example.com", fields.get("email"));
+        assertFalse(nulled.containsKey("email"));
+    }
+
+    @Test
+    @DisplayName("分块 - 字段名、字段值和多字节字符跨数据块")
+    void testExtract_SplitAcrossBuffers() {
+        // Given
+        byte[] body = "{\"nickname\":\"张三\",\"email\":\"a@example.com\"}".getBytes(StandardCharsets.UTF_8);
+        for (int chunkSize = 1; chunkSize <= body.length; chunkSize++) {
+            JsonFieldExtractor extractor = new JsonFieldExtractor(new HashSet<>(Arrays.asList("nickname", "email")));
+
+            // When
+            for (int offset = 0; offset < body.length; offset += chunkSize) {
+                extractor.feed(buffer(Arrays.copyOfRange(body, offset, Math.min(offset + chunkSize, body.length))));
+            }
+            Map<String, String> fields = extractor.finish();
+
+            // Then
+            assertEquals("张三", fields.get("nickname"), "chunkSize=" + chunkSize);
+            assertEquals("a@example.com", fields.get("email"), "chunkSize=" + chunkSize);
+        }
+    }
+
+    @Test
+    @DisplayName("截断的请求体 - 保留已完整解析的字段，未完成的值不采用")
+    void testExtract_Truncated() {
+        // When
+        Map<String, String> completeField = extract("{\"email\":\"a@example.com\",\"password\":\"sec", "email");
+        Map<String, String> partialValue = extract("{\"password\":\"secret\",\"email\":\"a@exa", "email");
+        Map<String, String> partialNumber = extract("{\"phone\":1380013", "phone");
+
+        // Then
+        assertEquals("a@example.com", completeField.get("email"));
+        assertTrue(partialValue.isEmpty());
+        assertTrue(partialNumber.isEmpty());
+    }
+
+    @Test
+    @DisplayName("顶层对象结束后 - 之后的数据不再解析")
+    void testExtract_AfterTopLevelObject() {
+        // Given
+        JsonFieldExtractor extractor = new JsonFieldExtractor(Collections.singleton("email"));
+
+        // When
+        extractor.feed(buffer("{\"email\":\"a@example.com\"}"));
+        extractor.feed(buffer("{\"email\":\"b@example.com\"}"));
+
+        // Then
+        assertEquals("a@example.com", extractor.finish().get("email"));
+    }
+
+    @Test
+    @DisplayName("不是 JSON 对象 - 不提取任何字段")
+    void testExtract_NotObject() {
+        assertTrue(extract("[{\"email\":\"a@example.com\"}]", "email").isEmpty());
+        assertTrue(extract("\"a@example.com\"", "email").isEmpty());
+        assertTrue(extract("email=a@example.com", "email").isEmpty());
+        assertTrue(extract("", "email").isEmpty());
+    }
+
+    @Test
+    @DisplayName("解析不改变数据块的读位置")
+    void testFeed_KeepsReadPosition() {
+        // Given
+        DataBuffer buffer = buffer("{\"email\":\"a@example.com\"}");
+        int readable = buffer.readableByteCount();
+        JsonFieldExtractor extractor = new JsonFieldExtractor(Collections.singleton("email"));
+
+        // When
+        extractor.feed(buffer);
+
+        // Then
+        assertEquals(readable, buffer.readableByteCount());
+        assertEquals(0, buffer.readPosition());
+    }
+
+    private static Map<String, String> extract(String body, String... fieldNames) {
+        JsonFieldExtractor extractor = new JsonFieldExtractor(new HashSet<>(Arrays.asList(fieldNames)));
+        extractor.feed(buffer(body));
+        return extractor.finish();
+    }
+
+    private static DataBuffer buffer(String content) {
+        return buffer(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static DataBuffer buffer(byte[] bytes) {
+        return BUFFER_FACTORY.wrap(bytes);
+    }
+}
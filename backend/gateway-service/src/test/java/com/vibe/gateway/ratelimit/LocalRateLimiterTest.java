@@ -0,0 +1,206 @@
+package com.vibe.gateway.ratelimit;
+
+import com.vibe.gateway.config.RateLimitProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * LocalRateLimiter 本地令牌桶单元测试
+ * 通过覆盖 nanoTime() 控制时钟，验证突发容量、补充速率和多窗口下的令牌归还
+ */
+@DisplayName("本地预限流测试")
+class LocalRateLimiterTest {
+
+    private static final String KEY = "203.0.113.7";
+
+    private RateLimitProperties properties;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private ManualClockLimiter limiter;
+
+    /**
+     * 手动控制时钟的限流器
+     */
+    private static class ManualClockLimiter extends LocalRateLimiter {
+
+        private final AtomicLong now = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+
+        ManualClockLimiter(RateLimitProperties properties, SimpleMeterRegistry meterRegistry) {
+            super(properties, meterRegistry);
+        }
+
+        void advance(long amount, TimeUnit unit) {
+            now.addAndGet(unit.toNanos(amount));
+        }
+
+        @Override
+        protected long nanoTime() {
+            return now.get();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        properties = new RateLimitProperties();
+        meterRegistry = new SimpleMeterRegistry();
+        limiter = new ManualClockLimiter(properties, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("突发 - 立即放行上限的 burst-multiplier 倍，之后拒绝并返回等待时间")
+    void testTryAcquire_Burst() {
+        // Given: 10 秒 5 次，本地容量 10，每 2 秒补充一个令牌
+        RateLimitProperties.Policy policy = policy("login", window(5, 10));
+
+        // When & Then
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0, limiter.tryAcquire(policy, KEY), "request " + i);
+        }
+        assertEquals(2, limiter.tryAcquire(policy, KEY));
+        assertEquals(1.0, meterRegistry.counter("rate.limit.local.rejected", "policy", "login").count());
+    }
+
+    @Test
+    @DisplayName("补充 - 按「上限/窗口」的速率补充令牌")
+    void testTryAcquire_Refill() {
+        // Given
+        RateLimitProperties.Policy policy = policy("login", window(5, 10));
+        for (int i = 0; i < 10; i++) {
+            limiter.tryAcquire(policy, KEY);
+        }
+
+        // When: 1.5 秒后还不足一个令牌，2 秒后补充一个
+        limiter.advance(1500, TimeUnit.MILLISECONDS);
+        long waitSeconds = limiter.tryAcquire(policy, KEY);
+        limiter.advance(500, TimeUnit.MILLISECONDS);
+        long allowed = limiter.tryAcquire(policy, KEY);
+        long rejected = limiter.tryAcquire(policy, KEY);
+
+        // Then
+        assertEquals(1, waitSeconds);
+        assertEquals(0, allowed);
+        assertEquals(2, rejected);
+    }
+
+    @Test
+    @DisplayName("补充 - 空闲后最多补满容量")
+    void testTryAcquire_RefillCappedAtCapacity() {
+        // Given
+        RateLimitProperties.Policy policy = policy("login", window(5, 10));
+        limiter.tryAcquire(policy, KEY);
+
+        // When: 空闲远超补满所需时间
+        limiter.advance(1, TimeUnit.HOURS);
+
+        // Then
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0, limiter.tryAcquire(policy, KEY), "request " + i);
+        }
+        assertTrue(limiter.tryAcquire(policy, KEY) > 0);
+    }
+
+    @Test
+    @DisplayName("持续请求 - 速率不超过上限时始终放行")
+    void testTryAcquire_SteadyRate() {
+        // Given
+        RateLimitProperties.Policy policy = policy("login", window(5, 10));
+
+        // When & Then: 每 2 秒一个请求，共 100 个
+        for (int i = 0; i < 100; i++) {
+            assertEquals(0, limiter.tryAcquire(policy, KEY), "request " + i);
+            limiter.advance(2, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    @DisplayName("多窗口 - 后面的窗口拒绝时归还前面窗口已取得的令牌")
+    void testTryAcquire_MultipleWindowsReturnTokens() {
+        // Given: 10 秒 2 次（容量 4）且 1 秒 1 次（容量 2）
+        RateLimitProperties.Policy policy = policy("send-code", window(2, 10), window(1, 1));
+        assertEquals(0, limiter.tryAcquire(policy, KEY));
+        assertEquals(0, limiter.tryAcquire(policy, KEY));
+
+        // When: 被 1 秒窗口拒绝的请求不应消耗 10 秒窗口的令牌
+        for (int i = 0; i < 10; i++) {
+            assertEquals(1, limiter.tryAcquire(policy, KEY));
+        }
+        limiter.advance(2, TimeUnit.SECONDS);
+
+        // Then: 10 秒窗口仍剩 2 个令牌
+        assertEquals(0, limiter.tryAcquire(policy, KEY));
+        assertEquals(0, limiter.tryAcquire(policy, KEY));
+        assertTrue(limiter.tryAcquire(policy, KEY) > 0);
+    }
+
+    @Test
+    @DisplayName("不同 key 和策略 - 令牌桶相互独立")
+    void testTryAcquire_IndependentBuckets() {
+        // Given
+        RateLimitProperties.Policy login = policy("login", window(1, 60));
+        RateLimitProperties.Policy register = policy("register", window(1, 60));
+        limiter.tryAcquire(login, KEY);
+        limiter.tryAcquire(login, KEY);
+        assertTrue(limiter.tryAcquire(login, KEY) > 0);
+
+        // When & Then
+        assertEquals(0, limiter.tryAcquire(login, "198.51.100.9"));
+        assertEquals(0, limiter.tryAcquire(register, KEY));
+    }
+
+    @Test
+    @DisplayName("配置刷新 - 窗口数量变化时重新创建令牌桶")
+    void testTryAcquire_WindowsChanged() {
+        // Given
+        RateLimitProperties.Policy policy = policy("login", window(1, 60));
+        limiter.tryAcquire(policy, KEY);
+        limiter.tryAcquire(policy, KEY);
+        assertTrue(limiter.tryAcquire(policy, KEY) > 0);
+
+        // When
+        policy.getWindows().add(window(10, 3600));
+
+        // Then
+        assertEquals(0, limiter.tryAcquire(policy, KEY));
+    }
+
+    @Test
+    @DisplayName("关闭本地预限流 - 始终放行")
+    void testTryAcquire_Disabled() {
+        // Given
+        properties.getLocal().setEnabled(false);
+        RateLimitProperties.Policy policy = policy("login", window(1, 60));
+
+        // When & Then
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0, limiter.tryAcquire(policy, KEY));
+        }
+    }
+
+    private static RateLimitProperties.Policy policy(String id, RateLimitProperties.Window... windows) {
+        RateLimitProperties.Policy policy = new RateLimitProperties.Policy();
+        policy.setId(id);
+        List<RateLimitProperties.Window> list = new ArrayList<>();
+        for (RateLimitProperties.Window window : windows) {
+            list.add(window);
+        }
+        policy.setWindows(list);
+        return policy;
+    }
+
+    private static RateLimitProperties.Window window(int limit, int seconds) {
+        RateLimitProperties.Window window = new RateLimitProperties.Window();
+        window.setLimit(limit);
+        window.setSeconds(seconds);
+        return window;
+    }
+}
@@ -0,0 +1,110 @@
+package com.vibe.gateway.ratelimit;
+
+import com.vibe.gateway.config.RateLimitProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import java.net.InetSocketAddress;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * RateLimitKeyResolver 客户端 IP 解析单元测试
+ */
+@DisplayName("限流 key 解析测试")
+class RateLimitKeyResolverTest {
+
+    private static final InetSocketAddress NGINX = new InetSocketAddress("10.0.0.2", 40000);
+
+    private RateLimitProperties properties;
+
+    private RateLimitKeyResolver resolver;
+
+    private RateLimitProperties.Policy policy;
+
+    @BeforeEach
+    void setUp() {
+        properties = new RateLimitProperties();
+        resolver = new RateLimitKeyResolver(properties);
+        policy = new RateLimitProperties.Policy();
+        policy.setKeySource(KeySource.IP);
+    }
+
+    @Test
+    @DisplayName("IP - 经 Nginx 转发时使用 X-Forwarded-For 中的客户端地址")
+    void testResolveIp_Proxied() {
+        // Given
+        MockServerWebExchange exchange = exchange("203.0.113.7");
+
+        // When
+        String key = resolver.resolve(policy, exchange, Collections.emptyMap());
+
+        // Then
+        assertEquals("203.0.113.7", key);
+    }
+
+    @Test
+    @DisplayName("IP - 客户端伪造的 X-Forwarded-For 前缀不被采用")
+    void testResolveIp_Spoofed() {
+        // Given: 客户端自带 X-Forwarded-For，Nginx 在末尾追加真实地址
+        MockServerWebExchange exchange = exchange("1.1.1.1, 203.0.113.7");
+
+        // When
+        String key = resolver.resolve(policy, exchange, Collections.emptyMap());
+
+        // Then
+        assertEquals("203.0.113.7", key);
+    }
+
+    @Test
+    @DisplayName("IP - 两层代理时跳过内层代理地址")
+    void testResolveIp_TwoProxies() {
+        // Given: CDN -> Nginx -> 网关
+        properties.setTrustedProxies(2);
+        MockServerWebExchange exchange = exchange("1.1.1.1, 203.0.113.7, 198.51.100.9");
+
+        // When
+        String key = resolver.resolve(policy, exchange, Collections.emptyMap());
+
+        // Then
+        assertEquals("203.0.113.7", key);
+    }
+
+    @Test
+    @DisplayName("IP - 没有 X-Forwarded-For 时使用连接对端地址")
+    void testResolveIp_NoHeader() {
+        // Given
+        MockServerWebExchange exchange = MockServerWebExchange.from(
+                MockServerHttpRequest.post("/api/user/login").remoteAddress(NGINX));
+
+        // When
+        String key = resolver.resolve(policy, exchange, Collections.emptyMap());
+
+        // Then
+        assertEquals("10.0.0.2", key);
+    }
+
+    @Test
+    @DisplayName("IP - 网关直接对外时忽略 X-Forwarded-For")
+    void testResolveIp_NoTrustedProxy() {
+        // Given
+        properties.setTrustedProxies(0);
+        MockServerWebExchange exchange = exchange("203.0.113.7");
+
+        // When
+        String key = resolver.resolve(policy, exchange, Collections.emptyMap());
+
+        // Then
+        assertEquals("10.0.0.2", key);
+    }
+
+    private static MockServerWebExchange exchange(String forwardedFor) {
+        return MockServerWebExchange.from(MockServerHttpRequest.post("/api/user/login")
+                .remoteAddress(NGINX)
+                .header("X-Forwarded-For", forwardedFor));
+    }
+}
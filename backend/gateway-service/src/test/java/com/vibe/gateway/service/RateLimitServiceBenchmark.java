@@ -0,0 +1,298 @@
+package com.vibe.gateway.service;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.vibe.gateway.config.RateLimitProperties;
+import com.vibe.gateway.ratelimit.LocalRateLimiter;
+import com.vibe.gateway.ratelimit.RateLimitAlgorithm;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.lettuce.core.metrics.CommandLatencyRecorder;
+import io.lettuce.core.protocol.ProtocolKeyword;
+import io.lettuce.core.resource.ClientResources;
+import io.lettuce.core.resource.DefaultClientResources;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.SocketAddress;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 发送验证码限流基准测试
+ * 对比改造前 GET/INCR/EXPIRE/TTL 多次往返的实现与 Lua 脚本一次往返的实现：
+ * 每次请求的 Redis 往返次数、并发下的 p99 延迟，以及并发突发时的超发数量。
+ * <p>
+ * 使用内嵌 Redis，不随 mvn test 执行，手动运行：
+ * mvn -pl gateway-service test -Dtest=RateLimitServiceBenchmark
+ */
+@DisplayName("限流服务基准测试")
+class RateLimitServiceBenchmark {
+
+    private static final int TOTAL_REQUESTS = 20000;
+    private static final int CONCURRENCY = 64;
+    private static final int DISTINCT_EMAILS = 5000;
+
+    private static RedisServer redisServer;
+    private static LettuceConnectionFactory connectionFactory;
+    private static ClientResources clientResources;
+    private static ReactiveStringRedisTemplate template;
+
+    /**
+     * 按命令类型统计客户端发出的 Redis 命令数（即网络往返次数）
+     */
+    private static final Map<String, LongAdder> COMMAND_COUNTS = new ConcurrentHashMap<>();
+
+    private RateLimitProperties.Policy policy;
+    private RateLimitService scriptLimiter;
+    private LegacyRateLimiter legacyLimiter;
+
+    @BeforeAll
+    static void startRedis() throws IOException {
+        // 关闭调试日志与限流告警日志，避免日志输出影响延迟统计
+        ((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.ERROR);
+
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        redisServer = new RedisServer(port);
+        redisServer.start();
+
+        clientResources = DefaultClientResources.builder()
+                .commandLatencyRecorder(new CountingRecorder())
+                .build();
+        connectionFactory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration("127.0.0.1", port),
+                LettuceClientConfiguration.builder().clientResources(clientResources).build());
+        connectionFactory.afterPropertiesSet();
+        template = new ReactiveStringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    static void stopRedis() throws IOException {
+        connectionFactory.destroy();
+        clientResources.shutdown();
+        redisServer.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        policy = sendCodePolicy(RateLimitAlgorithm.FIXED_WINDOW);
+        scriptLimiter = newRateLimitService(false);
+        legacyLimiter = new LegacyRateLimiter(policy);
+
+        template.getConnectionFactory().getReactiveConnection().serverCommands().flushAll().block();
+        COMMAND_COUNTS.clear();
+    }
+
+    @Test
+    @DisplayName("往返次数与 p99 延迟对比")
+    void compareRoundTripsAndLatency() {
+        // 预热（同时让脚本被 Redis 缓存）
+        runLoad("warmup", legacyLimiter::checkRateLimit);
+        runLoad("warmup", email -> scriptLimiter.checkRateLimit(policy, email).map(RateLimitService.RateLimitResult::isAllowed));
+
+        template.getConnectionFactory().getReactiveConnection().serverCommands().flushAll().block();
+        COMMAND_COUNTS.clear();
+        runLoad("legacy", legacyLimiter::checkRateLimit);
+        template.getConnectionFactory().getReactiveConnection().serverCommands().flushAll().block();
+        COMMAND_COUNTS.clear();
+        runLoad("lua-script", email -> scriptLimiter.checkRateLimit(policy, email).map(RateLimitService.RateLimitResult::isAllowed));
+    }
+
+    @Test
+    @DisplayName("并发突发下的超发数量对比")
+    void compareBurstOvershoot() {
+        int burst = 200;
+
+        int legacyAllowed = countAllowed(burst, () -> legacyLimiter.checkRateLimit("burst-legacy@example.com"));
+        int scriptAllowed = countAllowed(burst, () -> scriptLimiter.checkRateLimit(policy, "burst-script@example.com")
+                .map(RateLimitService.RateLimitResult::isAllowed));
+
+        int shortLimit = policy.getWindows().get(0).getLimit();
+        System.out.printf("[burst] %d concurrent requests, shortLimit=%d: legacy allowed=%d, lua-script allowed=%d%n",
+                burst, shortLimit, legacyAllowed, scriptAllowed);
+        assertEquals(shortLimit, scriptAllowed);
+    }
+
+    @Test
+    @DisplayName("各限流算法并发突发下不超发")
+    void algorithmsDoNotOvershoot() {
+        int burst = 200;
+        for (RateLimitAlgorithm algorithm : RateLimitAlgorithm.values()) {
+            RateLimitProperties.Policy burstPolicy = sendCodePolicy(algorithm);
+            burstPolicy.setWindows(Arrays.asList(window(10, 60), window(100, 3600)));
+            int allowed = countAllowed(burst, () -> scriptLimiter.checkRateLimit(burstPolicy, "burst@example.com")
+                    .map(RateLimitService.RateLimitResult::isAllowed));
+            System.out.printf("[burst] %s: %d concurrent requests, limit=10, allowed=%d%n", algorithm, burst, allowed);
+            assertEquals(10, allowed);
+        }
+    }
+
+    @Test
+    @DisplayName("单 key 洪泛时本地预限流对 Redis 命令数的影响")
+    void compareFloodWithLocalLimiter() {
+        int flood = TOTAL_REQUESTS;
+        String email = "flood@example.com";
+
+        COMMAND_COUNTS.clear();
+        int redisOnlyAllowed = countAllowed(flood, CONCURRENCY, () -> scriptLimiter.checkRateLimit(policy, email)
+                .map(RateLimitService.RateLimitResult::isAllowed));
+        long redisOnlyCommands = commandCount();
+
+        template.getConnectionFactory().getReactiveConnection().serverCommands().flushAll().block();
+        COMMAND_COUNTS.clear();
+        RateLimitService localLimiter = newRateLimitService(true);
+        int localAllowed = countAllowed(flood, CONCURRENCY, () -> localLimiter.checkRateLimit(policy, email)
+                .map(RateLimitService.RateLimitResult::isAllowed));
+        long localCommands = commandCount();
+
+        System.out.printf("[flood] %d requests on one key: redis-only allowed=%d, redis commands=%d; "
+                        + "local+redis allowed=%d, redis commands=%d%n",
+                flood, redisOnlyAllowed, redisOnlyCommands, localAllowed, localCommands);
+        assertEquals(redisOnlyAllowed, localAllowed);
+        assertTrue(localCommands <= 2L * policy.getWindows().get(0).getLimit());
+    }
+
+    private static RateLimitService newRateLimitService(boolean localEnabled) {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.getLocal().setEnabled(localEnabled);
+        RateLimitService service = new RateLimitService();
+        ReflectionTestUtils.setField(service, "reactiveRedisTemplate", template);
+        ReflectionTestUtils.setField(service, "localRateLimiter",
+                new LocalRateLimiter(properties, new SimpleMeterRegistry()));
+        return service;
+    }
+
+    private static long commandCount() {
+        return COMMAND_COUNTS.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    private static RateLimitProperties.Policy sendCodePolicy(RateLimitAlgorithm algorithm) {
+        RateLimitProperties.Policy policy = new RateLimitProperties.Policy();
+        policy.setId("send-code-" + algorithm.name().toLowerCase());
+        policy.setAlgorithm(algorithm);
+        policy.setWindows(Arrays.asList(window(1, 60), window(5, 3600)));
+        return policy;
+    }
+
+    private static RateLimitProperties.Window window(int limit, int seconds) {
+        RateLimitProperties.Window window = new RateLimitProperties.Window();
+        window.setLimit(limit);
+        window.setSeconds(seconds);
+        return window;
+    }
+
+    private void runLoad(String name, Function<String, Mono<Boolean>> limiter) {
+        long[] latencies = new long[TOTAL_REQUESTS];
+        AtomicInteger index = new AtomicInteger();
+
+        long start = System.nanoTime();
+        Flux.range(0, TOTAL_REQUESTS)
+                .flatMap(i -> Mono.defer(() -> {
+                    long begin = System.nanoTime();
+                    return limiter.apply("user" + (i % DISTINCT_EMAILS) + "@example.com")
+                            .doOnNext(allowed -> latencies[index.getAndIncrement()] = System.nanoTime() - begin);
+                }), CONCURRENCY)
+                .blockLast(Duration.ofMinutes(5));
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        if ("warmup".equals(name)) {
+            return;
+        }
+        Arrays.sort(latencies);
+        long commands = commandCount();
+        System.out.printf("[%s] requests=%d, concurrency=%d, elapsed=%dms, round trips/request=%.2f, "
+                        + "p50=%.2fms, p99=%.2fms, commands=%s%n",
+                name, TOTAL_REQUESTS, CONCURRENCY, elapsedMillis, (double) commands / TOTAL_REQUESTS,
+                latencies[TOTAL_REQUESTS / 2] / 1e6, latencies[(int) (TOTAL_REQUESTS * 0.99)] / 1e6, COMMAND_COUNTS);
+    }
+
+    private int countAllowed(int burst, Supplier<Mono<Boolean>> check) {
+        return countAllowed(burst, burst, check);
+    }
+
+    private int countAllowed(int requests, int concurrency, Supplier<Mono<Boolean>> check) {
+        Long allowed = Flux.range(0, requests)
+                .flatMap(i -> check.get(), concurrency)
+                .filter(Boolean::booleanValue)
+                .count()
+                .block();
+        return allowed == null ? 0 : allowed.intValue();
+    }
+
+    /**
+     * 改造前的限流实现（GET → INCR → EXPIRE，拒绝时再 TTL）
+     */
+    private static class LegacyRateLimiter {
+
+        private final RateLimitProperties.Window shortWindow;
+        private final RateLimitProperties.Window longWindow;
+
+        LegacyRateLimiter(RateLimitProperties.Policy policy) {
+            this.shortWindow = policy.getWindows().get(0);
+            this.longWindow = policy.getWindows().get(1);
+        }
+
+        Mono<Boolean> checkRateLimit(String email) {
+            String shortKey = "rate:limit:legacy:" + email + ":short";
+            String longKey = "rate:limit:legacy:" + email + ":long";
+            return checkLimit(shortKey, shortWindow.getLimit(), shortWindow.getSeconds())
+                    .flatMap(allowed -> allowed
+                            ? checkLimit(longKey, longWindow.getLimit(), longWindow.getSeconds())
+                            : Mono.just(false));
+        }
+
+        private Mono<Boolean> checkLimit(String key, int limit, int windowSeconds) {
+            return template.opsForValue().get(key)
+                    .defaultIfEmpty("0")
+                    .flatMap(current -> {
+                        if (Integer.parseInt(current) >= limit) {
+                            return template.getExpire(key).thenReturn(false);
+                        }
+                        return template.opsForValue().increment(key)
+                                .flatMap(count -> count == 1
+                                        ? template.expire(key, Duration.ofSeconds(windowSeconds)).thenReturn(true)
+                                        : Mono.just(true));
+                    });
+        }
+    }
+
+    /**
+     * 统计客户端每种命令的执行次数
+     */
+    private static class CountingRecorder implements CommandLatencyRecorder {
+
+        @Override
+        public void recordCommandLatency(SocketAddress local, SocketAddress remote, ProtocolKeyword commandType,
+                                         long firstResponseLatency, long completionLatency) {
+            String command = commandType.name();
+            if (!"FLUSHALL".equals(command)) {
+                COMMAND_COUNTS.computeIfAbsent(command, k -> new LongAdder()).increment();
+            }
+        }
+    }
+}
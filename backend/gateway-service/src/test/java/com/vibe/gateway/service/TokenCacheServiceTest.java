@@ -0,0 +1,155 @@
+package com.vibe.gateway.service;
+
+import com.vibe.common.core.utils.JwtKeyRing;
+import com.vibe.common.core.utils.JwtUtils;
+import com.vibe.common.core.utils.JwtUtils.ParsedToken;
+import com.vibe.gateway.config.TokenCacheProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * TokenCacheService 已验签Token缓存单元测试
+ */
+@DisplayName("已验签Token缓存测试")
+class TokenCacheServiceTest {
+
+    private static final String SECRET_1 = "k1-secret-k1-secret-k1-secret-k1-secret-k1-secret-k1-secret-k1-secret";
+    private static final String SECRET_2 = "k2-secret-k2-secret-k2-secret-k2-secret-k2-secret-k2-secret-k2-secret";
+
+    private JwtKeyRing original;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private TokenCacheService tokenCacheService;
+
+    @BeforeEach
+    void setUp() {
+        original = JwtUtils.getKeyRing();
+        JwtUtils.setKeyRing(JwtKeyRing.of("k1", null, Collections.singletonMap("k1", SECRET_1)));
+        meterRegistry = new SimpleMeterRegistry();
+        tokenCacheService = new TokenCacheService(new TokenCacheProperties(), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        JwtUtils.setKeyRing(original);
+    }
+
+    @Test
+    @DisplayName("访问Token - 第二次验证命中缓存")
+    void testVerify_CacheHit() {
+        // Given
+        String token = JwtUtils.generateAccessToken(1L, "user", 60000L);
+
+        // When
+        ParsedToken first = tokenCacheService.verify(token);
+        ParsedToken second = tokenCacheService.verify(token);
+
+        // Then
+        assertNotNull(first);
+        assertEquals(1L, first.getUserId());
+        assertSame(first, second);
+        assertEquals(1.0, cacheGets("hit"));
+        assertEquals(1.0, cacheGets("miss"));
+    }
+
+    @Test
+    @DisplayName("刷新Token - 不能用于访问接口，也不写入缓存")
+    void testVerify_RefreshToken() {
+        // Given
+        String refreshToken = JwtUtils.generateRefreshToken(1L, "user", 60000L);
+
+        // When
+        ParsedToken first = tokenCacheService.verify(refreshToken);
+        ParsedToken second = tokenCacheService.verify(refreshToken);
+
+        // Then
+        assertNull(first);
+        assertNull(second);
+        assertEquals(0.0, cacheGets("hit"));
+    }
+
+    @Test
+    @DisplayName("签名错误 - 返回 null")
+    void testVerify_InvalidSignature() {
+        // Given
+        String token = JwtUtils.generateAccessToken(1L, "user", 60000L);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        // When & Then
+        assertNull(tokenCacheService.verify(tampered));
+        assertNull(tokenCacheService.verify("not-a-token"));
+    }
+
+    @Test
+    @DisplayName("过期 - 缓存项在 exp 时刻失效")
+    void testVerify_ExpiresAtExp() throws InterruptedException {
+        // Given: exp 精度为秒，有效期 2 秒的Token在 1~2 秒后过期
+        String token = JwtUtils.generateAccessToken(1L, "user", 2000L);
+        ParsedToken parsed = tokenCacheService.verify(token);
+        assertNotNull(parsed);
+
+        // When
+        Thread.sleep(Math.max(parsed.getExpiration() - System.currentTimeMillis(), 0) + 50);
+
+        // Then
+        assertNull(tokenCacheService.verify(token));
+        assertEquals(0.0, cacheGets("hit"));
+    }
+
+    @Test
+    @DisplayName("密钥轮换 - 删除密钥后缓存中用该密钥签发的Token不再有效")
+    void testVerify_KeyRemoved() {
+        // Given
+        Map<String, String> secrets = new HashMap<>();
+        secrets.put("k1", SECRET_1);
+        secrets.put("k2", SECRET_2);
+        JwtUtils.setKeyRing(JwtKeyRing.of("k1", null, secrets));
+        String oldToken = JwtUtils.generateAccessToken(1L, "user", 60000L);
+        JwtUtils.setKeyRing(JwtKeyRing.of("k2", null, secrets));
+        String newToken = JwtUtils.generateAccessToken(2L, "user2", 60000L);
+        assertNotNull(tokenCacheService.verify(oldToken));
+        assertNotNull(tokenCacheService.verify(newToken));
+
+        // When: 删除 k1
+        JwtUtils.setKeyRing(JwtKeyRing.of("k2", null, Collections.singletonMap("k2", SECRET_2)));
+
+        // Then
+        assertNull(tokenCacheService.verify(oldToken));
+        ParsedToken reverified = tokenCacheService.verify(newToken);
+        assertNotNull(reverified);
+        assertEquals(2L, reverified.getUserId());
+    }
+
+    @Test
+    @DisplayName("缓存关闭 - 每次都验签")
+    void testVerify_CacheDisabled() {
+        // Given
+        TokenCacheProperties properties = new TokenCacheProperties();
+        properties.setEnabled(false);
+        TokenCacheService uncached = new TokenCacheService(properties, new SimpleMeterRegistry());
+        String token = JwtUtils.generateAccessToken(1L, "user", 60000L);
+
+        // When
+        ParsedToken first = uncached.verify(token);
+        ParsedToken second = uncached.verify(token);
+
+        // Then
+        assertNotNull(first);
+        assertNotNull(second);
+        assertNotSame(first, second);
+    }
+
+    private double cacheGets(String result) {
+        return meterRegistry.get("cache.gets").tag("result", result).functionCounter().count();
+    }
+}
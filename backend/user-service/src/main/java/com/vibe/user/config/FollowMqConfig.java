@@ -0,0 +1,48 @@
+package com.vibe.user.config;
+
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.kafka.ConcurrentKafkaListenerContainerFactoryConfigurer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.support.ExponentialBackOffWithMaxRetries;
+
+/**
+ * 关注事件消费配置（仅异步写入模式生效）
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "user.follow", name = "write-mode", havingValue = "async")
+public class FollowMqConfig {
+
+    /**
+     * 批量消费的监听容器工厂
+     * 写入失败（如数据库不可用）时按指数退避重试整批事件，消费逻辑按数据库现状比对后再写入，重试和重复投递都是幂等的；
+     * 重试次数用完后整批事件转入死信主题并继续消费后续事件，避免一直阻塞分区。
+     * 死信中的事件可能已被同一对用户的后续事件覆盖，需核对数据库现状后再决定是否重新投递
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> followEventListenerFactory(
+            ConcurrentKafkaListenerContainerFactoryConfigurer configurer,
+            ConsumerFactory<Object, Object> consumerFactory,
+            KafkaTemplate<String, String> kafkaTemplate,
+            FollowProperties followProperties) {
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        configurer.configure(factory, consumerFactory);
+        factory.setBatchListener(true);
+
+        // 死信消息仍以关注者ID为 key，由 Kafka 按 key 选择分区（不要求死信主题与原主题分区数一致）
+        DeadLetterPublishingRecoverer recoverer = new DeadLetterPublishingRecoverer(kafkaTemplate,
+                (record, e) -> new TopicPartition(followProperties.getDeadLetterTopic(), -1));
+        ExponentialBackOffWithMaxRetries backOff = new ExponentialBackOffWithMaxRetries(followProperties.getMaxRetries());
+        backOff.setInitialInterval(followProperties.getRetryBackoff());
+        backOff.setMultiplier(2.0);
+        backOff.setMaxInterval(followProperties.getMaxRetryBackoff());
+        factory.setCommonErrorHandler(new DefaultErrorHandler(recoverer, backOff));
+        return factory;
+    }
+}
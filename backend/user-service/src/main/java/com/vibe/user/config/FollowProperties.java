@@ -0,0 +1,70 @@
+package com.vibe.user.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 关注关系写入配置属性
+ * 从 application.yml 中读取 user.follow 配置
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "user.follow")
+public class FollowProperties {
+
+    /**
+     * 写入方式
+     */
+    private WriteMode writeMode = WriteMode.SYNC;
+
+    /**
+     * 关注事件的 Kafka 主题
+     */
+    private String topic = "user-follow-events";
+
+    /**
+     * 等待 Kafka 确认的最长时间（毫秒）
+     */
+    private long sendTimeout = 3000;
+
+    /**
+     * 消费写入失败（如数据库不可用）后的最大重试次数，超过后整批事件转入死信主题
+     */
+    private int maxRetries = 8;
+
+    /**
+     * 首次重试等待时间（毫秒），之后每次翻倍
+     */
+    private long retryBackoff = 1000;
+
+    /**
+     * 重试等待时间上限（毫秒）
+     */
+    private long maxRetryBackoff = 30000;
+
+    /**
+     * 重试耗尽的关注事件转入的死信主题
+     */
+    private String deadLetterTopic = "user-follow-events.DLT";
+
+    public boolean isAsync() {
+        return writeMode == WriteMode.ASYNC;
+    }
+
+    /**
+     * 关注关系写入方式
+     */
+    public enum WriteMode {
+
+        /**
+         * 在数据库事务中同步写入
+         */
+        SYNC,
+
+        /**
+         * 先写 Redis 并发送关注事件，由消费者批量写入数据库
+         */
+        ASYNC
+    }
+}
@@ -0,0 +1,53 @@
+package com.vibe.user.config;
+
+import com.vibe.common.core.utils.SnowflakeIdGenerator;
+import com.vibe.user.id.LeasedSnowflakeIdGenerator;
+import com.vibe.user.id.WorkerIdLease;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+/**
+ * ID生成器配置
+ * 默认的ID生成器为雪花算法，每个实例通过 Redis 租约获得唯一的机器ID（0~1023），多实例部署时生成的ID不会重复。
+ * 需要连续ID且不依赖时钟的表可在 id_segment 表中登记业务标识，
+ * 再以 new SegmentIdGenerator(bizTag, dbSegmentAllocator) 注册单独的 Bean 并按名称注入
+ */
+@Slf4j
+@Configuration
+public class IdGeneratorConfig {
+
+    @Bean
+    @Primary
+    public SnowflakeIdGenerator snowflakeIdGenerator(IdGeneratorProperties idGeneratorProperties,
+                                                     StringRedisTemplate stringRedisTemplate) {
+        Integer workerId = idGeneratorProperties.getWorkerId();
+        if (workerId != null && (workerId < 0 || workerId >= WorkerIdLease.MAX_WORKER_IDS)) {
+            throw new IllegalArgumentException("user.id.worker-id must be between 0 and " + (WorkerIdLease.MAX_WORKER_IDS - 1));
+        }
+        if (idGeneratorProperties.getWorkerIdAssign() == IdGeneratorProperties.WorkerIdAssign.FIXED) {
+            if (workerId == null) {
+                throw new IllegalStateException("user.id.worker-id is required when user.id.worker-id-assign is fixed");
+            }
+            return fixed(workerId);
+        }
+        try {
+            return new LeasedSnowflakeIdGenerator(WorkerIdLease.acquire(stringRedisTemplate, idGeneratorProperties));
+        } catch (DataAccessException e) {
+            // Redis 不可用：只能回退到配置的机器ID，未配置时不能保证唯一，直接启动失败；
+            // 回退后在后台继续登记该机器ID的租约，发现已被其他实例占用时拒绝生成ID
+            if (workerId == null) {
+                throw e;
+            }
+            log.warn("获取机器ID租约失败，使用配置的机器ID: workerId={}, error={}", workerId, e.getMessage());
+            return new LeasedSnowflakeIdGenerator(WorkerIdLease.unregistered(stringRedisTemplate, idGeneratorProperties, workerId));
+        }
+    }
+
+    private static SnowflakeIdGenerator fixed(int workerId) {
+        return new SnowflakeIdGenerator(workerId & 0x1F, workerId >> 5);
+    }
+}
@@ -0,0 +1,57 @@
+package com.vibe.user.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * ID生成器配置属性
+ * 从 application.yml 中读取 user.id 配置
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "user.id")
+public class IdGeneratorProperties {
+
+    /**
+     * 机器ID分配方式
+     */
+    private WorkerIdAssign workerIdAssign = WorkerIdAssign.REDIS;
+
+    /**
+     * 配置的机器ID（0~1023，高5位为数据中心ID，低5位为机器ID）。
+     * fixed 方式下直接使用；redis 方式下仅在启动时 Redis 不可用时使用（之后在后台登记租约），未配置时启动失败
+     */
+    private Integer workerId;
+
+    /**
+     * 机器ID租约在 Redis 中的 key 前缀
+     */
+    private String leaseKeyPrefix = "user:id:worker:";
+
+    /**
+     * 租约有效期（毫秒），实例异常退出后该机器ID最晚在这段时间后可被其他实例使用
+     */
+    private long leaseTtl = 30000;
+
+    /**
+     * 续约间隔（毫秒）
+     */
+    private long heartbeatInterval = 10000;
+
+    /**
+     * 机器ID分配方式
+     */
+    public enum WorkerIdAssign {
+
+        /**
+         * 通过 Redis 租约自动分配，定时续约
+         */
+        REDIS,
+
+        /**
+         * 使用配置的机器ID，由部署方保证各实例不重复
+         */
+        FIXED
+    }
+}
@@ -0,0 +1,102 @@
+package com.vibe.user.config;
+
+import com.vibe.common.core.utils.JwtKeyRing;
+import com.vibe.common.core.utils.JwtUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.cloud.context.scope.refresh.RefreshScopeRefreshedEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
+import org.springframework.util.StringUtils;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * JWT签名密钥加载
+ * 启动时（以及 Nacos 配置刷新后）按配置构建密钥组并整体替换，签发和验签线程不加锁。
+ * 配置了 ES256 密钥对时，其公钥通过 /api/user/auth/jwks 公开给网关等验签方
+ */
+@Slf4j
+@Configuration
+public class JwtKeyConfig {
+
+    @Resource
+    private JwtProperties jwtProperties;
+
+    @Resource
+    private Environment environment;
+
+    /**
+     * 启动时加载密钥，配置错误时启动失败
+     * 未配置密钥时只允许在本地开发和测试环境启动，此时使用空密钥组，不能签发Token
+     */
+    @PostConstruct
+    public void init() {
+        if (!hasKeys(jwtProperties)) {
+            if (!environment.acceptsProfiles(Profiles.of("dev", "test"))) {
+                throw new IllegalStateException("未配置JWT签名密钥（jwt.keys 或 jwt.ec-keys）");
+            }
+            log.warn("未配置JWT签名密钥，不能签发Token（设置环境变量 JWT_KEY_K1 或配置 jwt.keys）");
+            JwtUtils.setKeyRing(JwtKeyRing.empty());
+            return;
+        }
+        JwtKeyRing keyRing = build(jwtProperties);
+        JwtUtils.setKeyRing(keyRing);
+        log.info("JWT签名密钥已加载: active={}, keys={}", keyRing.getActiveKeyId(), keyRing.getKeyIds());
+    }
+
+    /**
+     * Nacos 配置刷新后替换密钥组，配置错误时继续使用旧密钥
+     * 刷新时 Map 属性按键合并，配置中删除的密钥仍会留在 jwtProperties 中，因此从当前配置重新绑定
+     */
+    @EventListener(RefreshScopeRefreshedEvent.class)
+    public void onRefresh() {
+        JwtProperties properties = Binder.get(environment).bind("jwt", JwtProperties.class)
+                .orElseGet(JwtProperties::new);
+        if (!hasKeys(properties)) {
+            log.error("JWT签名密钥刷新失败，继续使用旧密钥: 配置中没有密钥");
+            return;
+        }
+        try {
+            JwtKeyRing keyRing = build(properties);
+            JwtUtils.setKeyRing(keyRing);
+            log.info("JWT签名密钥已刷新: active={}, keys={}", keyRing.getActiveKeyId(), keyRing.getKeyIds());
+        } catch (IllegalArgumentException e) {
+            log.error("JWT签名密钥刷新失败，继续使用旧密钥: {}", e.getMessage());
+        }
+    }
+
+    private static boolean hasKeys(JwtProperties properties) {
+        return !secrets(properties).isEmpty() || !properties.getEcKeys().isEmpty();
+    }
+
+    /**
+     * 配置的 HS512 共享密钥，忽略空值（未设置环境变量的占位符）
+     */
+    private static Map<String, String> secrets(JwtProperties properties) {
+        Map<String, String> secrets = new LinkedHashMap<>();
+        properties.getKeys().forEach((keyId, secret) -> {
+            if (StringUtils.hasText(secret)) {
+                secrets.put(keyId, secret);
+            }
+        });
+        return secrets;
+    }
+
+    /**
+     * 当前密钥为 ES256 密钥对时使用私钥签名，否则使用 HS512 共享密钥
+     */
+    private static JwtKeyRing build(JwtProperties properties) {
+        JwtKeyRing.Builder builder = JwtKeyRing.builder()
+                .activeKeyId(properties.getActiveKeyId())
+                .defaultKeyId(properties.getDefaultKeyId());
+        secrets(properties).forEach(builder::secret);
+        properties.getEcKeys().forEach((keyId, key) -> builder.keyPair(keyId, key.getPrivateKey(), key.getPublicKey()));
+        return builder.build();
+    }
+}
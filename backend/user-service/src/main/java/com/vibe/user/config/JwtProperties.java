@@ -0,0 +1,71 @@
+package com.vibe.user.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * JWT配置属性
+ * 从 application.yml 中读取 jwt 配置
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "jwt")
+public class JwtProperties {
+
+    /**
+     * 访问Token有效期（毫秒），吊销后最长仍可能被使用到网关同步吊销列表为止
+     */
+    private long expiration = 1800000;
+
+    /**
+     * 刷新Token有效期（毫秒），每次刷新签发新的刷新Token
+     */
+    private long refreshExpiration = 604800000;
+
+    /**
+     * 刷新Token使用后的宽限期（毫秒，需大于0）
+     * 宽限期内再次使用同一刷新Token（如多个标签页同时刷新）返回同一对新Token，超过后才视为泄露
+     */
+    private long refreshReuseInterval = 10000;
+
+    /**
+     * 签发Token使用的密钥ID
+     */
+    private String activeKeyId;
+
+    /**
+     * 未带 kid 的Token（引入密钥轮换之前签发）使用的密钥ID，为空时拒绝此类Token
+     */
+    private String defaultKeyId;
+
+    /**
+     * HS512 共享密钥：密钥ID → 密钥（UTF-8 编码后不少于64字节），与网关使用同一组配置
+     */
+    private Map<String, String> keys = new LinkedHashMap<>();
+
+    /**
+     * ES256 密钥对：密钥ID → 私钥和公钥，只配置在用户服务中，公钥通过 JWKS 接口公开
+     */
+    private Map<String, EcKey> ecKeys = new LinkedHashMap<>();
+
+    /**
+     * ES256 密钥对
+     */
+    @Data
+    public static class EcKey {
+
+        /**
+         * PKCS#8 DER 格式私钥的 Base64（也接受 PEM）
+         */
+        private String privateKey;
+
+        /**
+         * X.509 DER 格式公钥的 Base64（也接受 PEM）
+         */
+        private String publicKey;
+    }
+}
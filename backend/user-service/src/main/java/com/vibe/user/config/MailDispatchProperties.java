@@ -0,0 +1,63 @@
+package com.vibe.user.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 邮件发送配置属性
+ * 从 application.yml 中读取 user.mail 配置
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "user.mail")
+public class MailDispatchProperties {
+
+    /**
+     * 发送通道（log：只输出到日志）
+     */
+    private String transport = "log";
+
+    /**
+     * 待发送队列容量，队列已满时拒绝新的邮件
+     */
+    private int queueCapacity = 10000;
+
+    /**
+     * 每次交给发送通道的最大邮件数量
+     */
+    private int batchSize = 50;
+
+    /**
+     * 同时发送的线程数，即与发送通道的最大并发连接数
+     */
+    private int concurrency = 4;
+
+    /**
+     * 按收件人邮箱服务商（域名）限制同时发送的批次数，如 qq.com → 2；未配置的服务商只受 concurrency 限制
+     */
+    private Map<String, Integer> providerConcurrency = new LinkedHashMap<>();
+
+    /**
+     * 发送失败后的最大重试次数
+     */
+    private int maxRetries = 3;
+
+    /**
+     * 首次重试的等待时间（毫秒），之后每次翻倍
+     */
+    private long retryBackoff = 1000;
+
+    /**
+     * 重试等待时间上限（毫秒）
+     */
+    private long maxRetryBackoff = 30000;
+
+    /**
+     * 停止时等待队列中邮件发送完成的最长时间（毫秒）
+     */
+    private long shutdownTimeout = 5000;
+}
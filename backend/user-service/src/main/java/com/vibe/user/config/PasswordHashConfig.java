@@ -0,0 +1,47 @@
+package com.vibe.user.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+import org.springframework.util.ClassUtils;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 密码编码器配置
+ * 新密码以 {算法}哈希值 的格式存储，验证时按前缀选择算法；
+ * 早期注册的用户密码没有前缀，按 BCrypt 验证。
+ */
+@Configuration
+public class PasswordHashConfig {
+
+    private static final String BCRYPT = "bcrypt";
+
+    private static final String ARGON2 = "argon2";
+
+    @Bean
+    public PasswordEncoder passwordEncoder(PasswordHashProperties passwordHashProperties) {
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(passwordHashProperties.getBcryptStrength());
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put(BCRYPT, bcrypt);
+        encoders.put("pbkdf2", new Pbkdf2PasswordEncoder());
+        if (ClassUtils.isPresent("org.bouncycastle.crypto.params.Argon2Parameters", null)) {
+            encoders.put(ARGON2, new Argon2PasswordEncoder());
+        }
+
+        String algorithm = passwordHashProperties.getAlgorithm();
+        if (!encoders.containsKey(algorithm)) {
+            throw new IllegalStateException(ARGON2.equals(algorithm)
+                    ? "user.password.algorithm argon2 requires org.bouncycastle:bcprov-jdk15on on the classpath"
+                    : "Unsupported user.password.algorithm: " + algorithm);
+        }
+        DelegatingPasswordEncoder passwordEncoder = new DelegatingPasswordEncoder(algorithm, encoders);
+        passwordEncoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        return passwordEncoder;
+    }
+}
@@ -0,0 +1,41 @@
+package com.vibe.user.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 密码哈希配置属性
+ * 从 application.yml 中读取 user.password 配置
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "user.password")
+public class PasswordHashProperties {
+
+    /**
+     * 新密码使用的算法（bcrypt、pbkdf2、argon2，argon2 需要引入 org.bouncycastle:bcprov-jdk15on）
+     * 修改后已有密码仍可验证，用户下次登录成功时自动按新算法重新哈希
+     */
+    private String algorithm = "bcrypt";
+
+    /**
+     * BCrypt 计算强度（4~31），每加1耗时翻倍；调高后已有密码在下次登录时自动升级
+     */
+    private int bcryptStrength = 10;
+
+    /**
+     * 哈希计算线程数，0 表示 CPU 核数的一半，其余 CPU 留给其他接口
+     */
+    private int threads = 0;
+
+    /**
+     * 等待计算的最大请求数，队列已满时登录等请求直接返回"服务繁忙"
+     */
+    private int queueCapacity = 64;
+
+    /**
+     * 请求线程等待计算结果的最长时间（毫秒，含排队时间），超时返回"服务繁忙"
+     */
+    private long timeout = 2000;
+}
@@ -0,0 +1,56 @@
+package com.vibe.user.config;
+
+import com.vibe.common.redis.serializer.CompactSchema;
+import com.vibe.common.redis.serializer.CompactType;
+import com.vibe.user.dto.UserInfoVO;
+import com.vibe.user.service.UserIdBloomFilter;
+import com.vibe.user.service.UserInfoCacheService;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+/**
+ * 用户信息缓存配置
+ * 订阅用户信息失效频道，收到通知后清除本实例的本地缓存；
+ * 订阅新增用户频道，同步其他实例注册的用户ID到布隆过滤器；
+ * 注册用户信息的紧凑序列化结构，user:info 缓存按二进制格式存储
+ */
+@Configuration
+public class UserCacheConfig {
+
+    @Bean
+    public RedisMessageListenerContainer userCacheListenerContainer(RedisConnectionFactory factory,
+                                                                    UserInfoCacheService userInfoCacheService,
+                                                                    UserIdBloomFilter userIdBloomFilter) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(factory);
+        container.addMessageListener(userInfoCacheService, new ChannelTopic(UserInfoCacheService.INVALIDATE_CHANNEL));
+        container.addMessageListener(userIdBloomFilter, new ChannelTopic(UserIdBloomFilter.ADD_CHANNEL));
+        return container;
+    }
+
+    /**
+     * 用户信息紧凑序列化结构（类型标签 1）。只能在末尾追加字段，不能删除或调整已有字段的顺序
+     */
+    @Bean
+    public CompactSchema<UserInfoVO> userInfoCompactSchema() {
+        return CompactSchema.builder(1, UserInfoVO.class, UserInfoVO::new)
+                .field(CompactType.LONG, UserInfoVO::getId, UserInfoVO::setId)
+                .field(CompactType.STRING, UserInfoVO::getUsername, UserInfoVO::setUsername)
+                .field(CompactType.STRING, UserInfoVO::getNickname, UserInfoVO::setNickname)
+                .field(CompactType.STRING, UserInfoVO::getAvatar, UserInfoVO::setAvatar)
+                .field(CompactType.STRING, UserInfoVO::getEmail, UserInfoVO::setEmail)
+                .field(CompactType.STRING, UserInfoVO::getPhone, UserInfoVO::setPhone)
+                .field(CompactType.INTEGER, UserInfoVO::getGender, UserInfoVO::setGender)
+                .field(CompactType.LOCAL_DATE, UserInfoVO::getBirthday, UserInfoVO::setBirthday)
+                .field(CompactType.STRING, UserInfoVO::getBio, UserInfoVO::setBio)
+                .field(CompactType.INTEGER, UserInfoVO::getStatus, UserInfoVO::setStatus)
+                .field(CompactType.LONG, UserInfoVO::getFollowingCount, UserInfoVO::setFollowingCount)
+                .field(CompactType.LONG, UserInfoVO::getFollowerCount, UserInfoVO::setFollowerCount)
+                .field(CompactType.BOOLEAN, UserInfoVO::getIsFollowing, UserInfoVO::setIsFollowing)
+                .field(CompactType.LOCAL_DATE_TIME, UserInfoVO::getCreatedAt, UserInfoVO::setCreatedAt)
+                .build();
+    }
+}
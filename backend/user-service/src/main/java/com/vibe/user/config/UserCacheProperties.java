@@ -0,0 +1,177 @@
+package com.vibe.user.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 用户信息缓存配置属性
+ * 从 application.yml 中读取 user.cache 配置
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "user.cache")
+public class UserCacheProperties {
+
+    /**
+     * 本地一级缓存配置
+     */
+    private Local local = new Local();
+
+    /**
+     * 分布式加载锁配置
+     */
+    private Lock lock = new Lock();
+
+    /**
+     * 用户ID布隆过滤器配置
+     */
+    private Bloom bloom = new Bloom();
+
+    /**
+     * 关注/粉丝列表缓存配置
+     */
+    private FollowList followList = new FollowList();
+
+    /**
+     * 关注集合缓存配置
+     */
+    private Following following = new Following();
+
+    /**
+     * 登录账号缓存配置
+     */
+    private Account account = new Account();
+
+    /**
+     * 本地一级缓存（Caffeine）
+     */
+    @Data
+    public static class Local {
+
+        /**
+         * 是否启用本地缓存
+         */
+        private boolean enabled = true;
+
+        /**
+         * 最多缓存的用户数量（超出后按访问频率淘汰）
+         */
+        private long maximumSize = 10000;
+
+        /**
+         * 写入后多久过期（秒），作为失效消息丢失时的兜底
+         */
+        private long expireAfterWrite = 30;
+    }
+
+    /**
+     * 分布式加载锁（跨实例合并缓存未命中时的数据库加载）
+     */
+    @Data
+    public static class Lock {
+
+        /**
+         * 是否启用分布式加载锁（未启用时只在实例内合并加载）
+         */
+        private boolean enabled = false;
+
+        /**
+         * 锁自动过期时间（毫秒），需大于一次加载的耗时
+         */
+        private long leaseTime = 3000;
+
+        /**
+         * 未获取到锁时等待其他实例写入缓存的最长时间（毫秒），超时后自行加载
+         */
+        private long waitTime = 1000;
+
+        /**
+         * 等待期间轮询缓存的间隔（毫秒）
+         */
+        private long retryInterval = 50;
+    }
+
+    /**
+     * 用户ID布隆过滤器（拦截不存在的用户ID，不访问 Redis 和数据库）
+     */
+    @Data
+    public static class Bloom {
+
+        /**
+         * 是否启用布隆过滤器
+         */
+        private boolean enabled = false;
+
+        /**
+         * 预计用户数量
+         */
+        private long expectedInsertions = 10000000;
+
+        /**
+         * 期望误判率
+         */
+        private double fpp = 0.01;
+
+        /**
+         * 启动时从数据库加载用户ID的批量大小
+         */
+        private int loadBatchSize = 10000;
+    }
+
+    /**
+     * 关注/粉丝列表缓存（Redis 有序集合，只缓存最近的关注关系）
+     */
+    @Data
+    public static class FollowList {
+
+        /**
+         * 每个用户最多缓存的最近关注关系数量，更早的分页直接查询数据库
+         */
+        private int size = 1000;
+
+        /**
+         * 缓存过期时间（秒）
+         */
+        private long expireTime = 3600;
+    }
+
+    /**
+     * 关注集合缓存（Redis 集合，首次判断是否关注时从数据库完整加载）
+     */
+    @Data
+    public static class Following {
+
+        /**
+         * 关注数超过该值的用户不缓存关注集合，直接查询数据库
+         */
+        private int maxSize = 5000;
+
+        /**
+         * 缓存过期时间（秒）
+         */
+        private long expireTime = 86400;
+    }
+
+    /**
+     * 登录账号缓存（本地 Caffeine，用户名/邮箱/手机号 → 用户ID）
+     */
+    @Data
+    public static class Account {
+
+        /**
+         * 是否启用登录账号缓存
+         */
+        private boolean enabled = true;
+
+        /**
+         * 最多缓存的账号数量
+         */
+        private long maximumSize = 100000;
+
+        /**
+         * 写入后多久过期（秒）
+         */
+        private long expireAfterWrite = 3600;
+    }
+}
@@ -1,14 +1,20 @@
 package com.vibe.user.controller;
 
 import com.vibe.common.core.domain.Result;
+import com.vibe.common.core.domain.StatusCode;
+import com.vibe.common.core.exception.BusinessException;
+import com.vibe.common.core.utils.Jwks;
 import com.vibe.common.core.utils.JwtUtils;
 import com.vibe.user.dto.*;
+import com.vibe.user.service.TokenService;
 import com.vibe.user.service.UserService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
 import javax.annotation.Resource;
+import java.util.List;
+import java.util.Map;
 
 /**
  * 用户控制器
@@ -21,6 +27,9 @@ public class UserController {
     @Resource
     private UserService userService;
 
+    @Resource
+    private TokenService tokenService;
+
     /**
      * 用户登录
      */
@@ -41,6 +50,34 @@ public class UserController {
         return Result.success(response);
     }
 
+    /**
+     * 刷新Token
+     */
+    @PostMapping("/auth/refresh")
+    public Result<LoginResponse> refreshToken(@Validated @RequestBody RefreshTokenRequest request) {
+        LoginResponse response = userService.refreshToken(request.getRefreshToken());
+        return Result.success(response);
+    }
+
+    /**
+     * 退出登录
+     */
+    @PostMapping("/auth/logout")
+    public Result<Void> logout(
+            @RequestHeader(value = JwtUtils.HEADER_STRING, required = false) String authHeader,
+            @RequestBody(required = false) LogoutRequest request) {
+        userService.logout(JwtUtils.extractToken(authHeader), request == null ? null : request.getRefreshToken());
+        return Result.success();
+    }
+
+    /**
+     * 验签公钥（JWKS 标准格式，不包装为 Result，供网关等验签方直接解析）
+     */
+    @GetMapping("/auth/jwks")
+    public Map<String, Object> jwks() {
+        return Jwks.toJwks(JwtUtils.getKeyRing().getPublicKeys());
+    }
+
     /**
      * 发送邮箱验证码
      */
@@ -61,18 +98,28 @@ public class UserController {
         log.info("获取用户信息: userId={}", id);
         
         // 获取当前登录用户ID（如果已登录）
-        Long currentUserId = null;
-        if (authHeader != null) {
-            String token = JwtUtils.extractToken(authHeader);
-            if (token != null && JwtUtils.validateToken(token)) {
-                currentUserId = JwtUtils.getUserIdFromToken(token);
-            }
-        }
+        Long currentUserId = getUserId(authHeader);
         
         UserInfoVO userInfo = userService.getUserInfo(id, currentUserId);
         return Result.success(userInfo);
     }
 
+    /**
+     * 批量获取用户信息
+     */
+    @GetMapping("/info/batch")
+    public Result<List<UserInfoVO>> getUserInfos(
+            @RequestParam List<Long> ids,
+            @RequestHeader(value = JwtUtils.HEADER_STRING, required = false) String authHeader) {
+        log.info("批量获取用户信息: size={}", ids.size());
+
+        // 获取当前登录用户ID（如果已登录）
+        Long currentUserId = getUserId(authHeader);
+
+        List<UserInfoVO> userInfos = userService.getUserInfos(ids, currentUserId);
+        return Result.success(userInfos);
+    }
+
     /**
      * 更新用户信息
      */
@@ -82,8 +129,7 @@ public class UserController {
             @Validated @RequestBody UpdateUserRequest request) {
         
         // 从token获取用户ID
-        String token = JwtUtils.extractToken(authHeader);
-        Long userId = JwtUtils.getUserIdFromToken(token);
+        Long userId = getUserId(authHeader);
         
         log.info("更新用户信息: userId={}", userId);
         UserInfoVO userInfo = userService.updateUserInfo(userId, request);
@@ -99,8 +145,7 @@ public class UserController {
             @RequestHeader(JwtUtils.HEADER_STRING) String authHeader) {
         
         // 从token获取用户ID
-        String token = JwtUtils.extractToken(authHeader);
-        Long userId = JwtUtils.getUserIdFromToken(token);
+        Long userId = getUserId(authHeader);
         
         log.info("关注用户: followerId={}, followingId={}", userId, id);
         userService.followUser(userId, id);
@@ -116,14 +161,41 @@ public class UserController {
             @RequestHeader(JwtUtils.HEADER_STRING) String authHeader) {
         
         // 从token获取用户ID
-        String token = JwtUtils.extractToken(authHeader);
-        Long userId = JwtUtils.getUserIdFromToken(token);
+        Long userId = getUserId(authHeader);
         
         log.info("取消关注用户: followerId={}, followingId={}", userId, id);
         userService.unfollowUser(userId, id);
         return Result.success();
     }
 
+    /**
+     * 获取关注列表（游标分页）
+     */
+    @GetMapping("/following/{id}")
+    public Result<FollowPageVO> listFollowing(
+            @PathVariable Long id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestHeader(value = JwtUtils.HEADER_STRING, required = false) String authHeader) {
+        log.info("获取关注列表: userId={}, cursor={}", id, cursor);
+        FollowPageVO page = userService.listFollowing(id, cursor, size, getUserId(authHeader));
+        return Result.success(page);
+    }
+
+    /**
+     * 获取粉丝列表（游标分页）
+     */
+    @GetMapping("/followers/{id}")
+    public Result<FollowPageVO> listFollowers(
+            @PathVariable Long id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestHeader(value = JwtUtils.HEADER_STRING, required = false) String authHeader) {
+        log.info("获取粉丝列表: userId={}, cursor={}", id, cursor);
+        FollowPageVO page = userService.listFollowers(id, cursor, size, getUserId(authHeader));
+        return Result.success(page);
+    }
+
     /**
      * 获取当前登录用户信息
      */
@@ -132,8 +204,7 @@ public class UserController {
             @RequestHeader(JwtUtils.HEADER_STRING) String authHeader) {
         
         // 从token获取用户ID
-        String token = JwtUtils.extractToken(authHeader);
-        Long userId = JwtUtils.getUserIdFromToken(token);
+        Long userId = getUserId(authHeader);
         
         log.info("获取当前用户信息: userId={}", userId);
         UserInfoVO userInfo = userService.getUserInfo(userId, userId);
@@ -148,12 +219,41 @@ public class UserController {
             @RequestHeader(JwtUtils.HEADER_STRING) String authHeader,
             @Validated @RequestBody ChangePasswordRequest request) {
         
-        // 从token获取用户ID
-        String token = JwtUtils.extractToken(authHeader);
-        Long userId = JwtUtils.getUserIdFromToken(token);
+        // 从token获取用户ID（认证接口不经过网关鉴权，需要自行检查Token是否已吊销）
+        Long userId = getActiveUserId(authHeader);
         
         log.info("修改密码: userId={}", userId);
         userService.changePassword(userId, request);
         return Result.success();
     }
+
+    /**
+     * 从请求头中解析当前用户ID（只解析一次Token）
+     *
+     * @param authHeader 请求头中的Authorization值
+     * @return 用户ID，Token缺失、无效或不是访问Token时返回 null
+     */
+    private Long getUserId(String authHeader) {
+        if (authHeader == null) {
+            return null;
+        }
+        JwtUtils.ParsedToken parsedToken = JwtUtils.parseToken(JwtUtils.extractToken(authHeader));
+        return parsedToken.isValid() && parsedToken.isAccessToken() ? parsedToken.getUserId() : null;
+    }
+
+    /**
+     * 从请求头中解析当前用户ID，并检查Token未被吊销
+     *
+     * @param authHeader 请求头中的Authorization值
+     * @return 用户ID
+     * @throws BusinessException Token缺失、无效或已吊销（401）
+     */
+    private Long getActiveUserId(String authHeader) {
+        JwtUtils.ParsedToken parsedToken = JwtUtils.parseToken(JwtUtils.extractToken(authHeader));
+        if (!parsedToken.isValid() || !parsedToken.isAccessToken() || parsedToken.getUserId() == null
+                || tokenService.isRevoked(parsedToken)) {
+            throw new BusinessException(StatusCode.UNAUTHORIZED, "登录已过期，请重新登录");
+        }
+        return parsedToken.getUserId();
+    }
 }
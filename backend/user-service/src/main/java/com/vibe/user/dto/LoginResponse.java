@@ -6,7 +6,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 /**
- * 登录响应DTO
+ * 登录响应DTO（登录、注册、刷新Token）
  */
 @Data
 @Builder
@@ -15,10 +15,20 @@ import lombok.NoArgsConstructor;
 public class LoginResponse {
 
     /**
-     * JWT Token
+     * 访问Token
      */
     private String token;
 
+    /**
+     * 刷新Token，访问Token过期后用于换取新的Token
+     */
+    private String refreshToken;
+
+    /**
+     * 访问Token有效期（秒）
+     */
+    private Long expiresIn;
+
     /**
      * 用户信息
      */
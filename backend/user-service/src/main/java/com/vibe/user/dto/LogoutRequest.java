@@ -0,0 +1,15 @@
+package com.vibe.user.dto;
+
+import lombok.Data;
+
+/**
+ * 退出登录请求DTO
+ */
+@Data
+public class LogoutRequest {
+
+    /**
+     * 刷新Token（可选，传入时一并吊销）
+     */
+    private String refreshToken;
+}
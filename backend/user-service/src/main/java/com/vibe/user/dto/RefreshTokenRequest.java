@@ -0,0 +1,18 @@
+package com.vibe.user.dto;
+
+import lombok.Data;
+
+import javax.validation.constraints.NotBlank;
+
+/**
+ * 刷新Token请求DTO
+ */
+@Data
+public class RefreshTokenRequest {
+
+    /**
+     * 刷新Token
+     */
+    @NotBlank(message = "刷新Token不能为空")
+    private String refreshToken;
+}
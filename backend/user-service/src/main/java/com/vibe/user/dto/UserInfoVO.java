@@ -13,7 +13,7 @@ import java.time.LocalDateTime;
  * 用户信息VO
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class UserInfoVO {
@@ -0,0 +1,50 @@
+package com.vibe.user.entity;
+
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * ID号段实体
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@TableName("id_segment")
+public class IdSegment implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 业务标识
+     */
+    @TableId
+    private String bizTag;
+
+    /**
+     * 已分配的最大ID（不含）
+     */
+    private Long maxId;
+
+    /**
+     * 每次租用的ID数量
+     */
+    private Integer step;
+
+    /**
+     * 描述
+     */
+    private String description;
+
+    /**
+     * 更新时间
+     */
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,45 @@
+package com.vibe.user.entity;
+
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * 用户统计实体
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@TableName("user_stats")
+public class UserStats implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 用户ID
+     */
+    @TableId
+    private Long userId;
+
+    /**
+     * 关注数
+     */
+    private Long followingCount;
+
+    /**
+     * 粉丝数
+     */
+    private Long followerCount;
+
+    /**
+     * 更新时间
+     */
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,43 @@
+package com.vibe.user.id;
+
+import com.vibe.common.core.utils.SegmentAllocator;
+import com.vibe.user.entity.IdSegment;
+import com.vibe.user.mapper.IdSegmentMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 基于 id_segment 表的号段分配器
+ * 在独立事务中增加 max_id 并读取新值，行锁保证多实例租用到的号段互不重叠；
+ * 使用独立事务，调用方事务回滚不会导致号段被重复分配
+ */
+@Slf4j
+@Component
+public class DbSegmentAllocator implements SegmentAllocator {
+
+    private final IdSegmentMapper idSegmentMapper;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public DbSegmentAllocator(IdSegmentMapper idSegmentMapper, PlatformTransactionManager transactionManager) {
+        this.idSegmentMapper = idSegmentMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    public Segment allocate(String bizTag) {
+        Segment segment = transactionTemplate.execute(status -> {
+            if (idSegmentMapper.incrMaxId(bizTag) == 0) {
+                throw new IllegalStateException("Unknown id segment biz tag: " + bizTag);
+            }
+            IdSegment idSegment = idSegmentMapper.selectById(bizTag);
+            return new Segment(idSegment.getMaxId() - idSegment.getStep(), idSegment.getMaxId());
+        });
+        log.info("租用号段: bizTag={}, start={}, end={}", bizTag, segment.getStart(), segment.getEnd());
+        return segment;
+    }
+}
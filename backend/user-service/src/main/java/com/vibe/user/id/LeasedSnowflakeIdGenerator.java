@@ -0,0 +1,52 @@
+package com.vibe.user.id;
+
+import com.vibe.common.core.domain.StatusCode;
+import com.vibe.common.core.exception.BusinessException;
+import com.vibe.common.core.utils.SnowflakeIdGenerator;
+
+/**
+ * 使用租约机器ID的雪花算法ID生成器
+ * 租约失效期间拒绝生成ID，避免与抢占了同一机器ID的其他实例生成重复ID
+ */
+public class LeasedSnowflakeIdGenerator extends SnowflakeIdGenerator implements AutoCloseable {
+
+    private final WorkerIdLease lease;
+
+    public LeasedSnowflakeIdGenerator(WorkerIdLease lease) {
+        super(lease.getWorkerId() & 0x1F, lease.getWorkerId() >> 5);
+        this.lease = lease;
+    }
+
+    @Override
+    public long nextId() {
+        checkLease();
+        return super.nextId();
+    }
+
+    @Override
+    public long[] nextIds(int n) {
+        checkLease();
+        return super.nextIds(n);
+    }
+
+    /**
+     * 机器ID租约
+     */
+    public WorkerIdLease getLease() {
+        return lease;
+    }
+
+    private void checkLease() {
+        if (!lease.isValid()) {
+            throw new BusinessException(StatusCode.SERVICE_UNAVAILABLE, "服务繁忙，请稍后重试");
+        }
+    }
+
+    /**
+     * 释放机器ID租约
+     */
+    @Override
+    public void close() {
+        lease.close();
+    }
+}
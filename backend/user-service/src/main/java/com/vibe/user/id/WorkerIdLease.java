@@ -0,0 +1,218 @@
+package com.vibe.user.id;
+
+import com.vibe.user.config.IdGeneratorProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.Collections;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 雪花算法机器ID租约
+ * 启动时在 Redis 中以 SET NX PX 抢占一个空闲的机器ID（key 的值为本实例的随机令牌），之后定时续约。
+ * <p>
+ * 本地只在最近一次续约成功后的 leaseTtl - {@link #SAFETY_MARGIN} 毫秒内认为租约有效，
+ * 超过这段时间仍未续约成功（Redis 不可用或 key 已被其他实例占用）时租约失效，期间不能生成ID，
+ * 保证 Redis 中的 key 过期、机器ID被其他实例抢占之前本实例已经停止使用。
+ * <p>
+ * 启动时 Redis 不可用的实例使用配置的机器ID（见 {@link #unregistered}），在后台按续约间隔尝试登记租约，
+ * 登记成功后与正常获取的租约相同；发现该机器ID已被其他实例占用时租约永久失效。
+ */
+@Slf4j
+public class WorkerIdLease implements AutoCloseable {
+
+    /**
+     * 机器ID数量（数据中心ID 5位 + 机器ID 5位）
+     */
+    public static final int MAX_WORKER_IDS = 1024;
+
+    /**
+     * 本地判断租约有效时预留的时间（毫秒），覆盖续约请求的网络耗时
+     */
+    private static final long SAFETY_MARGIN = 1000L;
+
+    /**
+     * 续约：key 仍属于本实例时延长过期时间
+     */
+    private static final RedisScript<Long> RENEW_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('pexpire', KEYS[1], ARGV[2]) else return 0 end",
+            Long.class);
+
+    /**
+     * 释放：key 仍属于本实例时删除
+     */
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    private final IdGeneratorProperties idGeneratorProperties;
+
+    /**
+     * 本实例的令牌，续约和释放时校验 key 仍属于本实例
+     */
+    private final String token;
+
+    private final int workerId;
+
+    private final ScheduledExecutorService heartbeat;
+
+    /**
+     * 本地认为租约有效的截止时间（System.nanoTime）
+     */
+    private volatile long validUntil;
+
+    /**
+     * 租约是否已在 Redis 中登记；未登记时（使用配置的机器ID）在发现冲突之前一直有效
+     */
+    private volatile boolean registered;
+
+    /**
+     * 机器ID是否已被其他实例占用（永久失效）
+     */
+    private volatile boolean lost;
+
+    private WorkerIdLease(StringRedisTemplate stringRedisTemplate, IdGeneratorProperties idGeneratorProperties,
+                          String token, int workerId, long validUntil, boolean registered) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.idGeneratorProperties = idGeneratorProperties;
+        this.token = token;
+        this.workerId = workerId;
+        this.validUntil = validUntil;
+        this.registered = registered;
+        this.heartbeat = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "worker-id-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = idGeneratorProperties.getHeartbeatInterval();
+        heartbeat.scheduleWithFixedDelay(this::renew, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 从随机位置开始依次尝试抢占空闲的机器ID
+     *
+     * @throws IllegalStateException 所有机器ID都已被占用
+     */
+    public static WorkerIdLease acquire(StringRedisTemplate stringRedisTemplate, IdGeneratorProperties idGeneratorProperties) {
+        String token = UUID.randomUUID().toString();
+        int start = ThreadLocalRandom.current().nextInt(MAX_WORKER_IDS);
+        for (int i = 0; i < MAX_WORKER_IDS; i++) {
+            int workerId = (start + i) % MAX_WORKER_IDS;
+            long requestedAt = System.nanoTime();
+            Boolean acquired = stringRedisTemplate.opsForValue().setIfAbsent(key(idGeneratorProperties, workerId), token,
+                    idGeneratorProperties.getLeaseTtl(), TimeUnit.MILLISECONDS);
+            if (Boolean.TRUE.equals(acquired)) {
+                log.info("获取机器ID租约成功: workerId={}", workerId);
+                return new WorkerIdLease(stringRedisTemplate, idGeneratorProperties, token, workerId,
+                        requestedAt + validNanos(idGeneratorProperties), true);
+            }
+        }
+        throw new IllegalStateException("No free snowflake worker id, all " + MAX_WORKER_IDS + " ids are leased");
+    }
+
+    /**
+     * 启动时 Redis 不可用：使用配置的机器ID，之后在后台尝试登记该机器ID的租约
+     *
+     * @param workerId 配置的机器ID
+     */
+    public static WorkerIdLease unregistered(StringRedisTemplate stringRedisTemplate,
+                                             IdGeneratorProperties idGeneratorProperties, int workerId) {
+        return new WorkerIdLease(stringRedisTemplate, idGeneratorProperties, UUID.randomUUID().toString(), workerId,
+                System.nanoTime(), false);
+    }
+
+    /**
+     * 机器ID（0~1023）
+     */
+    public int getWorkerId() {
+        return workerId;
+    }
+
+    /**
+     * 租约当前是否有效
+     */
+    public boolean isValid() {
+        return !lost && (!registered || System.nanoTime() - validUntil < 0);
+    }
+
+    /**
+     * 租约是否已在 Redis 中登记
+     */
+    public boolean isRegistered() {
+        return registered;
+    }
+
+    /**
+     * 机器ID是否已被其他实例占用，为 true 时需要重启实例重新获取机器ID
+     */
+    public boolean isLost() {
+        return lost;
+    }
+
+    /**
+     * 续约；key 已不存在时（例如 Redis 长时间不可用后过期，或尚未登记）尝试抢占同一个机器ID，
+     * 已被其他实例占用时租约永久失效，需要重启实例
+     */
+    void renew() {
+        String key = key(idGeneratorProperties, workerId);
+        try {
+            long requestedAt = System.nanoTime();
+            Long renewed = stringRedisTemplate.execute(RENEW_SCRIPT, Collections.singletonList(key),
+                    token, String.valueOf(idGeneratorProperties.getLeaseTtl()));
+            if (renewed == null || renewed == 0) {
+                Boolean acquired = stringRedisTemplate.opsForValue().setIfAbsent(key, token,
+                        idGeneratorProperties.getLeaseTtl(), TimeUnit.MILLISECONDS);
+                if (!Boolean.TRUE.equals(acquired)) {
+                    lost = true;
+                    validUntil = requestedAt;
+                    log.error("机器ID租约已被其他实例占用，停止生成ID: workerId={}", workerId);
+                    heartbeat.shutdown();
+                    return;
+                }
+                if (registered) {
+                    log.warn("机器ID租约已过期，重新获取成功: workerId={}", workerId);
+                } else {
+                    log.info("配置的机器ID登记租约成功: workerId={}", workerId);
+                }
+            }
+            validUntil = requestedAt + validNanos(idGeneratorProperties);
+            registered = true;
+        } catch (Exception e) {
+            if (registered) {
+                log.warn("机器ID租约续约失败: workerId={}, error={}", workerId, e.getMessage());
+            } else {
+                log.warn("登记机器ID租约失败，继续使用配置的机器ID: workerId={}, error={}", workerId, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 停止续约并释放机器ID
+     */
+    @Override
+    public void close() {
+        heartbeat.shutdownNow();
+        validUntil = System.nanoTime();
+        try {
+            stringRedisTemplate.execute(RELEASE_SCRIPT, Collections.singletonList(key(idGeneratorProperties, workerId)), token);
+        } catch (Exception e) {
+            log.warn("释放机器ID租约失败: workerId={}, error={}", workerId, e.getMessage());
+        }
+    }
+
+    private static long validNanos(IdGeneratorProperties idGeneratorProperties) {
+        return TimeUnit.MILLISECONDS.toNanos(idGeneratorProperties.getLeaseTtl() - SAFETY_MARGIN);
+    }
+
+    private static String key(IdGeneratorProperties idGeneratorProperties, int workerId) {
+        return idGeneratorProperties.getLeaseKeyPrefix() + workerId;
+    }
+}
@@ -0,0 +1,38 @@
+package com.vibe.user.id;
+
+import com.vibe.common.core.utils.SnowflakeIdGenerator;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * 机器ID租约健康检查（/actuator/health 中的 workerIdLease）
+ * 租约失效期间实例不能生成ID，注册、关注等接口返回 503：机器ID被其他实例占用时需要重启实例，
+ * 租约过期（Redis 不可用超过租约有效期）时在 Redis 恢复后自动续约
+ */
+@Component("workerIdLease")
+public class WorkerIdLeaseHealthIndicator implements HealthIndicator {
+
+    private final SnowflakeIdGenerator snowflakeIdGenerator;
+
+    public WorkerIdLeaseHealthIndicator(SnowflakeIdGenerator snowflakeIdGenerator) {
+        this.snowflakeIdGenerator = snowflakeIdGenerator;
+    }
+
+    @Override
+    public Health health() {
+        if (!(snowflakeIdGenerator instanceof LeasedSnowflakeIdGenerator)) {
+            return Health.up().withDetail("assign", "fixed").build();
+        }
+        WorkerIdLease lease = ((LeasedSnowflakeIdGenerator) snowflakeIdGenerator).getLease();
+        Health.Builder builder = lease.isValid() ? Health.up() : Health.down();
+        builder.withDetail("workerId", lease.getWorkerId())
+                .withDetail("registered", lease.isRegistered());
+        if (lease.isLost()) {
+            builder.withDetail("error", "机器ID已被其他实例占用，需要重启实例");
+        } else if (!lease.isValid()) {
+            builder.withDetail("error", "机器ID租约已过期，等待 Redis 恢复后续约");
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,23 @@
+package com.vibe.user.mail;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 本地开发用的邮件发送通道：不连接邮件服务器，只把邮件内容输出到日志
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "user.mail", name = "transport", havingValue = "log", matchIfMissing = true)
+public class LoggingMailTransport implements MailTransport {
+
+    @Override
+    public void send(List<MailMessage> messages) {
+        for (MailMessage message : messages) {
+            log.info("发送邮件: to={}, subject={}, content={}", message.getTo(), message.getSubject(), message.getContent());
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package com.vibe.user.mail;
+
+import com.vibe.user.config.MailDispatchProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 异步邮件发送器
+ * 邮件先进入有界队列，提交方立即返回；固定数量的发送线程从队列中批量取出邮件交给发送通道，
+ * 发送线程数即与发送通道的最大并发连接数。
+ * 同一批中的邮件按收件人的邮箱服务商（域名）分组发送，配置了并发上限的服务商在获取许可后才发送，
+ * 达到上限时发送线程等待，未限制的服务商的邮件先发送。
+ * 发送失败的邮件按指数退避延迟后重新入队，超过最大重试次数后放弃。
+ */
+@Slf4j
+@Component
+public class MailDispatcher {
+
+    private final MailTransport mailTransport;
+
+    private final MailDispatchProperties mailDispatchProperties;
+
+    private final BlockingQueue<MailTask> queue;
+
+    /**
+     * 邮箱服务商（小写域名）→ 并发发送许可
+     */
+    private final Map<String, Semaphore> providerLimits;
+
+    private final Counter sent;
+
+    private final Counter failed;
+
+    private final Counter rejected;
+
+    private ExecutorService workers;
+
+    private ScheduledExecutorService retryScheduler;
+
+    private volatile boolean running;
+
+    public MailDispatcher(MailTransport mailTransport, MailDispatchProperties mailDispatchProperties,
+                          MeterRegistry meterRegistry) {
+        this.mailTransport = mailTransport;
+        this.mailDispatchProperties = mailDispatchProperties;
+        this.queue = new ArrayBlockingQueue<>(mailDispatchProperties.getQueueCapacity());
+        Map<String, Semaphore> limits = new HashMap<>();
+        mailDispatchProperties.getProviderConcurrency().forEach((provider, concurrency) ->
+                limits.put(provider.toLowerCase(Locale.ROOT), new Semaphore(Math.max(concurrency, 1))));
+        this.providerLimits = Collections.unmodifiableMap(limits);
+        Gauge.builder("user.mail.queue.size", queue, BlockingQueue::size)
+                .description("待发送邮件数量")
+                .register(meterRegistry);
+        this.sent = Counter.builder("user.mail.sent")
+                .description("发送成功的邮件数量")
+                .register(meterRegistry);
+        this.failed = Counter.builder("user.mail.failed")
+                .description("重试后仍发送失败而放弃的邮件数量")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("user.mail.rejected")
+                .description("队列已满被拒绝的邮件数量")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 启动发送线程
+     */
+    @PostConstruct
+    public void start() {
+        int concurrency = Math.max(mailDispatchProperties.getConcurrency(), 1);
+        running = true;
+        workers = Executors.newFixedThreadPool(concurrency, namedThreadFactory("mail-dispatch-"));
+        retryScheduler = Executors.newSingleThreadScheduledExecutor(namedThreadFactory("mail-retry-"));
+        for (int i = 0; i < concurrency; i++) {
+            workers.execute(this::work);
+        }
+    }
+
+    /**
+     * 停止接收新邮件，等待队列中的邮件发送完成（最多等待 shutdownTimeout），等待重试的邮件直接丢弃
+     */
+    @PreDestroy
+    public void stop() {
+        running = false;
+        List<Runnable> pendingRetries = retryScheduler.shutdownNow();
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(mailDispatchProperties.getShutdownTimeout(), TimeUnit.MILLISECONDS)) {
+                workers.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        if (!queue.isEmpty() || !pendingRetries.isEmpty()) {
+            log.warn("邮件发送器已停止，未发送的邮件被丢弃: queued={}, retrying={}", queue.size(), pendingRetries.size());
+        }
+    }
+
+    /**
+     * 提交邮件（不阻塞）
+     *
+     * @param message 邮件
+     * @return 是否已进入发送队列，队列已满或发送器已停止时返回 false
+     */
+    public boolean offer(MailMessage message) {
+        if (running && queue.offer(new MailTask(message))) {
+            return true;
+        }
+        rejected.increment();
+        return false;
+    }
+
+    /**
+     * 发送线程：取出一封邮件后再顺带取出队列中已有的邮件，凑成一批发送
+     */
+    private void work() {
+        int batchSize = Math.max(mailDispatchProperties.getBatchSize(), 1);
+        List<MailTask> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                MailTask first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                dispatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * 按服务商分组发送：未限制的服务商直接发送，受限的服务商获取许可后再发送
+     */
+    private void dispatch(List<MailTask> batch) throws InterruptedException {
+        if (providerLimits.isEmpty()) {
+            send(batch);
+            return;
+        }
+        List<MailTask> unlimited = new ArrayList<>(batch.size());
+        Map<String, List<MailTask>> limited = new LinkedHashMap<>();
+        for (MailTask task : batch) {
+            String provider = providerOf(task.message.getTo());
+            if (providerLimits.containsKey(provider)) {
+                limited.computeIfAbsent(provider, key -> new ArrayList<>()).add(task);
+            } else {
+                unlimited.add(task);
+            }
+        }
+        if (!unlimited.isEmpty()) {
+            send(unlimited);
+        }
+        for (Map.Entry<String, List<MailTask>> entry : limited.entrySet()) {
+            Semaphore permits = providerLimits.get(entry.getKey());
+            permits.acquire();
+            try {
+                send(entry.getValue());
+            } finally {
+                permits.release();
+            }
+        }
+    }
+
+    /**
+     * 收件人的邮箱服务商（小写域名），无法识别时返回空字符串
+     */
+    private static String providerOf(String to) {
+        int at = to == null ? -1 : to.lastIndexOf('@');
+        return at < 0 ? "" : to.substring(at + 1).toLowerCase(Locale.ROOT);
+    }
+
+    private void send(List<MailTask> batch) {
+        List<MailMessage> messages = new ArrayList<>(batch.size());
+        for (MailTask task : batch) {
+            messages.add(task.message);
+        }
+        try {
+            mailTransport.send(messages);
+            sent.increment(messages.size());
+        } catch (Exception e) {
+            log.warn("邮件发送失败，稍后重试: size={}, error={}", messages.size(), e.getMessage());
+            for (MailTask task : batch) {
+                retry(task);
+            }
+        }
+    }
+
+    /**
+     * 按指数退避延迟后重新入队
+     */
+    private void retry(MailTask task) {
+        if (task.attempts >= mailDispatchProperties.getMaxRetries() || !running) {
+            giveUp(task);
+            return;
+        }
+        task.attempts++;
+        long delay = Math.min(mailDispatchProperties.getRetryBackoff() << Math.min(task.attempts - 1, 30),
+                mailDispatchProperties.getMaxRetryBackoff());
+        try {
+            retryScheduler.schedule(() -> {
+                if (!queue.offer(task)) {
+                    giveUp(task);
+                }
+            }, delay, TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            // 发送器已停止
+            giveUp(task);
+        }
+    }
+
+    private void giveUp(MailTask task) {
+        failed.increment();
+        log.error("邮件发送失败，放弃发送: to={}, subject={}, attempts={}",
+                task.message.getTo(), task.message.getSubject(), task.attempts + 1);
+    }
+
+    private static ThreadFactory namedThreadFactory(String prefix) {
+        AtomicInteger index = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + index.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * 队列中的邮件及已重试次数
+     */
+    private static class MailTask {
+
+        private final MailMessage message;
+
+        private int attempts;
+
+        MailTask(MailMessage message) {
+            this.message = message;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.vibe.user.mail;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 待发送的邮件
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MailMessage {
+
+    /**
+     * 收件人邮箱
+     */
+    private String to;
+
+    /**
+     * 邮件主题
+     */
+    private String subject;
+
+    /**
+     * 邮件正文
+     */
+    private String content;
+}
@@ -0,0 +1,18 @@
+package com.vibe.user.mail;
+
+import java.util.List;
+
+/**
+ * 邮件发送通道（对接具体的邮件服务商）
+ */
+public interface MailTransport {
+
+    /**
+     * 批量发送邮件（实现可在同一连接中依次发送）
+     * 抛出异常时整批邮件都会重试，重试可能导致个别邮件重复发送
+     *
+     * @param messages 待发送的邮件
+     * @throws Exception 发送失败
+     */
+    void send(List<MailMessage> messages) throws Exception;
+}
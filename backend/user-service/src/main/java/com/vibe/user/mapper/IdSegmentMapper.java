@@ -0,0 +1,22 @@
+package com.vibe.user.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.vibe.user.entity.IdSegment;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Update;
+
+/**
+ * ID号段Mapper
+ */
+@Mapper
+public interface IdSegmentMapper extends BaseMapper<IdSegment> {
+
+    /**
+     * 租用下一个号段：max_id 增加 step（行锁保证多实例并发租用时号段不重叠）
+     *
+     * @return 影响行数，业务标识不存在时为 0
+     */
+    @Update("UPDATE id_segment SET max_id = max_id + step WHERE biz_tag = #{bizTag}")
+    int incrMaxId(@Param("bizTag") String bizTag);
+}
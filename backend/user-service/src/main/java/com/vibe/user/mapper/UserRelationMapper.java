@@ -2,10 +2,15 @@ package com.vibe.user.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.vibe.user.entity.UserRelation;
+import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
 /**
  * 用户关系Mapper
  */
@@ -13,20 +18,72 @@ import org.apache.ibatis.annotations.Select;
 public interface UserRelationMapper extends BaseMapper<UserRelation> {
 
     /**
-     * 统计关注数
+     * 检查是否关注
      */
-    @Select("SELECT COUNT(*) FROM user_relation WHERE follower_id = #{userId}")
-    Long countFollowing(@Param("userId") Long userId);
+    @Select("SELECT COUNT(*) FROM user_relation WHERE follower_id = #{followerId} AND following_id = #{followingId}")
+    int checkFollowing(@Param("followerId") Long followerId, @Param("followingId") Long followingId);
 
     /**
-     * 统计粉丝数
+     * 查询用户关注的用户ID（覆盖索引 idx_follower）
      */
-    @Select("SELECT COUNT(*) FROM user_relation WHERE following_id = #{userId}")
-    Long countFollower(@Param("userId") Long userId);
+    @Select("SELECT following_id FROM user_relation WHERE follower_id = #{followerId} LIMIT #{limit}")
+    List<Long> selectFollowingIds(@Param("followerId") Long followerId, @Param("limit") int limit);
 
     /**
-     * 检查是否关注
+     * 查询用户在给定用户中关注了哪些（使用唯一索引）
      */
-    @Select("SELECT COUNT(*) FROM user_relation WHERE follower_id = #{followerId} AND following_id = #{followingId}")
-    int checkFollowing(@Param("followerId") Long followerId, @Param("followingId") Long followingId);
+    @Select("<script>"
+            + "SELECT following_id FROM user_relation WHERE follower_id = #{followerId} AND following_id IN "
+            + "<foreach collection='followingIds' item='id' open='(' separator=',' close=')'>#{id}</foreach>"
+            + "</script>")
+    List<Long> selectFollowingIdsIn(@Param("followerId") Long followerId,
+                                    @Param("followingIds") Collection<Long> followingIds);
+
+    /**
+     * 按关注时间倒序分页查询关注列表（游标为上一页最后一条的 created_at 和 id）
+     */
+    @Select("<script>"
+            + "SELECT id, follower_id, following_id, created_at FROM user_relation WHERE follower_id = #{userId}"
+            + "<if test='cursorTime != null'>"
+            + " AND (created_at &lt; #{cursorTime} OR (created_at = #{cursorTime} AND id &lt; #{cursorId}))"
+            + "</if>"
+            + " ORDER BY created_at DESC, id DESC LIMIT #{limit}"
+            + "</script>")
+    List<UserRelation> selectFollowingPage(@Param("userId") Long userId,
+                                           @Param("cursorTime") LocalDateTime cursorTime,
+                                           @Param("cursorId") Long cursorId,
+                                           @Param("limit") int limit);
+
+    /**
+     * 按关注时间倒序分页查询粉丝列表（游标为上一页最后一条的 created_at 和 id）
+     */
+    @Select("<script>"
+            + "SELECT id, follower_id, following_id, created_at FROM user_relation WHERE following_id = #{userId}"
+            + "<if test='cursorTime != null'>"
+            + " AND (created_at &lt; #{cursorTime} OR (created_at = #{cursorTime} AND id &lt; #{cursorId}))"
+            + "</if>"
+            + " ORDER BY created_at DESC, id DESC LIMIT #{limit}"
+            + "</script>")
+    List<UserRelation> selectFollowerPage(@Param("userId") Long userId,
+                                          @Param("cursorTime") LocalDateTime cursorTime,
+                                          @Param("cursorId") Long cursorId,
+                                          @Param("limit") int limit);
+
+    /**
+     * 按 (关注者, 被关注者) 批量查询已存在的关注关系（使用唯一索引）
+     */
+    @Select("<script>"
+            + "SELECT id, follower_id, following_id, created_at FROM user_relation WHERE (follower_id, following_id) IN "
+            + "<foreach collection='pairs' item='p' open='(' separator=',' close=')'>(#{p.followerId}, #{p.followingId})</foreach>"
+            + "</script>")
+    List<UserRelation> selectByPairs(@Param("pairs") Collection<UserRelation> pairs);
+
+    /**
+     * 多行插入关注关系
+     */
+    @Insert("<script>"
+            + "INSERT INTO user_relation (id, follower_id, following_id, created_at) VALUES "
+            + "<foreach collection='relations' item='r' separator=','>(#{r.id}, #{r.followerId}, #{r.followingId}, #{r.createdAt})</foreach>"
+            + "</script>")
+    int insertBatch(@Param("relations") Collection<UserRelation> relations);
 }
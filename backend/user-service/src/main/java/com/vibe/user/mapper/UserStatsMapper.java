@@ -0,0 +1,39 @@
+package com.vibe.user.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.vibe.user.entity.UserStats;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Update;
+
+/**
+ * 用户统计Mapper
+ */
+@Mapper
+public interface UserStatsMapper extends BaseMapper<UserStats> {
+
+    /**
+     * 增减关注数
+     *
+     * @return 影响行数，统计行不存在时为 0
+     */
+    @Update("UPDATE user_stats SET following_count = following_count + #{delta} WHERE user_id = #{userId}")
+    int incrFollowingCount(@Param("userId") Long userId, @Param("delta") long delta);
+
+    /**
+     * 增减粉丝数
+     *
+     * @return 影响行数，统计行不存在时为 0
+     */
+    @Update("UPDATE user_stats SET follower_count = follower_count + #{delta} WHERE user_id = #{userId}")
+    int incrFollowerCount(@Param("userId") Long userId, @Param("delta") long delta);
+
+    /**
+     * 按关系表统计结果初始化统计行（已存在时忽略）
+     */
+    @Insert("INSERT IGNORE INTO user_stats (user_id, following_count, follower_count) SELECT #{userId}, "
+            + "(SELECT COUNT(*) FROM user_relation WHERE follower_id = #{userId}), "
+            + "(SELECT COUNT(*) FROM user_relation WHERE following_id = #{userId})")
+    int initStats(@Param("userId") Long userId);
+}
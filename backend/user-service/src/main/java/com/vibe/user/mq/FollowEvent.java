@@ -0,0 +1,59 @@
+package com.vibe.user.mq;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 关注/取消关注事件
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FollowEvent {
+
+    /**
+     * 事件类型
+     */
+    private Type type;
+
+    /**
+     * 关注关系ID（关注事件使用，作为新关系的主键）
+     */
+    private Long relationId;
+
+    /**
+     * 关注者ID
+     */
+    private Long followerId;
+
+    /**
+     * 被关注者ID
+     */
+    private Long followingId;
+
+    /**
+     * 事件时间（关注事件作为关注时间，精确到秒）
+     */
+    private LocalDateTime createdAt;
+
+    /**
+     * 事件类型
+     */
+    public enum Type {
+
+        /**
+         * 关注
+         */
+        FOLLOW,
+
+        /**
+         * 取消关注
+         */
+        UNFOLLOW
+    }
+}
@@ -0,0 +1,179 @@
+package com.vibe.user.mq;
+
+import com.vibe.common.core.utils.JsonUtils;
+import com.vibe.user.config.UserCacheProperties;
+import com.vibe.user.entity.UserRelation;
+import com.vibe.user.mapper.UserRelationMapper;
+import com.vibe.user.mapper.UserStatsMapper;
+import com.vibe.user.service.RedisService;
+import com.vibe.user.service.RedisService.FollowList;
+import com.vibe.user.service.UserInfoCacheService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.Resource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * 关注事件消费者（仅异步写入模式生效）
+ * 批量消费关注事件，同一对用户只保留最后一个事件，与数据库现状比对后用多行 INSERT / DELETE 写入，
+ * 并在同一事务中更新统计数据。只写入实际发生变化的关系，因此重复投递和重放都是幂等的。
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "user.follow", name = "write-mode", havingValue = "async")
+public class FollowEventConsumer {
+
+    @Resource
+    private UserRelationMapper userRelationMapper;
+
+    @Resource
+    private UserStatsMapper userStatsMapper;
+
+    @Resource
+    private RedisService redisService;
+
+    @Resource
+    private UserInfoCacheService userInfoCacheService;
+
+    @Resource
+    private UserCacheProperties userCacheProperties;
+
+    @Resource
+    private TransactionTemplate transactionTemplate;
+
+    @KafkaListener(topics = "${user.follow.topic}", containerFactory = "followEventListenerFactory")
+    public void onMessages(List<String> messages) {
+        // 同一对用户只保留最后一个事件（同一关注者的事件在同一分区内有序）
+        Map<String, FollowEvent> latest = new LinkedHashMap<>();
+        for (String message : messages) {
+            FollowEvent event = parse(message);
+            if (event != null) {
+                latest.put(event.getFollowerId() + ":" + event.getFollowingId(), event);
+            }
+        }
+        if (latest.isEmpty()) {
+            return;
+        }
+
+        List<UserRelation> pairs = new ArrayList<>(latest.size());
+        for (FollowEvent event : latest.values()) {
+            pairs.add(UserRelation.builder().followerId(event.getFollowerId()).followingId(event.getFollowingId()).build());
+        }
+
+        List<UserRelation> inserted = new ArrayList<>();
+        List<UserRelation> deleted = new ArrayList<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            inserted.clear();
+            deleted.clear();
+            Map<String, UserRelation> existing = new HashMap<>(pairs.size() * 2);
+            for (UserRelation relation : userRelationMapper.selectByPairs(pairs)) {
+                existing.put(relation.getFollowerId() + ":" + relation.getFollowingId(), relation);
+            }
+            for (Map.Entry<String, FollowEvent> entry : latest.entrySet()) {
+                FollowEvent event = entry.getValue();
+                UserRelation relation = existing.get(entry.getKey());
+                if (event.getType() == FollowEvent.Type.FOLLOW && relation == null) {
+                    inserted.add(UserRelation.builder()
+                            .id(event.getRelationId())
+                            .followerId(event.getFollowerId())
+                            .followingId(event.getFollowingId())
+                            .createdAt(event.getCreatedAt())
+                            .build());
+                } else if (event.getType() == FollowEvent.Type.UNFOLLOW && relation != null) {
+                    deleted.add(relation);
+                }
+            }
+            if (!inserted.isEmpty()) {
+                userRelationMapper.insertBatch(inserted);
+            }
+            if (!deleted.isEmpty()) {
+                List<Long> ids = new ArrayList<>(deleted.size());
+                for (UserRelation relation : deleted) {
+                    ids.add(relation.getId());
+                }
+                userRelationMapper.deleteBatchIds(ids);
+            }
+            updateStats(inserted, deleted);
+        });
+
+        refreshCaches(inserted, deleted);
+        log.info("关注事件写入完成: events={}, inserted={}, deleted={}", messages.size(), inserted.size(), deleted.size());
+    }
+
+    /**
+     * 按用户汇总关注数、粉丝数的变化，按用户ID顺序更新（避免与其他批次交叉加锁）
+     */
+    private void updateStats(List<UserRelation> inserted, List<UserRelation> deleted) {
+        Map<Long, long[]> deltas = new TreeMap<>();
+        for (UserRelation relation : inserted) {
+            deltas.computeIfAbsent(relation.getFollowerId(), k -> new long[2])[0]++;
+            deltas.computeIfAbsent(relation.getFollowingId(), k -> new long[2])[1]++;
+        }
+        for (UserRelation relation : deleted) {
+            deltas.computeIfAbsent(relation.getFollowerId(), k -> new long[2])[0]--;
+            deltas.computeIfAbsent(relation.getFollowingId(), k -> new long[2])[1]--;
+        }
+        for (Map.Entry<Long, long[]> entry : deltas.entrySet()) {
+            long[] delta = entry.getValue();
+            if (delta[0] != 0) {
+                userStatsMapper.incrFollowingCount(entry.getKey(), delta[0]);
+            }
+            if (delta[1] != 0) {
+                userStatsMapper.incrFollowerCount(entry.getKey(), delta[1]);
+            }
+        }
+    }
+
+    /**
+     * 事务提交后更新关注/粉丝列表缓存，并清除关注数变化的用户信息缓存
+     */
+    private void refreshCaches(List<UserRelation> inserted, List<UserRelation> deleted) {
+        int followListSize = userCacheProperties.getFollowList().getSize();
+        TreeSet<Long> changedUsers = new TreeSet<>();
+        for (UserRelation relation : inserted) {
+            redisService.addToFollowList(FollowList.FOLLOWING, relation.getFollowerId(),
+                    RedisService.followListMember(relation, relation.getFollowingId()), followListSize);
+            redisService.addToFollowList(FollowList.FOLLOWER, relation.getFollowingId(),
+                    RedisService.followListMember(relation, relation.getFollowerId()), followListSize);
+            changedUsers.add(relation.getFollowerId());
+            changedUsers.add(relation.getFollowingId());
+        }
+        for (UserRelation relation : deleted) {
+            redisService.removeFromFollowList(FollowList.FOLLOWING, relation.getFollowerId(),
+                    RedisService.followListMember(relation, relation.getFollowingId()));
+            redisService.removeFromFollowList(FollowList.FOLLOWER, relation.getFollowingId(),
+                    RedisService.followListMember(relation, relation.getFollowerId()));
+            changedUsers.add(relation.getFollowerId());
+            changedUsers.add(relation.getFollowingId());
+        }
+        for (Long userId : changedUsers) {
+            userInfoCacheService.evict(userId);
+        }
+    }
+
+    private FollowEvent parse(String message) {
+        try {
+            FollowEvent event = JsonUtils.parseObject(message, FollowEvent.class);
+            if (event != null && event.getType() != null && event.getFollowerId() != null && event.getFollowingId() != null
+                    && (event.getType() == FollowEvent.Type.UNFOLLOW
+                    || (event.getRelationId() != null && event.getCreatedAt() != null))) {
+                return event;
+            }
+        } catch (Exception e) {
+            log.warn("解析关注事件失败: message={}, error={}", message, e.getMessage());
+            return null;
+        }
+        log.warn("无效的关注事件: {}", message);
+        return null;
+    }
+}
@@ -0,0 +1,47 @@
+package com.vibe.user.mq;
+
+import com.vibe.common.core.domain.StatusCode;
+import com.vibe.common.core.exception.BusinessException;
+import com.vibe.common.core.utils.JsonUtils;
+import com.vibe.user.config.FollowProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 关注事件生产者
+ * 以关注者ID作为消息 key，同一用户的关注/取消关注事件进入同一分区，消费顺序与发送顺序一致
+ */
+@Slf4j
+@Component
+public class FollowEventProducer {
+
+    @Resource
+    private KafkaTemplate<String, String> kafkaTemplate;
+
+    @Resource
+    private FollowProperties followProperties;
+
+    /**
+     * 发送关注事件并等待 Kafka 确认
+     *
+     * @param event 关注事件
+     * @throws BusinessException 发送失败或超时
+     */
+    public void send(FollowEvent event) {
+        try {
+            kafkaTemplate.send(followProperties.getTopic(), String.valueOf(event.getFollowerId()),
+                            JsonUtils.toJsonString(event))
+                    .get(followProperties.getSendTimeout(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessException(StatusCode.SERVICE_UNAVAILABLE, "服务繁忙，请稍后重试");
+        } catch (Exception e) {
+            log.error("发送关注事件失败: event={}, error={}", event, e.getMessage());
+            throw new BusinessException(StatusCode.SERVICE_UNAVAILABLE, "服务繁忙，请稍后重试");
+        }
+    }
+}
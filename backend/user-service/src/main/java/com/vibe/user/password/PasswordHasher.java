@@ -0,0 +1,162 @@
+package com.vibe.user.password;
+
+import com.vibe.common.core.domain.StatusCode;
+import com.vibe.common.core.exception.BusinessException;
+import com.vibe.user.config.PasswordHashProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * 密码哈希计算器
+ * BCrypt 等算法每次计算需要几十到上百毫秒的 CPU，所有计算都在固定数量的专用线程中执行，
+ * 等待队列有界：队列已满或等待超时时直接返回"服务繁忙"，撞库等突发登录流量不会占满 Tomcat 线程和全部 CPU。
+ * 登录成功后若密码哈希的算法或强度落后于当前配置，在空闲时重新计算哈希，由调用方写回数据库。
+ */
+@Slf4j
+@Component
+public class PasswordHasher {
+
+    private final PasswordEncoder passwordEncoder;
+
+    private final PasswordHashProperties passwordHashProperties;
+
+    private final ThreadPoolExecutor executor;
+
+    private final Counter rejected;
+
+    private final Counter timedOut;
+
+    private final Counter upgraded;
+
+    public PasswordHasher(PasswordEncoder passwordEncoder, PasswordHashProperties passwordHashProperties,
+                          MeterRegistry meterRegistry) {
+        this.passwordEncoder = passwordEncoder;
+        this.passwordHashProperties = passwordHashProperties;
+        int threads = passwordHashProperties.getThreads() > 0
+                ? passwordHashProperties.getThreads()
+                : Math.max(Runtime.getRuntime().availableProcessors() / 2, 1);
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(passwordHashProperties.getQueueCapacity(), 1)),
+                namedThreadFactory("password-hash-"), new ThreadPoolExecutor.AbortPolicy());
+        Gauge.builder("user.password.queue.size", executor.getQueue(), BlockingQueue::size)
+                .description("等待计算的密码哈希数量")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("user.password.rejected")
+                .description("队列已满被拒绝的密码哈希计算次数")
+                .register(meterRegistry);
+        this.timedOut = Counter.builder("user.password.timeout")
+                .description("等待超时的密码哈希计算次数")
+                .register(meterRegistry);
+        this.upgraded = Counter.builder("user.password.upgraded")
+                .description("登录后按当前配置重新哈希的密码数量")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 验证密码
+     *
+     * @throws BusinessException 计算队列已满或等待超时（503）
+     */
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return call(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * 按当前配置的算法计算密码哈希
+     *
+     * @throws BusinessException 计算队列已满或等待超时（503）
+     */
+    public String encode(String rawPassword) {
+        return call(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    /**
+     * 密码验证通过后调用：哈希的算法或强度落后于当前配置时，在计算线程中重新哈希并回调写回。
+     * 只在没有请求排队时执行，不占用登录的计算容量；未执行时下次登录再尝试。
+     *
+     * @param rawPassword     已验证通过的明文密码
+     * @param encodedPassword 当前存储的密码哈希
+     * @param onUpgraded      新的密码哈希，在计算线程中回调
+     */
+    public void upgradeIfNeeded(String rawPassword, String encodedPassword, Consumer<String> onUpgraded) {
+        if (!passwordEncoder.upgradeEncoding(encodedPassword) || !executor.getQueue().isEmpty()) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    onUpgraded.accept(passwordEncoder.encode(rawPassword));
+                    upgraded.increment();
+                } catch (Exception e) {
+                    log.warn("密码重新哈希失败: error={}", e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // 队列刚好被占满，下次登录再升级
+        }
+    }
+
+    private <T> T call(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw busy();
+        }
+        try {
+            return future.get(passwordHashProperties.getTimeout(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // 还在排队的任务不再执行；已开始的计算无法中断，结果丢弃
+            future.cancel(false);
+            timedOut.increment();
+            throw busy();
+        } catch (InterruptedException e) {
+            future.cancel(false);
+            Thread.currentThread().interrupt();
+            throw busy();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    private static BusinessException busy() {
+        return new BusinessException(StatusCode.SERVICE_UNAVAILABLE, "服务繁忙，请稍后重试");
+    }
+
+    private static ThreadFactory namedThreadFactory(String prefix) {
+        AtomicInteger index = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + index.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,167 @@
+package com.vibe.user.service;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.toolkit.support.SFunction;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.vibe.user.config.UserCacheProperties;
+import com.vibe.user.entity.User;
+import com.vibe.user.mapper.UserMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * 登录账号解析
+ * 按格式判断账号类型（邮箱、手机号、用户名），只在对应的唯一索引上做等值查询，
+ * 避免 username = ? OR email = ? OR phone = ? 走索引合并甚至全表扫描。
+ * 用户名允许纯数字，形如手机号的账号先按手机号查询，未找到再按用户名查询。
+ * <p>
+ * 账号 → 用户ID 缓存在本地，命中时按主键查询用户；查到的用户账号已不匹配（已修改或删除）时丢弃缓存重新查询，
+ * 因此其他实例上的修改不需要跨实例通知。不存在的账号不缓存，注册后立即可以登录。
+ */
+@Service
+public class AccountResolver {
+
+    /**
+     * 手机号格式（与用户名格式重叠，见类注释）
+     */
+    private static final Pattern PHONE_PATTERN = Pattern.compile("^1[3-9]\\d{9}$");
+
+    private static final String CACHE_NAME = "user.account";
+
+    private final UserMapper userMapper;
+
+    /**
+     * 账号缓存（未启用时为 null）
+     */
+    private final Cache<String, Long> cache;
+
+    public AccountResolver(UserMapper userMapper, UserCacheProperties userCacheProperties, MeterRegistry meterRegistry) {
+        this.userMapper = userMapper;
+        UserCacheProperties.Account account = userCacheProperties.getAccount();
+        if (account.isEnabled()) {
+            this.cache = Caffeine.newBuilder()
+                    .maximumSize(account.getMaximumSize())
+                    .expireAfterWrite(account.getExpireAfterWrite(), TimeUnit.SECONDS)
+                    .recordStats()
+                    .build();
+            CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        } else {
+            this.cache = null;
+        }
+    }
+
+    /**
+     * 按登录账号查询未删除的用户
+     *
+     * @param account 用户名、邮箱或手机号
+     * @return 用户，不存在时返回 null
+     */
+    public User resolve(String account) {
+        if (!StringUtils.hasText(account)) {
+            return null;
+        }
+        for (AccountType type : AccountType.candidates(account)) {
+            User user = find(type, account);
+            if (user != null) {
+                return user;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 清除用户所有账号的缓存（用户资料变更时调用）
+     */
+    public void evict(User user) {
+        if (cache == null || user == null) {
+            return;
+        }
+        for (AccountType type : AccountType.values()) {
+            String value = type.column.apply(user);
+            if (value != null) {
+                cache.invalidate(type.cacheKey(value));
+            }
+        }
+    }
+
+    private User find(AccountType type, String account) {
+        String cacheKey = type.cacheKey(account);
+        if (cache != null) {
+            Long userId = cache.getIfPresent(cacheKey);
+            if (userId != null) {
+                User user = userMapper.selectById(userId);
+                if (user != null && user.getDeleted() == 0 && type.matches(user, account)) {
+                    return user;
+                }
+                cache.invalidate(cacheKey);
+            }
+        }
+
+        LambdaQueryWrapper<User> wrapper = new LambdaQueryWrapper<>();
+        wrapper.eq(type.column, account).eq(User::getDeleted, 0);
+        User user = userMapper.selectOne(wrapper);
+        if (user != null && cache != null) {
+            cache.put(cacheKey, user.getId());
+        }
+        return user;
+    }
+
+    /**
+     * 账号类型及对应的唯一索引列
+     */
+    private enum AccountType {
+
+        EMAIL("e:", User::getEmail, true),
+        PHONE("p:", User::getPhone, false),
+        USERNAME("u:", User::getUsername, true);
+
+        private static final List<AccountType> PHONE_OR_USERNAME = Arrays.asList(PHONE, USERNAME);
+
+        private final String keyPrefix;
+
+        private final SFunction<User, String> column;
+
+        /**
+         * 数据库排序规则不区分大小写的列，缓存键统一转为小写
+         */
+        private final boolean caseInsensitive;
+
+        AccountType(String keyPrefix, SFunction<User, String> column, boolean caseInsensitive) {
+            this.keyPrefix = keyPrefix;
+            this.column = column;
+            this.caseInsensitive = caseInsensitive;
+        }
+
+        /**
+         * 账号可能的类型（按查询顺序）：用户名不能包含 @，含 @ 的只可能是邮箱
+         */
+        static List<AccountType> candidates(String account) {
+            if (account.indexOf('@') >= 0) {
+                return Collections.singletonList(EMAIL);
+            }
+            if (PHONE_PATTERN.matcher(account).matches()) {
+                return PHONE_OR_USERNAME;
+            }
+            return Collections.singletonList(USERNAME);
+        }
+
+        String cacheKey(String account) {
+            return keyPrefix + (caseInsensitive ? account.toLowerCase(Locale.ROOT) : account);
+        }
+
+        boolean matches(User user, String account) {
+            String value = column.apply(user);
+            return caseInsensitive ? account.equalsIgnoreCase(value) : account.equals(value);
+        }
+    }
+}
@@ -1,11 +1,27 @@
 package com.vibe.user.service;
 
+import com.vibe.user.entity.UserRelation;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.RedisZSetCommands;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Service;
 
 import javax.annotation.Resource;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -18,37 +34,201 @@ public class RedisService {
     @Resource
     private RedisTemplate<String, Object> redisTemplate;
 
+    @Resource
+    private StringRedisTemplate stringRedisTemplate;
+
     /**
      * Redis Key前缀
      */
     private static final String USER_INFO_KEY = "user:info:";
+    private static final String USER_INFO_LOCK_KEY = "user:info:lock:";
     private static final String USER_FOLLOWING_KEY = "user:following:";
     private static final String USER_FOLLOWER_KEY = "user:follower:";
     private static final String EMAIL_CODE_KEY = "email:code:";
 
+    /**
+     * 关注/粉丝列表缓存中表示"列表已完整缓存"的结束标记（字典序小于所有列表项）
+     */
+    public static final String FOLLOW_LIST_END = "#";
+
+    /**
+     * 关注/粉丝列表项中关注时间的格式
+     */
+    public static final DateTimeFormatter FOLLOW_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+
+    /**
+     * 关注/粉丝列表缓存（有序集合，分值均为 0，按成员字典序排序）
+     */
+    public enum FollowList {
+
+        /**
+         * 关注列表
+         */
+        FOLLOWING("user:following:list:"),
+
+        /**
+         * 粉丝列表
+         */
+        FOLLOWER("user:follower:list:");
+
+        private final String keyPrefix;
+
+        FollowList(String keyPrefix) {
+            this.keyPrefix = keyPrefix;
+        }
+    }
+
+    /**
+     * 重建列表缓存：ARGV[1] 过期时间，ARGV[2] 是否完整（1/0），其余为列表项
+     */
+    private static final RedisScript<Long> INIT_FOLLOW_LIST_SCRIPT = new DefaultRedisScript<>(
+            "redis.call('del', KEYS[1]) "
+                    + "for i = 3, #ARGV do redis.call('zadd', KEYS[1], 0, ARGV[i]) end "
+                    + "if ARGV[2] == '1' then redis.call('zadd', KEYS[1], 0, '" + FOLLOW_LIST_END + "') end "
+                    + "redis.call('expire', KEYS[1], ARGV[1]) "
+                    + "return 0",
+            Long.class);
+
+    /**
+     * 列表缓存存在时加入新的列表项，并只保留最近的 ARGV[2] 项（超出时结束标记最先被移除）
+     */
+    private static final RedisScript<Long> ADD_FOLLOW_LIST_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('exists', KEYS[1]) == 0 then return 0 end "
+                    + "redis.call('zadd', KEYS[1], 0, ARGV[1]) "
+                    + "redis.call('zremrangebyrank', KEYS[1], 0, -tonumber(ARGV[2]) - 1) "
+                    + "return 1",
+            Long.class);
+
+    /**
+     * 关注集合中表示"已从数据库完整加载"的标记成员（用户ID均为正数，不会与之冲突）
+     */
+    private static final Long FOLLOWING_LOADED = 0L;
+
+    /**
+     * 已完整加载时返回 ARGV[2] 是否在关注集合中（1/0），未加载时返回 -1
+     */
+    private static final RedisScript<Long> IS_FOLLOWING_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('sismember', KEYS[1], ARGV[1]) == 0 then return -1 end "
+                    + "return redis.call('sismember', KEYS[1], ARGV[2])",
+            Long.class);
+
+    /**
+     * 加载关注集合：ARGV[1] 过期时间，其余为成员（含完整标记）。
+     * 只做并集不先删除，加载期间并发写入的新关注不会被覆盖
+     */
+    private static final RedisScript<Long> LOAD_FOLLOWING_SCRIPT = new DefaultRedisScript<>(
+            "for i = 2, #ARGV do redis.call('sadd', KEYS[1], ARGV[i]) end "
+                    + "redis.call('expire', KEYS[1], ARGV[1]) "
+                    + "return 0",
+            Long.class);
+
     /**
      * 默认过期时间（1小时）
      */
     private static final long DEFAULT_EXPIRE_TIME = 3600L;
 
+    /**
+     * 不存在用户的占位缓存过期时间（1分钟）
+     */
+    private static final long NULL_EXPIRE_TIME = 60L;
+
+    /**
+     * 不存在用户的占位缓存值
+     */
+    public static final String NULL_VALUE = "__null__";
+
+    /**
+     * 用户信息过期时间随机抖动上限（5分钟），避免同一批写入的缓存同时过期
+     */
+    private static final long USER_INFO_EXPIRE_JITTER = 300L;
+
+    /**
+     * 只释放自己持有的锁（比较锁的值后再删除）
+     */
+    private static final RedisScript<Long> UNLOCK_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
     /**
      * 验证码过期时间（5分钟）
      */
     private static final long CODE_EXPIRE_TIME = 300L;
 
     /**
-     * 存储用户信息
+     * 保存新验证码：ARGV[1] 验证码，ARGV[2] 过期时间（秒）。
+     * 返回被替换的验证码及其剩余有效期（毫秒），之前没有验证码时返回空列表
+     */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> REPLACE_EMAIL_CODE_SCRIPT = new DefaultRedisScript<>(
+            "local old = redis.call('get', KEYS[1]) "
+                    + "local ttl = redis.call('pttl', KEYS[1]) "
+                    + "redis.call('set', KEYS[1], ARGV[1], 'EX', ARGV[2]) "
+                    + "if old then return {old, ttl} end "
+                    + "return {}",
+            List.class);
+
+    /**
+     * 当前验证码仍是 ARGV[1] 时恢复为 ARGV[2]（剩余有效期 ARGV[3] 毫秒），只有 ARGV[1] 时删除
+     */
+    private static final RedisScript<Long> RESTORE_EMAIL_CODE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) ~= ARGV[1] then return 0 end "
+                    + "if #ARGV == 1 then return redis.call('del', KEYS[1]) end "
+                    + "redis.call('set', KEYS[1], ARGV[2], 'PX', ARGV[3]) "
+                    + "return 1",
+            Long.class);
+
+    /**
+     * 被替换的邮箱验证码
+     */
+    public static class EmailCode {
+
+        private final String code;
+
+        private final long ttlMillis;
+
+        public EmailCode(String code, long ttlMillis) {
+            this.code = code;
+            this.ttlMillis = ttlMillis;
+        }
+
+        public String getCode() {
+            return code;
+        }
+
+        /**
+         * 被替换时的剩余有效期（毫秒）
+         */
+        public long getTtlMillis() {
+            return ttlMillis;
+        }
+    }
+
+    /**
+     * 存储用户信息（过期时间带随机抖动）
      */
     public void setUserInfo(Long userId, Object userInfo) {
         try {
-            redisTemplate.opsForValue().set(USER_INFO_KEY + userId, userInfo, DEFAULT_EXPIRE_TIME, TimeUnit.SECONDS);
+            long expireTime = DEFAULT_EXPIRE_TIME + ThreadLocalRandom.current().nextLong(USER_INFO_EXPIRE_JITTER + 1);
+            redisTemplate.opsForValue().set(USER_INFO_KEY + userId, userInfo, expireTime, TimeUnit.SECONDS);
         } catch (Exception e) {
             log.error("存储用户信息到Redis失败: userId={}, error={}", userId, e.getMessage());
         }
     }
 
     /**
-     * 获取用户信息
+     * 缓存用户不存在的占位值（短期有效，防止不存在的ID反复穿透到数据库）
+     */
+    public void setUserInfoNotFound(Long userId) {
+        try {
+            long expireTime = NULL_EXPIRE_TIME + ThreadLocalRandom.current().nextLong(NULL_EXPIRE_TIME / 2 + 1);
+            redisTemplate.opsForValue().set(USER_INFO_KEY + userId, NULL_VALUE, expireTime, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            log.error("存储用户不存在占位缓存失败: userId={}, error={}", userId, e.getMessage());
+        }
+    }
+
+    /**
+     * 获取用户信息（用户不存在时可能返回占位值 {@link #NULL_VALUE}）
      */
     public Object getUserInfo(Long userId) {
         try {
@@ -59,6 +239,58 @@ public class RedisService {
         }
     }
 
+    /**
+     * 批量获取用户信息（一次 MGET）
+     *
+     * @param userIds 用户ID列表
+     * @return 与 userIds 一一对应的缓存值（未命中为 null，用户不存在时为 {@link #NULL_VALUE}），Redis 异常时全部为 null
+     */
+    public List<Object> multiGetUserInfo(List<Long> userIds) {
+        List<String> keys = new ArrayList<>(userIds.size());
+        for (Long userId : userIds) {
+            keys.add(USER_INFO_KEY + userId);
+        }
+        try {
+            List<Object> values = redisTemplate.opsForValue().multiGet(keys);
+            if (values != null) {
+                return values;
+            }
+        } catch (Exception e) {
+            log.error("从Redis批量获取用户信息失败: size={}, error={}", userIds.size(), e.getMessage());
+        }
+        return new ArrayList<>(Collections.nCopies(userIds.size(), null));
+    }
+
+    /**
+     * 批量存储用户信息（一次管道提交，过期时间带随机抖动）
+     *
+     * @param userInfos 用户ID → 用户信息，值为 {@link #NULL_VALUE} 时按不存在占位值的过期时间存储
+     */
+    public void setUserInfos(Map<Long, Object> userInfos) {
+        if (userInfos.isEmpty()) {
+            return;
+        }
+        try {
+            redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) {
+                    RedisOperations<String, Object> ops = (RedisOperations<String, Object>) operations;
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (Map.Entry<Long, Object> entry : userInfos.entrySet()) {
+                        long expireTime = NULL_VALUE.equals(entry.getValue())
+                                ? NULL_EXPIRE_TIME + random.nextLong(NULL_EXPIRE_TIME / 2 + 1)
+                                : DEFAULT_EXPIRE_TIME + random.nextLong(USER_INFO_EXPIRE_JITTER + 1);
+                        ops.opsForValue().set(USER_INFO_KEY + entry.getKey(), entry.getValue(), expireTime, TimeUnit.SECONDS);
+                    }
+                    return null;
+                }
+            });
+        } catch (Exception e) {
+            log.error("批量存储用户信息到Redis失败: size={}, error={}", userInfos.size(), e.getMessage());
+        }
+    }
+
     /**
      * 删除用户信息缓存
      */
@@ -70,6 +302,36 @@ public class RedisService {
         }
     }
 
+    /**
+     * 尝试获取用户信息加载锁
+     *
+     * @param userId      用户ID
+     * @param token       锁持有者标识
+     * @param leaseMillis 锁自动过期时间（毫秒）
+     * @return 是否获取成功，Redis 异常时返回 false
+     */
+    public boolean tryLockUserInfo(Long userId, String token, long leaseMillis) {
+        try {
+            Boolean locked = redisTemplate.opsForValue()
+                    .setIfAbsent(USER_INFO_LOCK_KEY + userId, token, leaseMillis, TimeUnit.MILLISECONDS);
+            return locked != null && locked;
+        } catch (Exception e) {
+            log.error("获取用户信息加载锁失败: userId={}, error={}", userId, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * 释放用户信息加载锁（只释放自己持有的锁）
+     */
+    public void unlockUserInfo(Long userId, String token) {
+        try {
+            redisTemplate.execute(UNLOCK_SCRIPT, Collections.singletonList(USER_INFO_LOCK_KEY + userId), token);
+        } catch (Exception e) {
+            log.error("释放用户信息加载锁失败: userId={}, error={}", userId, e.getMessage());
+        }
+    }
+
     /**
      * 添加关注关系到Redis
      */
@@ -84,6 +346,31 @@ public class RedisService {
         }
     }
 
+    /**
+     * 添加关注关系到Redis（异步写入模式下作为是否已关注的依据，调用前需先加载关注集合，Redis 异常时抛出异常）
+     *
+     * @return 是否新增（已关注时返回 false）
+     */
+    public boolean addFollowingIfAbsent(Long followerId, Long followingId) {
+        Long added = redisTemplate.opsForSet().add(USER_FOLLOWING_KEY + followerId, followingId);
+        if (added == null || added == 0) {
+            return false;
+        }
+        redisTemplate.opsForSet().add(USER_FOLLOWER_KEY + followingId, followerId);
+        return true;
+    }
+
+    /**
+     * 从Redis删除关注关系（异步写入模式使用，Redis 异常时抛出异常）
+     *
+     * @return 关注集合中是否存在该关系
+     */
+    public boolean removeFollowingIfPresent(Long followerId, Long followingId) {
+        Long removed = redisTemplate.opsForSet().remove(USER_FOLLOWING_KEY + followerId, followingId);
+        redisTemplate.opsForSet().remove(USER_FOLLOWER_KEY + followingId, followerId);
+        return removed != null && removed > 0;
+    }
+
     /**
      * 从Redis删除关注关系
      */
@@ -99,50 +386,208 @@ public class RedisService {
     }
 
     /**
-     * 检查是否关注
+     * 关注集合是否已完整加载
+     *
+     * @return Redis 异常时返回 false
      */
-    public boolean isFollowing(Long followerId, Long followingId) {
+    public boolean isFollowingLoaded(Long followerId) {
         try {
-            Boolean result = redisTemplate.opsForSet().isMember(USER_FOLLOWING_KEY + followerId, followingId);
+            Boolean result = redisTemplate.opsForSet().isMember(USER_FOLLOWING_KEY + followerId, FOLLOWING_LOADED);
             return result != null && result;
         } catch (Exception e) {
-            log.error("检查关注关系失败: followerId={}, followingId={}, error={}", followerId, followingId, e.getMessage());
+            log.error("检查关注集合失败: followerId={}, error={}", followerId, e.getMessage());
             return false;
         }
     }
 
     /**
-     * 获取关注数
+     * 检查是否关注（只在关注集合已完整加载时回答）
+     *
+     * @return 是否关注，关注集合未加载或 Redis 异常时返回 null
+     */
+    public Boolean isFollowingIfLoaded(Long followerId, Long followingId) {
+        try {
+            Long result = stringRedisTemplate.execute(IS_FOLLOWING_SCRIPT,
+                    Collections.singletonList(USER_FOLLOWING_KEY + followerId),
+                    String.valueOf(FOLLOWING_LOADED), String.valueOf(followingId));
+            return result == null || result < 0 ? null : result == 1;
+        } catch (Exception e) {
+            log.error("检查关注关系失败: followerId={}, followingId={}, error={}", followerId, followingId, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 批量检查是否关注（一次管道提交，只在关注集合已完整加载时回答）
+     *
+     * @param followerId   关注者ID
+     * @param followingIds 被关注者ID列表
+     * @return 已关注的用户ID集合，关注集合未加载或 Redis 异常时返回 null
+     */
+    public Set<Long> filterFollowingIfLoaded(Long followerId, Collection<Long> followingIds) {
+        try {
+            String key = USER_FOLLOWING_KEY + followerId;
+            List<Object> results = redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) {
+                    RedisOperations<String, Object> ops = (RedisOperations<String, Object>) operations;
+                    ops.opsForSet().isMember(key, FOLLOWING_LOADED);
+                    for (Long followingId : followingIds) {
+                        ops.opsForSet().isMember(key, followingId);
+                    }
+                    return null;
+                }
+            });
+            Iterator<Object> iterator = results.iterator();
+            if (!Boolean.TRUE.equals(iterator.next())) {
+                return null;
+            }
+            Set<Long> following = new HashSet<>();
+            for (Long followingId : followingIds) {
+                if (Boolean.TRUE.equals(iterator.next())) {
+                    following.add(followingId);
+                }
+            }
+            return following;
+        } catch (Exception e) {
+            log.error("批量检查关注关系失败: followerId={}, size={}, error={}", followerId, followingIds.size(), e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 将从数据库读取的全部关注ID写入关注集合，并写入完整标记和过期时间
+     *
+     * @param followerId   关注者ID
+     * @param followingIds 该用户的全部被关注者ID
+     * @param expireTime   过期时间（秒），过期后下次访问时重新加载
+     */
+    public void loadFollowing(Long followerId, Collection<Long> followingIds, long expireTime) {
+        try {
+            List<String> args = new ArrayList<>(followingIds.size() + 2);
+            args.add(String.valueOf(expireTime));
+            args.add(String.valueOf(FOLLOWING_LOADED));
+            for (Long followingId : followingIds) {
+                args.add(String.valueOf(followingId));
+            }
+            stringRedisTemplate.execute(LOAD_FOLLOWING_SCRIPT, Collections.singletonList(USER_FOLLOWING_KEY + followerId),
+                    args.toArray());
+        } catch (Exception e) {
+            log.error("加载关注集合到Redis失败: followerId={}, error={}", followerId, e.getMessage());
+        }
+    }
+
+    /**
+     * 构建关注/粉丝列表项：关注时间（14位） + 关系ID（19位） + ":" + 用户ID，字典序即 (created_at, id) 顺序
+     *
+     * @param relation 关注关系
+     * @param userId   列表中展示的用户ID（关注列表为被关注者，粉丝列表为关注者）
+     */
+    public static String followListMember(UserRelation relation, Long userId) {
+        return FOLLOW_TIME_FORMATTER.format(relation.getCreatedAt()) + String.format("%019d", relation.getId()) + ":" + userId;
+    }
+
+    /**
+     * 按字典序倒序读取关注/粉丝列表缓存
+     *
+     * @param type   列表类型
+     * @param userId 用户ID
+     * @param before 只返回字典序小于该值的列表项，为 null 时从最新的开始
+     * @param count  最多返回的数量
+     * @return 列表项（可能包含结束标记 {@link #FOLLOW_LIST_END}），缓存不存在或 Redis 异常时返回空列表
+     */
+    public List<String> rangeFollowList(FollowList type, Long userId, String before, int count) {
+        try {
+            RedisZSetCommands.Range range = before == null
+                    ? RedisZSetCommands.Range.unbounded()
+                    : RedisZSetCommands.Range.range().lt(before);
+            Set<String> members = stringRedisTemplate.opsForZSet()
+                    .reverseRangeByLex(type.keyPrefix + userId, range, RedisZSetCommands.Limit.limit().count(count));
+            return members == null ? Collections.emptyList() : new ArrayList<>(members);
+        } catch (Exception e) {
+            log.error("读取关注列表缓存失败: type={}, userId={}, error={}", type, userId, e.getMessage());
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * 重建关注/粉丝列表缓存
+     *
+     * @param type       列表类型
+     * @param userId     用户ID
+     * @param members    最近的列表项
+     * @param complete   是否已包含该用户的全部关注关系（是则写入结束标记）
+     * @param expireTime 过期时间（秒）
      */
-    public Long getFollowingCount(Long userId) {
+    public void initFollowList(FollowList type, Long userId, List<String> members, boolean complete, long expireTime) {
         try {
-            return redisTemplate.opsForSet().size(USER_FOLLOWING_KEY + userId);
+            List<String> args = new ArrayList<>(members.size() + 2);
+            args.add(String.valueOf(expireTime));
+            args.add(complete ? "1" : "0");
+            args.addAll(members);
+            stringRedisTemplate.execute(INIT_FOLLOW_LIST_SCRIPT, Collections.singletonList(type.keyPrefix + userId),
+                    args.toArray());
         } catch (Exception e) {
-            log.error("获取关注数失败: userId={}, error={}", userId, e.getMessage());
-            return 0L;
+            log.error("重建关注列表缓存失败: type={}, userId={}, error={}", type, userId, e.getMessage());
         }
     }
 
     /**
-     * 获取粉丝数
+     * 新的关注关系加入列表缓存（缓存不存在时不处理，读取时再重建）
+     *
+     * @param maxSize 列表最多缓存的数量
      */
-    public Long getFollowerCount(Long userId) {
+    public void addToFollowList(FollowList type, Long userId, String member, int maxSize) {
         try {
-            return redisTemplate.opsForSet().size(USER_FOLLOWER_KEY + userId);
+            // 加上结束标记本身
+            stringRedisTemplate.execute(ADD_FOLLOW_LIST_SCRIPT, Collections.singletonList(type.keyPrefix + userId),
+                    member, String.valueOf(maxSize + 1));
         } catch (Exception e) {
-            log.error("获取粉丝数失败: userId={}, error={}", userId, e.getMessage());
-            return 0L;
+            log.error("更新关注列表缓存失败: type={}, userId={}, error={}", type, userId, e.getMessage());
         }
     }
 
     /**
-     * 存储邮箱验证码
+     * 从列表缓存中移除关注关系
      */
-    public void setEmailCode(String email, String code) {
+    public void removeFromFollowList(FollowList type, Long userId, String member) {
         try {
-            redisTemplate.opsForValue().set(EMAIL_CODE_KEY + email, code, CODE_EXPIRE_TIME, TimeUnit.SECONDS);
+            stringRedisTemplate.opsForZSet().remove(type.keyPrefix + userId, member);
         } catch (Exception e) {
-            log.error("存储邮箱验证码失败: email={}, error={}", email, e.getMessage());
+            log.error("更新关注列表缓存失败: type={}, userId={}, error={}", type, userId, e.getMessage());
+        }
+    }
+
+    /**
+     * 保存新的邮箱验证码并返回被替换的验证码，用于邮件未能发送时恢复（见 {@link #restoreEmailCode}）
+     * 验证码未保存时不能发送邮件，因此 Redis 异常直接抛出
+     *
+     * @return 被替换的验证码，之前没有有效的验证码时返回 null
+     */
+    public EmailCode replaceEmailCode(String email, String code) {
+        List<?> previous = redisTemplate.execute(REPLACE_EMAIL_CODE_SCRIPT,
+                Collections.singletonList(EMAIL_CODE_KEY + email), code, CODE_EXPIRE_TIME);
+        if (previous == null || previous.size() < 2 || ((Number) previous.get(1)).longValue() <= 0) {
+            return null;
+        }
+        return new EmailCode(String.valueOf(previous.get(0)), ((Number) previous.get(1)).longValue());
+    }
+
+    /**
+     * 恢复被替换的邮箱验证码（之前没有时删除）
+     * 只在当前验证码仍是 code 时恢复，期间再次发送的新验证码不会被覆盖
+     */
+    public void restoreEmailCode(String email, String code, EmailCode previous) {
+        try {
+            List<String> keys = Collections.singletonList(EMAIL_CODE_KEY + email);
+            if (previous == null) {
+                redisTemplate.execute(RESTORE_EMAIL_CODE_SCRIPT, keys, code);
+            } else {
+                redisTemplate.execute(RESTORE_EMAIL_CODE_SCRIPT, keys, code, previous.getCode(), previous.getTtlMillis());
+            }
+        } catch (Exception e) {
+            log.error("恢复邮箱验证码失败: email={}, error={}", email, e.getMessage());
         }
     }
 
@@ -170,21 +615,6 @@ public class RedisService {
         }
     }
 
-    /**
-     * 初始化用户关注关系缓存
-     */
-    public void initUserFollowingCache(Long userId, Set<Long> followingIds) {
-        try {
-            String key = USER_FOLLOWING_KEY + userId;
-            redisTemplate.delete(key);
-            if (followingIds != null && !followingIds.isEmpty()) {
-                redisTemplate.opsForSet().add(key, followingIds.toArray());
-            }
-        } catch (Exception e) {
-            log.error("初始化用户关注关系缓存失败: userId={}, error={}", userId, e.getMessage());
-        }
-    }
-
     /**
      * 初始化用户粉丝关系缓存
      */
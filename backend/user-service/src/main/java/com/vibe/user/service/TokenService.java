@@ -0,0 +1,175 @@
+package com.vibe.user.service;
+
+import com.vibe.common.core.domain.StatusCode;
+import com.vibe.common.core.exception.BusinessException;
+import com.vibe.common.core.utils.JsonUtils;
+import com.vibe.common.core.utils.JwtUtils;
+import com.vibe.common.core.utils.JwtUtils.ParsedToken;
+import com.vibe.common.core.utils.TokenRevocation;
+import com.vibe.user.config.JwtProperties;
+import com.vibe.user.dto.LoginResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Token签发与吊销服务
+ * 登录时签发短期访问Token和长期刷新Token；刷新Token每次使用后即失效（换发新的一对Token），
+ * 已使用过的刷新Token在宽限期之后再次出现说明可能已经泄露，吊销该用户的全部Token。
+ * 宽限期内的重复使用（多个标签页同时刷新）返回同一对新Token。
+ * <p>
+ * 吊销记录写入 Redis（格式见 {@link TokenRevocation}）并发布通知，网关在本地内存中维护吊销列表副本，
+ * 验证访问Token时不访问 Redis。
+ */
+@Slf4j
+@Service
+public class TokenService {
+
+    /**
+     * 已使用或已吊销的刷新Token（成员为 jti，分值为过期时间），只由用户服务读写
+     */
+    private static final String REFRESH_KEY = "auth:revoked:refresh";
+
+    /**
+     * 退出登录吊销的刷新Token在 {@link #REFRESH_KEY} 中额外记录的成员前缀：logout:{jti}，
+     * 用于区分退出登录和换发，退出登录后再使用不视为泄露
+     */
+    private static final String LOGOUT_MEMBER_PREFIX = "logout:";
+
+    /**
+     * 刷新Token换发的新Token（JSON），保留到宽限期结束：auth:refresh:successor:{jti}
+     */
+    private static final String SUCCESSOR_KEY_PREFIX = "auth:refresh:successor:";
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    private final JwtProperties jwtProperties;
+
+    public TokenService(StringRedisTemplate stringRedisTemplate, JwtProperties jwtProperties) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.jwtProperties = jwtProperties;
+    }
+
+    /**
+     * 签发访问Token和刷新Token
+     *
+     * @return 只包含Token的登录响应，调用方按需设置用户信息
+     */
+    public LoginResponse issue(Long userId, String username) {
+        return LoginResponse.builder()
+                .token(JwtUtils.generateAccessToken(userId, username, jwtProperties.getExpiration()))
+                .refreshToken(JwtUtils.generateRefreshToken(userId, username, jwtProperties.getRefreshExpiration()))
+                .expiresIn(jwtProperties.getExpiration() / 1000)
+                .build();
+    }
+
+    /**
+     * 使用刷新Token换发新的一对Token，并将其标记为已使用
+     * 先签发新Token，再以 SET NX 写入换发结果：写入成功的请求完成本次刷新，
+     * 宽限期内使用同一刷新Token的并发请求读取并返回同一对新Token
+     *
+     * @param refreshToken   刷新Token
+     * @param usernameLoader 按用户ID检查用户状态并返回用户名，用户不可用时抛出异常
+     * @return 新的访问Token和刷新Token
+     * @throws BusinessException 刷新Token无效、已过期、已吊销或在宽限期之后被重复使用（401）
+     */
+    public LoginResponse rotate(String refreshToken, Function<Long, String> usernameLoader) {
+        ParsedToken parsed = JwtUtils.parseToken(refreshToken);
+        if (!parsed.isValid() || !parsed.isRefreshToken() || parsed.getUserId() == null
+                || parsed.getTokenId() == null || isUserRevoked(parsed)) {
+            throw expired();
+        }
+
+        LoginResponse successor = issue(parsed.getUserId(), usernameLoader.apply(parsed.getUserId()));
+        String successorKey = SUCCESSOR_KEY_PREFIX + parsed.getTokenId();
+        if (Boolean.TRUE.equals(stringRedisTemplate.opsForValue().setIfAbsent(successorKey,
+                JsonUtils.toJsonString(successor), jwtProperties.getRefreshReuseInterval(), TimeUnit.MILLISECONDS))) {
+            ZSetOperations<String, String> zSet = stringRedisTemplate.opsForZSet();
+            if (!Boolean.TRUE.equals(zSet.addIfAbsent(REFRESH_KEY, parsed.getTokenId(), parsed.getExpiration()))) {
+                stringRedisTemplate.delete(successorKey);
+                if (zSet.score(REFRESH_KEY, LOGOUT_MEMBER_PREFIX + parsed.getTokenId()) != null) {
+                    // 已退出登录（如其他标签页仍持有同一刷新Token），只需重新登录
+                    throw expired();
+                }
+                // 宽限期之前已使用过
+                throw reused(parsed);
+            }
+            zSet.removeRangeByScore(REFRESH_KEY, 0, System.currentTimeMillis());
+            return successor;
+        }
+
+        String previous = stringRedisTemplate.opsForValue().get(successorKey);
+        if (previous == null) {
+            // 宽限期恰好结束
+            throw reused(parsed);
+        }
+        log.debug("宽限期内重复刷新，返回同一对新Token: userId={}", parsed.getUserId());
+        return JsonUtils.parseObject(previous, LoginResponse.class);
+    }
+
+    /**
+     * 吊销单个Token（退出登录）
+     */
+    public void revoke(ParsedToken token) {
+        if (token.getTokenId() == null || token.getExpiration() <= System.currentTimeMillis()) {
+            return;
+        }
+        String key = token.isRefreshToken() ? REFRESH_KEY : TokenRevocation.ACCESS_KEY;
+        ZSetOperations<String, String> zSet = stringRedisTemplate.opsForZSet();
+        if (token.isRefreshToken()) {
+            // 先写退出登录标记，换发时看到 jti 已存在就一定能看到该标记
+            zSet.add(key, LOGOUT_MEMBER_PREFIX + token.getTokenId(), token.getExpiration());
+        }
+        zSet.add(key, token.getTokenId(), token.getExpiration());
+        zSet.removeRangeByScore(key, 0, System.currentTimeMillis());
+        if (!token.isRefreshToken()) {
+            stringRedisTemplate.convertAndSend(TokenRevocation.CHANNEL,
+                    TokenRevocation.tokenMessage(token.getTokenId(), token.getExpiration()));
+        }
+    }
+
+    /**
+     * 吊销用户当前已签发的全部Token（修改密码、刷新Token泄露）
+     * 吊销时间精确到毫秒，而Token签发时间只精确到秒：同一秒内签发的Token全部视为已吊销
+     * （包括吊销之后签发的，需要再登录一次），不会放过吊销之前签发的Token
+     */
+    public void revokeAll(Long userId) {
+        long revokedAt = System.currentTimeMillis();
+        ZSetOperations<String, String> zSet = stringRedisTemplate.opsForZSet();
+        zSet.add(TokenRevocation.USER_KEY, userId.toString(), revokedAt);
+        // 早于最长Token有效期的吊销记录已没有意义
+        zSet.removeRangeByScore(TokenRevocation.USER_KEY, 0, revokedAt - jwtProperties.getRefreshExpiration());
+        stringRedisTemplate.convertAndSend(TokenRevocation.CHANNEL, TokenRevocation.userMessage(userId, revokedAt));
+        log.info("吊销用户全部Token: userId={}", userId);
+    }
+
+    /**
+     * 访问Token是否已被吊销（直接查询 Redis，只用于不经过网关鉴权的敏感接口）
+     */
+    public boolean isRevoked(ParsedToken token) {
+        if (isUserRevoked(token)) {
+            return true;
+        }
+        return token.getTokenId() != null
+                && stringRedisTemplate.opsForZSet().score(TokenRevocation.ACCESS_KEY, token.getTokenId()) != null;
+    }
+
+    private boolean isUserRevoked(ParsedToken token) {
+        Double revokedAt = stringRedisTemplate.opsForZSet().score(TokenRevocation.USER_KEY, token.getUserId().toString());
+        return revokedAt != null && token.getIssuedAt() < revokedAt;
+    }
+
+    private BusinessException reused(ParsedToken token) {
+        log.warn("刷新Token被重复使用，吊销用户全部Token: userId={}", token.getUserId());
+        revokeAll(token.getUserId());
+        return expired();
+    }
+
+    private static BusinessException expired() {
+        return new BusinessException(StatusCode.UNAUTHORIZED, "登录已过期，请重新登录");
+    }
+}
@@ -0,0 +1,224 @@
+package com.vibe.user.service;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.vibe.user.config.UserCacheProperties;
+import com.vibe.user.entity.User;
+import com.vibe.user.mapper.UserMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 用户ID布隆过滤器
+ * 启动后在后台从数据库加载所有有效用户ID，注册新用户时加入并通过 Redis 发布/订阅同步到其他实例。
+ * 过滤器判定不存在的ID一定不存在，可在访问 Redis 和数据库之前直接拒绝。
+ * <p>
+ * 为保证不误拒有效用户：未启用或尚未加载完成时全部放行；
+ * 大于加载时最大ID的新ID（加载之后注册的用户）也直接放行，交给缓存的不存在占位值兜底。
+ */
+@Slf4j
+@Service
+public class UserIdBloomFilter implements MessageListener {
+
+    /**
+     * 新增用户ID通知频道
+     */
+    public static final String ADD_CHANNEL = "user:bloom:add";
+
+    @Resource
+    private UserCacheProperties userCacheProperties;
+
+    @Resource
+    private UserMapper userMapper;
+
+    @Resource
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Resource
+    private MeterRegistry meterRegistry;
+
+    /**
+     * 位数组（未启用时为 null）
+     */
+    private AtomicLongArray bits;
+
+    private long numBits;
+
+    private int numHashes;
+
+    /**
+     * 是否已从数据库加载完成
+     */
+    private volatile boolean ready;
+
+    /**
+     * 加载时的最大用户ID，大于该值的ID不经过过滤器判断
+     */
+    private volatile long watermark;
+
+    private Counter rejected;
+
+    /**
+     * 按预计数量和误判率分配位数组
+     */
+    @PostConstruct
+    public void init() {
+        UserCacheProperties.Bloom bloom = userCacheProperties.getBloom();
+        if (!bloom.isEnabled()) {
+            return;
+        }
+        long expected = Math.max(bloom.getExpectedInsertions(), 1);
+        long optimalBits = (long) Math.ceil(-expected * Math.log(bloom.getFpp()) / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.max((optimalBits + 63) / 64, 1);
+        numBits = words * 64L;
+        numHashes = Math.max(1, (int) Math.round((double) numBits / expected * Math.log(2)));
+        bits = new AtomicLongArray(words);
+        rejected = Counter.builder("user.info.bloom.rejected")
+                .description("被布隆过滤器拦截的用户ID查询次数")
+                .register(meterRegistry);
+        log.info("用户ID布隆过滤器已启用: bits={}, hashes={}, memory={}KB", numBits, numHashes, words * 8L / 1024);
+    }
+
+    /**
+     * 应用启动完成后在后台加载用户ID，不阻塞启动
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (bits == null) {
+            return;
+        }
+        Thread loader = new Thread(this::loadFromDatabase, "user-bloom-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    /**
+     * 判断用户ID是否可能存在
+     *
+     * @param userId 用户ID
+     * @return false 表示一定不存在；true 表示可能存在（包括过滤器未启用或未加载完成）
+     */
+    public boolean mightContain(Long userId) {
+        if (bits == null || !ready || userId == null || userId > watermark) {
+            return true;
+        }
+        long h1 = mix(userId);
+        long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < numHashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, numBits);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                rejected.increment();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 加入新用户ID，并通知其他实例
+     *
+     * @param userId 用户ID
+     */
+    public void add(Long userId) {
+        if (bits == null) {
+            return;
+        }
+        put(userId);
+        try {
+            stringRedisTemplate.convertAndSend(ADD_CHANNEL, String.valueOf(userId));
+        } catch (Exception e) {
+            log.error("发布新增用户ID通知失败: userId={}, error={}", userId, e.getMessage());
+        }
+    }
+
+    /**
+     * 收到其他实例注册新用户的通知
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        if (bits == null) {
+            return;
+        }
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        try {
+            put(Long.valueOf(body));
+        } catch (NumberFormatException e) {
+            log.warn("无效的新增用户ID通知: {}", body);
+        }
+    }
+
+    /**
+     * 按主键顺序分批加载所有有效用户ID
+     */
+    private void loadFromDatabase() {
+        int batchSize = userCacheProperties.getBloom().getLoadBatchSize();
+        long lastId = 0L;
+        long count = 0;
+        long start = System.currentTimeMillis();
+        try {
+            while (true) {
+                List<Object> ids = userMapper.selectObjs(new LambdaQueryWrapper<User>()
+                        .select(User::getId)
+                        .gt(User::getId, lastId)
+                        .orderByAsc(User::getId)
+                        .last("LIMIT " + batchSize));
+                for (Object id : ids) {
+                    lastId = ((Number) id).longValue();
+                    put(lastId);
+                }
+                count += ids.size();
+                if (ids.size() < batchSize) {
+                    break;
+                }
+            }
+            watermark = lastId;
+            ready = true;
+            log.info("用户ID布隆过滤器加载完成: count={}, watermark={}, cost={}ms",
+                    count, lastId, System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            // 加载失败时保持未就绪状态（全部放行）
+            log.error("用户ID布隆过滤器加载失败，过滤器不生效: error={}", e.getMessage(), e);
+        }
+    }
+
+    private void put(long userId) {
+        long h1 = mix(userId);
+        long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < numHashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, numBits);
+            int index = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long word;
+            do {
+                word = bits.get(index);
+                if ((word & mask) != 0) {
+                    break;
+                }
+            } while (!bits.compareAndSet(index, word, word | mask));
+        }
+    }
+
+    /**
+     * 64 位混淆（MurmurHash3 fmix64），使相邻的雪花ID均匀分布
+     */
+    private static long mix(long x) {
+        x ^= x >>> 33;
+        x *= 0xff51afd7ed558ccdL;
+        x ^= x >>> 33;
+        x *= 0xc4ceb9fe1a85ec53L;
+        x ^= x >>> 33;
+        return x;
+    }
+}
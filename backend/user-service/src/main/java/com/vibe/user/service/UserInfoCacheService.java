@@ -0,0 +1,349 @@
+package com.vibe.user.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.vibe.user.config.UserCacheProperties;
+import com.vibe.user.dto.UserInfoVO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * 用户信息多级缓存服务
+ * 一级缓存为进程内 Caffeine（容量和过期时间有界），二级缓存为 Redis 中的 user:info: key。
+ * 缓存失效时通过 Redis 发布/订阅通知所有实例清除本地缓存。
+ * 缓存未命中时按用户单飞加载，避免热点用户缓存失效时的并发请求同时查询数据库；
+ * 不存在的用户同样以占位值短期缓存，防止不存在的ID穿透到数据库。
+ * <p>
+ * 缓存中的用户信息与查看者无关（isFollowing 固定为 false），调用方需要复制后再设置查看者相关字段。
+ */
+@Slf4j
+@Service
+public class UserInfoCacheService implements MessageListener {
+
+    /**
+     * 用户信息失效通知频道
+     */
+    public static final String INVALIDATE_CHANNEL = "user:info:invalidate";
+
+    /**
+     * 监控指标中的缓存名称
+     */
+    private static final String LOCAL_CACHE_NAME = "user.info.local";
+    private static final String REDIS_CACHE_NAME = "user.info.redis";
+
+    /**
+     * 本地缓存中表示用户不存在的占位对象（按引用比较，不会返回给调用方）
+     */
+    private static final UserInfoVO NOT_FOUND = new UserInfoVO();
+
+    private final UserCacheProperties userCacheProperties;
+
+    private final RedisService redisService;
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    private final Cache<Long, UserInfoVO> localCache;
+
+    private final Counter redisHits;
+
+    private final Counter redisMisses;
+
+    private final Counter coalescedLoads;
+
+    /**
+     * 正在加载中的用户信息（单飞：同一用户同时只有一个加载）
+     */
+    private final ConcurrentMap<Long, CompletableFuture<UserInfoVO>> loadingFutures = new ConcurrentHashMap<>();
+
+    public UserInfoCacheService(UserCacheProperties userCacheProperties, RedisService redisService,
+                                StringRedisTemplate stringRedisTemplate, MeterRegistry meterRegistry) {
+        this.userCacheProperties = userCacheProperties;
+        this.redisService = redisService;
+        this.stringRedisTemplate = stringRedisTemplate;
+        UserCacheProperties.Local local = userCacheProperties.getLocal();
+        this.localCache = Caffeine.newBuilder()
+                .maximumSize(local.getMaximumSize())
+                .expireAfterWrite(local.getExpireAfterWrite(), TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+        // 导出 cache.gets{cache=user.info.local,result=hit|miss} 等指标
+        CaffeineCacheMetrics.monitor(meterRegistry, localCache, LOCAL_CACHE_NAME);
+        // Redis 二级缓存使用相同的指标名，便于统一计算命中率
+        this.redisHits = Counter.builder("cache.gets").tag("cache", REDIS_CACHE_NAME).tag("result", "hit")
+                .description("Redis 缓存命中次数")
+                .register(meterRegistry);
+        this.redisMisses = Counter.builder("cache.gets").tag("cache", REDIS_CACHE_NAME).tag("result", "miss")
+                .description("Redis 缓存未命中次数")
+                .register(meterRegistry);
+        this.coalescedLoads = Counter.builder("user.info.load.coalesced")
+                .description("缓存未命中时等待其他线程加载结果的次数")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 获取用户信息（本地缓存 → Redis → 加载器）
+     * 同一实例内同一用户的并发未命中只执行一次加载，其余请求等待并共享加载结果；
+     * 启用分布式加载锁时，跨实例也只由抢到锁的实例执行加载。
+     *
+     * @param userId 用户ID
+     * @param loader 缓存未命中时从数据库加载与查看者无关的用户信息，用户不存在时返回 null
+     * @return 用户信息（共享实例，不能修改），用户不存在时返回 null（不存在的结果同样会被短期缓存）
+     */
+    public UserInfoVO getOrLoad(Long userId, Function<Long, UserInfoVO> loader) {
+        UserInfoVO userInfo = lookup(userId, loader);
+        return userInfo == NOT_FOUND ? null : userInfo;
+    }
+
+    /**
+     * 按 本地缓存 → Redis → 加载器 的顺序查找，用户不存在时返回 {@link #NOT_FOUND}
+     */
+    private UserInfoVO lookup(Long userId, Function<Long, UserInfoVO> loader) {
+        boolean localEnabled = userCacheProperties.getLocal().isEnabled();
+        if (localEnabled) {
+            UserInfoVO local = localCache.getIfPresent(userId);
+            if (local != null) {
+                return local;
+            }
+        }
+
+        CompletableFuture<UserInfoVO> future = new CompletableFuture<>();
+        CompletableFuture<UserInfoVO> inFlight = loadingFutures.putIfAbsent(userId, future);
+        if (inFlight != null) {
+            // 已有线程在加载，等待其结果
+            coalescedLoads.increment();
+            try {
+                return inFlight.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw e;
+            }
+        }
+
+        try {
+            UserInfoVO userInfo = getFromRedis(userId);
+            if (userInfo == null) {
+                userInfo = userCacheProperties.getLock().isEnabled()
+                        ? loadWithLock(userId, loader)
+                        : loadAndPut(userId, loader);
+            }
+            future.complete(userInfo);
+            return userInfo;
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            loadingFutures.remove(userId, future);
+        }
+    }
+
+    /**
+     * 批量获取用户信息（本地缓存 → 一次 Redis MGET → 一次批量加载）
+     * 批量加载不参与单飞合并，加载结果（包括不存在的用户）通过一次管道提交写回 Redis。
+     *
+     * @param userIds 用户ID（不重复）
+     * @param loader  缓存未命中时从数据库批量加载与查看者无关的用户信息，不存在的用户不出现在返回结果中
+     * @return 用户ID → 用户信息（共享实例，不能修改），不存在的用户不出现在结果中
+     */
+    public Map<Long, UserInfoVO> getAll(Collection<Long> userIds,
+                                        Function<Collection<Long>, Map<Long, UserInfoVO>> loader) {
+        Map<Long, UserInfoVO> result = new HashMap<>(userIds.size() * 2);
+        List<Long> misses = new ArrayList<>(userIds.size());
+        if (userCacheProperties.getLocal().isEnabled()) {
+            result.putAll(localCache.getAllPresent(userIds));
+            for (Long userId : userIds) {
+                if (!result.containsKey(userId)) {
+                    misses.add(userId);
+                }
+            }
+        } else {
+            misses.addAll(userIds);
+        }
+
+        if (!misses.isEmpty()) {
+            List<Object> cached = redisService.multiGetUserInfo(misses);
+            List<Long> loadIds = new ArrayList<>();
+            for (int i = 0; i < misses.size(); i++) {
+                UserInfoVO userInfo = fromRedisValue(misses.get(i), cached.get(i));
+                if (userInfo != null) {
+                    result.put(misses.get(i), userInfo);
+                } else {
+                    loadIds.add(misses.get(i));
+                }
+            }
+            if (!loadIds.isEmpty()) {
+                result.putAll(loadAllAndPut(loadIds, loader));
+            }
+        }
+
+        result.values().removeIf(userInfo -> userInfo == NOT_FOUND);
+        return result;
+    }
+
+    /**
+     * 写入用户信息缓存（Redis 与本地缓存）
+     *
+     * @param userId   用户ID
+     * @param userInfo 与查看者无关的用户信息
+     */
+    public void put(Long userId, UserInfoVO userInfo) {
+        redisService.setUserInfo(userId, userInfo);
+        if (userCacheProperties.getLocal().isEnabled()) {
+            localCache.put(userId, userInfo);
+        }
+    }
+
+    /**
+     * 清除用户信息缓存，并通知其他实例清除本地缓存
+     * 在事务中调用时，事务提交后会再清除一次，避免并发读取在提交前把旧数据重新写回缓存
+     *
+     * @param userId 用户ID
+     */
+    public void evict(Long userId) {
+        doEvict(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    doEvict(userId);
+                }
+            });
+        }
+    }
+
+    /**
+     * 收到其他实例的失效通知时清除本地缓存
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        try {
+            localCache.invalidate(Long.valueOf(body));
+        } catch (NumberFormatException e) {
+            log.warn("无效的用户信息失效通知: {}", body);
+        }
+    }
+
+    /**
+     * 从 Redis 获取用户信息，命中时写入本地缓存
+     */
+    private UserInfoVO getFromRedis(Long userId) {
+        return fromRedisValue(userId, redisService.getUserInfo(userId));
+    }
+
+    /**
+     * 解析 Redis 中的缓存值并记录命中情况，命中时写入本地缓存
+     *
+     * @return 用户信息或 {@link #NOT_FOUND}，未命中时返回 null
+     */
+    private UserInfoVO fromRedisValue(Long userId, Object cached) {
+        if (cached instanceof UserInfoVO || RedisService.NULL_VALUE.equals(cached)) {
+            redisHits.increment();
+            UserInfoVO userInfo = cached instanceof UserInfoVO ? (UserInfoVO) cached : NOT_FOUND;
+            if (userCacheProperties.getLocal().isEnabled()) {
+                localCache.put(userId, userInfo);
+            }
+            return userInfo;
+        }
+        redisMisses.increment();
+        return null;
+    }
+
+    private UserInfoVO loadAndPut(Long userId, Function<Long, UserInfoVO> loader) {
+        UserInfoVO userInfo = loader.apply(userId);
+        if (userInfo == null) {
+            // 缓存不存在的结果，防止不存在的ID反复查询数据库
+            redisService.setUserInfoNotFound(userId);
+            if (userCacheProperties.getLocal().isEnabled()) {
+                localCache.put(userId, NOT_FOUND);
+            }
+            return NOT_FOUND;
+        }
+        put(userId, userInfo);
+        return userInfo;
+    }
+
+    private Map<Long, UserInfoVO> loadAllAndPut(List<Long> userIds,
+                                                Function<Collection<Long>, Map<Long, UserInfoVO>> loader) {
+        Map<Long, UserInfoVO> loaded = loader.apply(userIds);
+        Map<Long, UserInfoVO> result = new HashMap<>(userIds.size() * 2);
+        Map<Long, Object> toCache = new HashMap<>(userIds.size() * 2);
+        for (Long userId : userIds) {
+            UserInfoVO userInfo = loaded.get(userId);
+            // 不存在的用户同样缓存占位值
+            result.put(userId, userInfo != null ? userInfo : NOT_FOUND);
+            toCache.put(userId, userInfo != null ? userInfo : RedisService.NULL_VALUE);
+        }
+        redisService.setUserInfos(toCache);
+        if (userCacheProperties.getLocal().isEnabled()) {
+            localCache.putAll(result);
+        }
+        return result;
+    }
+
+    /**
+     * 在分布式锁保护下加载：抢到锁的实例查询数据库并写入缓存，其余实例轮询缓存，等待超时后自行加载
+     */
+    private UserInfoVO loadWithLock(Long userId, Function<Long, UserInfoVO> loader) {
+        UserCacheProperties.Lock lock = userCacheProperties.getLock();
+        String token = UUID.randomUUID().toString();
+        if (redisService.tryLockUserInfo(userId, token, lock.getLeaseTime())) {
+            try {
+                // 双重检查：其他实例可能刚释放锁并写入了缓存
+                UserInfoVO userInfo = getFromRedis(userId);
+                return userInfo != null ? userInfo : loadAndPut(userId, loader);
+            } finally {
+                redisService.unlockUserInfo(userId, token);
+            }
+        }
+
+        long deadline = System.currentTimeMillis() + lock.getWaitTime();
+        while (System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(lock.getRetryInterval());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            UserInfoVO userInfo = getFromRedis(userId);
+            if (userInfo != null) {
+                return userInfo;
+            }
+        }
+        log.warn("等待用户信息加载锁超时，直接加载: userId={}", userId);
+        return loadAndPut(userId, loader);
+    }
+
+    private void doEvict(Long userId) {
+        redisService.deleteUserInfo(userId);
+        localCache.invalidate(userId);
+        try {
+            stringRedisTemplate.convertAndSend(INVALIDATE_CHANNEL, String.valueOf(userId));
+        } catch (Exception e) {
+            log.error("发布用户信息失效通知失败: userId={}, error={}", userId, e.getMessage());
+        }
+    }
+}
@@ -2,11 +2,19 @@ package com.vibe.user.service;
 
 import com.vibe.user.dto.*;
 
+import java.util.Collection;
+import java.util.List;
+
 /**
  * 用户服务接口
  */
 public interface UserService {
 
+    /**
+     * 批量获取用户信息时单次最多的用户数量
+     */
+    int MAX_BATCH_SIZE = 100;
+
     /**
      * 用户登录
      *
@@ -23,6 +31,22 @@ public interface UserService {
      */
     LoginResponse register(RegisterRequest request);
 
+    /**
+     * 使用刷新Token换取新的访问Token和刷新Token（原刷新Token失效）
+     *
+     * @param refreshToken 刷新Token
+     * @return 新的Token（不包含用户信息）
+     */
+    LoginResponse refreshToken(String refreshToken);
+
+    /**
+     * 退出登录：吊销访问Token和刷新Token
+     *
+     * @param accessToken  访问Token（可为 null）
+     * @param refreshToken 刷新Token（可为 null）
+     */
+    void logout(String accessToken, String refreshToken);
+
     /**
      * 发送邮箱验证码
      *
@@ -39,6 +63,15 @@ public interface UserService {
      */
     UserInfoVO getUserInfo(Long userId, Long currentUserId);
 
+    /**
+     * 批量获取用户信息（用于粉丝列表、信息流等需要一次展示多个用户的场景）
+     *
+     * @param userIds       用户ID（最多 {@link #MAX_BATCH_SIZE} 个，重复的ID只返回一次）
+     * @param currentUserId 当前登录用户ID（用于判断是否关注）
+     * @return 用户信息列表，按请求顺序排列，不存在的用户被跳过
+     */
+    List<UserInfoVO> getUserInfos(Collection<Long> userIds, Long currentUserId);
+
     /**
      * 更新用户信息
      *
@@ -65,7 +98,29 @@ public interface UserService {
     void unfollowUser(Long followerId, Long followingId);
 
     /**
-     * 修改密码
+     * 分页获取关注列表（按关注时间倒序）
+     *
+     * @param userId        用户ID
+     * @param cursor        分页游标（上一页返回的 nextCursor，第一页传 null）
+     * @param size          每页数量（最多 {@link #MAX_BATCH_SIZE} 个）
+     * @param currentUserId 当前登录用户ID（用于判断是否关注）
+     * @return 关注的用户列表
+     */
+    FollowPageVO listFollowing(Long userId, String cursor, Integer size, Long currentUserId);
+
+    /**
+     * 分页获取粉丝列表（按关注时间倒序）
+     *
+     * @param userId        用户ID
+     * @param cursor        分页游标（上一页返回的 nextCursor，第一页传 null）
+     * @param size          每页数量（最多 {@link #MAX_BATCH_SIZE} 个）
+     * @param currentUserId 当前登录用户ID（用于判断是否关注）
+     * @return 粉丝列表
+     */
+    FollowPageVO listFollowers(Long userId, String cursor, Integer size, Long currentUserId);
+
+    /**
+     * 修改密码（成功后吊销该用户已签发的全部Token）
      *
      * @param userId  用户ID
      * @param request 修改密码请求
@@ -1,26 +1,58 @@
 package com.vibe.user.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.vibe.common.core.domain.StatusCode;
 import com.vibe.common.core.exception.BusinessException;
+import com.vibe.common.core.utils.IdGenerator;
 import com.vibe.common.core.utils.JwtUtils;
-import com.vibe.common.core.utils.SnowflakeIdGenerator;
+import com.vibe.common.core.utils.JwtUtils.ParsedToken;
+import com.vibe.user.config.FollowProperties;
+import com.vibe.user.config.UserCacheProperties;
 import com.vibe.user.dto.*;
 import com.vibe.user.entity.User;
 import com.vibe.user.entity.UserRelation;
+import com.vibe.user.entity.UserStats;
+import com.vibe.user.mail.MailDispatcher;
+import com.vibe.user.mail.MailMessage;
 import com.vibe.user.mapper.UserMapper;
 import com.vibe.user.mapper.UserRelationMapper;
+import com.vibe.user.mapper.UserStatsMapper;
+import com.vibe.user.mq.FollowEvent;
+import com.vibe.user.mq.FollowEventProducer;
+import com.vibe.user.password.PasswordHasher;
+import com.vibe.user.service.AccountResolver;
 import com.vibe.user.service.RedisService;
+import com.vibe.user.service.RedisService.FollowList;
+import com.vibe.user.service.TokenService;
+import com.vibe.user.service.UserIdBloomFilter;
+import com.vibe.user.service.UserInfoCacheService;
 import com.vibe.user.service.UserService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.BeanUtils;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
 
 import javax.annotation.Resource;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Random;
+import java.util.Set;
+import java.util.regex.Pattern;
 
 /**
  * 用户服务实现
@@ -29,38 +61,73 @@ import java.util.Random;
 @Service
 public class UserServiceImpl implements UserService {
 
+    /**
+     * 关注/粉丝列表默认每页数量
+     */
+    private static final int DEFAULT_PAGE_SIZE = 20;
+
+    /**
+     * 分页游标为列表项的前 33 位：关注时间（14位） + 关系ID（19位），见 {@link RedisService#followListMember}
+     */
+    private static final int FOLLOW_TIME_LENGTH = 14;
+    private static final int FOLLOW_CURSOR_LENGTH = 33;
+    private static final Pattern FOLLOW_CURSOR_PATTERN = Pattern.compile("\\d{33}");
+
     @Resource
     private UserMapper userMapper;
 
     @Resource
     private UserRelationMapper userRelationMapper;
 
+    @Resource
+    private UserStatsMapper userStatsMapper;
+
     @Resource
     private RedisService redisService;
 
     @Resource
-    private SnowflakeIdGenerator idGenerator;
+    private UserInfoCacheService userInfoCacheService;
+
+    @Resource
+    private UserIdBloomFilter userIdBloomFilter;
+
+    @Resource
+    private AccountResolver accountResolver;
+
+    @Resource
+    private TokenService tokenService;
 
-    private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+    @Resource
+    private UserCacheProperties userCacheProperties;
+
+    @Resource
+    private FollowProperties followProperties;
+
+    @Resource
+    private FollowEventProducer followEventProducer;
+
+    @Resource
+    private TransactionTemplate transactionTemplate;
+
+    @Resource
+    private IdGenerator idGenerator;
+
+    @Resource
+    private MailDispatcher mailDispatcher;
+
+    @Resource
+    private PasswordHasher passwordHasher;
 
     @Override
     public LoginResponse login(LoginRequest request) {
         // 查询用户（支持用户名、邮箱、手机号登录）
-        LambdaQueryWrapper<User> wrapper = new LambdaQueryWrapper<>();
-        wrapper.and(w -> w
-                .eq(User::getUsername, request.getAccount())
-                .or().eq(User::getEmail, request.getAccount())
-                .or().eq(User::getPhone, request.getAccount())
-        );
-        wrapper.eq(User::getDeleted, 0);
-
-        User user = userMapper.selectOne(wrapper);
+        User user = accountResolver.resolve(request.getAccount());
         if (user == null) {
             throw new BusinessException(StatusCode.UNAUTHORIZED, "用户名或密码错误");
         }
 
         // 验证密码
-        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
+        if (!passwordHasher.matches(request.getPassword(), user.getPassword())) {
             throw new BusinessException(StatusCode.UNAUTHORIZED, "用户名或密码错误");
         }
 
@@ -69,19 +136,50 @@ public class UserServiceImpl implements UserService {
             throw new BusinessException(StatusCode.FORBIDDEN, "账号已被禁用");
         }
 
+        // 密码哈希落后于当前配置（算法或强度）时重新哈希
+        Long userId = user.getId();
+        String encodedPassword = user.getPassword();
+        passwordHasher.upgradeIfNeeded(request.getPassword(), encodedPassword,
+                newPassword -> updatePasswordHash(userId, encodedPassword, newPassword));
+
         // 生成token
-        String token = JwtUtils.generateToken(user.getId(), user.getUsername());
+        LoginResponse response = tokenService.issue(user.getId(), user.getUsername());
 
         // 构建用户信息
         UserInfoVO userInfo = buildUserInfoVO(user, null);
 
         // 缓存用户信息
-        redisService.setUserInfo(user.getId(), userInfo);
+        userInfoCacheService.put(user.getId(), userInfo);
 
-        return LoginResponse.builder()
-                .token(token)
-                .userInfo(userInfo)
-                .build();
+        response.setUserInfo(userInfo);
+        return response;
+    }
+
+    @Override
+    public LoginResponse refreshToken(String refreshToken) {
+        return tokenService.rotate(refreshToken, userId -> {
+            // 刷新时重新检查用户状态，已删除或禁用的用户不能继续使用
+            User user = userMapper.selectById(userId);
+            if (user == null || user.getDeleted() == 1) {
+                throw new BusinessException(StatusCode.UNAUTHORIZED, "登录已过期，请重新登录");
+            }
+            if (user.getStatus() == 0) {
+                throw new BusinessException(StatusCode.FORBIDDEN, "账号已被禁用");
+            }
+            return user.getUsername();
+        });
+    }
+
+    @Override
+    public void logout(String accessToken, String refreshToken) {
+        ParsedToken access = JwtUtils.parseToken(accessToken);
+        if (access.isValid() && access.isAccessToken()) {
+            tokenService.revoke(access);
+        }
+        ParsedToken refresh = JwtUtils.parseToken(refreshToken);
+        if (refresh.isValid() && refresh.isRefreshToken()) {
+            tokenService.revoke(refresh);
+        }
     }
 
     @Override
@@ -114,7 +212,7 @@ public class UserServiceImpl implements UserService {
         User user = new User();
         user.setId(idGenerator.nextId());
         user.setUsername(request.getUsername());
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
+        user.setPassword(passwordHasher.encode(request.getPassword()));
         user.setNickname(request.getNickname());
         user.setEmail(request.getEmail());
         user.setAvatar("https://api.dicebear.com/7.x/avataaars/svg?seed=" + user.getId()); // 默认头像
@@ -125,23 +223,27 @@ public class UserServiceImpl implements UserService {
         user.setDeleted(0);
 
         userMapper.insert(user);
+        userStatsMapper.insert(UserStats.builder()
+                .userId(user.getId())
+                .followingCount(0L)
+                .followerCount(0L)
+                .build());
+        userIdBloomFilter.add(user.getId());
 
         // 删除验证码
         redisService.deleteEmailCode(request.getEmail());
 
         // 生成token
-        String token = JwtUtils.generateToken(user.getId(), user.getUsername());
+        LoginResponse response = tokenService.issue(user.getId(), user.getUsername());
 
         // 构建用户信息
         UserInfoVO userInfo = buildUserInfoVO(user, null);
 
         // 缓存用户信息
-        redisService.setUserInfo(user.getId(), userInfo);
+        userInfoCacheService.put(user.getId(), userInfo);
 
-        return LoginResponse.builder()
-                .token(token)
-                .userInfo(userInfo)
-                .build();
+        response.setUserInfo(userInfo);
+        return response;
     }
 
     @Override
@@ -149,46 +251,118 @@ public class UserServiceImpl implements UserService {
         // 生成6位数字验证码
         String code = String.format("%06d", new Random().nextInt(999999));
 
-        // 存储到Redis（5分钟有效）
-        redisService.setEmailCode(request.getEmail(), code);
+        // 先存储到Redis（5分钟有效），保证发出的验证码都已保存；未能保存时不发送
+        RedisService.EmailCode previous;
+        try {
+            previous = redisService.replaceEmailCode(request.getEmail(), code);
+        } catch (DataAccessException e) {
+            log.error("存储邮箱验证码失败: email={}, error={}", request.getEmail(), e.getMessage());
+            throw new BusinessException(StatusCode.SERVICE_UNAVAILABLE, "服务繁忙，请稍后重试");
+        }
 
-        // TODO: 实际项目中应该调用邮件服务发送验证码
-        log.info("发送邮箱验证码: email={}, code={}", request.getEmail(), code);
-        
-        // 这里为了开发方便，直接打印验证码
-        System.out.println("========== 邮箱验证码 ==========");
-        System.out.println("邮箱: " + request.getEmail());
-        System.out.println("验证码: " + code);
-        System.out.println("有效期: 5分钟");
-        System.out.println("===============================");
+        // 交给异步邮件发送器，不等待邮件服务器响应；队列已满时恢复之前发送的验证码
+        MailMessage message = MailMessage.builder()
+                .to(request.getEmail())
+                .subject("验证码")
+                .content("您的验证码是 " + code + "，5分钟内有效。")
+                .build();
+        if (!mailDispatcher.offer(message)) {
+            redisService.restoreEmailCode(request.getEmail(), code, previous);
+            throw new BusinessException(StatusCode.SERVICE_UNAVAILABLE, "服务繁忙，请稍后重试");
+        }
     }
 
     @Override
     public UserInfoVO getUserInfo(Long userId, Long currentUserId) {
-        // 先从缓存获取
-        Object cached = redisService.getUserInfo(userId);
-        if (cached instanceof UserInfoVO) {
-            UserInfoVO userInfo = (UserInfoVO) cached;
-            // 如果是查询他人信息，需要判断是否关注
-            if (currentUserId != null && !currentUserId.equals(userId)) {
-                userInfo.setIsFollowing(redisService.isFollowing(currentUserId, userId));
-            }
-            return userInfo;
+        // 布隆过滤器判定不存在的ID直接返回，不访问缓存和数据库
+        if (!userIdBloomFilter.mightContain(userId)) {
+            throw new BusinessException(StatusCode.NOT_FOUND, "用户不存在");
         }
 
-        // 缓存未命中，从数据库查询
-        User user = userMapper.selectById(userId);
-        if (user == null || user.getDeleted() == 1) {
+        // 从缓存获取，未命中时由单个请求加载（不存在的用户同样会被短期缓存）
+        UserInfoVO cached = userInfoCacheService.getOrLoad(userId, this::loadUserInfo);
+        if (cached == null) {
             throw new BusinessException(StatusCode.NOT_FOUND, "用户不存在");
         }
 
-        // 构建用户信息
-        UserInfoVO userInfo = buildUserInfoVO(user, currentUserId);
+        // 缓存对象为共享实例，复制后再设置查看者相关字段（未登录或查询自己时为 false，与批量查询一致）
+        boolean following = currentUserId != null && !currentUserId.equals(userId)
+                && isFollowing(currentUserId, userId);
+        return cached.toBuilder().isFollowing(following).build();
+    }
 
-        // 缓存用户信息
-        redisService.setUserInfo(userId, userInfo);
+    @Override
+    public List<UserInfoVO> getUserInfos(Collection<Long> userIds, Long currentUserId) {
+        // 去重并保持请求顺序
+        Set<Long> ids = new LinkedHashSet<>(userIds);
+        ids.remove(null);
+        if (ids.size() > MAX_BATCH_SIZE) {
+            throw new BusinessException(StatusCode.BAD_REQUEST, "单次最多查询" + MAX_BATCH_SIZE + "个用户");
+        }
 
-        return userInfo;
+        // 布隆过滤器判定不存在的ID直接跳过
+        ids.removeIf(userId -> !userIdBloomFilter.mightContain(userId));
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Map<Long, UserInfoVO> cached = userInfoCacheService.getAll(ids, this::loadUserInfos);
+
+        // 批量判断是否关注（排除自己）
+        Set<Long> following = Collections.emptySet();
+        if (currentUserId != null) {
+            List<Long> others = new ArrayList<>(cached.keySet());
+            others.remove(currentUserId);
+            following = filterFollowing(currentUserId, others);
+        }
+
+        List<UserInfoVO> userInfos = new ArrayList<>(cached.size());
+        for (Long userId : ids) {
+            UserInfoVO userInfo = cached.get(userId);
+            if (userInfo != null) {
+                // 缓存对象为共享实例，复制后再设置查看者相关字段
+                userInfos.add(userInfo.toBuilder().isFollowing(following.contains(userId)).build());
+            }
+        }
+        return userInfos;
+    }
+
+    /**
+     * 从数据库加载与查看者无关的用户信息（缓存未命中时调用）
+     *
+     * @return 用户信息，用户不存在时返回 null
+     */
+    private UserInfoVO loadUserInfo(Long userId) {
+        User user = userMapper.selectById(userId);
+        if (user == null || user.getDeleted() == 1) {
+            return null;
+        }
+        return buildUserInfoVO(user, null);
+    }
+
+    /**
+     * 从数据库批量加载与查看者无关的用户信息（一次查询用户表，一次查询统计表）
+     *
+     * @return 用户ID → 用户信息，不存在的用户不在结果中
+     */
+    private Map<Long, UserInfoVO> loadUserInfos(Collection<Long> userIds) {
+        List<User> users = userMapper.selectBatchIds(userIds);
+        Map<Long, UserInfoVO> userInfos = new HashMap<>(users.size() * 2);
+        if (users.isEmpty()) {
+            return userInfos;
+        }
+        Map<Long, UserStats> statsMap = new HashMap<>(users.size() * 2);
+        for (UserStats stats : userStatsMapper.selectBatchIds(userIds)) {
+            statsMap.put(stats.getUserId(), stats);
+        }
+        for (User user : users) {
+            if (user.getDeleted() == 1) {
+                continue;
+            }
+            UserStats stats = statsMap.get(user.getId());
+            userInfos.put(user.getId(), toUserInfoVO(user, stats != null ? stats : getUserStats(user.getId())));
+        }
+        return userInfos;
     }
 
     @Override
@@ -220,20 +394,41 @@ public class UserServiceImpl implements UserService {
         userMapper.updateById(user);
 
         // 删除缓存
-        redisService.deleteUserInfo(userId);
+        userInfoCacheService.evict(userId);
+        accountResolver.evict(user);
 
         // 构建并返回用户信息
         return buildUserInfoVO(user, userId);
     }
 
     @Override
-    @Transactional(rollbackFor = Exception.class)
     public void followUser(Long followerId, Long followingId) {
         // 不能关注自己
         if (followerId.equals(followingId)) {
             throw new BusinessException(StatusCode.BAD_REQUEST, "不能关注自己");
         }
 
+        if (followProperties.isAsync()) {
+            followUserAsync(followerId, followingId);
+        } else {
+            // 同步写入时才开启事务（异步写入不占用数据库连接，因此不在方法上声明事务）
+            transactionTemplate.executeWithoutResult(status -> doFollowUser(followerId, followingId));
+        }
+    }
+
+    @Override
+    public void unfollowUser(Long followerId, Long followingId) {
+        if (followProperties.isAsync()) {
+            unfollowUserAsync(followerId, followingId);
+        } else {
+            transactionTemplate.executeWithoutResult(status -> doUnfollowUser(followerId, followingId));
+        }
+    }
+
+    /**
+     * 同步关注：在事务中写入关注关系和统计数据，再更新缓存
+     */
+    private void doFollowUser(Long followerId, Long followingId) {
         // 检查被关注用户是否存在
         User followingUser = userMapper.selectById(followingId);
         if (followingUser == null || followingUser.getDeleted() == 1) {
@@ -248,26 +443,35 @@ public class UserServiceImpl implements UserService {
             throw new BusinessException(StatusCode.BAD_REQUEST, "已关注该用户");
         }
 
-        // 创建关注关系
+        // 创建关注关系（精确到秒，与数据库 DATETIME 一致，列表缓存项才能与数据库记录对应）
         UserRelation relation = UserRelation.builder()
                 .id(idGenerator.nextId())
                 .followerId(followerId)
                 .followingId(followingId)
-                .createdAt(LocalDateTime.now())
+                .createdAt(LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS))
                 .build();
         userRelationMapper.insert(relation);
 
+        // 更新关注数和粉丝数
+        updateFollowStats(followerId, followingId, 1);
+
         // 更新Redis缓存
         redisService.addFollowing(followerId, followingId);
+        int followListSize = userCacheProperties.getFollowList().getSize();
+        redisService.addToFollowList(FollowList.FOLLOWING, followerId,
+                RedisService.followListMember(relation, followingId), followListSize);
+        redisService.addToFollowList(FollowList.FOLLOWER, followingId,
+                RedisService.followListMember(relation, followerId), followListSize);
 
         // 清除用户信息缓存（因为关注数变了）
-        redisService.deleteUserInfo(followerId);
-        redisService.deleteUserInfo(followingId);
+        userInfoCacheService.evict(followerId);
+        userInfoCacheService.evict(followingId);
     }
 
-    @Override
-    @Transactional(rollbackFor = Exception.class)
-    public void unfollowUser(Long followerId, Long followingId) {
+    /**
+     * 同步取消关注：在事务中删除关注关系并更新统计数据，再更新缓存
+     */
+    private void doUnfollowUser(Long followerId, Long followingId) {
         // 检查是否已关注
         LambdaQueryWrapper<UserRelation> wrapper = new LambdaQueryWrapper<>();
         wrapper.eq(UserRelation::getFollowerId, followerId)
@@ -281,12 +485,91 @@ public class UserServiceImpl implements UserService {
         // 删除关注关系
         userRelationMapper.deleteById(relation.getId());
 
+        // 更新关注数和粉丝数
+        updateFollowStats(followerId, followingId, -1);
+
         // 更新Redis缓存
         redisService.removeFollowing(followerId, followingId);
+        redisService.removeFromFollowList(FollowList.FOLLOWING, followerId,
+                RedisService.followListMember(relation, followingId));
+        redisService.removeFromFollowList(FollowList.FOLLOWER, followingId,
+                RedisService.followListMember(relation, followerId));
 
         // 清除用户信息缓存（因为关注数变了）
-        redisService.deleteUserInfo(followerId);
-        redisService.deleteUserInfo(followingId);
+        userInfoCacheService.evict(followerId);
+        userInfoCacheService.evict(followingId);
+    }
+
+    /**
+     * 异步关注：先在 Redis 中完成关注并发送关注事件，由关注事件消费者批量写入数据库、更新统计数据和缓存
+     */
+    private void followUserAsync(Long followerId, Long followingId) {
+        // 检查被关注用户是否存在（读用户信息缓存）
+        if (!userIdBloomFilter.mightContain(followingId)
+                || userInfoCacheService.getOrLoad(followingId, this::loadUserInfo) == null) {
+            throw new BusinessException(StatusCode.NOT_FOUND, "用户不存在");
+        }
+
+        // 以 Redis 关注集合为准判断是否已关注（SADD 为原子操作，并发的重复关注只有一个成功）；
+        // 关注数超出缓存上限的用户关注集合不完整，先查数据库
+        if (!ensureFollowingLoaded(followerId) && userRelationMapper.checkFollowing(followerId, followingId) > 0) {
+            throw new BusinessException(StatusCode.BAD_REQUEST, "已关注该用户");
+        }
+        if (!redisService.addFollowingIfAbsent(followerId, followingId)) {
+            throw new BusinessException(StatusCode.BAD_REQUEST, "已关注该用户");
+        }
+
+        FollowEvent event = FollowEvent.builder()
+                .type(FollowEvent.Type.FOLLOW)
+                .relationId(idGenerator.nextId())
+                .followerId(followerId)
+                .followingId(followingId)
+                .createdAt(LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS))
+                .build();
+        try {
+            followEventProducer.send(event);
+        } catch (RuntimeException e) {
+            // 事件发送失败时撤销 Redis 中的关注
+            redisService.removeFollowing(followerId, followingId);
+            throw e;
+        }
+    }
+
+    /**
+     * 异步取消关注：先从 Redis 关注集合中移除并发送取消关注事件
+     */
+    private void unfollowUserAsync(Long followerId, Long followingId) {
+        boolean loaded = ensureFollowingLoaded(followerId);
+        boolean removed = redisService.removeFollowingIfPresent(followerId, followingId);
+        // 关注集合未完整缓存时再查数据库
+        if (!removed && (loaded || userRelationMapper.checkFollowing(followerId, followingId) == 0)) {
+            throw new BusinessException(StatusCode.BAD_REQUEST, "未关注该用户");
+        }
+
+        FollowEvent event = FollowEvent.builder()
+                .type(FollowEvent.Type.UNFOLLOW)
+                .followerId(followerId)
+                .followingId(followingId)
+                .createdAt(LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS))
+                .build();
+        try {
+            followEventProducer.send(event);
+        } catch (RuntimeException e) {
+            if (removed) {
+                redisService.addFollowing(followerId, followingId);
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public FollowPageVO listFollowing(Long userId, String cursor, Integer size, Long currentUserId) {
+        return listFollows(FollowList.FOLLOWING, userId, cursor, size, currentUserId);
+    }
+
+    @Override
+    public FollowPageVO listFollowers(Long userId, String cursor, Integer size, Long currentUserId) {
+        return listFollows(FollowList.FOLLOWER, userId, cursor, size, currentUserId);
     }
 
     @Override
@@ -309,42 +592,268 @@ public class UserServiceImpl implements UserService {
         }
 
         // 验证旧密码
-        if (!passwordEncoder.matches(request.getOldPassword(), user.getPassword())) {
+        if (!passwordHasher.matches(request.getOldPassword(), user.getPassword())) {
             throw new BusinessException(StatusCode.BAD_REQUEST, "旧密码错误");
         }
 
         // 更新密码
-        user.setPassword(passwordEncoder.encode(request.getNewPassword()));
+        user.setPassword(passwordHasher.encode(request.getNewPassword()));
         user.setUpdatedAt(LocalDateTime.now());
         userMapper.updateById(user);
 
         // 清除用户信息缓存
-        redisService.deleteUserInfo(userId);
+        userInfoCacheService.evict(userId);
+
+        // 已签发的Token全部失效，需要重新登录
+        revokeAllAfterCommit(userId);
 
         log.info("用户修改密码成功: userId={}", userId);
     }
 
+    /**
+     * 事务提交后吊销用户全部Token，事务回滚（密码未修改）时不吊销
+     */
+    private void revokeAllAfterCommit(Long userId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            tokenService.revokeAll(userId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                tokenService.revokeAll(userId);
+            }
+        });
+    }
+
+    /**
+     * 写回重新计算的密码哈希，仅当密码未被修改时更新
+     */
+    private void updatePasswordHash(Long userId, String oldPassword, String newPassword) {
+        LambdaUpdateWrapper<User> wrapper = new LambdaUpdateWrapper<>();
+        wrapper.set(User::getPassword, newPassword)
+                .eq(User::getId, userId)
+                .eq(User::getPassword, oldPassword);
+        userMapper.update(null, wrapper);
+    }
+
     /**
      * 构建用户信息VO
      */
     private UserInfoVO buildUserInfoVO(User user, Long currentUserId) {
+        UserInfoVO vo = toUserInfoVO(user, getUserStats(user.getId()));
+
+        // 判断是否关注（查询他人信息时）
+        if (currentUserId != null && !currentUserId.equals(user.getId())) {
+            vo.setIsFollowing(isFollowing(currentUserId, user.getId()));
+        }
+
+        return vo;
+    }
+
+    /**
+     * 判断是否关注：由完整加载的 Redis 关注集合回答，未加载时先从数据库加载；
+     * 关注数超出缓存上限的用户直接查询数据库
+     */
+    private boolean isFollowing(Long followerId, Long followingId) {
+        Boolean cached = redisService.isFollowingIfLoaded(followerId, followingId);
+        if (cached != null) {
+            return cached;
+        }
+        Set<Long> followingIds = loadFollowingIds(followerId);
+        if (followingIds != null) {
+            return followingIds.contains(followingId);
+        }
+        return userRelationMapper.checkFollowing(followerId, followingId) > 0;
+    }
+
+    /**
+     * 批量判断是否关注，规则同 {@link #isFollowing}
+     *
+     * @return 已关注的用户ID集合
+     */
+    private Set<Long> filterFollowing(Long followerId, Collection<Long> followingIds) {
+        if (followingIds.isEmpty()) {
+            return Collections.emptySet();
+        }
+        Set<Long> cached = redisService.filterFollowingIfLoaded(followerId, followingIds);
+        if (cached != null) {
+            return cached;
+        }
+        Set<Long> following = loadFollowingIds(followerId);
+        if (following != null) {
+            following.retainAll(followingIds);
+            return following;
+        }
+        return new HashSet<>(userRelationMapper.selectFollowingIdsIn(followerId, followingIds));
+    }
+
+    /**
+     * 确保用户的关注集合已完整加载到 Redis（异步写入模式在修改关注集合前调用）
+     *
+     * @return 关注集合是否已完整缓存，关注数超出缓存上限时返回 false
+     */
+    private boolean ensureFollowingLoaded(Long followerId) {
+        return redisService.isFollowingLoaded(followerId) || loadFollowingIds(followerId) != null;
+    }
+
+    /**
+     * 从数据库加载用户的全部关注ID并写入 Redis 关注集合
+     *
+     * @return 关注ID集合，关注数超出缓存上限时返回 null（不缓存）
+     */
+    private Set<Long> loadFollowingIds(Long followerId) {
+        UserCacheProperties.Following following = userCacheProperties.getFollowing();
+        // 关注数读用户信息缓存，超出上限的用户不再每次读取全部关注ID
+        UserInfoVO follower = userInfoCacheService.getOrLoad(followerId, this::loadUserInfo);
+        if (follower == null || follower.getFollowingCount() > following.getMaxSize()) {
+            return null;
+        }
+        List<Long> followingIds = userRelationMapper.selectFollowingIds(followerId, following.getMaxSize() + 1);
+        if (followingIds.size() > following.getMaxSize()) {
+            return null;
+        }
+        redisService.loadFollowing(followerId, followingIds, following.getExpireTime());
+        return new HashSet<>(followingIds);
+    }
+
+    /**
+     * 由用户和统计数据构建与查看者无关的用户信息VO
+     */
+    private UserInfoVO toUserInfoVO(User user, UserStats stats) {
         UserInfoVO vo = new UserInfoVO();
         BeanUtils.copyProperties(user, vo);
+        vo.setFollowingCount(stats.getFollowingCount());
+        vo.setFollowerCount(stats.getFollowerCount());
+        vo.setIsFollowing(false);
+        return vo;
+    }
 
-        // 统计关注数和粉丝数
-        Long followingCount = userRelationMapper.countFollowing(user.getId());
-        Long followerCount = userRelationMapper.countFollower(user.getId());
-        vo.setFollowingCount(followingCount);
-        vo.setFollowerCount(followerCount);
+    /**
+     * 获取用户统计数据，统计行不存在时（统计表上线前的老用户）按关系表初始化一次
+     */
+    private UserStats getUserStats(Long userId) {
+        UserStats stats = userStatsMapper.selectById(userId);
+        if (stats == null) {
+            userStatsMapper.initStats(userId);
+            stats = userStatsMapper.selectById(userId);
+        }
+        return stats;
+    }
 
-        // 判断是否关注（查询他人信息时）
-        if (currentUserId != null && !currentUserId.equals(user.getId())) {
-            int count = userRelationMapper.checkFollowing(currentUserId, user.getId());
-            vo.setIsFollowing(count > 0);
+    /**
+     * 在关注/取消关注的事务中更新双方的统计数据
+     * 按用户ID顺序加行锁，避免互相关注时两个事务交叉加锁导致死锁；
+     * 统计行不存在时不更新，读取时会按关系表初始化（已包含本次变更）
+     */
+    private void updateFollowStats(Long followerId, Long followingId, long delta) {
+        if (followerId < followingId) {
+            userStatsMapper.incrFollowingCount(followerId, delta);
+            userStatsMapper.incrFollowerCount(followingId, delta);
         } else {
-            vo.setIsFollowing(false);
+            userStatsMapper.incrFollowerCount(followingId, delta);
+            userStatsMapper.incrFollowingCount(followerId, delta);
         }
+    }
 
-        return vo;
+    /**
+     * 按 (关注时间, 关系ID) 倒序游标分页获取关注/粉丝列表
+     * 先读 Redis 中最近的列表项，游标超出缓存范围时按索引从数据库查询，不使用 OFFSET
+     */
+    private FollowPageVO listFollows(FollowList type, Long userId, String cursor, Integer size, Long currentUserId) {
+        int pageSize = size == null ? DEFAULT_PAGE_SIZE : size;
+        if (pageSize < 1 || pageSize > MAX_BATCH_SIZE) {
+            throw new BusinessException(StatusCode.BAD_REQUEST, "每页数量需在1到" + MAX_BATCH_SIZE + "之间");
+        }
+        String after = null;
+        LocalDateTime cursorTime = null;
+        Long cursorId = null;
+        if (StringUtils.hasText(cursor)) {
+            if (!FOLLOW_CURSOR_PATTERN.matcher(cursor).matches()) {
+                throw new BusinessException(StatusCode.BAD_REQUEST, "无效的分页游标");
+            }
+            // 格式正确但日期不存在（如13月）或关系ID超出 long 范围时同样视为无效游标
+            try {
+                cursorTime = LocalDateTime.parse(cursor.substring(0, FOLLOW_TIME_LENGTH), RedisService.FOLLOW_TIME_FORMATTER);
+                cursorId = Long.valueOf(cursor.substring(FOLLOW_TIME_LENGTH));
+            } catch (DateTimeParseException | NumberFormatException e) {
+                throw new BusinessException(StatusCode.BAD_REQUEST, "无效的分页游标");
+            }
+            after = cursor;
+        }
+
+        // 多取一条用于判断是否还有下一页
+        List<String> members = getFollowListFromCache(type, userId, after, pageSize + 1);
+        if (members == null) {
+            members = getFollowListFromDatabase(type, userId, cursorTime, cursorId, pageSize + 1);
+        }
+        boolean hasMore = members.size() > pageSize;
+        if (hasMore) {
+            members = members.subList(0, pageSize);
+        }
+
+        List<Long> userIds = new ArrayList<>(members.size());
+        for (String member : members) {
+            userIds.add(Long.valueOf(member.substring(member.indexOf(':') + 1)));
+        }
+        String nextCursor = hasMore ? members.get(members.size() - 1).substring(0, FOLLOW_CURSOR_LENGTH) : null;
+        return FollowPageVO.builder()
+                .list(getUserInfos(userIds, currentUserId))
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    /**
+     * 从 Redis 读取列表项
+     *
+     * @return 列表项，缓存无法完整提供本页（缓存被截断或游标超出缓存范围）时返回 null
+     */
+    private List<String> getFollowListFromCache(FollowList type, Long userId, String after, int count) {
+        List<String> members = redisService.rangeFollowList(type, userId, after, count);
+        if (members.isEmpty()) {
+            if (after != null) {
+                // 缓存不存在或游标早于缓存中最早的列表项
+                return null;
+            }
+            // 缓存不存在，从数据库加载最近的列表项重建缓存
+            UserCacheProperties.FollowList followList = userCacheProperties.getFollowList();
+            List<String> latest = getFollowListFromDatabase(type, userId, null, null, followList.getSize() + 1);
+            boolean complete = latest.size() <= followList.getSize();
+            if (!complete) {
+                latest = latest.subList(0, followList.getSize());
+            }
+            redisService.initFollowList(type, userId, latest, complete, followList.getExpireTime());
+            if (latest.size() >= count) {
+                return latest.subList(0, count);
+            }
+            return complete ? latest : null;
+        }
+
+        // 读到结束标记说明列表已到末尾
+        if (RedisService.FOLLOW_LIST_END.equals(members.get(members.size() - 1))) {
+            return members.subList(0, members.size() - 1);
+        }
+        return members.size() < count ? null : members;
+    }
+
+    /**
+     * 从数据库按游标查询列表项
+     *
+     * @param cursorTime 游标关注时间，第一页为 null
+     * @param cursorId   游标关系ID，第一页为 null
+     */
+    private List<String> getFollowListFromDatabase(FollowList type, Long userId, LocalDateTime cursorTime,
+                                                   Long cursorId, int count) {
+        boolean following = type == FollowList.FOLLOWING;
+        List<UserRelation> relations = following
+                ? userRelationMapper.selectFollowingPage(userId, cursorTime, cursorId, count)
+                : userRelationMapper.selectFollowerPage(userId, cursorTime, cursorId, count);
+        List<String> members = new ArrayList<>(relations.size());
+        for (UserRelation relation : relations) {
+            members.add(RedisService.followListMember(relation,
+                    following ? relation.getFollowingId() : relation.getFollowerId()));
+        }
+        return members;
     }
 }
@@ -0,0 +1,15 @@
+-- 用户统计表（关注数、粉丝数，随关注/取消关注在同一事务中更新）
+CREATE TABLE IF NOT EXISTS `user_stats` (
+                                            `user_id` BIGINT NOT NULL COMMENT '用户ID',
+                                            `following_count` BIGINT NOT NULL DEFAULT 0 COMMENT '关注数',
+                                            `follower_count` BIGINT NOT NULL DEFAULT 0 COMMENT '粉丝数',
+                                            `updated_at` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+                                            PRIMARY KEY (`user_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='用户统计表';
+
+-- 为已有用户初始化统计数据（可重复执行，已存在的行不会被覆盖）
+INSERT IGNORE INTO `user_stats` (`user_id`, `following_count`, `follower_count`)
+SELECT u.`id`,
+       (SELECT COUNT(*) FROM `user_relation` r WHERE r.`follower_id` = u.`id`),
+       (SELECT COUNT(*) FROM `user_relation` r WHERE r.`following_id` = u.`id`)
+FROM `user` u;
@@ -0,0 +1,7 @@
+-- 关注/粉丝列表按 (created_at, id) 游标分页
+-- 索引末尾隐含主键 id，ORDER BY created_at DESC, id DESC 可直接反向扫描索引，且包含查询的所有列（覆盖索引）
+ALTER TABLE `user_relation`
+    DROP INDEX `idx_follower`,
+    DROP INDEX `idx_following`,
+    ADD INDEX `idx_follower` (`follower_id`, `created_at`, `following_id`),
+    ADD INDEX `idx_following` (`following_id`, `created_at`, `follower_id`);
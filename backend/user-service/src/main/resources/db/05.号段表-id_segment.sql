@@ -0,0 +1,9 @@
+-- ID号段表（号段模式ID生成器每次将 max_id 增加 step，租用 [max_id - step, max_id) 这一段ID）
+CREATE TABLE IF NOT EXISTS `id_segment` (
+                                            `biz_tag` VARCHAR(64) NOT NULL COMMENT '业务标识',
+                                            `max_id` BIGINT NOT NULL DEFAULT 1 COMMENT '已分配的最大ID（不含）',
+                                            `step` INT NOT NULL DEFAULT 1000 COMMENT '每次租用的ID数量',
+                                            `description` VARCHAR(255) DEFAULT NULL COMMENT '描述',
+                                            `updated_at` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+                                            PRIMARY KEY (`biz_tag`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='ID号段表';
@@ -0,0 +1,3 @@
+-- 密码以 {算法}哈希值 格式存储，argon2 哈希超过 100 个字符
+ALTER TABLE `user`
+    MODIFY COLUMN `password` VARCHAR(255) NOT NULL COMMENT '密码哈希（{算法}哈希值，早期数据为不带前缀的BCrypt）';
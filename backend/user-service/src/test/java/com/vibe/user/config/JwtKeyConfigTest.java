@@ -0,0 +1,127 @@
+package com.vibe.user.config;
+
+import com.vibe.common.core.utils.JwtKeyRing;
+import com.vibe.common.core.utils.JwtUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.mock.env.MockPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JwtKeyConfig 配置刷新单元测试
+ */
+@DisplayName("JWT签名密钥刷新测试")
+class JwtKeyConfigTest {
+
+    private static final String SECRET_1 = "k1-secret-k1-secret-k1-secret-k1-secret-k1-secret-k1-secret-k1-secret";
+    private static final String SECRET_2 = "k2-secret-k2-secret-k2-secret-k2-secret-k2-secret-k2-secret-k2-secret";
+
+    private JwtKeyRing original;
+
+    private JwtProperties jwtProperties;
+
+    private MockPropertySource config;
+
+    private StandardEnvironment environment;
+
+    private JwtKeyConfig jwtKeyConfig;
+
+    @BeforeEach
+    void setUp() {
+        original = JwtUtils.getKeyRing();
+        jwtProperties = new JwtProperties();
+        jwtProperties.setActiveKeyId("k1");
+        jwtProperties.getKeys().put("k1", SECRET_1);
+        jwtProperties.getKeys().put("k2", SECRET_2);
+        config = new MockPropertySource()
+                .withProperty("jwt.active-key-id", "k1")
+                .withProperty("jwt.keys.k1", SECRET_1)
+                .withProperty("jwt.keys.k2", SECRET_2);
+        environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(config);
+        jwtKeyConfig = new JwtKeyConfig();
+        ReflectionTestUtils.setField(jwtKeyConfig, "jwtProperties", jwtProperties);
+        ReflectionTestUtils.setField(jwtKeyConfig, "environment", environment);
+    }
+
+    @AfterEach
+    void tearDown() {
+        JwtUtils.setKeyRing(original);
+    }
+
+    @Test
+    @DisplayName("刷新 - 配置中删除的旧密钥不再验签")
+    void testOnRefresh_RemovedKey() {
+        // Given: 旧密钥 k2 签发的Token
+        Map<String, String> secrets = new HashMap<>();
+        secrets.put("k1", SECRET_1);
+        secrets.put("k2", SECRET_2);
+        JwtUtils.setKeyRing(JwtKeyRing.of("k2", null, secrets));
+        String oldToken = JwtUtils.generateAccessToken(1L, "user", 60000L);
+        jwtKeyConfig.init();
+        assertTrue(JwtUtils.parseToken(oldToken).isValid());
+
+        // When: 配置中删除 k2（刷新按键合并，jwtProperties 中仍保留 k2）
+        config.getSource().remove("jwt.keys.k2");
+        jwtKeyConfig.onRefresh();
+
+        // Then
+        assertEquals(1, JwtUtils.getKeyRing().getKeyIds().size());
+        assertFalse(JwtUtils.parseToken(oldToken).isValid());
+        assertTrue(JwtUtils.parseToken(JwtUtils.generateAccessToken(1L, "user", 60000L)).isValid());
+    }
+
+    @Test
+    @DisplayName("刷新 - 配置错误时继续使用旧密钥")
+    void testOnRefresh_InvalidConfig() {
+        // Given
+        jwtKeyConfig.init();
+        JwtKeyRing loaded = JwtUtils.getKeyRing();
+
+        // When: 当前密钥指向不存在的密钥ID
+        config.setProperty("jwt.active-key-id", "k3");
+        jwtKeyConfig.onRefresh();
+
+        // Then
+        assertSame(loaded, JwtUtils.getKeyRing());
+    }
+
+    @Test
+    @DisplayName("启动 - 未配置密钥时启动失败")
+    void testInit_NoKeys() {
+        // Given: 环境变量未设置，密钥为空值
+        jwtProperties.getKeys().clear();
+        jwtProperties.getKeys().put("k1", "");
+
+        // When & Then
+        assertThrows(IllegalStateException.class, () -> jwtKeyConfig.init());
+    }
+
+    @Test
+    @DisplayName("启动 - 本地开发环境未配置密钥时使用空密钥组")
+    void testInit_NoKeysInDev() {
+        // Given
+        JwtUtils.setKeyRing(JwtKeyRing.of("k1", null, Collections.singletonMap("k1", SECRET_1)));
+        String token = JwtUtils.generateAccessToken(1L, "user", 60000L);
+        jwtProperties.getKeys().clear();
+        jwtProperties.getKeys().put("k1", "");
+        environment.setActiveProfiles("dev");
+
+        // When
+        jwtKeyConfig.init();
+
+        // Then
+        assertTrue(JwtUtils.getKeyRing().getKeyIds().isEmpty());
+        assertFalse(JwtUtils.parseToken(token).isValid());
+        assertThrows(IllegalStateException.class, () -> JwtUtils.generateAccessToken(1L, "user", 60000L));
+    }
+}
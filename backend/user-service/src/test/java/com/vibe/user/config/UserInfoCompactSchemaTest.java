@@ -0,0 +1,119 @@
+package com.vibe.user.config;
+
+import com.vibe.common.redis.serializer.CompactRedisSerializer;
+import com.vibe.user.dto.UserInfoVO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.GenericToStringSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 用户信息紧凑序列化测试
+ */
+@DisplayName("用户信息紧凑序列化测试")
+class UserInfoCompactSchemaTest {
+
+    private CompactRedisSerializer serializer;
+
+    @BeforeEach
+    void setUp() {
+        RedisSerializer<Object> fallback = new GenericToStringSerializer<>(Object.class);
+        serializer = new CompactRedisSerializer(fallback,
+                Collections.singletonList(new UserCacheConfig().userInfoCompactSchema()),
+                CompactRedisSerializer.DEFAULT_COMPRESS_THRESHOLD);
+    }
+
+    @Test
+    @DisplayName("序列化后反序列化 - 字段一致")
+    void testRoundTrip() {
+        // Given
+        UserInfoVO userInfo = userInfo("热爱生活");
+
+        // When
+        byte[] bytes = serializer.serialize(userInfo);
+        Object result = serializer.deserialize(bytes);
+
+        // Then
+        assertEquals(userInfo, result);
+        assertTrue(bytes.length < 160, "compact payload too large: " + bytes.length);
+    }
+
+    @Test
+    @DisplayName("空字段 - 反序列化为 null")
+    void testRoundTrip_NullFields() {
+        // Given
+        UserInfoVO userInfo = UserInfoVO.builder().id(1L).username("testuser").build();
+
+        // When
+        Object result = serializer.deserialize(serializer.serialize(userInfo));
+
+        // Then
+        assertEquals(userInfo, result);
+    }
+
+    @Test
+    @DisplayName("大字段 - LZ4 压缩")
+    void testRoundTrip_Compressed() {
+        // Given
+        StringBuilder bio = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            bio.append("热爱生活，喜欢摄影和旅行。");
+        }
+        UserInfoVO userInfo = userInfo(bio.toString());
+
+        // When
+        byte[] bytes = serializer.serialize(userInfo);
+
+        // Then
+        assertTrue(bytes.length < bio.toString().getBytes(StandardCharsets.UTF_8).length);
+        assertEquals(userInfo, serializer.deserialize(bytes));
+    }
+
+    @Test
+    @DisplayName("未注册类型 - 交给后备序列化器")
+    void testFallback() {
+        // When
+        byte[] bytes = serializer.serialize("__null__");
+
+        // Then
+        assertArrayEquals("__null__".getBytes(StandardCharsets.UTF_8), bytes);
+        assertEquals("__null__", serializer.deserialize(bytes));
+    }
+
+    @Test
+    @DisplayName("未知类型标签 - 抛出序列化异常")
+    void testUnknownTag() {
+        // Given
+        byte[] bytes = {(byte) 0xFE, 0x10, 0x63, 0x00};
+
+        // When & Then
+        assertThrows(SerializationException.class, () -> serializer.deserialize(bytes));
+    }
+
+    private UserInfoVO userInfo(String bio) {
+        return UserInfoVO.builder()
+                .id(1000000000000000001L)
+                .username("testuser")
+                .nickname("测试用户")
+                .avatar("https://example.com/avatar.png")
+                .email("test@example.com")
+                .phone("13800138000")
+                .gender(1)
+                .birthday(LocalDate.of(1995, 6, 18))
+                .bio(bio)
+                .status(1)
+                .followingCount(10L)
+                .followerCount(20L)
+                .createdAt(LocalDateTime.of(2024, 3, 1, 12, 30, 45))
+                .build();
+    }
+}
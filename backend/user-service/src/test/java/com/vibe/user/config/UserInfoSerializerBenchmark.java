@@ -0,0 +1,130 @@
+package com.vibe.user.config;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.jsontype.impl.LaissezFaireSubTypeValidator;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.vibe.common.redis.serializer.CompactRedisSerializer;
+import com.vibe.user.dto.UserInfoVO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * user:info 缓存值序列化基准测试
+ * <p>
+ * json：改造前的 Jackson2JsonRedisSerializer（开启 NON_FINAL 默认类型，值中包含完整类名和字段名）。
+ * compact：CompactRedisSerializer + UserInfoVO 紧凑结构。
+ * 运行 main 方法时先输出两种格式的字节数，再运行编码/解码吞吐量测试。
+ * <p>
+ * 运行方式：mvn -pl user-service test-compile 后在 IDE 中运行 main 方法
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserInfoSerializerBenchmark {
+
+    private RedisSerializer<Object> json;
+
+    private RedisSerializer<Object> compact;
+
+    private UserInfoVO userInfo;
+
+    private byte[] jsonBytes;
+
+    private byte[] compactBytes;
+
+    @Setup
+    public void setUp() {
+        json = jsonSerializer();
+        compact = new CompactRedisSerializer(json, Collections.singletonList(new UserCacheConfig().userInfoCompactSchema()),
+                CompactRedisSerializer.DEFAULT_COMPRESS_THRESHOLD);
+        userInfo = sampleUserInfo();
+        jsonBytes = json.serialize(userInfo);
+        compactBytes = compact.serialize(userInfo);
+    }
+
+    @Benchmark
+    public byte[] jsonSerialize() {
+        return json.serialize(userInfo);
+    }
+
+    @Benchmark
+    public Object jsonDeserialize() {
+        return json.deserialize(jsonBytes);
+    }
+
+    @Benchmark
+    public byte[] compactSerialize() {
+        return compact.serialize(userInfo);
+    }
+
+    @Benchmark
+    public Object compactDeserialize() {
+        return compact.deserialize(compactBytes);
+    }
+
+    /**
+     * 与 RedisConfig 中的 Jackson 序列化器配置一致
+     */
+    private static RedisSerializer<Object> jsonSerializer() {
+        Jackson2JsonRedisSerializer<Object> serializer = new Jackson2JsonRedisSerializer<>(Object.class);
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.ANY);
+        objectMapper.activateDefaultTyping(LaissezFaireSubTypeValidator.instance, ObjectMapper.DefaultTyping.NON_FINAL);
+        objectMapper.registerModule(new JavaTimeModule());
+        serializer.setObjectMapper(objectMapper);
+        return serializer;
+    }
+
+    private static UserInfoVO sampleUserInfo() {
+        return UserInfoVO.builder()
+                .id(1801234567890123456L)
+                .username("zhangsan")
+                .nickname("张三")
+                .avatar("https://vibe-coding.oss-cn-hangzhou.aliyuncs.com/avatar/1801234567890123456.png")
+                .email("zhangsan@example.com")
+                .phone("13800138000")
+                .gender(1)
+                .birthday(LocalDate.of(1995, 6, 18))
+                .bio("热爱生活，喜欢摄影和旅行")
+                .status(1)
+                .followingCount(128L)
+                .followerCount(2048L)
+                .createdAt(LocalDateTime.of(2024, 3, 1, 12, 30, 45))
+                .build();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        UserInfoSerializerBenchmark benchmark = new UserInfoSerializerBenchmark();
+        benchmark.setUp();
+        System.out.printf("payload size: json=%d bytes, compact=%d bytes%n",
+                benchmark.jsonBytes.length, benchmark.compactBytes.length);
+
+        new Runner(new OptionsBuilder()
+                .include(UserInfoSerializerBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
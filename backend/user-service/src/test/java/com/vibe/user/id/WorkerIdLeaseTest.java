@@ -0,0 +1,171 @@
+package com.vibe.user.id;
+
+import com.vibe.common.core.domain.StatusCode;
+import com.vibe.common.core.exception.BusinessException;
+import com.vibe.user.config.IdGeneratorProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * WorkerIdLease 单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("机器ID租约测试")
+class WorkerIdLeaseTest {
+
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private IdGeneratorProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new IdGeneratorProperties();
+        // 测试中手动续约
+        properties.setHeartbeatInterval(TimeUnit.HOURS.toMillis(1));
+        lenient().when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+    }
+
+    @Test
+    @DisplayName("获取租约 - 跳过已被占用的机器ID")
+    void testAcquire_SkipLeasedIds() {
+        // Given：只有一个机器ID空闲
+        when(valueOperations.setIfAbsent(anyString(), anyString(), anyLong(), any(TimeUnit.class)))
+                .thenAnswer(invocation -> "user:id:worker:7".equals(invocation.getArgument(0)));
+
+        // When
+        WorkerIdLease lease = WorkerIdLease.acquire(stringRedisTemplate, properties);
+
+        // Then
+        assertEquals(7, lease.getWorkerId());
+        assertTrue(lease.isValid());
+        lease.close();
+    }
+
+    @Test
+    @DisplayName("获取租约 - 所有机器ID已被占用")
+    void testAcquire_AllLeased() {
+        // Given
+        when(valueOperations.setIfAbsent(anyString(), anyString(), anyLong(), any(TimeUnit.class))).thenReturn(false);
+
+        // When & Then
+        assertThrows(IllegalStateException.class, () -> WorkerIdLease.acquire(stringRedisTemplate, properties));
+        verify(valueOperations, times(WorkerIdLease.MAX_WORKER_IDS))
+                .setIfAbsent(anyString(), anyString(), anyLong(), any(TimeUnit.class));
+    }
+
+    @Test
+    @DisplayName("续约 - 已被其他实例占用时租约失效，拒绝生成ID")
+    void testRenew_LeaseLost() {
+        // Given
+        when(valueOperations.setIfAbsent(anyString(), anyString(), anyLong(), any(TimeUnit.class))).thenReturn(true, false);
+        WorkerIdLease lease = WorkerIdLease.acquire(stringRedisTemplate, properties);
+        LeasedSnowflakeIdGenerator generator = new LeasedSnowflakeIdGenerator(lease);
+        assertTrue(generator.nextId() > 0);
+        lenient().when(stringRedisTemplate.execute(any(RedisScript.class), anyList(), any(), any())).thenReturn(0L);
+
+        // When
+        lease.renew();
+
+        // Then
+        assertFalse(lease.isValid());
+        BusinessException exception = assertThrows(BusinessException.class, generator::nextId);
+        assertEquals(StatusCode.SERVICE_UNAVAILABLE, exception.getCode());
+        generator.close();
+    }
+
+    @Test
+    @DisplayName("续约 - Redis 暂时不可用时租约在有效期内保持有效")
+    void testRenew_RedisUnavailable() {
+        // Given
+        when(valueOperations.setIfAbsent(anyString(), anyString(), anyLong(), any(TimeUnit.class))).thenReturn(true);
+        WorkerIdLease lease = WorkerIdLease.acquire(stringRedisTemplate, properties);
+        lenient().when(stringRedisTemplate.execute(any(RedisScript.class), anyList(), any(), any()))
+                .thenThrow(new RedisConnectionFailureException("connection refused"));
+
+        // When
+        lease.renew();
+
+        // Then
+        assertTrue(lease.isValid());
+        lease.close();
+    }
+
+    @Test
+    @DisplayName("配置的机器ID - Redis 不可用期间继续生成ID")
+    void testUnregistered_RedisUnavailable() {
+        // Given
+        WorkerIdLease lease = WorkerIdLease.unregistered(stringRedisTemplate, properties, 33);
+        LeasedSnowflakeIdGenerator generator = new LeasedSnowflakeIdGenerator(lease);
+        when(stringRedisTemplate.execute(any(RedisScript.class), anyList(), any(), any()))
+                .thenThrow(new RedisConnectionFailureException("connection refused"));
+
+        // When
+        lease.renew();
+
+        // Then
+        assertTrue(lease.isValid());
+        assertFalse(lease.isRegistered());
+        assertEquals(33L, (generator.nextId() >> 12) & 0x3FF);
+        assertEquals(Status.UP, new WorkerIdLeaseHealthIndicator(generator).health().getStatus());
+        generator.close();
+    }
+
+    @Test
+    @DisplayName("配置的机器ID - Redis 恢复后登记租约")
+    void testUnregistered_Registered() {
+        // Given
+        WorkerIdLease lease = WorkerIdLease.unregistered(stringRedisTemplate, properties, 33);
+        when(stringRedisTemplate.execute(any(RedisScript.class), anyList(), any(), any())).thenReturn(0L);
+        when(valueOperations.setIfAbsent(eq("user:id:worker:33"), anyString(), anyLong(), any(TimeUnit.class)))
+                .thenReturn(true);
+
+        // When
+        lease.renew();
+
+        // Then
+        assertTrue(lease.isRegistered());
+        assertTrue(lease.isValid());
+        assertFalse(lease.isLost());
+        lease.close();
+    }
+
+    @Test
+    @DisplayName("配置的机器ID - 已被其他实例占用时拒绝生成ID，健康检查为 DOWN")
+    void testUnregistered_OwnedByOther() {
+        // Given
+        WorkerIdLease lease = WorkerIdLease.unregistered(stringRedisTemplate, properties, 33);
+        LeasedSnowflakeIdGenerator generator = new LeasedSnowflakeIdGenerator(lease);
+        when(stringRedisTemplate.execute(any(RedisScript.class), anyList(), any(), any())).thenReturn(0L);
+        when(valueOperations.setIfAbsent(anyString(), anyString(), anyLong(), any(TimeUnit.class))).thenReturn(false);
+
+        // When
+        lease.renew();
+
+        // Then
+        assertTrue(lease.isLost());
+        assertFalse(lease.isValid());
+        BusinessException exception = assertThrows(BusinessException.class, generator::nextId);
+        assertEquals(StatusCode.SERVICE_UNAVAILABLE, exception.getCode());
+        assertEquals(Status.DOWN, new WorkerIdLeaseHealthIndicator(generator).health().getStatus());
+        generator.close();
+    }
+}
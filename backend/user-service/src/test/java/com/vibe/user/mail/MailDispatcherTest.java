@@ -0,0 +1,229 @@
+package com.vibe.user.mail;
+
+import com.vibe.user.config.MailDispatchProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * MailDispatcher 单元测试
+ */
+@DisplayName("异步邮件发送器测试")
+class MailDispatcherTest {
+
+    private InMemoryMailTransport transport;
+    private MailDispatchProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private MailDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        transport = new InMemoryMailTransport();
+        properties = new MailDispatchProperties();
+        properties.setRetryBackoff(10);
+        properties.setMaxRetryBackoff(50);
+        properties.setShutdownTimeout(1000);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (dispatcher != null) {
+            dispatcher.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("提交后由发送线程异步发送")
+    void testOffer_Delivered() throws InterruptedException {
+        // Given
+        start();
+        transport.expect(3);
+
+        // When
+        for (int i = 0; i < 3; i++) {
+            assertTrue(dispatcher.offer(message("user" + i + "@example.com")));
+        }
+
+        // Then
+        assertTrue(transport.await());
+        assertEquals(3, transport.delivered.size());
+    }
+
+    @Test
+    @DisplayName("排队的邮件按批次交给发送通道")
+    void testOffer_Batched() throws InterruptedException {
+        // Given（单个发送线程阻塞在第一封邮件上，其余邮件在队列中排队）
+        properties.setConcurrency(1);
+        properties.setBatchSize(10);
+        transport.block();
+        start();
+        transport.expect(21);
+        dispatcher.offer(message("first@example.com"));
+        assertTrue(transport.awaitEntered());
+        for (int i = 0; i < 20; i++) {
+            dispatcher.offer(message("user" + i + "@example.com"));
+        }
+
+        // When
+        transport.release();
+
+        // Then
+        assertTrue(transport.await());
+        assertEquals(3, transport.batches.get());
+    }
+
+    @Test
+    @DisplayName("发送失败后退避重试")
+    void testOffer_RetryAfterFailure() throws InterruptedException {
+        // Given
+        transport.failuresLeft.set(2);
+        start();
+        transport.expect(1);
+
+        // When
+        dispatcher.offer(message("retry@example.com"));
+
+        // Then
+        assertTrue(transport.await());
+        assertEquals("retry@example.com", transport.delivered.get(0).getTo());
+        assertEquals(0.0, meterRegistry.counter("user.mail.failed").count());
+    }
+
+    @Test
+    @DisplayName("超过最大重试次数后放弃")
+    void testOffer_GiveUpAfterMaxRetries() throws InterruptedException {
+        // Given
+        properties.setMaxRetries(1);
+        transport.failuresLeft.set(Integer.MAX_VALUE);
+        start();
+
+        // When
+        dispatcher.offer(message("fail@example.com"));
+
+        // Then
+        long deadline = System.currentTimeMillis() + 5000;
+        while (meterRegistry.counter("user.mail.failed").count() < 1 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(1.0, meterRegistry.counter("user.mail.failed").count());
+        assertEquals(2, transport.attempts.get());
+        assertTrue(transport.delivered.isEmpty());
+    }
+
+    @Test
+    @DisplayName("队列已满时拒绝")
+    void testOffer_QueueFull() throws InterruptedException {
+        // Given（发送线程阻塞在第一封邮件上，队列只能容纳一封）
+        properties.setConcurrency(1);
+        properties.setQueueCapacity(1);
+        transport.block();
+        start();
+        assertTrue(dispatcher.offer(message("a@example.com")));
+        assertTrue(transport.awaitEntered());
+        assertTrue(dispatcher.offer(message("b@example.com")));
+
+        // When & Then
+        assertFalse(dispatcher.offer(message("c@example.com")));
+        assertEquals(1.0, meterRegistry.counter("user.mail.rejected").count());
+        transport.release();
+    }
+
+    @Test
+    @DisplayName("按服务商限制并发 - 同一服务商同时发送的批次数不超过上限")
+    void testOffer_ProviderConcurrency() throws InterruptedException {
+        // Given（4 个发送线程每次取一封，qq.com 最多同时发送一批）
+        properties.setConcurrency(4);
+        properties.setBatchSize(1);
+        properties.getProviderConcurrency().put("QQ.com", 1);
+        transport.sendMillis = 20;
+        start();
+        transport.expect(8);
+
+        // When
+        for (int i = 0; i < 8; i++) {
+            assertTrue(dispatcher.offer(message("user" + i + "@qq.com")));
+        }
+
+        // Then
+        assertTrue(transport.await());
+        assertEquals(1, transport.maxInFlight.get());
+    }
+
+    private void start() {
+        dispatcher = new MailDispatcher(transport, properties, meterRegistry);
+        dispatcher.start();
+    }
+
+    private MailMessage message(String to) {
+        return MailMessage.builder().to(to).subject("验证码").content("123456").build();
+    }
+
+    /**
+     * 进程内的邮件发送通道：记录收到的邮件，可模拟前若干次发送失败，也可阻塞发送直到放行
+     */
+    private static class InMemoryMailTransport implements MailTransport {
+
+        private final List<MailMessage> delivered = new CopyOnWriteArrayList<>();
+        private final AtomicInteger batches = new AtomicInteger();
+        private final AtomicInteger attempts = new AtomicInteger();
+        private final AtomicInteger failuresLeft = new AtomicInteger();
+        private volatile CountDownLatch latch = new CountDownLatch(0);
+        private final CountDownLatch entered = new CountDownLatch(1);
+        private volatile CountDownLatch gate = new CountDownLatch(0);
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger maxInFlight = new AtomicInteger();
+        private volatile long sendMillis;
+
+        void block() {
+            gate = new CountDownLatch(1);
+        }
+
+        void release() {
+            gate.countDown();
+        }
+
+        boolean awaitEntered() throws InterruptedException {
+            return entered.await(5, TimeUnit.SECONDS);
+        }
+
+        void expect(int count) {
+            latch = new CountDownLatch(count);
+        }
+
+        boolean await() throws InterruptedException {
+            return latch.await(5, TimeUnit.SECONDS);
+        }
+
+        @Override
+        public void send(List<MailMessage> messages) throws Exception {
+            attempts.incrementAndGet();
+            entered.countDown();
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                gate.await();
+                Thread.sleep(sendMillis);
+                if (failuresLeft.getAndDecrement() > 0) {
+                    throw new Exception("SMTP 连接失败");
+                }
+                batches.incrementAndGet();
+                delivered.addAll(messages);
+            } finally {
+                inFlight.decrementAndGet();
+            }
+            for (int i = 0; i < messages.size(); i++) {
+                latch.countDown();
+            }
+        }
+    }
+}
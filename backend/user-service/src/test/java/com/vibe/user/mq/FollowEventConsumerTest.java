@@ -0,0 +1,221 @@
+package com.vibe.user.mq;
+
+import com.vibe.common.core.utils.JsonUtils;
+import com.vibe.user.config.UserCacheProperties;
+import com.vibe.user.entity.UserRelation;
+import com.vibe.user.mapper.UserRelationMapper;
+import com.vibe.user.mapper.UserStatsMapper;
+import com.vibe.user.service.RedisService;
+import com.vibe.user.service.RedisService.FollowList;
+import com.vibe.user.service.UserInfoCacheService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * FollowEventConsumer 单元测试
+ * 用内存中的关注关系表模拟数据库，验证重复投递、批内合并和重放的幂等性
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("关注事件消费测试")
+class FollowEventConsumerTest {
+
+    private static final Long USER_A = 1000000000000000001L;
+    private static final Long USER_B = 1000000000000000002L;
+    private static final Long USER_C = 1000000000000000003L;
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 1, 1, 12, 0, 0);
+
+    @Mock
+    private UserRelationMapper userRelationMapper;
+
+    @Mock
+    private UserStatsMapper userStatsMapper;
+
+    @Mock
+    private RedisService redisService;
+
+    @Mock
+    private UserInfoCacheService userInfoCacheService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Spy
+    private UserCacheProperties userCacheProperties = new UserCacheProperties();
+
+    @InjectMocks
+    private FollowEventConsumer followEventConsumer;
+
+    /**
+     * 模拟的关注关系表：关注者ID:被关注者ID → 关系
+     */
+    private final Map<String, UserRelation> relations = new LinkedHashMap<>();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        lenient().doAnswer(invocation -> {
+            ((Consumer<TransactionStatus>) invocation.getArgument(0)).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        lenient().when(userRelationMapper.selectByPairs(anyCollection())).thenAnswer(invocation -> {
+            List<UserRelation> found = new ArrayList<>();
+            for (UserRelation pair : (Collection<UserRelation>) invocation.getArgument(0)) {
+                UserRelation relation = relations.get(pair.getFollowerId() + ":" + pair.getFollowingId());
+                if (relation != null) {
+                    found.add(relation);
+                }
+            }
+            return found;
+        });
+        lenient().when(userRelationMapper.insertBatch(anyCollection())).thenAnswer(invocation -> {
+            Collection<UserRelation> inserted = invocation.getArgument(0);
+            for (UserRelation relation : inserted) {
+                relations.put(relation.getFollowerId() + ":" + relation.getFollowingId(), relation);
+            }
+            return inserted.size();
+        });
+        lenient().when(userRelationMapper.deleteBatchIds(anyCollection())).thenAnswer(invocation -> {
+            Collection<?> ids = invocation.getArgument(0);
+            int before = relations.size();
+            relations.values().removeIf(relation -> ids.contains(relation.getId()));
+            return before - relations.size();
+        });
+    }
+
+    @Test
+    @DisplayName("重复投递 - 同一关注事件只写入一次")
+    void testOnMessages_DuplicateDelivery() {
+        // Given
+        String follow = follow(11L, USER_A, USER_B);
+
+        // When
+        followEventConsumer.onMessages(Arrays.asList(follow, follow));
+        followEventConsumer.onMessages(Arrays.asList(follow));
+
+        // Then
+        assertEquals(1, relations.size());
+        assertEquals(11L, relations.get(USER_A + ":" + USER_B).getId());
+        verify(userRelationMapper, times(1)).insertBatch(anyCollection());
+        verify(userStatsMapper, times(1)).incrFollowingCount(USER_A, 1L);
+        verify(userStatsMapper, times(1)).incrFollowerCount(USER_B, 1L);
+        verify(redisService, times(1)).addToFollowList(eq(FollowList.FOLLOWING), eq(USER_A), anyString(), anyInt());
+        verify(redisService, times(1)).addToFollowList(eq(FollowList.FOLLOWER), eq(USER_B), anyString(), anyInt());
+    }
+
+    @Test
+    @DisplayName("同一批次先关注后取消关注 - 不写入关系和统计")
+    void testOnMessages_FollowThenUnfollow() {
+        // When
+        followEventConsumer.onMessages(Arrays.asList(follow(11L, USER_A, USER_B), unfollow(USER_A, USER_B)));
+
+        // Then
+        assertTrue(relations.isEmpty());
+        verify(userRelationMapper, never()).insertBatch(anyCollection());
+        verify(userRelationMapper, never()).deleteBatchIds(anyCollection());
+        verifyNoInteractions(userStatsMapper, redisService, userInfoCacheService);
+    }
+
+    @Test
+    @DisplayName("同一批次取消关注后重新关注 - 保留原有关系")
+    void testOnMessages_UnfollowThenFollow() {
+        // Given
+        UserRelation existing = relation(10L, USER_A, USER_B);
+        relations.put(USER_A + ":" + USER_B, existing);
+
+        // When
+        followEventConsumer.onMessages(Arrays.asList(unfollow(USER_A, USER_B), follow(12L, USER_A, USER_B)));
+
+        // Then
+        assertSame(existing, relations.get(USER_A + ":" + USER_B));
+        verify(userRelationMapper, never()).insertBatch(anyCollection());
+        verify(userRelationMapper, never()).deleteBatchIds(anyCollection());
+        verifyNoInteractions(userStatsMapper);
+    }
+
+    @Test
+    @DisplayName("重放已写入的批次 - 不重复写入关系和统计")
+    void testOnMessages_ReplayAppliedBatch() {
+        // Given: A 已关注 C
+        relations.put(USER_A + ":" + USER_C, relation(10L, USER_A, USER_C));
+        List<String> batch = Arrays.asList(follow(11L, USER_A, USER_B), unfollow(USER_A, USER_C), follow(12L, USER_C, USER_A));
+        followEventConsumer.onMessages(batch);
+        assertEquals(2, relations.size());
+        verify(userStatsMapper).incrFollowingCount(USER_C, 1L);
+        verify(userStatsMapper).incrFollowerCount(USER_A, 1L);
+        verify(userStatsMapper).incrFollowerCount(USER_B, 1L);
+        verify(userStatsMapper).incrFollowerCount(USER_C, -1L);
+        // A 关注 B、取消关注 C，关注数净变化为 0
+        verify(userStatsMapper, never()).incrFollowingCount(eq(USER_A), anyLong());
+        clearInvocations(userRelationMapper, userStatsMapper, redisService, userInfoCacheService);
+
+        // When: 消费位点未提交，整批重新投递
+        followEventConsumer.onMessages(batch);
+
+        // Then
+        assertEquals(2, relations.size());
+        assertNotNull(relations.get(USER_A + ":" + USER_B));
+        assertNotNull(relations.get(USER_C + ":" + USER_A));
+        verify(userRelationMapper, never()).insertBatch(anyCollection());
+        verify(userRelationMapper, never()).deleteBatchIds(anyCollection());
+        verifyNoInteractions(userStatsMapper, redisService, userInfoCacheService);
+    }
+
+    @Test
+    @DisplayName("无效的事件 - 跳过并继续处理其他事件")
+    void testOnMessages_InvalidEvent() {
+        // When
+        followEventConsumer.onMessages(Arrays.asList("not json", "{\"type\":\"FOLLOW\"}", follow(11L, USER_A, USER_B)));
+
+        // Then
+        assertEquals(1, relations.size());
+        verify(userStatsMapper).incrFollowingCount(USER_A, 1L);
+    }
+
+    private static String follow(Long relationId, Long followerId, Long followingId) {
+        return JsonUtils.toJsonString(FollowEvent.builder()
+                .type(FollowEvent.Type.FOLLOW)
+                .relationId(relationId)
+                .followerId(followerId)
+                .followingId(followingId)
+                .createdAt(CREATED_AT)
+                .build());
+    }
+
+    private static String unfollow(Long followerId, Long followingId) {
+        return JsonUtils.toJsonString(FollowEvent.builder()
+                .type(FollowEvent.Type.UNFOLLOW)
+                .followerId(followerId)
+                .followingId(followingId)
+                .build());
+    }
+
+    private static UserRelation relation(Long id, Long followerId, Long followingId) {
+        return UserRelation.builder()
+                .id(id)
+                .followerId(followerId)
+                .followingId(followingId)
+                .createdAt(CREATED_AT)
+                .build();
+    }
+}
@@ -0,0 +1,202 @@
+package com.vibe.user.password;
+
+import com.vibe.common.core.domain.StatusCode;
+import com.vibe.common.core.exception.BusinessException;
+import com.vibe.user.config.PasswordHashConfig;
+import com.vibe.user.config.PasswordHashProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * PasswordHasher 单元测试
+ */
+@DisplayName("密码哈希计算器测试")
+class PasswordHasherTest {
+
+    private PasswordHashProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private PasswordHasher hasher;
+
+    @BeforeEach
+    void setUp() {
+        properties = new PasswordHashProperties();
+        properties.setBcryptStrength(4);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (hasher != null) {
+            hasher.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("编码后验证 - 带算法前缀")
+    void testEncodeAndMatches() {
+        // Given
+        hasher = new PasswordHasher(encoder(), properties, meterRegistry);
+
+        // When
+        String encoded = hasher.encode("123456");
+
+        // Then
+        assertTrue(encoded.startsWith("{bcrypt}"));
+        assertTrue(hasher.matches("123456", encoded));
+        assertFalse(hasher.matches("654321", encoded));
+    }
+
+    @Test
+    @DisplayName("旧格式密码 - 可验证并重新哈希")
+    void testUpgrade_LegacyPassword() throws InterruptedException {
+        // Given
+        hasher = new PasswordHasher(encoder(), properties, meterRegistry);
+        String legacy = new BCryptPasswordEncoder(4).encode("123456");
+        CountDownLatch done = new CountDownLatch(1);
+        AtomicReference<String> upgraded = new AtomicReference<>();
+
+        // When
+        assertTrue(hasher.matches("123456", legacy));
+        hasher.upgradeIfNeeded("123456", legacy, encoded -> {
+            upgraded.set(encoded);
+            done.countDown();
+        });
+
+        // Then
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertTrue(upgraded.get().startsWith("{bcrypt}"));
+        assertTrue(hasher.matches("123456", upgraded.get()));
+        assertEquals(1.0, meterRegistry.counter("user.password.upgraded").count());
+    }
+
+    @Test
+    @DisplayName("强度调高 - 已有密码重新哈希")
+    void testUpgrade_StrengthIncreased() {
+        // Given
+        String weak = new PasswordHashConfig().passwordEncoder(properties).encode("123456");
+        properties.setBcryptStrength(5);
+        PasswordEncoder stronger = encoder();
+
+        // Then
+        assertTrue(stronger.upgradeEncoding(weak));
+        assertFalse(stronger.upgradeEncoding(stronger.encode("123456")));
+    }
+
+    @Test
+    @DisplayName("队列已满 - 立即返回服务繁忙")
+    void testMatches_QueueFull() throws InterruptedException {
+        // Given（单个计算线程阻塞，队列容量为1）
+        properties.setThreads(1);
+        properties.setQueueCapacity(1);
+        BlockingEncoder encoder = new BlockingEncoder();
+        hasher = new PasswordHasher(encoder, properties, meterRegistry);
+        CompletableFuture.runAsync(() -> hasher.matches("a", "a"));
+        assertTrue(encoder.entered.await(5, TimeUnit.SECONDS));
+        CompletableFuture.runAsync(() -> hasher.matches("b", "b"));
+        waitForQueued(1);
+
+        // When & Then
+        BusinessException exception = assertThrows(BusinessException.class, () -> hasher.matches("c", "c"));
+        assertEquals(StatusCode.SERVICE_UNAVAILABLE, exception.getCode());
+        assertEquals(1.0, meterRegistry.counter("user.password.rejected").count());
+        encoder.release.countDown();
+    }
+
+    @Test
+    @DisplayName("等待超时 - 返回服务繁忙")
+    void testMatches_Timeout() throws InterruptedException {
+        // Given
+        properties.setThreads(1);
+        properties.setTimeout(50);
+        BlockingEncoder encoder = new BlockingEncoder();
+        hasher = new PasswordHasher(encoder, properties, meterRegistry);
+
+        // When & Then
+        BusinessException exception = assertThrows(BusinessException.class, () -> hasher.matches("a", "a"));
+        assertEquals(StatusCode.SERVICE_UNAVAILABLE, exception.getCode());
+        assertEquals(1.0, meterRegistry.counter("user.password.timeout").count());
+        encoder.release.countDown();
+    }
+
+    @Test
+    @DisplayName("有请求排队时 - 不执行重新哈希")
+    void testUpgrade_SkippedWhenBusy() throws InterruptedException {
+        // Given
+        properties.setThreads(1);
+        BlockingEncoder encoder = new BlockingEncoder();
+        encoder.upgrade = true;
+        hasher = new PasswordHasher(encoder, properties, meterRegistry);
+        CompletableFuture.runAsync(() -> hasher.matches("a", "a"));
+        assertTrue(encoder.entered.await(5, TimeUnit.SECONDS));
+        CompletableFuture.runAsync(() -> hasher.matches("b", "b"));
+        waitForQueued(1);
+
+        AtomicBoolean upgraded = new AtomicBoolean();
+
+        // When
+        hasher.upgradeIfNeeded("a", "a", encoded -> upgraded.set(true));
+        encoder.release.countDown();
+
+        // Then（单个计算线程按顺序执行，此后提交的验证完成时之前提交的任务都已执行）
+        assertTrue(hasher.matches("z", "z"));
+        assertFalse(upgraded.get());
+    }
+
+    private PasswordEncoder encoder() {
+        return new PasswordHashConfig().passwordEncoder(properties);
+    }
+
+    private void waitForQueued(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("user.password.queue.size").gauge().value() < expected) {
+            assertTrue(System.nanoTime() < deadline, "task was not queued");
+            Thread.sleep(5);
+        }
+    }
+
+    /**
+     * 阻塞在 matches 上的编码器，用于占满计算线程
+     */
+    private static class BlockingEncoder implements PasswordEncoder {
+
+        private final CountDownLatch entered = new CountDownLatch(1);
+
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        private volatile boolean upgrade;
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            return rawPassword.toString();
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            entered.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return rawPassword.toString().equals(encodedPassword);
+        }
+
+        @Override
+        public boolean upgradeEncoding(String encodedPassword) {
+            return upgrade;
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.vibe.user.service;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 登录账号查询基准测试（需要 MySQL）
+ * <p>
+ * 在与 user 表结构相同的 user_login_bench 表中生成指定数量的用户（默认 1000 万），
+ * 对比改造前的 username = ? OR email = ? OR phone = ? 与 AccountResolver 的单列等值查询：
+ * 先输出两种查询的 EXPLAIN，再分别按随机的用户名、邮箱、手机号查询并统计耗时分位数。
+ * <p>
+ * 运行方式：mvn -pl user-service test-compile 后在 IDE 中运行 main 方法，通过系统属性指定连接：
+ * -Dbench.url=jdbc:mysql://localhost:3306/vibe_user -Dbench.user=root -Dbench.password=xxx
+ * -Dbench.rows=10000000 -Dbench.queries=20000
+ * 表中已有足够数据时跳过生成。
+ */
+public class AccountLookupBenchmark {
+
+    private static final String TABLE = "user_login_bench";
+
+    private static final int INSERT_BATCH = 5000;
+
+    private static final String OR_QUERY = "SELECT * FROM " + TABLE
+            + " WHERE (username = ? OR email = ? OR phone = ?) AND deleted = 0";
+
+    private static final String USERNAME_QUERY = "SELECT * FROM " + TABLE + " WHERE username = ? AND deleted = 0";
+
+    private static final String EMAIL_QUERY = "SELECT * FROM " + TABLE + " WHERE email = ? AND deleted = 0";
+
+    private static final String PHONE_QUERY = "SELECT * FROM " + TABLE + " WHERE phone = ? AND deleted = 0";
+
+    public static void main(String[] args) throws SQLException {
+        String url = System.getProperty("bench.url", "jdbc:mysql://localhost:3306/vibe_user");
+        String user = System.getProperty("bench.user", "root");
+        String password = System.getProperty("bench.password", "");
+        long rows = Long.getLong("bench.rows", 10_000_000L);
+        int queries = Integer.getInteger("bench.queries", 20_000);
+
+        try (Connection connection = DriverManager.getConnection(
+                url + (url.contains("?") ? "&" : "?") + "rewriteBatchedStatements=true", user, password)) {
+            seed(connection, rows);
+
+            explain(connection, OR_QUERY, "user5", "user5", "user5");
+            explain(connection, OR_QUERY, "user5@example.com", "user5@example.com", "user5@example.com");
+            explain(connection, USERNAME_QUERY, "user5");
+            explain(connection, EMAIL_QUERY, "user5@example.com");
+            explain(connection, PHONE_QUERY, phone(5));
+
+            System.out.println();
+            for (String kind : Arrays.asList("username", "email", "phone")) {
+                run(connection, "OR     " + kind, OR_QUERY, kind, rows, queries, true);
+                run(connection, "single " + kind, singleQuery(kind), kind, rows, queries, false);
+            }
+        }
+    }
+
+    /**
+     * 生成测试数据：用户 n 的用户名为 user{n}，邮箱为 user{n}@example.com，手机号为 13000000000 + n
+     */
+    private static void seed(Connection connection, long rows) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS " + TABLE + " LIKE user");
+            try (ResultSet rs = statement.executeQuery("SELECT COUNT(*) FROM " + TABLE)) {
+                rs.next();
+                if (rs.getLong(1) >= rows) {
+                    return;
+                }
+            }
+            statement.execute("TRUNCATE TABLE " + TABLE);
+        }
+
+        System.out.printf("seeding %d users into %s ...%n", rows, TABLE);
+        long start = System.nanoTime();
+        connection.setAutoCommit(false);
+        String sql = "INSERT INTO " + TABLE + " (id, username, password, nickname, email, phone) VALUES (?, ?, ?, ?, ?, ?)";
+        try (PreparedStatement insert = connection.prepareStatement(sql)) {
+            for (long n = 1; n <= rows; n++) {
+                insert.setLong(1, n);
+                insert.setString(2, "user" + n);
+                insert.setString(3, "{bcrypt}benchmark");
+                insert.setString(4, "用户" + n);
+                insert.setString(5, "user" + n + "@example.com");
+                insert.setString(6, phone(n));
+                insert.addBatch();
+                if (n % INSERT_BATCH == 0 || n == rows) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+                if (n % 1_000_000 == 0) {
+                    System.out.printf("  %d rows, %ds%n", n, (System.nanoTime() - start) / 1_000_000_000L);
+                }
+            }
+        } finally {
+            connection.setAutoCommit(true);
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ANALYZE TABLE " + TABLE);
+        }
+    }
+
+    private static void explain(Connection connection, String sql, String... params) throws SQLException {
+        System.out.println();
+        System.out.println("EXPLAIN " + sql + "  " + Arrays.toString(params));
+        try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+            for (int i = 0; i < params.length; i++) {
+                statement.setString(i + 1, params[i]);
+            }
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    StringBuilder line = new StringBuilder("  ");
+                    for (String column : Arrays.asList("type", "possible_keys", "key", "rows", "filtered", "Extra")) {
+                        line.append(column).append('=').append(rs.getString(column)).append("  ");
+                    }
+                    System.out.println(line);
+                }
+            }
+        }
+    }
+
+    private static void run(Connection connection, String name, String sql, String kind, long rows, int queries,
+                            boolean orQuery) throws SQLException {
+        long[] latencies = new long[queries];
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            // 预热
+            for (int i = 0; i < Math.min(queries, 1000); i++) {
+                query(statement, account(kind, rows), orQuery);
+            }
+            for (int i = 0; i < queries; i++) {
+                String account = account(kind, rows);
+                long start = System.nanoTime();
+                query(statement, account, orQuery);
+                latencies[i] = System.nanoTime() - start;
+            }
+        }
+        Arrays.sort(latencies);
+        System.out.printf("%-16s p50=%7.1fus  p99=%7.1fus  p999=%8.1fus%n", name,
+                latencies[queries / 2] / 1000.0,
+                latencies[(int) (queries * 0.99)] / 1000.0,
+                latencies[(int) (queries * 0.999)] / 1000.0);
+    }
+
+    private static void query(PreparedStatement statement, String account, boolean orQuery) throws SQLException {
+        statement.setString(1, account);
+        if (orQuery) {
+            statement.setString(2, account);
+            statement.setString(3, account);
+        }
+        try (ResultSet rs = statement.executeQuery()) {
+            if (!rs.next()) {
+                throw new IllegalStateException("account not found: " + account);
+            }
+        }
+    }
+
+    private static String singleQuery(String kind) {
+        switch (kind) {
+            case "email":
+                return EMAIL_QUERY;
+            case "phone":
+                return PHONE_QUERY;
+            default:
+                return USERNAME_QUERY;
+        }
+    }
+
+    private static String account(String kind, long rows) {
+        long n = ThreadLocalRandom.current().nextLong(1, rows + 1);
+        switch (kind) {
+            case "email":
+                return "user" + n + "@example.com";
+            case "phone":
+                return phone(n);
+            default:
+                return "user" + n;
+        }
+    }
+
+    private static String phone(long n) {
+        return String.valueOf(13_000_000_000L + n);
+    }
+}
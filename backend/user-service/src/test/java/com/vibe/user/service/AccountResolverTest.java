@@ -0,0 +1,192 @@
+package com.vibe.user.service;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.vibe.user.config.UserCacheProperties;
+import com.vibe.user.entity.User;
+import com.vibe.user.mapper.UserMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * AccountResolver 单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("登录账号解析测试")
+class AccountResolverTest {
+
+    @Mock
+    private UserMapper userMapper;
+
+    private UserCacheProperties properties;
+    private AccountResolver resolver;
+    private User testUser;
+
+    /**
+     * 初始化实体元数据，Lambda 条件构造器才能解析出列名
+     */
+    @BeforeAll
+    static void initTableInfo() {
+        TableInfoHelper.initTableInfo(new MapperBuilderAssistant(new MybatisConfiguration(), ""), User.class);
+    }
+
+    @BeforeEach
+    void setUp() {
+        properties = new UserCacheProperties();
+        resolver = new AccountResolver(userMapper, properties, new SimpleMeterRegistry());
+
+        testUser = new User();
+        testUser.setId(1000000000000000001L);
+        testUser.setUsername("testuser");
+        testUser.setEmail("test@example.com");
+        testUser.setPhone("13800138000");
+        testUser.setDeleted(0);
+    }
+
+    @Test
+    @DisplayName("邮箱 - 只按邮箱查询")
+    void testResolve_Email() {
+        // Given
+        when(userMapper.selectOne(any())).thenReturn(testUser);
+
+        // When
+        User user = resolver.resolve("test@example.com");
+
+        // Then
+        assertSame(testUser, user);
+        assertEquals("email", queriedColumn());
+    }
+
+    @Test
+    @DisplayName("用户名 - 只按用户名查询")
+    void testResolve_Username() {
+        // Given
+        when(userMapper.selectOne(any())).thenReturn(testUser);
+
+        // When
+        User user = resolver.resolve("testuser");
+
+        // Then
+        assertSame(testUser, user);
+        assertEquals("username", queriedColumn());
+    }
+
+    @Test
+    @DisplayName("手机号 - 按手机号查询")
+    void testResolve_Phone() {
+        // Given
+        when(userMapper.selectOne(any())).thenReturn(testUser);
+
+        // When
+        User user = resolver.resolve("13800138000");
+
+        // Then
+        assertSame(testUser, user);
+        assertEquals("phone", queriedColumn());
+    }
+
+    @Test
+    @DisplayName("形如手机号的用户名 - 手机号未找到时按用户名查询")
+    void testResolve_NumericUsername() {
+        // Given
+        testUser.setUsername("13900139000");
+        when(userMapper.selectOne(any())).thenReturn(null, testUser);
+
+        // When
+        User user = resolver.resolve("13900139000");
+
+        // Then
+        assertSame(testUser, user);
+        verify(userMapper, times(2)).selectOne(any());
+    }
+
+    @Test
+    @DisplayName("缓存命中 - 按主键查询")
+    void testResolve_CacheHit() {
+        // Given
+        when(userMapper.selectOne(any())).thenReturn(testUser);
+        when(userMapper.selectById(testUser.getId())).thenReturn(testUser);
+        resolver.resolve("TestUser");
+
+        // When
+        User user = resolver.resolve("testuser");
+
+        // Then
+        assertSame(testUser, user);
+        verify(userMapper, times(1)).selectOne(any());
+        verify(userMapper, times(1)).selectById(testUser.getId());
+    }
+
+    @Test
+    @DisplayName("缓存的账号已不属于该用户 - 重新查询")
+    void testResolve_StaleCache() {
+        // Given
+        when(userMapper.selectOne(any())).thenReturn(testUser, null);
+        resolver.resolve("testuser");
+        User renamed = new User();
+        renamed.setId(testUser.getId());
+        renamed.setUsername("renamed");
+        renamed.setDeleted(0);
+        when(userMapper.selectById(testUser.getId())).thenReturn(renamed);
+
+        // When
+        User user = resolver.resolve("testuser");
+
+        // Then
+        assertNull(user);
+        verify(userMapper, times(2)).selectOne(any());
+    }
+
+    @Test
+    @DisplayName("清除缓存 - 下次重新按索引查询")
+    void testEvict() {
+        // Given
+        when(userMapper.selectOne(any())).thenReturn(testUser);
+        resolver.resolve("testuser");
+
+        // When
+        resolver.evict(testUser);
+        resolver.resolve("testuser");
+
+        // Then
+        verify(userMapper, times(2)).selectOne(any());
+        verify(userMapper, never()).selectById(any());
+    }
+
+    @Test
+    @DisplayName("不存在的账号 - 不缓存")
+    void testResolve_NotFound() {
+        // Given
+        when(userMapper.selectOne(any())).thenReturn(null);
+
+        // When
+        assertNull(resolver.resolve("nobody"));
+        assertNull(resolver.resolve("nobody"));
+
+        // Then
+        verify(userMapper, times(2)).selectOne(any());
+        verify(userMapper, never()).selectById(any());
+    }
+
+    @SuppressWarnings("unchecked")
+    private String queriedColumn() {
+        ArgumentCaptor<Wrapper<User>> captor = ArgumentCaptor.forClass(Wrapper.class);
+        verify(userMapper).selectOne(captor.capture());
+        String sql = captor.getValue().getSqlSegment();
+        assertFalse(sql.contains("OR"), sql);
+        return sql.substring(sql.indexOf('(') + 1, sql.indexOf(' ', sql.indexOf('(')));
+    }
+}
@@ -0,0 +1,280 @@
+package com.vibe.user.service;
+
+import com.vibe.common.core.domain.StatusCode;
+import com.vibe.common.core.exception.BusinessException;
+import com.vibe.common.core.utils.JsonUtils;
+import com.vibe.common.core.utils.JwtKeyRing;
+import com.vibe.common.core.utils.JwtUtils;
+import com.vibe.common.core.utils.JwtUtils.ParsedToken;
+import com.vibe.common.core.utils.TokenRevocation;
+import com.vibe.user.config.JwtProperties;
+import com.vibe.user.dto.LoginResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.ZSetOperations;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * TokenService 单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Token签发与吊销测试")
+class TokenServiceTest {
+
+    private static final Long USER_ID = 1000000000000000001L;
+    private static final String SUCCESSOR_KEY_PREFIX = "auth:refresh:successor:";
+    private static final String SECRET = "k1-secret-k1-secret-k1-secret-k1-secret-k1-secret-k1-secret-k1-secret";
+
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Mock
+    private ZSetOperations<String, String> zSetOperations;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private TokenService tokenService;
+
+    private JwtKeyRing original;
+
+    @BeforeEach
+    void setUp() {
+        original = JwtUtils.getKeyRing();
+        JwtUtils.setKeyRing(JwtKeyRing.of("k1", null, Collections.singletonMap("k1", SECRET)));
+        lenient().when(stringRedisTemplate.opsForZSet()).thenReturn(zSetOperations);
+        lenient().when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        tokenService = new TokenService(stringRedisTemplate, new JwtProperties());
+    }
+
+    @AfterEach
+    void tearDown() {
+        JwtUtils.setKeyRing(original);
+    }
+
+    @Test
+    @DisplayName("签发 - 访问Token和刷新Token类型正确")
+    void testIssue() {
+        // When
+        LoginResponse response = tokenService.issue(USER_ID, "testuser");
+
+        // Then
+        ParsedToken access = JwtUtils.parseToken(response.getToken());
+        ParsedToken refresh = JwtUtils.parseToken(response.getRefreshToken());
+        assertTrue(access.isValid() && access.isAccessToken());
+        assertTrue(refresh.isValid() && refresh.isRefreshToken());
+        assertNotEquals(access.getTokenId(), refresh.getTokenId());
+        assertEquals(1800L, response.getExpiresIn());
+    }
+
+    @Test
+    @DisplayName("使用刷新Token - 首次使用换发新Token")
+    void testRotate_Success() {
+        // Given
+        String refreshToken = JwtUtils.generateRefreshToken(USER_ID, "testuser", 60000L);
+        String jti = JwtUtils.parseToken(refreshToken).getTokenId();
+        when(valueOperations.setIfAbsent(eq(SUCCESSOR_KEY_PREFIX + jti), anyString(), eq(10000L), eq(TimeUnit.MILLISECONDS)))
+                .thenReturn(true);
+        when(zSetOperations.addIfAbsent(anyString(), anyString(), anyDouble())).thenReturn(true);
+
+        // When
+        LoginResponse response = tokenService.rotate(refreshToken, userId -> "testuser");
+
+        // Then
+        ParsedToken refresh = JwtUtils.parseToken(response.getRefreshToken());
+        assertTrue(refresh.isValid() && refresh.isRefreshToken());
+        assertNotEquals(jti, refresh.getTokenId());
+        verify(zSetOperations).addIfAbsent(eq("auth:revoked:refresh"), eq(jti), anyDouble());
+        verify(stringRedisTemplate, never()).convertAndSend(anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("使用刷新Token - 宽限期内重复使用返回同一对新Token")
+    void testRotate_ConcurrentWithinGracePeriod() {
+        // Given: 另一个标签页刚用同一刷新Token换发了新Token
+        String refreshToken = JwtUtils.generateRefreshToken(USER_ID, "testuser", 60000L);
+        String jti = JwtUtils.parseToken(refreshToken).getTokenId();
+        LoginResponse first = LoginResponse.builder().token("access").refreshToken("refresh").expiresIn(1800L).build();
+        when(valueOperations.setIfAbsent(anyString(), anyString(), anyLong(), any())).thenReturn(false);
+        when(valueOperations.get(SUCCESSOR_KEY_PREFIX + jti)).thenReturn(JsonUtils.toJsonString(first));
+
+        // When
+        LoginResponse response = tokenService.rotate(refreshToken, userId -> "testuser");
+
+        // Then
+        assertEquals("access", response.getToken());
+        assertEquals("refresh", response.getRefreshToken());
+        verify(zSetOperations, never()).addIfAbsent(anyString(), anyString(), anyDouble());
+        verify(zSetOperations, never()).add(eq(TokenRevocation.USER_KEY), anyString(), anyDouble());
+        verify(stringRedisTemplate, never()).convertAndSend(anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("使用刷新Token - 宽限期之后重复使用时吊销用户全部Token")
+    void testRotate_ReusedAfterGracePeriod() {
+        // Given: 换发结果已过期，但刷新Token已记录为使用过
+        String refreshToken = JwtUtils.generateRefreshToken(USER_ID, "testuser", 60000L);
+        String jti = JwtUtils.parseToken(refreshToken).getTokenId();
+        when(valueOperations.setIfAbsent(anyString(), anyString(), anyLong(), any())).thenReturn(true);
+        when(zSetOperations.addIfAbsent(anyString(), anyString(), anyDouble())).thenReturn(false);
+
+        // When & Then
+        BusinessException exception = assertThrows(BusinessException.class,
+            () -> tokenService.rotate(refreshToken, userId -> "testuser"));
+
+        assertEquals(StatusCode.UNAUTHORIZED, exception.getCode());
+        verify(stringRedisTemplate).delete(SUCCESSOR_KEY_PREFIX + jti);
+        verify(zSetOperations).add(eq(TokenRevocation.USER_KEY), eq(USER_ID.toString()), anyDouble());
+        verify(stringRedisTemplate).convertAndSend(eq(TokenRevocation.CHANNEL), startsWith("u:" + USER_ID + ":"));
+    }
+
+    @Test
+    @DisplayName("使用刷新Token - 退出登录后再使用只要求重新登录，不吊销用户全部Token")
+    void testRotate_AfterLogout() {
+        // Given: 其他标签页已用同一刷新Token退出登录
+        String refreshToken = JwtUtils.generateRefreshToken(USER_ID, "testuser", 60000L);
+        String jti = JwtUtils.parseToken(refreshToken).getTokenId();
+        when(valueOperations.setIfAbsent(anyString(), anyString(), anyLong(), any())).thenReturn(true);
+        when(zSetOperations.addIfAbsent(anyString(), anyString(), anyDouble())).thenReturn(false);
+        when(zSetOperations.score("auth:revoked:refresh", "logout:" + jti)).thenReturn(1.0);
+
+        // When & Then
+        BusinessException exception = assertThrows(BusinessException.class,
+            () -> tokenService.rotate(refreshToken, userId -> "testuser"));
+
+        assertEquals(StatusCode.UNAUTHORIZED, exception.getCode());
+        verify(stringRedisTemplate).delete(SUCCESSOR_KEY_PREFIX + jti);
+        verify(zSetOperations, never()).add(eq(TokenRevocation.USER_KEY), anyString(), anyDouble());
+        verify(stringRedisTemplate, never()).convertAndSend(anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("使用刷新Token - 换发结果恰好过期时吊销用户全部Token")
+    void testRotate_SuccessorExpired() {
+        // Given
+        String refreshToken = JwtUtils.generateRefreshToken(USER_ID, "testuser", 60000L);
+        when(valueOperations.setIfAbsent(anyString(), anyString(), anyLong(), any())).thenReturn(false);
+        when(valueOperations.get(anyString())).thenReturn(null);
+
+        // When & Then
+        assertThrows(BusinessException.class, () -> tokenService.rotate(refreshToken, userId -> "testuser"));
+        verify(zSetOperations).add(eq(TokenRevocation.USER_KEY), eq(USER_ID.toString()), anyDouble());
+    }
+
+    @Test
+    @DisplayName("使用刷新Token - 访问Token不能用于刷新")
+    void testRotate_AccessToken() {
+        // Given
+        String accessToken = JwtUtils.generateAccessToken(USER_ID, "testuser", 60000L);
+
+        // When & Then
+        assertThrows(BusinessException.class, () -> tokenService.rotate(accessToken, userId -> "testuser"));
+        verifyNoInteractions(valueOperations);
+        verify(zSetOperations, never()).addIfAbsent(anyString(), anyString(), anyDouble());
+    }
+
+    @Test
+    @DisplayName("使用刷新Token - 修改密码前签发的刷新Token失效")
+    void testRotate_UserRevoked() {
+        // Given
+        String refreshToken = JwtUtils.generateRefreshToken(USER_ID, "testuser", 60000L);
+        when(zSetOperations.score(TokenRevocation.USER_KEY, USER_ID.toString()))
+                .thenReturn((double) (System.currentTimeMillis() + 1000));
+
+        // When & Then
+        assertThrows(BusinessException.class, () -> tokenService.rotate(refreshToken, userId -> "testuser"));
+        verifyNoInteractions(valueOperations);
+        verify(zSetOperations, never()).addIfAbsent(anyString(), anyString(), anyDouble());
+    }
+
+    @Test
+    @DisplayName("使用刷新Token - 用户不可用时不标记为已使用")
+    void testRotate_UserUnavailable() {
+        // Given
+        String refreshToken = JwtUtils.generateRefreshToken(USER_ID, "testuser", 60000L);
+
+        // When & Then
+        assertThrows(BusinessException.class, () -> tokenService.rotate(refreshToken, userId -> {
+            throw new BusinessException(StatusCode.FORBIDDEN, "账号已被禁用");
+        }));
+        verifyNoInteractions(valueOperations);
+        verify(zSetOperations, never()).addIfAbsent(anyString(), anyString(), anyDouble());
+    }
+
+    @Test
+    @DisplayName("吊销访问Token - 写入吊销列表并发布通知")
+    void testRevoke_AccessToken() {
+        // Given
+        ParsedToken token = JwtUtils.parseToken(JwtUtils.generateAccessToken(USER_ID, "testuser", 60000L));
+
+        // When
+        tokenService.revoke(token);
+
+        // Then
+        verify(zSetOperations).add(TokenRevocation.ACCESS_KEY, token.getTokenId(), token.getExpiration());
+        verify(stringRedisTemplate).convertAndSend(TokenRevocation.CHANNEL,
+                TokenRevocation.tokenMessage(token.getTokenId(), token.getExpiration()));
+    }
+
+    @Test
+    @DisplayName("吊销刷新Token - 先写退出登录标记再写 jti，不发布通知")
+    void testRevoke_RefreshToken() {
+        // Given
+        ParsedToken token = JwtUtils.parseToken(JwtUtils.generateRefreshToken(USER_ID, "testuser", 60000L));
+
+        // When
+        tokenService.revoke(token);
+
+        // Then
+        InOrder inOrder = inOrder(zSetOperations);
+        inOrder.verify(zSetOperations).add("auth:revoked:refresh", "logout:" + token.getTokenId(), token.getExpiration());
+        inOrder.verify(zSetOperations).add("auth:revoked:refresh", token.getTokenId(), token.getExpiration());
+        verify(stringRedisTemplate, never()).convertAndSend(anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("吊销全部Token - 同一秒内稍早签发的Token也失效")
+    void testRevokeAll_SameSecond() {
+        // Given
+        ParsedToken token = JwtUtils.parseToken(JwtUtils.generateAccessToken(USER_ID, "testuser", 60000L));
+
+        // When
+        tokenService.revokeAll(USER_ID);
+
+        // Then
+        ArgumentCaptor<Double> revokedAt = ArgumentCaptor.forClass(Double.class);
+        verify(zSetOperations).add(eq(TokenRevocation.USER_KEY), eq(USER_ID.toString()), revokedAt.capture());
+        verify(stringRedisTemplate).convertAndSend(TokenRevocation.CHANNEL,
+                TokenRevocation.userMessage(USER_ID, revokedAt.getValue().longValue()));
+        when(zSetOperations.score(TokenRevocation.USER_KEY, USER_ID.toString())).thenReturn(revokedAt.getValue());
+        assertTrue(tokenService.isRevoked(token));
+    }
+
+    @Test
+    @DisplayName("检查吊销 - 吊销时间之后签发的Token有效")
+    void testIsRevoked_IssuedAfterRevocation() {
+        // Given
+        ParsedToken token = JwtUtils.parseToken(JwtUtils.generateAccessToken(USER_ID, "testuser", 60000L));
+        when(zSetOperations.score(TokenRevocation.USER_KEY, USER_ID.toString()))
+                .thenReturn((double) (token.getIssuedAt() - 1000));
+        when(zSetOperations.score(TokenRevocation.ACCESS_KEY, token.getTokenId())).thenReturn(null);
+
+        // When & Then
+        assertFalse(tokenService.isRevoked(token));
+    }
+}
@@ -2,24 +2,60 @@ package com.vibe.user.service.impl;
 
 import com.vibe.common.core.domain.StatusCode;
 import com.vibe.common.core.exception.BusinessException;
-import com.vibe.common.core.utils.SnowflakeIdGenerator;
+import com.vibe.common.core.utils.IdGenerator;
+import com.vibe.common.core.utils.JwtKeyRing;
+import com.vibe.common.core.utils.JwtUtils;
+import com.vibe.user.config.FollowProperties;
+import com.vibe.user.config.PasswordHashConfig;
+import com.vibe.user.config.PasswordHashProperties;
+import com.vibe.user.config.UserCacheProperties;
 import com.vibe.user.dto.*;
 import com.vibe.user.entity.User;
 import com.vibe.user.entity.UserRelation;
+import com.vibe.user.entity.UserStats;
+import com.vibe.user.mail.MailDispatcher;
+import com.vibe.user.mail.MailMessage;
 import com.vibe.user.mapper.UserMapper;
 import com.vibe.user.mapper.UserRelationMapper;
+import com.vibe.user.mapper.UserStatsMapper;
+import com.vibe.user.mq.FollowEvent;
+import com.vibe.user.mq.FollowEventProducer;
+import com.vibe.user.password.PasswordHasher;
+import com.vibe.user.service.AccountResolver;
 import com.vibe.user.service.RedisService;
+import com.vibe.user.service.TokenService;
+import com.vibe.user.service.UserIdBloomFilter;
+import com.vibe.user.service.UserInfoCacheService;
+import com.vibe.user.service.UserService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -32,33 +68,72 @@ import static org.mockito.Mockito.*;
 @DisplayName("用户服务测试")
 class UserServiceImplTest {
 
+    private static final String JWT_SECRET = "k1-secret-k1-secret-k1-secret-k1-secret-k1-secret-k1-secret-k1-secret";
+
     @Mock
     private UserMapper userMapper;
 
     @Mock
     private UserRelationMapper userRelationMapper;
 
+    @Mock
+    private UserStatsMapper userStatsMapper;
+
     @Mock
     private RedisService redisService;
 
     @Mock
-    private SnowflakeIdGenerator idGenerator;
+    private UserInfoCacheService userInfoCacheService;
+
+    @Mock
+    private UserIdBloomFilter userIdBloomFilter;
+
+    @Mock
+    private AccountResolver accountResolver;
+
+    @Mock
+    private TokenService tokenService;
+
+    @Mock
+    private IdGenerator idGenerator;
+
+    @Mock
+    private FollowEventProducer followEventProducer;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private MailDispatcher mailDispatcher;
+
+    @Spy
+    private UserCacheProperties userCacheProperties = new UserCacheProperties();
+
+    @Spy
+    private FollowProperties followProperties = new FollowProperties();
+
+    @Spy
+    private PasswordHasher passwordHasher = new PasswordHasher(
+            new PasswordHashConfig().passwordEncoder(new PasswordHashProperties()),
+            new PasswordHashProperties(), new SimpleMeterRegistry());
 
     @InjectMocks
     private UserServiceImpl userService;
 
-    private BCryptPasswordEncoder passwordEncoder;
     private User testUser;
 
+    private JwtKeyRing originalKeyRing;
+
     @BeforeEach
     void setUp() {
-        passwordEncoder = new BCryptPasswordEncoder();
-        
+        originalKeyRing = JwtUtils.getKeyRing();
+        JwtUtils.setKeyRing(JwtKeyRing.of("k1", null, Collections.singletonMap("k1", JWT_SECRET)));
+
         // 准备测试数据
         testUser = new User();
         testUser.setId(1000000000000000001L);
         testUser.setUsername("testuser");
-        testUser.setPassword(passwordEncoder.encode("123456"));
+        testUser.setPassword(passwordHasher.encode("123456"));
         testUser.setNickname("测试用户");
         testUser.setEmail("test@example.com");
         testUser.setPhone("13800138000");
@@ -69,6 +144,12 @@ class UserServiceImplTest {
         testUser.setUpdatedAt(LocalDateTime.now());
     }
 
+    @AfterEach
+    void tearDown() {
+        passwordHasher.stop();
+        JwtUtils.setKeyRing(originalKeyRing);
+    }
+
     @Test
     @DisplayName("用户登录 - 成功")
     void testLogin_Success() {
@@ -77,22 +158,23 @@ class UserServiceImplTest {
         request.setAccount("testuser");
         request.setPassword("123456");
 
-        when(userMapper.selectOne(any())).thenReturn(testUser);
-        when(userRelationMapper.countFollowing(anyLong())).thenReturn(10L);
-        when(userRelationMapper.countFollower(anyLong())).thenReturn(5L);
+        when(accountResolver.resolve(anyString())).thenReturn(testUser);
+        when(tokenService.issue(anyLong(), anyString())).thenReturn(tokens());
+        when(userStatsMapper.selectById(anyLong())).thenReturn(stats(10L, 5L));
 
         // When
         LoginResponse response = userService.login(request);
 
         // Then
         assertNotNull(response);
-        assertNotNull(response.getToken());
+        assertEquals("access", response.getToken());
+        assertEquals("refresh", response.getRefreshToken());
         assertNotNull(response.getUserInfo());
         assertEquals("testuser", response.getUserInfo().getUsername());
         assertEquals("测试用户", response.getUserInfo().getNickname());
         
-        verify(userMapper, times(1)).selectOne(any());
-        verify(redisService, times(1)).setUserInfo(anyLong(), any());
+        verify(accountResolver, times(1)).resolve("testuser");
+        verify(userInfoCacheService, times(1)).put(anyLong(), any());
     }
 
     @Test
@@ -103,7 +185,7 @@ class UserServiceImplTest {
         request.setAccount("nonexistent");
         request.setPassword("123456");
 
-        when(userMapper.selectOne(any())).thenReturn(null);
+        when(accountResolver.resolve(anyString())).thenReturn(null);
 
         // When & Then
         BusinessException exception = assertThrows(BusinessException.class, 
@@ -121,7 +203,7 @@ class UserServiceImplTest {
         request.setAccount("testuser");
         request.setPassword("wrongpassword");
 
-        when(userMapper.selectOne(any())).thenReturn(testUser);
+        when(accountResolver.resolve(anyString())).thenReturn(testUser);
 
         // When & Then
         BusinessException exception = assertThrows(BusinessException.class, 
@@ -131,6 +213,68 @@ class UserServiceImplTest {
         assertEquals("用户名或密码错误", exception.getMessage());
     }
 
+    @Test
+    @DisplayName("用户登录 - 旧格式密码登录后重新哈希")
+    void testLogin_UpgradeLegacyPassword() {
+        // Given（早期注册用户的密码为不带算法前缀的 BCrypt 哈希）
+        String legacyPassword = new BCryptPasswordEncoder().encode("123456");
+        testUser.setPassword(legacyPassword);
+        LoginRequest request = new LoginRequest();
+        request.setAccount("testuser");
+        request.setPassword("123456");
+
+        when(accountResolver.resolve(anyString())).thenReturn(testUser);
+        when(tokenService.issue(anyLong(), anyString())).thenReturn(tokens());
+        when(userStatsMapper.selectById(anyLong())).thenReturn(stats(10L, 5L));
+
+        // When
+        LoginResponse response = userService.login(request);
+
+        // Then
+        assertNotNull(response.getToken());
+        verify(passwordHasher).upgradeIfNeeded(eq("123456"), eq(legacyPassword), any());
+        verify(userMapper, timeout(5000)).update(isNull(), any());
+    }
+
+    @Test
+    @DisplayName("用户登录 - 当前格式密码不重新哈希")
+    void testLogin_CurrentPasswordNotUpgraded() {
+        // Given
+        LoginRequest request = new LoginRequest();
+        request.setAccount("testuser");
+        request.setPassword("123456");
+
+        when(accountResolver.resolve(anyString())).thenReturn(testUser);
+        when(tokenService.issue(anyLong(), anyString())).thenReturn(tokens());
+        when(userStatsMapper.selectById(anyLong())).thenReturn(stats(10L, 5L));
+
+        // When
+        userService.login(request);
+
+        // Then
+        verify(userMapper, never()).update(any(), any());
+    }
+
+    @Test
+    @DisplayName("用户登录 - 密码计算繁忙")
+    void testLogin_HasherBusy() {
+        // Given
+        LoginRequest request = new LoginRequest();
+        request.setAccount("testuser");
+        request.setPassword("123456");
+
+        when(accountResolver.resolve(anyString())).thenReturn(testUser);
+        doThrow(new BusinessException(StatusCode.SERVICE_UNAVAILABLE, "服务繁忙，请稍后重试"))
+                .when(passwordHasher).matches(anyString(), anyString());
+
+        // When & Then
+        BusinessException exception = assertThrows(BusinessException.class,
+            () -> userService.login(request));
+
+        assertEquals(StatusCode.SERVICE_UNAVAILABLE, exception.getCode());
+        verify(userInfoCacheService, never()).put(anyLong(), any());
+    }
+
     @Test
     @DisplayName("用户登录 - 账号已被禁用")
     void testLogin_UserDisabled() {
@@ -140,7 +284,7 @@ class UserServiceImplTest {
         request.setPassword("123456");
 
         testUser.setStatus(0); // 禁用状态
-        when(userMapper.selectOne(any())).thenReturn(testUser);
+        when(accountResolver.resolve(anyString())).thenReturn(testUser);
 
         // When & Then
         BusinessException exception = assertThrows(BusinessException.class, 
@@ -150,6 +294,56 @@ class UserServiceImplTest {
         assertEquals("账号已被禁用", exception.getMessage());
     }
 
+    @Test
+    @DisplayName("刷新Token - 成功")
+    void testRefreshToken_Success() {
+        // Given
+        String refreshToken = JwtUtils.generateRefreshToken(testUser.getId(), "testuser", 60000L);
+        rotateWithUserLoader(refreshToken);
+        when(userMapper.selectById(testUser.getId())).thenReturn(testUser);
+
+        // When
+        LoginResponse response = userService.refreshToken(refreshToken);
+
+        // Then
+        assertEquals("access", response.getToken());
+        assertEquals("refresh", response.getRefreshToken());
+        assertNull(response.getUserInfo());
+    }
+
+    @Test
+    @DisplayName("刷新Token - 账号已被禁用")
+    void testRefreshToken_UserDisabled() {
+        // Given
+        String refreshToken = JwtUtils.generateRefreshToken(testUser.getId(), "testuser", 60000L);
+        rotateWithUserLoader(refreshToken);
+        testUser.setStatus(0);
+        when(userMapper.selectById(testUser.getId())).thenReturn(testUser);
+
+        // When & Then
+        BusinessException exception = assertThrows(BusinessException.class,
+            () -> userService.refreshToken(refreshToken));
+
+        assertEquals(StatusCode.FORBIDDEN, exception.getCode());
+    }
+
+    @Test
+    @DisplayName("退出登录 - 吊销访问Token和刷新Token")
+    void testLogout() {
+        // Given
+        String accessToken = JwtUtils.generateAccessToken(testUser.getId(), "testuser", 60000L);
+        String refreshToken = JwtUtils.generateRefreshToken(testUser.getId(), "testuser", 60000L);
+
+        // When
+        userService.logout(accessToken, refreshToken);
+
+        // Then
+        ArgumentCaptor<JwtUtils.ParsedToken> captor = ArgumentCaptor.forClass(JwtUtils.ParsedToken.class);
+        verify(tokenService, times(2)).revoke(captor.capture());
+        assertTrue(captor.getAllValues().get(0).isAccessToken());
+        assertTrue(captor.getAllValues().get(1).isRefreshToken());
+    }
+
     @Test
     @DisplayName("用户注册 - 成功")
     void testRegister_Success() {
@@ -165,8 +359,8 @@ class UserServiceImplTest {
         when(userMapper.selectCount(any())).thenReturn(0L);
         when(idGenerator.nextId()).thenReturn(1000000000000000002L);
         when(userMapper.insert(any())).thenReturn(1);
-        when(userRelationMapper.countFollowing(anyLong())).thenReturn(0L);
-        when(userRelationMapper.countFollower(anyLong())).thenReturn(0L);
+        when(tokenService.issue(anyLong(), anyString())).thenReturn(tokens());
+        when(userStatsMapper.selectById(anyLong())).thenReturn(stats(0L, 0L));
 
         // When
         LoginResponse response = userService.register(request);
@@ -179,7 +373,9 @@ class UserServiceImplTest {
         
         verify(userMapper, times(1)).insert(any());
         verify(redisService, times(1)).deleteEmailCode(anyString());
-        verify(redisService, times(1)).setUserInfo(anyLong(), any());
+        verify(userStatsMapper, times(1)).insert(any(UserStats.class));
+        verify(userIdBloomFilter, times(1)).add(anyLong());
+        verify(userInfoCacheService, times(1)).put(anyLong(), any());
     }
 
     @Test
@@ -220,6 +416,69 @@ class UserServiceImplTest {
         assertEquals("用户名已存在", exception.getMessage());
     }
 
+    @Test
+    @DisplayName("发送邮箱验证码 - 成功")
+    void testSendEmailCode_Success() {
+        // Given
+        SendCodeRequest request = new SendCodeRequest();
+        request.setEmail("new@example.com");
+
+        when(mailDispatcher.offer(any())).thenReturn(true);
+
+        // When
+        userService.sendEmailCode(request);
+
+        // Then: 先保存验证码再提交邮件
+        ArgumentCaptor<String> code = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<MailMessage> message = ArgumentCaptor.forClass(MailMessage.class);
+        InOrder inOrder = inOrder(redisService, mailDispatcher);
+        inOrder.verify(redisService).replaceEmailCode(eq("new@example.com"), code.capture());
+        inOrder.verify(mailDispatcher).offer(message.capture());
+        assertEquals("new@example.com", message.getValue().getTo());
+        assertTrue(message.getValue().getContent().contains(code.getValue()));
+        verify(redisService, never()).restoreEmailCode(anyString(), anyString(), any());
+    }
+
+    @Test
+    @DisplayName("发送邮箱验证码 - 发送队列已满")
+    void testSendEmailCode_QueueFull() {
+        // Given
+        SendCodeRequest request = new SendCodeRequest();
+        request.setEmail("new@example.com");
+
+        RedisService.EmailCode previous = new RedisService.EmailCode("654321", 120000L);
+        when(redisService.replaceEmailCode(eq("new@example.com"), anyString())).thenReturn(previous);
+        when(mailDispatcher.offer(any())).thenReturn(false);
+
+        // When & Then
+        BusinessException exception = assertThrows(BusinessException.class,
+            () -> userService.sendEmailCode(request));
+
+        assertEquals(StatusCode.SERVICE_UNAVAILABLE, exception.getCode());
+        // 恢复之前发送的验证码（只在当前仍是本次生成的验证码时恢复）
+        ArgumentCaptor<String> code = ArgumentCaptor.forClass(String.class);
+        verify(redisService).replaceEmailCode(eq("new@example.com"), code.capture());
+        verify(redisService).restoreEmailCode("new@example.com", code.getValue(), previous);
+    }
+
+    @Test
+    @DisplayName("发送邮箱验证码 - 验证码未能保存时不发送邮件")
+    void testSendEmailCode_StoreFailed() {
+        // Given
+        SendCodeRequest request = new SendCodeRequest();
+        request.setEmail("new@example.com");
+
+        when(redisService.replaceEmailCode(anyString(), anyString()))
+                .thenThrow(new RedisConnectionFailureException("connection refused"));
+
+        // When & Then
+        BusinessException exception = assertThrows(BusinessException.class,
+            () -> userService.sendEmailCode(request));
+
+        assertEquals(StatusCode.SERVICE_UNAVAILABLE, exception.getCode());
+        verifyNoInteractions(mailDispatcher);
+    }
+
     @Test
     @DisplayName("获取用户信息 - 成功")
     void testGetUserInfo_Success() {
@@ -227,11 +486,10 @@ class UserServiceImplTest {
         Long userId = 1000000000000000001L;
         Long currentUserId = 1000000000000000002L;
 
-        when(redisService.getUserInfo(userId)).thenReturn(null);
+        loadOnCacheMiss(userId);
         when(userMapper.selectById(userId)).thenReturn(testUser);
-        when(userRelationMapper.countFollowing(userId)).thenReturn(10L);
-        when(userRelationMapper.countFollower(userId)).thenReturn(5L);
-        when(userRelationMapper.checkFollowing(currentUserId, userId)).thenReturn(1);
+        when(userStatsMapper.selectById(userId)).thenReturn(stats(10L, 5L));
+        when(redisService.isFollowingIfLoaded(currentUserId, userId)).thenReturn(true);
 
         // When
         UserInfoVO userInfo = userService.getUserInfo(userId, currentUserId);
@@ -244,7 +502,120 @@ class UserServiceImplTest {
         assertEquals(5L, userInfo.getFollowerCount());
         assertTrue(userInfo.getIsFollowing());
         
-        verify(redisService, times(1)).setUserInfo(userId, userInfo);
+    }
+
+    @Test
+    @DisplayName("获取用户信息 - 关注集合未加载时从数据库完整加载到 Redis")
+    void testGetUserInfo_LoadFollowingSet() {
+        // Given
+        Long userId = 1000000000000000001L;
+        Long currentUserId = 1000000000000000002L;
+        List<Long> followingIds = Arrays.asList(userId, 1000000000000000003L);
+
+        loadOnCacheMiss(userId);
+        when(userMapper.selectById(userId)).thenReturn(testUser);
+        when(userStatsMapper.selectById(userId)).thenReturn(stats(10L, 5L));
+        when(userInfoCacheService.getOrLoad(eq(currentUserId), any()))
+                .thenReturn(UserInfoVO.builder().id(currentUserId).followingCount(2L).build());
+        when(redisService.isFollowingIfLoaded(currentUserId, userId)).thenReturn(null);
+        when(userRelationMapper.selectFollowingIds(currentUserId, 5001)).thenReturn(followingIds);
+
+        // When
+        UserInfoVO userInfo = userService.getUserInfo(userId, currentUserId);
+
+        // Then
+        assertTrue(userInfo.getIsFollowing());
+        verify(redisService, times(1)).loadFollowing(currentUserId, followingIds, 86400L);
+        verify(userRelationMapper, never()).checkFollowing(any(), any());
+    }
+
+    @Test
+    @DisplayName("获取用户信息 - 关注数超出缓存上限时直接查询数据库")
+    void testGetUserInfo_FollowingSetTooLarge() {
+        // Given
+        Long userId = 1000000000000000001L;
+        Long currentUserId = 1000000000000000002L;
+
+        loadOnCacheMiss(userId);
+        when(userMapper.selectById(userId)).thenReturn(testUser);
+        when(userStatsMapper.selectById(userId)).thenReturn(stats(10L, 5L));
+        when(userInfoCacheService.getOrLoad(eq(currentUserId), any()))
+                .thenReturn(UserInfoVO.builder().id(currentUserId).followingCount(10000L).build());
+        when(redisService.isFollowingIfLoaded(currentUserId, userId)).thenReturn(null);
+        when(userRelationMapper.checkFollowing(currentUserId, userId)).thenReturn(1);
+
+        // When
+        UserInfoVO userInfo = userService.getUserInfo(userId, currentUserId);
+
+        // Then
+        assertTrue(userInfo.getIsFollowing());
+        verify(userRelationMapper, never()).selectFollowingIds(any(), anyInt());
+        verify(redisService, never()).loadFollowing(any(), any(), anyLong());
+    }
+
+    @Test
+    @DisplayName("获取用户信息 - 统计数据不存在时按关系表初始化")
+    void testGetUserInfo_InitStatsWhenMissing() {
+        // Given
+        Long userId = 1000000000000000001L;
+
+        loadOnCacheMiss(userId);
+        when(userMapper.selectById(userId)).thenReturn(testUser);
+        when(userStatsMapper.selectById(userId)).thenReturn(null, stats(3L, 7L));
+
+        // When
+        UserInfoVO userInfo = userService.getUserInfo(userId, null);
+
+        // Then
+        assertEquals(3L, userInfo.getFollowingCount());
+        assertEquals(7L, userInfo.getFollowerCount());
+        verify(userStatsMapper, times(1)).initStats(userId);
+    }
+
+    @Test
+    @DisplayName("获取用户信息 - 缓存命中时不修改缓存对象")
+    void testGetUserInfo_CacheHitIsNotMutated() {
+        // Given
+        Long userId = 1000000000000000001L;
+        Long currentUserId = 1000000000000000002L;
+        UserInfoVO cached = UserInfoVO.builder().id(userId).username("testuser").isFollowing(false).build();
+
+        when(userIdBloomFilter.mightContain(userId)).thenReturn(true);
+        when(userInfoCacheService.getOrLoad(eq(userId), any())).thenReturn(cached);
+        when(redisService.isFollowingIfLoaded(currentUserId, userId)).thenReturn(true);
+
+        // When
+        UserInfoVO userInfo = userService.getUserInfo(userId, currentUserId);
+
+        // Then
+        assertTrue(userInfo.getIsFollowing());
+        assertFalse(cached.getIsFollowing());
+        verify(userMapper, never()).selectById(any());
+    }
+
+    @Test
+    @DisplayName("获取用户信息 - 查询自己时不判断关注，isFollowing 与批量查询一致为 false")
+    void testGetUserInfo_Self() {
+        // Given: 缓存中的对象未设置 isFollowing
+        Long userId = testUser.getId();
+        UserInfoVO cached = UserInfoVO.builder().id(userId).username("testuser").build();
+
+        when(userIdBloomFilter.mightContain(userId)).thenReturn(true);
+        when(userInfoCacheService.getOrLoad(eq(userId), any())).thenReturn(cached);
+        when(userInfoCacheService.getAll(anyCollection(), any()))
+                .thenReturn(Collections.singletonMap(userId, cached));
+
+        // When
+        UserInfoVO single = userService.getUserInfo(userId, userId);
+        UserInfoVO anonymous = userService.getUserInfo(userId, null);
+        List<UserInfoVO> batch = userService.getUserInfos(Collections.singletonList(userId), userId);
+
+        // Then
+        assertEquals(Boolean.FALSE, single.getIsFollowing());
+        assertEquals(Boolean.FALSE, anonymous.getIsFollowing());
+        assertEquals(Boolean.FALSE, batch.get(0).getIsFollowing());
+        assertNull(cached.getIsFollowing());
+        verifyNoInteractions(redisService, userRelationMapper);
     }
 
     @Test
@@ -253,7 +624,7 @@ class UserServiceImplTest {
         // Given
         Long userId = 999L;
 
-        when(redisService.getUserInfo(userId)).thenReturn(null);
+        loadOnCacheMiss(userId);
         when(userMapper.selectById(userId)).thenReturn(null);
 
         // When & Then
@@ -264,6 +635,68 @@ class UserServiceImplTest {
         assertEquals("用户不存在", exception.getMessage());
     }
 
+    @Test
+    @DisplayName("获取用户信息 - 布隆过滤器拦截不存在的ID")
+    void testGetUserInfo_RejectedByBloomFilter() {
+        // Given
+        Long userId = 999L;
+
+        when(userIdBloomFilter.mightContain(userId)).thenReturn(false);
+
+        // When & Then
+        BusinessException exception = assertThrows(BusinessException.class,
+            () -> userService.getUserInfo(userId, null));
+
+        assertEquals(StatusCode.NOT_FOUND, exception.getCode());
+        verifyNoInteractions(userInfoCacheService, userMapper);
+    }
+
+    @Test
+    @DisplayName("批量获取用户信息 - 按请求顺序返回并跳过不存在的用户")
+    @SuppressWarnings("unchecked")
+    void testGetUserInfos_Success() {
+        // Given
+        Long userId = testUser.getId();
+        Long missingId = 999L;
+        Long currentUserId = 1000000000000000002L;
+
+        when(userIdBloomFilter.mightContain(anyLong())).thenReturn(true);
+        when(userInfoCacheService.getAll(anyCollection(), any())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return ((Function<Collection<Long>, Map<Long, UserInfoVO>>) invocation.getArgument(1)).apply(ids);
+        });
+        when(userMapper.selectBatchIds(anyCollection())).thenReturn(Collections.singletonList(testUser));
+        when(userStatsMapper.selectBatchIds(anyCollection())).thenReturn(Collections.singletonList(stats(10L, 5L)));
+        when(redisService.filterFollowingIfLoaded(eq(currentUserId), anyCollection())).thenReturn(Collections.singleton(userId));
+
+        // When
+        List<UserInfoVO> userInfos = userService.getUserInfos(Arrays.asList(missingId, userId, userId), currentUserId);
+
+        // Then
+        assertEquals(1, userInfos.size());
+        assertEquals(userId, userInfos.get(0).getId());
+        assertEquals(10L, userInfos.get(0).getFollowingCount());
+        assertTrue(userInfos.get(0).getIsFollowing());
+        verify(userMapper, never()).selectById(any());
+    }
+
+    @Test
+    @DisplayName("批量获取用户信息 - 超过单次数量上限")
+    void testGetUserInfos_TooMany() {
+        // Given
+        List<Long> ids = new ArrayList<>();
+        for (long i = 1; i <= UserService.MAX_BATCH_SIZE + 1; i++) {
+            ids.add(i);
+        }
+
+        // When & Then
+        BusinessException exception = assertThrows(BusinessException.class,
+            () -> userService.getUserInfos(ids, null));
+
+        assertEquals(StatusCode.BAD_REQUEST, exception.getCode());
+        verifyNoInteractions(userInfoCacheService);
+    }
+
     @Test
     @DisplayName("更新用户信息 - 成功")
     void testUpdateUserInfo_Success() {
@@ -276,8 +709,7 @@ class UserServiceImplTest {
 
         when(userMapper.selectById(userId)).thenReturn(testUser);
         when(userMapper.updateById(any())).thenReturn(1);
-        when(userRelationMapper.countFollowing(userId)).thenReturn(10L);
-        when(userRelationMapper.countFollower(userId)).thenReturn(5L);
+        when(userStatsMapper.selectById(userId)).thenReturn(stats(10L, 5L));
 
         // When
         UserInfoVO userInfo = userService.updateUserInfo(userId, request);
@@ -289,7 +721,7 @@ class UserServiceImplTest {
         assertEquals("新的个人简介", userInfo.getBio());
         
         verify(userMapper, times(1)).updateById(any());
-        verify(redisService, times(1)).deleteUserInfo(userId);
+        verify(userInfoCacheService, times(1)).evict(userId);
     }
 
     @Test
@@ -303,6 +735,7 @@ class UserServiceImplTest {
         followingUser.setId(followingId);
         followingUser.setDeleted(0);
 
+        executeTransactionsInline();
         when(userMapper.selectById(followingId)).thenReturn(followingUser);
         when(userRelationMapper.selectCount(any())).thenReturn(0L);
         when(idGenerator.nextId()).thenReturn(1L);
@@ -313,9 +746,15 @@ class UserServiceImplTest {
 
         // Then
         verify(userRelationMapper, times(1)).insert(any());
+        verify(userStatsMapper, times(1)).incrFollowingCount(followerId, 1);
+        verify(userStatsMapper, times(1)).incrFollowerCount(followingId, 1);
         verify(redisService, times(1)).addFollowing(followerId, followingId);
-        verify(redisService, times(1)).deleteUserInfo(followerId);
-        verify(redisService, times(1)).deleteUserInfo(followingId);
+        verify(redisService, times(1)).addToFollowList(eq(RedisService.FollowList.FOLLOWING), eq(followerId),
+                endsWith(":" + followingId), anyInt());
+        verify(redisService, times(1)).addToFollowList(eq(RedisService.FollowList.FOLLOWER), eq(followingId),
+                endsWith(":" + followerId), anyInt());
+        verify(userInfoCacheService, times(1)).evict(followerId);
+        verify(userInfoCacheService, times(1)).evict(followingId);
     }
 
     @Test
@@ -343,6 +782,7 @@ class UserServiceImplTest {
         followingUser.setId(followingId);
         followingUser.setDeleted(0);
 
+        executeTransactionsInline();
         when(userMapper.selectById(followingId)).thenReturn(followingUser);
         when(userRelationMapper.selectCount(any())).thenReturn(1L);
 
@@ -365,8 +805,10 @@ class UserServiceImplTest {
                 .id(1L)
                 .followerId(followerId)
                 .followingId(followingId)
+                .createdAt(LocalDateTime.of(2024, 1, 1, 12, 0, 0))
                 .build();
 
+        executeTransactionsInline();
         when(userRelationMapper.selectOne(any())).thenReturn(relation);
         when(userRelationMapper.deleteById(anyLong())).thenReturn(1);
 
@@ -375,9 +817,173 @@ class UserServiceImplTest {
 
         // Then
         verify(userRelationMapper, times(1)).deleteById(1L);
+        verify(redisService, times(1)).removeFromFollowList(RedisService.FollowList.FOLLOWING, followerId,
+                "20240101120000" + "0000000000000000001" + ":" + followingId);
+        verify(userStatsMapper, times(1)).incrFollowingCount(followerId, -1);
+        verify(userStatsMapper, times(1)).incrFollowerCount(followingId, -1);
+        verify(redisService, times(1)).removeFollowing(followerId, followingId);
+        verify(userInfoCacheService, times(1)).evict(followerId);
+        verify(userInfoCacheService, times(1)).evict(followingId);
+    }
+
+    @Test
+    @DisplayName("关注用户 - 异步写入模式只写 Redis 并发送事件")
+    void testFollowUser_Async() {
+        // Given
+        Long followerId = 1000000000000000001L;
+        Long followingId = 1000000000000000002L;
+        followProperties.setWriteMode(FollowProperties.WriteMode.ASYNC);
+
+        when(userIdBloomFilter.mightContain(followingId)).thenReturn(true);
+        when(userInfoCacheService.getOrLoad(eq(followingId), any())).thenReturn(UserInfoVO.builder().id(followingId).build());
+        when(redisService.isFollowingLoaded(followerId)).thenReturn(true);
+        when(redisService.addFollowingIfAbsent(followerId, followingId)).thenReturn(true);
+        when(idGenerator.nextId()).thenReturn(1L);
+
+        // When
+        userService.followUser(followerId, followingId);
+
+        // Then
+        verify(followEventProducer, times(1)).send(argThat(event -> event.getType() == FollowEvent.Type.FOLLOW
+                && event.getRelationId() == 1L && event.getFollowingId().equals(followingId)));
+        verifyNoInteractions(transactionTemplate, userRelationMapper, userStatsMapper);
+    }
+
+    @Test
+    @DisplayName("关注用户 - 异步写入模式事件发送失败时撤销 Redis 中的关注")
+    void testFollowUser_AsyncSendFailed() {
+        // Given
+        Long followerId = 1000000000000000001L;
+        Long followingId = 1000000000000000002L;
+        followProperties.setWriteMode(FollowProperties.WriteMode.ASYNC);
+
+        when(userIdBloomFilter.mightContain(followingId)).thenReturn(true);
+        when(userInfoCacheService.getOrLoad(eq(followingId), any())).thenReturn(UserInfoVO.builder().id(followingId).build());
+        when(redisService.isFollowingLoaded(followerId)).thenReturn(true);
+        when(redisService.addFollowingIfAbsent(followerId, followingId)).thenReturn(true);
+        when(idGenerator.nextId()).thenReturn(1L);
+        doThrow(new BusinessException(StatusCode.SERVICE_UNAVAILABLE, "服务繁忙，请稍后重试"))
+                .when(followEventProducer).send(any());
+
+        // When & Then
+        BusinessException exception = assertThrows(BusinessException.class,
+            () -> userService.followUser(followerId, followingId));
+
+        assertEquals(StatusCode.SERVICE_UNAVAILABLE, exception.getCode());
         verify(redisService, times(1)).removeFollowing(followerId, followingId);
-        verify(redisService, times(1)).deleteUserInfo(followerId);
-        verify(redisService, times(1)).deleteUserInfo(followingId);
+    }
+
+    @Test
+    @DisplayName("取消关注用户 - 异步写入模式下未关注")
+    void testUnfollowUser_AsyncNotFollowed() {
+        // Given
+        Long followerId = 1000000000000000001L;
+        Long followingId = 1000000000000000002L;
+        followProperties.setWriteMode(FollowProperties.WriteMode.ASYNC);
+
+        when(redisService.isFollowingLoaded(followerId)).thenReturn(true);
+        when(redisService.removeFollowingIfPresent(followerId, followingId)).thenReturn(false);
+
+        // When & Then
+        BusinessException exception = assertThrows(BusinessException.class,
+            () -> userService.unfollowUser(followerId, followingId));
+
+        assertEquals("未关注该用户", exception.getMessage());
+        verify(userRelationMapper, never()).checkFollowing(any(), any());
+        verifyNoInteractions(followEventProducer);
+    }
+
+    @Test
+    @DisplayName("关注列表 - 缓存不存在时从数据库重建并按游标分页")
+    void testListFollowing_RebuildCacheFromDatabase() {
+        // Given
+        Long userId = 1000000000000000002L;
+        LocalDateTime followedAt = LocalDateTime.of(2024, 1, 1, 12, 0, 0);
+        UserRelation newer = UserRelation.builder().id(2L).followerId(userId)
+                .followingId(testUser.getId()).createdAt(followedAt).build();
+        UserRelation older = UserRelation.builder().id(1L).followerId(userId)
+                .followingId(1000000000000000003L).createdAt(followedAt).build();
+
+        when(redisService.rangeFollowList(RedisService.FollowList.FOLLOWING, userId, null, 2))
+                .thenReturn(Collections.emptyList());
+        when(userRelationMapper.selectFollowingPage(userId, null, null, 1001)).thenReturn(Arrays.asList(newer, older));
+        when(userIdBloomFilter.mightContain(anyLong())).thenReturn(true);
+        when(userInfoCacheService.getAll(anyCollection(), any()))
+                .thenReturn(Collections.singletonMap(testUser.getId(), UserInfoVO.builder().id(testUser.getId()).build()));
+
+        // When
+        FollowPageVO page = userService.listFollowing(userId, null, 1, null);
+
+        // Then
+        assertEquals(1, page.getList().size());
+        assertEquals(testUser.getId(), page.getList().get(0).getId());
+        assertTrue(page.getHasMore());
+        assertEquals("20240101120000" + "0000000000000000002", page.getNextCursor());
+        verify(redisService, times(1)).initFollowList(eq(RedisService.FollowList.FOLLOWING), eq(userId),
+                argThat(members -> members.size() == 2), eq(true), anyLong());
+    }
+
+    @Test
+    @DisplayName("关注列表 - 游标超出缓存范围时按游标查询数据库")
+    void testListFollowing_CursorBeyondCache() {
+        // Given
+        Long userId = 1000000000000000002L;
+        String cursor = "20240101120000" + "0000000000000000002";
+
+        when(redisService.rangeFollowList(RedisService.FollowList.FOLLOWING, userId, cursor, 21))
+                .thenReturn(Collections.emptyList());
+        when(userRelationMapper.selectFollowingPage(userId, LocalDateTime.of(2024, 1, 1, 12, 0, 0), 2L, 21))
+                .thenReturn(Collections.emptyList());
+
+        // When
+        FollowPageVO page = userService.listFollowing(userId, cursor, null, null);
+
+        // Then
+        assertTrue(page.getList().isEmpty());
+        assertFalse(page.getHasMore());
+        assertNull(page.getNextCursor());
+        verify(redisService, never()).initFollowList(any(), any(), any(), anyBoolean(), anyLong());
+    }
+
+    @Test
+    @DisplayName("关注列表 - 无效的游标")
+    void testListFollowing_InvalidCursor() {
+        // When & Then
+        BusinessException exception = assertThrows(BusinessException.class,
+            () -> userService.listFollowing(1L, "abc", 20, null));
+
+        assertEquals(StatusCode.BAD_REQUEST, exception.getCode());
+        verifyNoInteractions(userRelationMapper);
+    }
+
+    @Test
+    @DisplayName("关注列表 - 游标中的日期不存在")
+    void testListFollowing_CursorInvalidDate() {
+        // Given: 13月
+        String cursor = "20241301120000" + "0000000000000000002";
+
+        // When & Then
+        BusinessException exception = assertThrows(BusinessException.class,
+            () -> userService.listFollowing(1L, cursor, 20, null));
+
+        assertEquals(StatusCode.BAD_REQUEST, exception.getCode());
+        assertEquals("无效的分页游标", exception.getMessage());
+        verifyNoInteractions(redisService, userRelationMapper);
+    }
+
+    @Test
+    @DisplayName("关注列表 - 游标中的关系ID超出范围")
+    void testListFollowers_CursorIdOverflow() {
+        // Given: 19位但大于 Long.MAX_VALUE
+        String cursor = "20240101120000" + "9999999999999999999";
+
+        // When & Then
+        BusinessException exception = assertThrows(BusinessException.class,
+            () -> userService.listFollowers(1L, cursor, 20, null));
+
+        assertEquals(StatusCode.BAD_REQUEST, exception.getCode());
+        assertEquals("无效的分页游标", exception.getMessage());
+        verifyNoInteractions(redisService, userRelationMapper);
     }
 
     @Test
@@ -398,7 +1004,34 @@ class UserServiceImplTest {
 
         // Then
         verify(userMapper, times(1)).updateById(any());
-        verify(redisService, times(1)).deleteUserInfo(userId);
+        verify(userInfoCacheService, times(1)).evict(userId);
+        verify(tokenService, times(1)).revokeAll(userId);
+    }
+
+    @Test
+    @DisplayName("修改密码 - 事务提交后才吊销全部Token")
+    void testChangePassword_RevokeAfterCommit() {
+        // Given
+        Long userId = 1000000000000000001L;
+        ChangePasswordRequest request = new ChangePasswordRequest();
+        request.setOldPassword("123456");
+        request.setNewPassword("newPass123");
+        request.setConfirmPassword("newPass123");
+
+        when(userMapper.selectById(userId)).thenReturn(testUser);
+        when(userMapper.updateById(any())).thenReturn(1);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // When
+            userService.changePassword(userId, request);
+
+            // Then: 提交前不吊销，提交后吊销
+            verify(tokenService, never()).revokeAll(any());
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            verify(tokenService, times(1)).revokeAll(userId);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
     }
 
     @Test
@@ -456,4 +1089,53 @@ class UserServiceImplTest {
         assertEquals(StatusCode.BAD_REQUEST, exception.getCode());
         assertEquals("新密码不能与旧密码相同", exception.getMessage());
     }
+
+    /**
+     * 模拟缓存未命中：直接调用加载器从数据库加载
+     */
+    @SuppressWarnings("unchecked")
+    private void loadOnCacheMiss(Long userId) {
+        when(userIdBloomFilter.mightContain(userId)).thenReturn(true);
+        when(userInfoCacheService.getOrLoad(eq(userId), any()))
+                .thenAnswer(invocation -> ((Function<Long, UserInfoVO>) invocation.getArgument(1)).apply(userId));
+    }
+
+    private LoginResponse tokens() {
+        return LoginResponse.builder()
+                .token("access")
+                .refreshToken("refresh")
+                .expiresIn(1800L)
+                .build();
+    }
+
+    private UserStats stats(Long followingCount, Long followerCount) {
+        return UserStats.builder()
+                .userId(testUser.getId())
+                .followingCount(followingCount)
+                .followerCount(followerCount)
+                .build();
+    }
+
+    /**
+     * 模拟刷新Token换发：调用用户检查逻辑，用户可用时返回 {@link #tokens()}
+     */
+    @SuppressWarnings("unchecked")
+    private void rotateWithUserLoader(String refreshToken) {
+        when(tokenService.rotate(eq(refreshToken), any())).thenAnswer(invocation -> {
+            Long userId = JwtUtils.parseToken(refreshToken).getUserId();
+            assertEquals("testuser", ((Function<Long, String>) invocation.getArgument(1)).apply(userId));
+            return tokens();
+        });
+    }
+
+    /**
+     * 模拟事务模板：直接执行事务中的逻辑
+     */
+    @SuppressWarnings("unchecked")
+    private void executeTransactionsInline() {
+        doAnswer(invocation -> {
+            ((Consumer<TransactionStatus>) invocation.getArgument(0)).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
 }
@@ -40,7 +40,13 @@ export interface LoginRequest {
  * 登录响应
  */
 export interface LoginResponse {
+  /** 访问令牌 */
   token: string
+  /** 刷新令牌（每次刷新后换发新的刷新令牌） */
+  refreshToken: string
+  /** 访问令牌有效期（秒） */
+  expiresIn: number
+  /** 用户信息（刷新Token时不返回） */
   userInfo: UserInfoVO
 }
 
@@ -105,6 +111,20 @@ export const sendEmailCode = (data: SendCodeRequest) => {
   return request.post<ApiResponse<void>>('/api/user/auth/send-code', data)
 }
 
+/**
+ * 刷新Token
+ */
+export const refreshToken = (refreshToken: string) => {
+  return request.post<ApiResponse<LoginResponse>>('/api/user/auth/refresh', { refreshToken })
+}
+
+/**
+ * 退出登录（吊销当前的访问令牌和刷新令牌）
+ */
+export const logout = (refreshToken?: string) => {
+  return request.post<ApiResponse<void>>('/api/user/auth/logout', { refreshToken })
+}
+
 /**
  * 修改密码
  */
@@ -9,6 +9,8 @@ interface UserState {
   userInfo: UserInfoVO | null
   /** 访问令牌 */
   accessToken: string
+  /** 刷新令牌 */
+  refreshToken: string
   /** 是否已登录 */
   isLogin: boolean
 }
@@ -33,7 +35,7 @@ interface UserGetters {
 interface UserActions {
   setLoginInfo(data: LoginResponse): void
   setUserInfo(userInfo: UserInfoVO): void
-  setToken(accessToken: string): void
+  setToken(accessToken: string, refreshToken?: string): void
   updateAvatar(avatar: string): void
   updateNickname(nickname: string): void
   logout(): void
@@ -46,6 +48,7 @@ export const useUserStore = defineStore<'user', UserState, UserGetters, UserActi
   state: (): UserState => ({
     userInfo: null,
     accessToken: '',
+    refreshToken: '',
     isLogin: false
   }),
 
@@ -107,6 +110,7 @@ export const useUserStore = defineStore<'user', UserState, UserGetters, UserActi
     setLoginInfo(data: LoginResponse): void {
       this.userInfo = data.userInfo
       this.accessToken = data.token
+      this.refreshToken = data.refreshToken
       this.isLogin = true
     },
 
@@ -120,8 +124,11 @@ export const useUserStore = defineStore<'user', UserState, UserGetters, UserActi
     /**
      * 更新Token
      */
-    setToken(accessToken: string): void {
+    setToken(accessToken: string, refreshToken?: string): void {
       this.accessToken = accessToken
+      if (refreshToken) {
+        this.refreshToken = refreshToken
+      }
     },
 
     /**
@@ -148,6 +155,7 @@ export const useUserStore = defineStore<'user', UserState, UserGetters, UserActi
     logout(): void {
       this.userInfo = null
       this.accessToken = ''
+      this.refreshToken = ''
       this.isLogin = false
     }
   },
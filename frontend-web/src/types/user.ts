@@ -50,7 +50,13 @@ export interface LoginRequest {
  * 登录响应
  */
 export interface LoginResponse {
+  /** 访问令牌 */
   token: string
+  /** 刷新令牌（每次刷新后换发新的刷新令牌） */
+  refreshToken: string
+  /** 访问令牌有效期（秒） */
+  expiresIn: number
+  /** 用户信息（刷新Token时不返回） */
   userInfo: UserInfoVO
 }
 
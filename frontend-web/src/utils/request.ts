@@ -1,4 +1,9 @@
-import axios, { type AxiosInstance, type AxiosRequestConfig, type AxiosResponse } from 'axios'
+import axios, {
+  type AxiosInstance,
+  type AxiosRequestConfig,
+  type AxiosResponse,
+  type InternalAxiosRequestConfig
+} from 'axios'
 import { ElMessage } from 'element-plus'
 import { useUserStore } from '@/store/user'
 import router from '@/router'
@@ -12,6 +17,82 @@ const service: AxiosInstance = axios.create({
   }
 })
 
+/**
+ * 带重试标记的请求配置（每个请求最多因Token过期重试一次）
+ */
+type RetryableRequestConfig = InternalAxiosRequestConfig & { _retry?: boolean }
+
+/**
+ * 不触发Token刷新的认证接口
+ */
+const NO_REFRESH_URLS = [
+  '/api/user/auth/login',
+  '/api/user/auth/register',
+  '/api/user/auth/refresh',
+  '/api/user/auth/logout'
+]
+
+/**
+ * 进行中的Token刷新（并发的401请求共用同一次刷新，刷新Token只能使用一次）
+ */
+let refreshing: Promise<string> | null = null
+
+/**
+ * 使用刷新令牌换取新的访问令牌
+ */
+const refreshAccessToken = (): Promise<string> => {
+  if (!refreshing) {
+    const userStore = useUserStore()
+    refreshing = axios
+      .post('/api/user/auth/refresh', { refreshToken: userStore.refreshToken })
+      .then(({ data: res }) => {
+        if (res.code !== 200) {
+          throw new Error(res.message || '刷新Token失败')
+        }
+        userStore.setToken(res.data.token, res.data.refreshToken)
+        return res.data.token as string
+      })
+      .finally(() => {
+        refreshing = null
+      })
+  }
+  return refreshing
+}
+
+/**
+ * 清除登录状态并跳转到登录页
+ */
+const expireLogin = () => {
+  const userStore = useUserStore()
+  userStore.logout()
+  router.push('/login')
+}
+
+/**
+ * 处理401：访问令牌过期时刷新后重试原请求，无法刷新时退出登录
+ *
+ * @returns 可以刷新时返回重试结果，否则返回 null
+ */
+const retryAfterRefresh = (config?: RetryableRequestConfig): Promise<any> | null => {
+  const userStore = useUserStore()
+  if (!config || config._retry || !userStore.refreshToken
+    || NO_REFRESH_URLS.some((url) => config.url?.startsWith(url))) {
+    return null
+  }
+  config._retry = true
+  return refreshAccessToken().then(
+    (token) => {
+      config.headers.Authorization = `Bearer ${token}`
+      return service(config)
+    },
+    (error) => {
+      ElMessage.error('登录已过期，请重新登录')
+      expireLogin()
+      return Promise.reject(error)
+    }
+  )
+}
+
 // 请求拦截器
 service.interceptors.request.use(
   (config) => {
@@ -45,21 +126,32 @@ service.interceptors.response.use(
 
     // 如果返回的状态码不是200，说明接口异常
     if (res.code !== 200) {
-      ElMessage.error(res.message || '请求失败')
-      
-      // 401: Token过期或未授权
+      // 401: Token过期或未授权，先尝试刷新Token
       if (res.code === 401) {
-        const userStore = useUserStore()
-        userStore.logout()
-        router.push('/login')
+        const retry = retryAfterRefresh(response.config)
+        if (retry) {
+          return retry
+        }
+        ElMessage.error(res.message || '请求失败')
+        expireLogin()
+        return Promise.reject(new Error(res.message || 'Error'))
       }
-      
+
+      ElMessage.error(res.message || '请求失败')
       return Promise.reject(new Error(res.message || 'Error'))
     }
     
     return res
   },
   (error) => {
+    // 401: 访问令牌过期，先尝试刷新Token
+    if (error.response?.status === 401) {
+      const retry = retryAfterRefresh(error.config)
+      if (retry) {
+        return retry
+      }
+    }
+
     console.error('Response error:', error)
     
     let message = '请求失败'
@@ -68,9 +160,7 @@ service.interceptors.response.use(
       switch (error.response.status) {
         case 401:
           message = '未授权，请重新登录'
-          const userStore = useUserStore()
-          userStore.logout()
-          router.push('/login')
+          expireLogin()
           break
         case 403:
           message = '拒绝访问'